@@ -1,8 +1,12 @@
 package gtc.dcc.put0.core.data;
 
+import android.os.SystemClock;
+
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.game.core.wire.WireAction;
+
 import gtc.dcc.put0.core.data.model.CreateRoomRequest;
 import gtc.dcc.put0.core.data.model.GameState;
 import gtc.dcc.put0.core.data.model.JoinRoomRequest;
@@ -18,6 +22,14 @@ import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
 
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class GameRepository implements GameWebSocketManager.GameStateListener {
     private static GameRepository instance;
 
@@ -34,6 +46,20 @@ public class GameRepository implements GameWebSocketManager.GameStateListener {
     private final MutableLiveData<String> _currentGameId = new MutableLiveData<>();
     private final MutableLiveData<String> _currentPlayerId = new MutableLiveData<>();
 
+    // Actions sent to the server and not seen in an update yet, for round-trip logging.
+    // Ids are unique to this app run, since every player of the game sees them echoed.
+    private final String actionIdPrefix = UUID.randomUUID().toString().substring(0, 8) + "-";
+    private final AtomicInteger actionSequence = new AtomicInteger();
+    private final Map<String, SentAction> sentActions = new ConcurrentHashMap<>();
+
+    // Commands are numbered so that the server runs each one once: those not acknowledged
+    // yet are sent again, in order, after a reconnect. Each expects the version the one
+    // before it should produce, so several can be in flight at once.
+    private final String commandSession = UUID.randomUUID().toString();
+    private final AtomicLong commandSeq = new AtomicLong();
+    private final NavigableMap<Long, PendingCommand> pendingCommands = new ConcurrentSkipListMap<>();
+    private long predictedVersion = -1;
+
     private GameRepository() {
         webSocketManager = new GameWebSocketManager();
         webSocketManager.addListener(this);
@@ -173,6 +199,9 @@ public class GameRepository implements GameWebSocketManager.GameStateListener {
         _currentGameId.postValue(null);
         _currentPlayerId.postValue(null);
         _error.postValue(null);
+        sentActions.clear();
+        pendingCommands.clear();
+        predictedVersion = -1;
         CoreLogger.i("Local game state cleared");
     }
 
@@ -180,7 +209,7 @@ public class GameRepository implements GameWebSocketManager.GameStateListener {
         _currentGameId.setValue(room.getGameId());
         _currentPlayerId.setValue(room.getPlayerId());
         _gameState.setValue(room.getGameState());
-        webSocketManager.connect(room.getGameId());
+        webSocketManager.connect(room.getGameId(), room.getPlayerId());
     }
 
     // --- WebSocket Actions ---
@@ -195,8 +224,8 @@ public class GameRepository implements GameWebSocketManager.GameStateListener {
             return;
         }
 
-        GameAction action = new GameAction(_currentGameId.getValue(), playerId, card);
-        webSocketManager.send("/app/game/play", action);
+        GameAction action = new GameAction(_currentGameId.getValue(), playerId, card, trackAction("play"));
+        sendCommand("/app/game/play", action, WireAction.Kind.PLAY, java.util.Collections.singletonList(card));
     }
 
     public void playCards(String playerId, java.util.List<Card> cards) {
@@ -215,10 +244,10 @@ public class GameRepository implements GameWebSocketManager.GameStateListener {
             return;
         }
 
-        // For remote, we attempt to send the list.
-        GameAction action = new GameAction(_currentGameId.getValue(), playerId, cards.get(0));
+        // One message and one update for the whole throw
+        GameAction action = new GameAction(_currentGameId.getValue(), playerId, null, trackAction("playMany"));
         action.cards = cards;
-        webSocketManager.send("/app/game/play", action);
+        sendCommand("/app/game/playMany", action, WireAction.Kind.PLAY, cards);
     }
 
     public void drawCard(String playerId) {
@@ -231,8 +260,8 @@ public class GameRepository implements GameWebSocketManager.GameStateListener {
             return;
         }
 
-        GameAction action = new GameAction(_currentGameId.getValue(), playerId, null);
-        webSocketManager.send("/app/game/draw", action);
+        GameAction action = new GameAction(_currentGameId.getValue(), playerId, null, trackAction("draw"));
+        sendCommand("/app/game/draw", action, WireAction.Kind.DRAW, java.util.Collections.emptyList());
     }
 
     public void collectTable(String playerId) {
@@ -245,8 +274,8 @@ public class GameRepository implements GameWebSocketManager.GameStateListener {
             return;
         }
 
-        GameAction action = new GameAction(_currentGameId.getValue(), playerId, null);
-        webSocketManager.send("/app/game/collect", action);
+        GameAction action = new GameAction(_currentGameId.getValue(), playerId, null, trackAction("collect"));
+        sendCommand("/app/game/collect", action, WireAction.Kind.COLLECT, java.util.Collections.emptyList());
     }
 
     @Override
@@ -254,17 +283,119 @@ public class GameRepository implements GameWebSocketManager.GameStateListener {
         _gameState.postValue(gameState);
     }
 
+    @Override
+    public void onActionEchoed(String actionId) {
+        SentAction sent = sentActions.remove(actionId);
+        if (sent != null) {
+            CoreLogger.i("[LATENCY] " + sent.kind + " " + actionId + ": "
+                    + (SystemClock.elapsedRealtime() - sent.sentAtElapsed) + " ms round trip");
+        }
+    }
+
+    @Override
+    public void onCommandAcked(GameWebSocketManager.CommandAck ack) {
+        if (!commandSession.equals(ack.sessionId) || pendingCommands.remove(ack.clientSeq) == null) {
+            return;
+        }
+        if (!"APPLIED".equals(ack.status)) {
+            // Commands sent after this one expected its version and come back stale too
+            CoreLogger.w("[ACK] Command " + ack.clientSeq + " " + ack.status + " at v" + ack.version + ": "
+                    + ack.message);
+        }
+    }
+
+    @Override
+    public void onSubscribed() {
+        for (PendingCommand command : pendingCommands.values()) {
+            CoreLogger.i("[ACK] Resending command " + command.action.clientSeq);
+            webSocketManager.sendAction(command.endpoint, command.action, command.wire);
+        }
+    }
+
+    private void sendCommand(String endpoint, GameAction action, WireAction.Kind kind, java.util.List<Card> cards) {
+        action.sessionId = commandSession;
+        action.clientSeq = commandSeq.incrementAndGet();
+        action.expectedVersion = nextExpectedVersion();
+        WireAction wire = wireAction(kind, action.playerId, cards, action);
+        pendingCommands.put(action.clientSeq, new PendingCommand(endpoint, action, wire));
+        webSocketManager.sendAction(endpoint, action, wire);
+    }
+
+    // The version the next command should find: the one last received, or the one
+    // the commands still in flight should lead to. Null (any) before the first snapshot.
+    private Long nextExpectedVersion() {
+        long known = webSocketManager.getCurrentVersion();
+        if (known < 0) {
+            return null;
+        }
+        long expected = pendingCommands.isEmpty() ? known : Math.max(known, predictedVersion);
+        predictedVersion = expected + 1;
+        return expected;
+    }
+
+    private WireAction wireAction(WireAction.Kind kind, String playerId, java.util.List<Card> cards,
+            GameAction action) {
+        int[] ids = new int[cards.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = GameMapper.toCoreCard(cards.get(i)).getId();
+        }
+        WireAction wire = new WireAction(kind, _currentGameId.getValue(), playerId, ids);
+        wire.setActionId(action.actionId);
+        wire.setSentAt(action.sentAt);
+        wire.setSessionId(action.sessionId);
+        wire.setClientSeq(action.clientSeq);
+        wire.setExpectedVersion(action.expectedVersion != null ? action.expectedVersion : -1);
+        return wire;
+    }
+
+    private String trackAction(String kind) {
+        String actionId = actionIdPrefix + actionSequence.incrementAndGet();
+        sentActions.put(actionId, new SentAction(kind, SystemClock.elapsedRealtime()));
+        return actionId;
+    }
+
+    private static class SentAction {
+        final String kind;
+        final long sentAtElapsed;
+
+        SentAction(String kind, long sentAtElapsed) {
+            this.kind = kind;
+            this.sentAtElapsed = sentAtElapsed;
+        }
+    }
+
+    private static class PendingCommand {
+        final String endpoint;
+        final GameAction action;
+        final WireAction wire;
+
+        PendingCommand(String endpoint, GameAction action, WireAction wire) {
+            this.endpoint = endpoint;
+            this.action = action;
+            this.wire = wire;
+        }
+    }
+
     // DTO
     private static class GameAction {
         String gameId;
         String playerId;
         Card card;
         java.util.List<Card> cards;
-
-        GameAction(String gameId, String playerId, Card card) {
+        // Echoed by the server in the resulting update
+        String actionId;
+        long sentAt;
+        // Numbering, see sendCommand
+        String sessionId;
+        long clientSeq;
+        Long expectedVersion;
+
+        GameAction(String gameId, String playerId, Card card, String actionId) {
             this.gameId = gameId;
             this.playerId = playerId;
             this.card = card;
+            this.actionId = actionId;
+            this.sentAt = System.currentTimeMillis();
         }
     }
 }
@@ -0,0 +1,136 @@
+package gtc.dcc.put0.core.data.remote;
+
+import com.game.core.model.CardCatalog;
+import com.game.core.sync.GameDelta;
+
+import java.util.List;
+
+import gtc.dcc.put0.core.data.model.GameState;
+import gtc.dcc.put0.core.data.model.GameStatus;
+import gtc.dcc.put0.core.data.model.Player;
+import gtc.dcc.put0.core.local.GameMapper;
+import gtc.dcc.put0.core.model.Card;
+
+/**
+ * Applies server deltas (card moves between piles plus changed fields) to the
+ * local GameState received in the last snapshot.
+ *
+ * Cards this player may not see (deck, hidden piles, opponents' hands) come
+ * without id, both in snapshots and in deltas; they are kept as face-down
+ * placeholders so pile sizes stay right.
+ */
+final class GameDeltaApplier {
+
+    private GameDeltaApplier() {
+    }
+
+    /**
+     * Applies a delta in place.
+     *
+     * @return false if the delta does not match the local state; the caller
+     *         should then ask for a new snapshot
+     */
+    static boolean apply(GameState state, GameDelta delta) {
+        int[] moves = delta.getMoves();
+        for (int i = 0; i + 2 < moves.length; i += 3) {
+            List<Card> from = pile(state, moves[i + 1]);
+            List<Card> to = pile(state, moves[i + 2]);
+            if (from == null || to == null) {
+                return false;
+            }
+            int id = moves[i];
+            Card card = id == GameDelta.UNKNOWN_CARD ? null : removeById(from, String.valueOf(id));
+            if (card == null) {
+                // Unknown here: take one of the face-down cards instead
+                if (!removeUnknown(from)) {
+                    return false;
+                }
+                card = id == GameDelta.UNKNOWN_CARD
+                        ? new Card(null, 0, true)
+                        : GameMapper.toAndroidCard(CardCatalog.get(id));
+            }
+            card.setHidden(id == GameDelta.UNKNOWN_CARD || GameDelta.isHiddenPile(moves[i + 2]));
+            if (GameDelta.seatOf(moves[i + 2]) >= 0) {
+                insertById(to, card);
+            } else {
+                to.add(card); // Table and discard keep play order
+            }
+        }
+
+        if (delta.getCurrentPlayerIndex() != null) {
+            state.setCurrentPlayerIndex(delta.getCurrentPlayerIndex());
+        }
+        if (delta.getStatus() != null) {
+            state.setStatus(GameStatus.valueOf(delta.getStatus().name()));
+        }
+        if (delta.getWinnerId() != null) {
+            state.setWinnerId(delta.getWinnerId());
+        }
+        if (delta.getLastAction() != null) {
+            state.setLastAction(delta.getLastAction());
+        }
+        for (Player player : state.getPlayers()) {
+            player.setCardCount(player.getHand().size() + player.getVisibleCards().size()
+                    + player.getHiddenCards().size());
+        }
+        return true;
+    }
+
+    private static List<Card> pile(GameState state, int code) {
+        switch (code) {
+            case GameDelta.DECK:
+                return state.getMainDeck();
+            case GameDelta.TABLE:
+                return state.getTablePile();
+            case GameDelta.DISCARD:
+                return state.getDiscardPile();
+            default:
+                int seat = GameDelta.seatOf(code);
+                if (seat < 0 || seat >= state.getPlayers().size()) {
+                    return null;
+                }
+                Player player = state.getPlayers().get(seat);
+                if (code == GameDelta.hand(seat)) {
+                    return player.getHand();
+                }
+                return code == GameDelta.visible(seat) ? player.getVisibleCards() : player.getHiddenCards();
+        }
+    }
+
+    private static Card removeById(List<Card> pile, String instanceId) {
+        for (int i = 0; i < pile.size(); i++) {
+            if (instanceId.equals(pile.get(i).getInstanceId())) {
+                return pile.remove(i);
+            }
+        }
+        return null;
+    }
+
+    private static boolean removeUnknown(List<Card> pile) {
+        for (int i = 0; i < pile.size(); i++) {
+            if (idOf(pile.get(i)) == Integer.MAX_VALUE) {
+                pile.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Player piles arrive ordered by card id in snapshots; keep them that way
+    private static void insertById(List<Card> pile, Card card) {
+        int id = idOf(card);
+        int index = pile.size();
+        while (index > 0 && idOf(pile.get(index - 1)) > id) {
+            index--;
+        }
+        pile.add(index, card);
+    }
+
+    private static int idOf(Card card) {
+        try {
+            return Integer.parseInt(card.getInstanceId());
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package gtc.dcc.put0.core.data.remote;
 
+import android.util.Base64;
+
+import gtc.dcc.put0.core.local.GameMapper;
 import gtc.dcc.put0.core.utils.CoreLogger;
+import com.game.core.sync.GameDelta;
+import com.game.core.wire.WireAction;
+import com.game.core.wire.WireCodec;
+import com.game.core.wire.WireUpdate;
 import com.google.gson.Gson;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
@@ -11,10 +20,14 @@ import io.reactivex.schedulers.Schedulers;
 import ua.naiksoftware.stomp.Stomp;
 import ua.naiksoftware.stomp.StompClient;
 import ua.naiksoftware.stomp.dto.LifecycleEvent;
+import ua.naiksoftware.stomp.dto.StompCommand;
+import ua.naiksoftware.stomp.dto.StompHeader;
+import ua.naiksoftware.stomp.dto.StompMessage;
 import gtc.dcc.put0.core.data.model.GameState;
 
 public class GameWebSocketManager {
     private static final String TAG = "GameWebSocketManager";
+    private static final String CONTENT_TYPE = "content-type";
     // private static final String WS_URL = "ws://10.0.2.2:8080/ws/websocket"; //
     // Removed hardcoded URL
 
@@ -23,15 +36,46 @@ public class GameWebSocketManager {
     private final Gson gson = new Gson();
     private final List<GameStateListener> listeners = new ArrayList<>();
 
+    // Local copy kept in sync with the server: last snapshot plus applied deltas
+    private GameState currentState;
+    private long currentVersion = -1;
+    private String currentGameId;
+    private String currentPlayerId;
+
+    // Set once the server answers in the binary wire format; JSON until then
+    private boolean wireFormat;
+
     public interface GameStateListener {
         void onGameStateUpdated(GameState gameState);
+
+        /**
+         * An update caused by one of our actions arrived, see GameRepository.
+         */
+        default void onActionEchoed(String actionId) {
+        }
+
+        /**
+         * The server answered one of our numbered commands, see GameRepository.
+         */
+        default void onCommandAcked(CommandAck ack) {
+        }
+
+        /**
+         * Subscribed to the game, on connect and on every reconnect.
+         */
+        default void onSubscribed() {
+        }
     }
 
     public void addListener(GameStateListener listener) {
         listeners.add(listener);
     }
 
-    public void connect(String gameId) {
+    /**
+     * Connects and follows the game as the given player, who receives its own
+     * view of the game (opponents' hands and hidden cards stay face down).
+     */
+    public void connect(String gameId, String playerId) {
         if (mStompClient != null && mStompClient.isConnected()) {
             return;
         }
@@ -53,7 +97,7 @@ public class GameWebSocketManager {
                     switch (lifecycleEvent.getType()) {
                         case OPENED:
                             CoreLogger.d("Stomp connection opened");
-                            subscribeToGame(gameId);
+                            subscribeToGame(gameId, playerId);
                             break;
                         case ERROR:
                             CoreLogger.e(lifecycleEvent.getException(), "Stomp connection error");
@@ -65,25 +109,29 @@ public class GameWebSocketManager {
                 });
         compositeDisposable.add(lifecycle);
 
-        mStompClient.connect();
+        // Ask for the compact binary format; servers that do not know it keep sending JSON
+        wireFormat = false;
+        mStompClient.connect(Collections.singletonList(
+                new StompHeader(WireCodec.CONNECT_HEADER, String.valueOf(WireCodec.VERSION))));
     }
 
-    private void subscribeToGame(String gameId) {
-        Disposable topic = mStompClient.topic("/topic/game/" + gameId)
+    private void subscribeToGame(String gameId, String playerId) {
+        currentGameId = gameId;
+        currentPlayerId = playerId;
+        currentState = null;
+        currentVersion = -1;
+
+        // Our own view of the game, sent to this connection once the snapshot claims the seat
+        Disposable topic = mStompClient.topic("/user/queue/game")
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(topicMessage -> {
-                    CoreLogger.d("Received " + topicMessage.getPayload());
-
-                    // Parse the wrapper object which likely contains "gameState" field
-                    // But wait, server sends GameStateUpdate object which has 'gameState' field.
-                    // Let's parse strictly.
                     try {
-                        // Assuming simple parsing for now, user might need DTO for update
-                        GameStateUpdate update = gson.fromJson(topicMessage.getPayload(), GameStateUpdate.class);
-                        if (update != null && update.gameState != null) {
+                        GameStateUpdate update = parse(topicMessage);
+                        if (update != null) {
                             CoreLogger.i("[WS-UPDATE] Type: " + update.type + " | Message: " + update.message);
-                            notifyListeners(update.gameState);
+                            onUpdate(update);
+                            echoActions(update);
                         }
                     } catch (Exception e) {
                         CoreLogger.e(e, "Error parsing message");
@@ -92,6 +140,115 @@ public class GameWebSocketManager {
                     CoreLogger.e(throwable, "Error on subscribe");
                 });
         compositeDisposable.add(topic);
+
+        // Answers to our numbered commands, sent to this connection only
+        Disposable acks = mStompClient.topic("/user/queue/acks")
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(message -> {
+                    CommandAck ack = gson.fromJson(message.getPayload(), CommandAck.class);
+                    for (GameStateListener listener : listeners) {
+                        listener.onCommandAcked(ack);
+                    }
+                }, throwable -> CoreLogger.e(throwable, "Error on acks"));
+        compositeDisposable.add(acks);
+
+        requestSnapshot();
+        for (GameStateListener listener : listeners) {
+            listener.onSubscribed();
+        }
+    }
+
+    /**
+     * Version of the local copy of the game, -1 until the first snapshot.
+     */
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+
+    /**
+     * Asks the server for the full state; the reply comes once on this subscription.
+     */
+    private void requestSnapshot() {
+        if (mStompClient == null || currentGameId == null) {
+            return;
+        }
+        Disposable snapshot = mStompClient.topic("/app/game/" + currentGameId + "/snapshot/" + currentPlayerId)
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .firstElement()
+                .subscribe(message -> {
+                    GameStateUpdate update = parse(message);
+                    if (update != null) {
+                        onUpdate(update);
+                    }
+                }, throwable -> CoreLogger.e(throwable, "Error requesting snapshot"));
+        compositeDisposable.add(snapshot);
+    }
+
+    private GameStateUpdate parse(StompMessage message) {
+        String contentType = message.findHeader(CONTENT_TYPE);
+        if (contentType == null || !contentType.startsWith(WireCodec.CONTENT_TYPE)) {
+            CoreLogger.d("Received " + message.getPayload());
+            return gson.fromJson(message.getPayload(), GameStateUpdate.class);
+        }
+        WireUpdate wire = WireCodec.decodeUpdate(Base64.decode(message.getPayload(), Base64.NO_WRAP));
+        wireFormat = true;
+        return toUpdate(wire);
+    }
+
+    private static GameStateUpdate toUpdate(WireUpdate wire) {
+        GameStateUpdate update = new GameStateUpdate();
+        update.gameState = GameMapper.toAndroidState(wire.getSnapshot());
+        update.delta = wire.getDelta();
+        update.version = wire.getVersion();
+        update.message = wire.getMessage();
+        update.type = wire.getType() != null ? wire.getType().name() : null;
+        update.actionId = wire.getActionId();
+        if (wire.getSteps() != null) {
+            update.steps = new ArrayList<>(wire.getSteps().size());
+            for (WireUpdate step : wire.getSteps()) {
+                update.steps.add(toUpdate(step));
+            }
+        }
+        return update;
+    }
+
+    private void onUpdate(GameStateUpdate update) {
+        if (update.steps != null) {
+            // Several moves sent as one frame: apply them in order so each one shows
+            for (GameStateUpdate step : update.steps) {
+                onUpdate(step);
+            }
+            return;
+        }
+        long version = update.version != null ? update.version : -1;
+        if (update.gameState != null) {
+            // Snapshot: replaces local state unless it is older than what we have
+            if (version >= 0 && version < currentVersion) {
+                return;
+            }
+            currentState = update.gameState;
+            currentVersion = version;
+            notifyListeners(currentState);
+            return;
+        }
+        if (update.delta == null) {
+            return;
+        }
+        if (currentState == null || update.delta.getVersion() <= currentVersion) {
+            return; // Waiting for the snapshot, or already included in it
+        }
+        if (update.delta.getBaseVersion() != currentVersion
+                || !GameDeltaApplier.apply(currentState, update.delta)) {
+            CoreLogger.w("[WS-UPDATE] Out of sync at v" + currentVersion + ", requesting snapshot");
+            currentState = null;
+            currentVersion = -1;
+            requestSnapshot();
+            return;
+        }
+        currentVersion = update.delta.getVersion();
+        notifyListeners(currentState);
     }
 
     public void send(String endpoint, Object payload) {
@@ -107,6 +264,44 @@ public class GameWebSocketManager {
         }
     }
 
+    /**
+     * Sends a game action, binary-encoded if the server speaks the wire format
+     * on this connection, otherwise as JSON to the action's own endpoint.
+     */
+    public void sendAction(String endpoint, Object payload, WireAction action) {
+        if (!wireFormat) {
+            send(endpoint, payload);
+            return;
+        }
+        if (mStompClient != null && mStompClient.isConnected()) {
+            StompMessage message = new StompMessage(StompCommand.SEND,
+                    Arrays.asList(new StompHeader(StompHeader.DESTINATION, "/app/game/action"),
+                            new StompHeader(CONTENT_TYPE, WireCodec.CONTENT_TYPE)),
+                    Base64.encodeToString(WireCodec.encodeAction(action), Base64.NO_WRAP));
+            compositeDisposable.add(mStompClient.send(message)
+                    .subscribeOn(Schedulers.io())
+                    .observeOn(AndroidSchedulers.mainThread())
+                    .subscribe(() -> {
+                        CoreLogger.i("[WS-SENT] Action: " + action.getKind());
+                    }, throwable -> {
+                        CoreLogger.e(throwable, "Error sending action");
+                    }));
+        }
+    }
+
+    private void echoActions(GameStateUpdate update) {
+        if (update.actionId != null) {
+            for (GameStateListener listener : listeners) {
+                listener.onActionEchoed(update.actionId);
+            }
+        }
+        if (update.steps != null) {
+            for (GameStateUpdate step : update.steps) {
+                echoActions(step);
+            }
+        }
+    }
+
     private void notifyListeners(GameState gameState) {
         for (GameStateListener listener : listeners) {
             listener.onGameStateUpdated(gameState);
@@ -120,12 +315,33 @@ public class GameWebSocketManager {
         if (compositeDisposable != null) {
             compositeDisposable.dispose();
         }
+        currentState = null;
+        currentVersion = -1;
+        currentGameId = null;
+        currentPlayerId = null;
+        wireFormat = false;
+    }
+
+    /**
+     * Server's answer to a numbered command (CommandAck on the server).
+     */
+    public static class CommandAck {
+        public String sessionId;
+        public long clientSeq;
+        public String status; // APPLIED, REJECTED or STALE
+        public long version;
+        public String message;
+        public boolean duplicate;
     }
 
     // Inner class for Update DTO matching Server's GameStateUpdate
     private static class GameStateUpdate {
         public GameState gameState;
+        public GameDelta delta;
+        public Long version;
         public String message;
         public String type;
+        public List<GameStateUpdate> steps;
+        public String actionId;
     }
 }
@@ -6,6 +6,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import com.game.core.model.CardCatalog;
+import com.game.core.sync.GameDelta;
+import com.game.core.sync.GameSnapshot;
+
 import gtc.dcc.put0.core.data.model.GameState;
 import gtc.dcc.put0.core.data.model.GameStatus;
 import gtc.dcc.put0.core.data.model.Player;
@@ -80,6 +84,54 @@ public class GameMapper {
         return androidPlayer;
     }
 
+    // --- Projected snapshot (binary wire format) -> Android ---
+
+    public static GameState toAndroidState(GameSnapshot snapshot) {
+        if (snapshot == null)
+            return null;
+
+        GameState androidState = new GameState();
+        androidState.setGameId(snapshot.getGameId());
+        androidState.setCurrentPlayerIndex(snapshot.getCurrentPlayerIndex());
+        androidState.setStatus(toAndroidStatus(snapshot.getStatus()));
+        androidState.setWinnerId(snapshot.getWinnerId());
+        androidState.setLastAction(snapshot.getLastAction());
+        androidState.setDeckSize(snapshot.getDeckSize());
+
+        List<Player> players = new ArrayList<>(snapshot.getPlayers().size());
+        for (GameSnapshot.Seat seat : snapshot.getPlayers()) {
+            Player player = new Player();
+            player.setId(seat.getId());
+            player.setName(seat.getName());
+            player.setBot(seat.isBot());
+            player.setActive(seat.isActive());
+            player.setHand(toAndroidCards(seat.getHand(), false));
+            player.setVisibleCards(toAndroidCards(seat.getVisibleCards(), false));
+            player.setHiddenCards(toAndroidCards(seat.getHiddenCards(), true));
+            player.setCardCount(seat.getCardCount());
+            players.add(player);
+        }
+        androidState.setPlayers(players);
+        androidState.setMainDeck(toAndroidCards(snapshot.getMainDeck(), true));
+        androidState.setTablePile(toAndroidCards(snapshot.getTablePile(), false));
+        androidState.setDiscardPile(toAndroidCards(snapshot.getDiscardPile(), false));
+        return androidState;
+    }
+
+    private static List<Card> toAndroidCards(int[] ids, boolean hidden) {
+        List<Card> cards = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            if (id == GameDelta.UNKNOWN_CARD) {
+                cards.add(new Card(null, 0, true)); // Face down, same as a masked JSON card
+            } else {
+                Card card = toAndroidCard(CardCatalog.get(id));
+                card.setHidden(hidden);
+                cards.add(card);
+            }
+        }
+        return cards;
+    }
+
     public static gtc.dcc.put0.core.model.Card toAndroidCard(com.game.core.model.Card coreCard) {
         if (coreCard == null)
             return null;
@@ -108,12 +160,14 @@ public class GameMapper {
     public static com.game.core.model.Card toCoreCard(gtc.dcc.put0.core.model.Card androidCard) {
         if (androidCard == null)
             return null;
-        com.game.core.model.Card coreCard = new com.game.core.model.Card(
-                androidCard.getRankValue(),
-                toCoreSuit(androidCard.getSuit()));
-        coreCard.setHidden(androidCard.isHidden());
-        coreCard.setInstanceId(androidCard.getInstanceId());
-        return coreCard;
+        // Core cards are shared flyweights: resolve by id instead of allocating
+        com.game.core.model.Card coreCard = CardCatalog.fromInstanceId(androidCard.getInstanceId());
+        if (coreCard == null) {
+            coreCard = new com.game.core.model.Card(
+                    androidCard.getRankValue(),
+                    toCoreSuit(androidCard.getSuit()));
+        }
+        return androidCard.isHidden() ? coreCard.asHidden() : coreCard;
     }
 
     public static com.game.core.model.Suit toCoreSuit(Suit androidSuit) {
@@ -0,0 +1,53 @@
+package com.game.core.bench;
+
+import com.game.core.model.Card;
+import com.game.core.model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameState table operations and Player pile operations on a mid-game position.
+ * Mutating benchmarks include one {@link MidGameState#restore()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameStateBenchmark {
+
+    @Benchmark
+    public boolean shouldClearTable(MidGameState state) {
+        return state.game.shouldClearTable();
+    }
+
+    @Benchmark
+    public Object collectTable(MidGameState state) {
+        state.restore();
+        state.game.collectTable(state.game.getCurrentPlayer());
+        return state.game;
+    }
+
+    @Benchmark
+    public Object clearTable(MidGameState state) {
+        state.restore();
+        state.game.clearTable();
+        return state.game;
+    }
+
+    @Benchmark
+    public List<Card> getPlayableCards(MidGameState state) {
+        return state.game.getCurrentPlayer().getPlayableCards(state.game.getTopCard());
+    }
+
+    @Benchmark
+    public boolean removeCard(MidGameState state) {
+        // Remove and put back, so no restore is needed
+        Player current = state.game.getCurrentPlayer();
+        boolean removed = current.removeCard(state.singleCard);
+        current.getHand().add(state.singleCard);
+        return removed;
+    }
+}
@@ -0,0 +1,159 @@
+package com.game.core.bench;
+
+import com.game.core.bot.BotStrategy;
+import com.game.core.bot.DefaultBotStrategy;
+import com.game.core.engine.GameEngine;
+import com.game.core.engine.Move;
+import com.game.core.engine.MoveList;
+import com.game.core.model.Card;
+import com.game.core.model.CardCatalog;
+import com.game.core.model.CardPile;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.Player;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A realistic mid-game position (deck still in play, table not empty) that
+ * benchmarks can mutate and cheaply restore before the next operation.
+ *
+ * Mutating benchmarks call {@link #restore()} themselves; compare them with
+ * {@code RestoreBenchmark} to subtract the restore cost.
+ */
+@State(Scope.Thread)
+public class MidGameState {
+
+    // Bot turns played before the position is captured
+    private static final int WARM_TURNS = 12;
+
+    @Param({ "52", "104" })
+    public int deckSize;
+
+    @Param({ "2", "3", "4" })
+    public int players;
+
+    public final GameEngine engine = new GameEngine();
+    public BotStrategy bot;
+    public GameState game;
+
+    // Current player's moves in the captured position
+    public Card singleCard;
+    public List<Card> sameRankCards;
+    public int singleMove;
+
+    private final List<Card> mainDeck = new ArrayList<>();
+    private final List<Card> tablePile = new ArrayList<>();
+    private final List<Card> discardPile = new ArrayList<>();
+    private final List<CardPile[]> piles = new ArrayList<>();
+    private int currentPlayerIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Search seeds for a position where the current player can throw a pair
+        for (long seed = 1; ; seed++) {
+            if (tryCapture(seed)) {
+                return;
+            }
+        }
+    }
+
+    private boolean tryCapture(long seed) {
+        Random random = new Random(seed);
+        bot = new DefaultBotStrategy(random);
+        game = new GameState("bench");
+        game.setDeckSize(deckSize);
+        for (int seat = 0; seat < players; seat++) {
+            game.addPlayer(new Player("bot-" + seat, "Bot " + (seat + 1), true));
+        }
+        engine.startGame(game, random);
+
+        for (int turn = 0; turn < WARM_TURNS && game.getStatus() == GameStatus.PLAYING; turn++) {
+            bot.playTurn(game, engine, game.getCurrentPlayer());
+        }
+        if (game.getStatus() != GameStatus.PLAYING || game.getTablePile().isEmpty()
+                || game.getMainDeck().isEmpty()) {
+            return false;
+        }
+
+        MoveList moves = engine.legalMoves(game, game.getCurrentPlayer().getId());
+        singleMove = Move.NONE;
+        sameRankCards = null;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.type(move) != Move.PLAY) {
+                continue;
+            }
+            List<Card> cards = cardsOf(move);
+            if (cards.size() == 1 && singleMove == Move.NONE) {
+                singleMove = move;
+                singleCard = cards.get(0);
+            } else if (cards.size() > 1 && sameRankCards == null) {
+                sameRankCards = cards;
+            }
+        }
+        if (singleMove == Move.NONE || sameRankCards == null) {
+            return false;
+        }
+
+        capture();
+        return true;
+    }
+
+    private static List<Card> cardsOf(int move) {
+        List<Card> cards = new ArrayList<>();
+        for (int bits = Move.mask(move); bits != 0; bits &= bits - 1) {
+            cards.add(CardCatalog.get(
+                    Move.cardId(Move.value(move), Integer.numberOfTrailingZeros(bits))));
+        }
+        return cards;
+    }
+
+    private void capture() {
+        mainDeck.addAll(game.getMainDeck());
+        tablePile.addAll(game.getTablePile());
+        discardPile.addAll(game.getDiscardPile());
+        for (Player player : game.getPlayers()) {
+            CardPile hand = new CardPile();
+            CardPile visible = new CardPile();
+            CardPile hidden = new CardPile(true);
+            hand.addAll(player.getHand());
+            visible.addAll(player.getVisibleCards());
+            hidden.addAll(player.getHiddenCards());
+            piles.add(new CardPile[] { hand, visible, hidden });
+        }
+        currentPlayerIndex = game.getCurrentPlayerIndex();
+    }
+
+    /**
+     * Puts the game back into the captured position.
+     */
+    public void restore() {
+        reset(game.getMainDeck(), mainDeck);
+        reset(game.getTablePile(), tablePile);
+        reset(game.getDiscardPile(), discardPile);
+        List<Player> gamePlayers = game.getPlayers();
+        for (int i = 0; i < gamePlayers.size(); i++) {
+            Player player = gamePlayers.get(i);
+            CardPile[] saved = piles.get(i);
+            reset(player.getHand(), saved[0]);
+            reset(player.getVisibleCards(), saved[1]);
+            reset(player.getHiddenCards(), saved[2]);
+        }
+        game.setCurrentPlayerIndex(currentPlayerIndex);
+        game.setStatus(GameStatus.PLAYING);
+        game.setWinnerId(null);
+    }
+
+    private static void reset(List<Card> target, List<Card> saved) {
+        target.clear();
+        target.addAll(saved);
+    }
+}
@@ -0,0 +1,61 @@
+package com.game.core.bench;
+
+import com.game.core.engine.MoveList;
+import com.game.core.engine.MoveResult;
+import com.game.core.model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Engine turn processing on a mid-game position: playCard, playCards,
+ * the exception-free apply path, legal move generation and a bot turn.
+ * Mutating benchmarks include one {@link MidGameState#restore()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlayBenchmark {
+
+    private final MoveList moves = new MoveList();
+
+    @Benchmark
+    public Object playCard(MidGameState state) {
+        state.restore();
+        Player current = state.game.getCurrentPlayer();
+        state.engine.playCard(state.game, current.getId(), state.singleCard);
+        return state.game;
+    }
+
+    @Benchmark
+    public Object playCards(MidGameState state) {
+        state.restore();
+        Player current = state.game.getCurrentPlayer();
+        state.engine.playCards(state.game, current.getId(), state.sameRankCards);
+        return state.game;
+    }
+
+    @Benchmark
+    public MoveResult apply(MidGameState state) {
+        state.restore();
+        return state.engine.apply(state.game, state.singleMove);
+    }
+
+    @Benchmark
+    public int legalMoves(MidGameState state) {
+        state.engine.legalMoves(state.game, state.game.getCurrentPlayer().getId(), moves);
+        return moves.size();
+    }
+
+    @Benchmark
+    public Object botPlayTurn(MidGameState state) {
+        state.restore();
+        state.bot.playTurn(state.game, state.engine, state.game.getCurrentPlayer());
+        return state.game;
+    }
+}
@@ -0,0 +1,23 @@
+package com.game.core.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline: cost of restoring the mid-game position, to subtract from the
+ * mutating benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RestoreBenchmark {
+
+    @Benchmark
+    public Object restore(MidGameState state) {
+        state.restore();
+        return state.game;
+    }
+}
@@ -0,0 +1,44 @@
+package com.game.core.bench;
+
+import com.game.core.engine.GameEngine;
+import com.game.core.model.GameState;
+import com.game.core.model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameEngine.startGame: deck creation, shuffle and deal.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StartGameBenchmark {
+
+    @Param({ "52", "104" })
+    public int deckSize;
+
+    @Param({ "2", "3", "4" })
+    public int players;
+
+    private final GameEngine engine = new GameEngine();
+    private final Random random = new Random(1);
+
+    @Benchmark
+    public GameState startGame() {
+        GameState game = new GameState("bench");
+        game.setDeckSize(deckSize);
+        for (int seat = 0; seat < players; seat++) {
+            game.addPlayer(new Player("bot-" + seat, "Bot " + (seat + 1), true));
+        }
+        engine.startGame(game, random);
+        return game;
+    }
+}
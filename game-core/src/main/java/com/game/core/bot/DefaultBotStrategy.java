@@ -1,12 +1,15 @@
 package com.game.core.bot;
 
 import com.game.core.engine.GameEngine;
+import com.game.core.engine.Move;
+import com.game.core.engine.MoveList;
+import com.game.core.engine.MoveResult;
 import com.game.core.model.Card;
+import com.game.core.model.CardPile;
 import com.game.core.model.GameState;
 import com.game.core.model.Player;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -20,7 +23,19 @@ import java.util.Random;
 @Slf4j
 public class DefaultBotStrategy implements BotStrategy {
 
-    private final Random random = new Random();
+    private final Random random;
+
+    public DefaultBotStrategy() {
+        this(new Random());
+    }
+
+    /**
+     * Creates a strategy whose random choices come from the given source,
+     * so seeded games play out the same way every time.
+     */
+    public DefaultBotStrategy(Random random) {
+        this.random = random;
+    }
 
     @Override
     public void playTurn(GameState game, GameEngine engine, Player botPlayer) {
@@ -30,86 +45,76 @@ public class DefaultBotStrategy implements BotStrategy {
         log.info("[BOT-THINK] Bot {} is thinking...", botPlayer.getName());
 
         Card topCard = game.getTopCard();
-        List<Card> playableCards = botPlayer.getPlayableCards(topCard);
-
-        if (playableCards.isEmpty()) {
-            // No playable cards - check if table has cards to "eat" (collect)
-            try {
-                if (!game.getTablePile().isEmpty()) {
-                    engine.collectTable(game, botPlayer.getId());
-                    log.info("[BOT-ACTION] Bot {} COLLECTED the table (No playable cards).", botPlayer.getName());
-                } else {
-                    // Table empty - draw from deck
-                    engine.drawCard(game, botPlayer.getId());
-                    log.info("[BOT-ACTION] Bot {} DREW a card (No playable cards, Table empty).", botPlayer.getName());
-                }
-            } catch (Exception e) {
-                log.error("[BOT-ERROR] Bot {} failed to move (collect/draw): {}", botPlayer.getName(), e.getMessage());
-            }
+        CardPile playableCards = botPlayer.activePile();
+
+        int seat = engine.seatOf(game, botPlayer.getId());
+
+        if (playableCards == null) {
+            // No playable cards - "eat" (collect) the table, or draw if it is empty
+            pickUp(game, engine, botPlayer, seat, "No playable cards");
             return;
         }
 
         // Strategy Logic
-        boolean isPhase4 = playableCards.stream().allMatch(Card::isHidden);
+        boolean isPhase4 = playableCards.isHidden();
         Card cardToPlay;
 
         if (isPhase4) {
             // Blind play: Pick random (Discover phase)
             cardToPlay = playableCards.get(random.nextInt(playableCards.size()));
         } else {
-            // Filter cards that can actually be played successfully
-            List<Card> safeMoves = playableCards.stream()
-                    .filter(c -> c.canPlayOn(topCard))
-                    .toList();
+            // Lowest-power card that can actually be played successfully
+            int lowestValue = playableCards.lowestPlayableValue(topCard);
 
-            if (safeMoves.isEmpty()) {
+            if (lowestValue == 0) {
                 // No safe moves even though we have cards - bot should collect table
                 // instead of playing a failing card (which would lead to penalty anyway)
-                try {
-                    if (!game.getTablePile().isEmpty()) {
-                        engine.collectTable(game, botPlayer.getId());
-                        log.info("[BOT-ACTION] Bot {} COLLECTED the table (No safe moves).", botPlayer.getName());
-                    } else {
-                        engine.drawCard(game, botPlayer.getId());
-                        log.info("[BOT-ACTION] Bot {} DREW a card (No safe moves, table empty).", botPlayer.getName());
-                    }
-                } catch (Exception e) {
-                    log.error("[BOT-ERROR] Bot {} failed during no-safe-move recovery: {}", botPlayer.getName(),
-                            e.getMessage());
-                }
+                pickUp(game, engine, botPlayer, seat, "No safe moves");
                 return;
             }
 
             // Strategy Logic for safe moves
-            // Check for clearing cards (10s)
-            List<Card> clearingCards = safeMoves.stream()
-                    .filter(Card::clearsTable)
-                    .toList();
+            // Check for clearing cards (10s, always safe)
+            int tens = playableCards.count(10);
 
-            if (!clearingCards.isEmpty()) {
+            if (tens > 0) {
                 // Pick a clearing card if we want to reset the table
-                cardToPlay = clearingCards.get(random.nextInt(clearingCards.size()));
+                cardToPlay = playableCards.cardOfValue(10, random.nextInt(tens));
             } else {
-                // Otherwise, find the lowest POWER safe cards
-                int minPower = safeMoves.stream()
-                        .mapToInt(Card::getPower)
-                        .min()
-                        .orElse(0);
-
-                List<Card> lowestSafeCards = safeMoves.stream()
-                        .filter(c -> c.getPower() == minPower)
-                        .toList();
-
-                cardToPlay = lowestSafeCards.get(random.nextInt(lowestSafeCards.size()));
+                // Otherwise, pick one of the lowest POWER safe cards
+                cardToPlay = playableCards.cardOfValue(lowestValue,
+                        random.nextInt(playableCards.count(lowestValue)));
             }
         }
 
-        try {
-            engine.playCard(game, botPlayer.getId(), cardToPlay);
+        MoveResult result = engine.apply(game, Move.play(seat, cardToPlay));
+        if (result.isOk()) {
             log.info("[BOT-ACTION] Bot {} PLAYED {} (Value: {}).", botPlayer.getName(), cardToPlay,
                     cardToPlay.getValue());
-        } catch (Exception e) {
-            log.error("[BOT-ERROR] Bot {} failed to play card: {}", botPlayer.getName(), e.getMessage());
+        } else {
+            log.error("[BOT-ERROR] Bot {} failed to play card: {}", botPlayer.getName(), result);
+        }
+    }
+
+    private void pickUp(GameState game, GameEngine engine, Player botPlayer, int seat, String reason) {
+        // Only what the engine offers: collect a non-empty table, else draw from a non-empty deck
+        MoveList moves = engine.legalMoves(game, botPlayer.getId());
+        MoveResult result;
+        if (moves.contains(Move.collect(seat))) {
+            result = engine.apply(game, Move.collect(seat));
+            if (result.isOk()) {
+                log.info("[BOT-ACTION] Bot {} COLLECTED the table ({}).", botPlayer.getName(), reason);
+            }
+        } else if (moves.contains(Move.draw(seat))) {
+            result = engine.apply(game, Move.draw(seat));
+            if (result.isOk()) {
+                log.info("[BOT-ACTION] Bot {} DREW a card ({}, table empty).", botPlayer.getName(), reason);
+            }
+        } else {
+            result = MoveResult.INVALID_MOVE;
+        }
+        if (!result.isOk()) {
+            log.error("[BOT-ERROR] Bot {} failed to move (collect/draw): {}", botPlayer.getName(), result);
         }
     }
 }
@@ -1,20 +1,39 @@
 package com.game.core.engine;
 
+import com.game.core.journal.GameJournal;
 import com.game.core.model.*;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Core game engine for PUT0.
  * Manages game rules, card dealing, and turn processing.
  * Stateless: Operates on a provided GameState.
+ *
+ * Takes no locks: a game must only be used by one thread at a time. The
+ * server runs every command of a game on the game's mailbox; the app and
+ * the simulator play each game on a single thread.
  */
 @Slf4j
 public class GameEngine {
 
+    private final GameJournal journal;
+
+    public GameEngine() {
+        this(GameJournal.NONE);
+    }
+
+    /**
+     * Creates an engine that reports every started game and applied move to the given journal.
+     */
+    public GameEngine(GameJournal journal) {
+        this.journal = journal;
+    }
+
     /**
      * Initializes a new game state.
      */
@@ -28,60 +47,57 @@ public class GameEngine {
      * Adds a player to the game.
      */
     public void addPlayer(GameState game, Player player) {
-        synchronized (game) {
-            if (game.getStatus() != GameStatus.WAITING) {
-                throw new IllegalStateException("Cannot add player to game in progress");
-            }
-
-            game.addPlayer(player);
-            log.info("Added player {} to game {}", player.getName(), game.getGameId());
+        if (game.getStatus() != GameStatus.WAITING) {
+            throw new IllegalStateException("Cannot add player to game in progress");
         }
+
+        game.addPlayer(player);
+        game.bumpVersion();
+        log.info("Added player {} to game {}", player.getName(), game.getGameId());
     }
 
     /**
      * Starts a game by creating and dealing the deck.
+     * Uses the seed already set on the game, or picks a new one.
      */
     public void startGame(GameState game) {
-        synchronized (game) {
-            if (game.getStatus() == GameStatus.PLAYING) {
-                log.info("Game {} already started, ignoring start request", game.getGameId());
-                return;
-            }
-
-            if (!game.canStart()) {
-                throw new IllegalStateException("Game cannot start - need at least 2 players");
-            }
-
-            // Create and shuffle deck (Configurable size: 52 or 104)
-            game.setMainDeck(createDeck(game.getDeckSize()));
-            Collections.shuffle(game.getMainDeck());
-
-            // Deal cards according to rules: 3 Hidden, 3 Visible, 3 Hand
-            dealCards(game);
+        Long seed = game.getSeed();
+        startGame(game, seed != null ? seed : ThreadLocalRandom.current().nextLong());
+    }
 
-            game.setStatus(GameStatus.PLAYING);
-            log.info("Started game {} with {} players", game.getGameId(), game.getPlayers().size());
-        }
+    /**
+     * Starts a game, taking the shuffle seed from the given random source.
+     */
+    public void startGame(GameState game, Random random) {
+        startGame(game, random.nextLong());
     }
 
     /**
-     * Creates a deck of cards.
-     * 
-     * @param size total number of cards (52 or 104).
+     * Starts a game with an explicit shuffle seed. The seed is stored on the
+     * game, so the same seed and players always produce the same deal.
      */
-    private List<Card> createDeck(int size) {
-        List<Card> deck = new ArrayList<>();
-        // number of decks: 52 -> 1 deck, 104 -> 2 decks
-        int deckCount = (size <= 52) ? 1 : 2;
-
-        for (int i = 0; i < deckCount; i++) {
-            for (Suit suit : Suit.values()) {
-                for (int value = 1; value <= 13; value++) {
-                    deck.add(new Card(value, suit));
-                }
-            }
+    public void startGame(GameState game, long seed) {
+        if (game.getStatus() == GameStatus.PLAYING) {
+            log.info("Game {} already started, ignoring start request", game.getGameId());
+            return;
+        }
+
+        if (!game.canStart()) {
+            throw new IllegalStateException("Game cannot start - need at least 2 players");
         }
-        return deck;
+
+        // Create and shuffle deck (Configurable size: 52 or 104)
+        game.setSeed(seed);
+        game.setMainDeck(CardCatalog.deck(game.getDeckSize()));
+        Collections.shuffle(game.getMainDeck(), new Random(seed));
+
+        // Deal cards according to rules: 3 Hidden, 3 Visible, 3 Hand
+        dealCards(game);
+
+        game.setStatus(GameStatus.PLAYING);
+        game.bumpVersion();
+        journal.gameStarted(game);
+        log.info("Started game {} with {} players", game.getGameId(), game.getPlayers().size());
     }
 
     /**
@@ -95,9 +111,8 @@ public class GameEngine {
         for (int i = 0; i < 3; i++) {
             for (Player player : players) {
                 if (!deck.isEmpty()) {
-                    Card hiddenCard = deck.remove(deck.size() - 1);
-                    hiddenCard.setHidden(true); // VERY IMPORTANT: Mark as hidden
-                    player.getHiddenCards().add(hiddenCard);
+                    // The hidden pile hands out the face-down variant of each card
+                    player.getHiddenCards().add(deck.remove(deck.size() - 1));
                 }
             }
         }
@@ -122,257 +137,306 @@ public class GameEngine {
     }
 
     /**
-     * Plays a card from the current player's hand.
+     * Enumerates every legal move for the given player into {@code out}.
+     * Covers single-card plays, same-rank multi-card plays (one canonical
+     * combination per rank and size, since suits do not affect the rules),
+     * draw and collect. Blind (hidden) cards are only offered as single plays.
+     * Nothing is added when the game is not in progress or it is not the
+     * player's turn.
      */
-    public void playCard(GameState game, String playerId, Card card) {
+    public void legalMoves(GameState game, String playerId, MoveList out) {
+        out.clear();
         if (game.getStatus() != GameStatus.PLAYING) {
-            throw new IllegalStateException("Game is not in progress");
+            return;
+        }
+        int seat = seatOf(game, playerId);
+        if (seat < 0 || seat != game.getCurrentPlayerIndex()) {
+            return;
         }
 
-        synchronized (game) {
-            Player currentPlayer = game.getCurrentPlayer();
-            if (!currentPlayer.getId().equals(playerId)) {
-                throw new IllegalStateException("Not this player's turn");
+        CardPile pile = game.getCurrentPlayer().activePile();
+        if (pile != null) {
+            if (pile.isHidden()) {
+                for (int id = pile.nextId(0); id >= 0; id = pile.nextId(id + 1)) {
+                    out.add(Move.play(seat, CardCatalog.get(id)));
+                }
+            } else {
+                addRankPlays(game.getTopCard(), pile, seat, out);
             }
+        }
 
-            // Validate card can be played AND is reachable in current phase
-            Card topCard = game.getTopCard();
-
-            // Strict Phase Validation: Player can only play what getPlayableCards returns
-            List<Card> validMoves = currentPlayer.getPlayableCards(topCard);
+        if (!game.getMainDeck().isEmpty()) {
+            out.add(Move.draw(seat));
+        }
+        if (!game.getTablePile().isEmpty()) {
+            out.add(Move.collect(seat));
+        }
+    }
 
-            // Note: contains() checks equality. With 2 decks, identical cards exist.
-            if (!validMoves.contains(card)) {
-                log.warn("[GAME-INVALID] Player {} tried to play {} but it's not in valid moves. Valid: {}",
-                        currentPlayer.getName(), card, validMoves);
-                throw new IllegalArgumentException("Invalid move: Card not available or not playable in current phase");
-            }
+    /**
+     * Enumerates every legal move for the given player.
+     */
+    public MoveList legalMoves(GameState game, String playerId) {
+        MoveList moves = new MoveList();
+        legalMoves(game, playerId, moves);
+        return moves;
+    }
 
-            // Track if the card was hidden BEFORE we potentially reveal it
-            boolean wasHiddenAtStart = card.isHidden();
-
-            // Reveal hidden card if played
-            if (wasHiddenAtStart) {
-                card.setHidden(false);
-                // Ensure instance in hand is also revealed
-                currentPlayer.getHand().stream()
-                        .filter(c -> c.equals(card))
-                        .findFirst()
-                        .ifPresent(c -> c.setHidden(false));
+    private void addRankPlays(Card topCard, CardPile pile, int seat, MoveList out) {
+        for (int value = 1; value <= 13; value++) {
+            if (pile.count(value) == 0 || !pile.cardOfValue(value, 0).canPlayOn(topCard)) {
+                continue;
             }
-
-            // Check if card is actually playable on top card
-            if (!card.canPlayOn(topCard)) {
-                // FAILED PLAY
-                if (wasHiddenAtStart) {
-                    // Phase 4: Blind discovery failure - Penalize with Eat Table
-                    log.info("[GAME-ACTION] Player {} FAILED blind play of {} on {}. Penalty: Eat Table.",
-                            currentPlayer.getName(), card, topCard);
-
-                    // Regression logic for Phase 4:
-                    // If player picks up the table, ALL hidden cards must remain hidden.
-                    // If they were somehow in the hand, they should go back to the hidden pile.
-                    List<Card> hiddenInHand = currentPlayer.getHand().stream()
-                            .filter(Card::isHidden)
-                            .filter(c -> !c.equals(card))
-                            .toList();
-
-                    if (!hiddenInHand.isEmpty()) {
-                        currentPlayer.getHiddenCards().addAll(hiddenInHand);
-                        currentPlayer.getHand().removeAll(hiddenInHand);
-                    }
-
-                    // Double check all cards in hiddenCards are definitely marked as hidden
-                    for (Card c : currentPlayer.getHiddenCards()) {
-                        c.setHidden(true);
-                    }
-
-                    currentPlayer.removeCard(card);
-                    card.setHidden(false); // Ensure it is definitely revealed
-                    game.getTablePile().add(card);
-
-                    game.collectTable(currentPlayer);
-
-                    // Safety: After collecting, find THIS specific card in hand and ensure it's not
-                    // hidden
-                    // This covers the case where duplicates might exist in the hand
-                    currentPlayer.getHand().stream()
-                            .filter(c -> c.equals(card))
-                            .forEach(c -> c.setHidden(false));
-
-                    String msg = String.format("Has descubierto un %s. Al no superar la mesa, recoges las cartas.",
-                            card.toString());
-                    game.setLastAction(msg);
-                    game.nextTurn();
-                    return;
-                } else {
-                    // For hand or visible cards (ALREADY REVEALED), just block the invalid move
-                    // This prevents player from "eating table" accidentally on a misplay.
-                    throw new IllegalArgumentException("Esta carta no se puede jugar sobre un "
-                            + (topCard != null ? topCard.getPower() : "mesa vacía"));
+            int prefix = 0;
+            for (int slot = 0; slot < 8; slot++) {
+                if (!pile.containsId(Move.cardId(value, slot))) {
+                    continue;
+                }
+                int bit = 1 << slot;
+                out.add(Move.play(seat, value, bit));
+                prefix |= bit;
+                if (Integer.bitCount(prefix) >= 2) {
+                    out.add(Move.play(seat, value, prefix));
                 }
             }
+        }
+    }
 
-            // Remove card from player's hand (managed by Player logic)
-            if (!currentPlayer.removeCard(card)) {
-                log.error("[GAME-ERROR] Could not remove card {} from player {}", card, currentPlayer.getName());
-                throw new IllegalArgumentException("Player does not have this card");
-            }
+    /**
+     * Applies a move to the game without throwing on illegal input.
+     *
+     * @return OK if the move was applied, otherwise the reason it was rejected
+     *         (the game is left untouched)
+     */
+    public MoveResult apply(GameState game, int move) {
+        if (game.getStatus() != GameStatus.PLAYING) {
+            return MoveResult.GAME_NOT_IN_PROGRESS;
+        }
+        if (move == Move.NONE) {
+            return MoveResult.INVALID_MOVE;
+        }
+        if (Move.seat(move) != game.getCurrentPlayerIndex()) {
+            return MoveResult.NOT_YOUR_TURN;
+        }
 
-            // Add card to table
-            game.getTablePile().add(card);
-            String msg = String.format("Player %s PLAYED %s on top of %s.", currentPlayer.getName(), card, topCard);
-            log.info("[GAME-ACTION] " + msg);
-            game.setLastAction(msg);
+        Player currentPlayer = game.getCurrentPlayer();
+        MoveResult result = switch (Move.type(move)) {
+            case Move.PLAY -> Move.cardCount(move) == 1
+                    ? applySinglePlay(game, currentPlayer, move)
+                    : applyMultiPlay(game, currentPlayer, move);
+            case Move.DRAW -> applyDraw(game, currentPlayer);
+            case Move.COLLECT -> applyCollect(game, currentPlayer);
+            default -> MoveResult.INVALID_MOVE;
+        };
+        if (result.isOk()) {
+            game.bumpVersion();
+            journal.moveApplied(game, move);
+        }
+        return result;
+    }
 
-            // Check for table clear conditions
-            if (card.clearsTable() || game.shouldClearTable()) {
-                game.clearTable();
-                String clearMsg = String.format("Table CLEARED by %s.", currentPlayer.getName());
-                log.info("[GAME-EVENT] " + clearMsg);
-                game.setLastAction(clearMsg);
-
-                // Replenish hand before playing again (Phase 1)
-                replenishHand(game, currentPlayer);
-                // Player goes again (no nextTurn())
-                return;
-            }
+    private MoveResult applySinglePlay(GameState game, Player currentPlayer, int move) {
+        Card topCard = game.getTopCard();
+        Card played = CardCatalog.get(Move.cardId(Move.value(move), Integer.numberOfTrailingZeros(Move.mask(move))));
 
-            // Replenish hand from mainDeck if needed (Phase 1)
-            replenishHand(game, currentPlayer);
+        // Strict Phase Validation: Player can only play from the active pile
+        CardPile pile = currentPlayer.activePile();
+        if (pile == null || !pile.contains(played)) {
+            log.warn("[GAME-INVALID] Player {} tried to play {} but it's not in valid moves. Valid: {}",
+                    currentPlayer.getName(), played, pile);
+            return MoveResult.CARD_NOT_AVAILABLE;
+        }
+
+        // The pile holding the card decides whether it is still hidden
+        boolean wasHiddenAtStart = pile.isHidden();
 
-            // Check if player won
-            if (currentPlayer.hasWon()) {
-                game.setStatus(GameStatus.FINISHED);
-                game.setWinnerId(playerId);
-                log.info("[GAME-OVER] Player {} WON the game!", currentPlayer.getName());
-                return;
+        // Check if card is actually playable on top card
+        if (!played.canPlayOn(topCard)) {
+            // FAILED PLAY
+            if (!wasHiddenAtStart) {
+                // For hand or visible cards (ALREADY REVEALED), just block the invalid move
+                // This prevents player from "eating table" accidentally on a misplay.
+                return MoveResult.CANNOT_PLAY_ON_TABLE;
             }
 
-            // Move to next player
+            // Phase 4: Blind discovery failure - Penalize with Eat Table
+            log.info("[GAME-ACTION] Player {} FAILED blind play of {} on {}. Penalty: Eat Table.",
+                    currentPlayer.getName(), played, topCard);
+
+            // The revealed card joins the table and is collected with it.
+            // Remaining hidden cards stay in the hidden pile, face down.
+            currentPlayer.removeCard(played);
+            game.getTablePile().add(played);
+
+            game.collectTable(currentPlayer);
+
+            String msg = String.format("Has descubierto un %s. Al no superar la mesa, recoges las cartas.",
+                    played.toString());
+            game.setLastAction(msg);
             game.nextTurn();
-            log.info("[GAME-TURN] Next turn: {} ({})", game.getCurrentPlayer().getName(), game.getCurrentPlayerIndex());
+            return MoveResult.OK;
         }
+
+        // Remove card from player's hand (managed by Player logic)
+        currentPlayer.removeCard(played);
+
+        // Add card to table
+        game.getTablePile().add(played);
+        String msg = String.format("Player %s PLAYED %s on top of %s.", currentPlayer.getName(), played, topCard);
+        log.info("[GAME-ACTION] " + msg);
+        game.setLastAction(msg);
+
+        // Check for table clear conditions
+        if (played.clearsTable() || game.shouldClearTable()) {
+            game.clearTable();
+            String clearMsg = String.format("Table CLEARED by %s.", currentPlayer.getName());
+            log.info("[GAME-EVENT] " + clearMsg);
+            game.setLastAction(clearMsg);
+
+            // Replenish hand before playing again (Phase 1)
+            replenishHand(game, currentPlayer);
+            // Player goes again (no nextTurn()), unless that was their last card
+            checkWinner(game, currentPlayer);
+            return MoveResult.OK;
+        }
+
+        // Replenish hand from mainDeck if needed (Phase 1)
+        replenishHand(game, currentPlayer);
+
+        finishTurn(game, currentPlayer);
+        return MoveResult.OK;
     }
 
-    /**
-     * Plays multiple cards from the current player's hand.
-     * All cards must be of the SAME RANK.
-     * The first card must be playable on the table.
-     */
-    public void playCards(GameState game, String playerId, List<Card> cards) {
-        if (game.getStatus() != GameStatus.PLAYING) {
-            throw new IllegalStateException("Game is not in progress");
+    private MoveResult applyMultiPlay(GameState game, Player currentPlayer, int move) {
+        Card topCard = game.getTopCard();
+        int value = Move.value(move);
+        int mask = Move.mask(move);
+
+        // Check if ALL cards are actually in the active pile
+        CardPile pile = currentPlayer.activePile();
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            int id = Move.cardId(value, Integer.numberOfTrailingZeros(bits));
+            if (pile == null || !pile.containsId(id)) {
+                log.warn("[GAME-INVALID] Player {} tried to play {} but it's not in valid moves.",
+                        currentPlayer.getName(), CardCatalog.get(id));
+                return MoveResult.CARD_NOT_AVAILABLE;
+            }
         }
-        if (cards == null || cards.isEmpty()) {
-            return;
+
+        // Blind (hidden) cards are only played one at a time
+        if (pile.isHidden()) {
+            return MoveResult.INVALID_MOVE;
         }
 
-        // Single card fallback
-        if (cards.size() == 1) {
-            playCard(game, playerId, cards.get(0));
-            return;
+        // Check gameplay rule (Can play on top?)
+        if (!CardCatalog.get(Move.cardId(value, Integer.numberOfTrailingZeros(mask))).canPlayOn(topCard)) {
+            return MoveResult.CANNOT_PLAY_ON_TABLE;
         }
 
-        synchronized (game) {
-            Player currentPlayer = game.getCurrentPlayer();
-            if (!currentPlayer.getId().equals(playerId)) {
-                throw new IllegalStateException("Not this player's turn");
-            }
+        // Execution Loop
+        // We strip them from hand and add to table, but only switch turn at the end.
+        int count = Integer.bitCount(mask);
+        StringBuilder actionMsg = new StringBuilder();
+        actionMsg.append(String.format("Player %s PLAYED %d cards (", currentPlayer.getName(), count));
 
-            // 1. Validate "Same Rank" constraint
-            int firstRank = cards.get(0).getValue();
-            for (Card c : cards) {
-                if (c.getValue() != firstRank) {
-                    throw new IllegalArgumentException("All cards must check the same rank");
-                }
-            }
+        boolean clearedTable = false;
 
-            // 2. Validate first card against Top Card
-            Card topCard = game.getTopCard();
-            Card firstCard = cards.get(0);
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            Card c = CardCatalog.get(Move.cardId(value, Integer.numberOfTrailingZeros(bits)));
 
-            // Phase/Availability validation
-            List<Card> validMoves = currentPlayer.getPlayableCards(topCard);
+            currentPlayer.removeCard(c);
+            game.getTablePile().add(c);
+            actionMsg.append(c.toString()).append((bits & (bits - 1)) != 0 ? ", " : "");
 
-            // Check if ALL cards are actually in hand/playable
-            for (Card c : cards) {
-                if (!validMoves.contains(c)) {
-                    log.warn("[GAME-INVALID] Player {} tried to play {} but it's not in valid moves.",
-                            currentPlayer.getName(), c);
-                    throw new IllegalArgumentException("One or more cards are not available to play");
-                }
+            // If a 10 is played, it clears. If multiple 3s are played, they stack
+            // until four of a kind clear the table.
+            if (c.clearsTable() || game.shouldClearTable()) {
+                clearedTable = true;
             }
+        }
 
-            // Check gameplay rule (Can play on top?)
-            if (!firstCard.canPlayOn(topCard)) {
-                // For multiple throw, we assume they are from hand (not blind).
-                // Blind play logic (Phase 4) usually involves single cards.
-                // If specific logic for blind is needed, it defaults to single play.
-                throw new IllegalArgumentException(
-                        "Cannot play " + firstCard + " on " + (topCard != null ? topCard : "empty table"));
-            }
+        actionMsg.append(") on top of ").append(topCard);
+        log.info("[GAME-ACTION] " + actionMsg.toString());
+        game.setLastAction(actionMsg.toString());
 
-            // 3. Execution Loop
-            // We strip them from hand and add to table, but only switch turn at the end.
-            StringBuilder actionMsg = new StringBuilder();
-            actionMsg.append(String.format("Player %s PLAYED %d cards (", currentPlayer.getName(), cards.size()));
+        if (clearedTable) {
+            game.clearTable();
+            String clearMsg = String.format("Table CLEARED by %s (Multi-throw).", currentPlayer.getName());
+            log.info("[GAME-EVENT] " + clearMsg);
+            game.setLastAction(clearMsg);
 
-            boolean clearedTable = false;
+            replenishHand(game, currentPlayer);
+            checkWinner(game, currentPlayer); // Keep turn unless that was the last card
+            return MoveResult.OK;
+        }
 
-            for (int i = 0; i < cards.size(); i++) {
-                Card c = cards.get(i);
+        // Replenish hand
+        replenishHand(game, currentPlayer);
 
-                // Remove from player
-                if (!currentPlayer.removeCard(c)) {
-                    log.error("[GAME-ERROR] Could not remove card {} during multi-play", c);
-                    continue;
-                }
+        finishTurn(game, currentPlayer);
+        return MoveResult.OK;
+    }
 
-                // Add to table
-                game.getTablePile().add(c);
-                actionMsg.append(c.toString()).append(i < cards.size() - 1 ? ", " : "");
-
-                // Check Clear (Last card usually dictates, or any card that clears?)
-                // If a 2 or 10 is played, it clears. If multiple 3s are played, they stack.
-                if (c.clearsTable() || game.shouldClearTable()) {
-                    clearedTable = true;
-                    // Usually if table acts cleared, we stop adding?
-                    // But user wants to throw ALL. If I throw '2' and '2', first one clears...
-                    // Wait, '2' clears table. You wouldn't throw multiple '2's usually (waste).
-                    // But if you throw three '3's, and table has '1', it's fine.
-                }
-            }
+    private MoveResult applyDraw(GameState game, Player currentPlayer) {
+        // With an empty deck the player has to play or collect the table instead
+        if (game.getMainDeck().isEmpty()) {
+            return MoveResult.DECK_EMPTY;
+        }
 
-            actionMsg.append(") on top of ").append(topCard);
-            log.info("[GAME-ACTION] " + actionMsg.toString());
-            game.setLastAction(actionMsg.toString());
+        // Draw one card (Phase 1)
+        Card drawnCard = game.getMainDeck().remove(game.getMainDeck().size() - 1);
+        currentPlayer.addCard(drawnCard);
+        String msg = String.format("Player %s DREW a card.", currentPlayer.getName());
+        log.info("[GAME-ACTION] " + msg);
+        game.setLastAction(msg);
+        game.nextTurn();
+        log.info("[GAME-TURN] Next turn: {} ({})", game.getCurrentPlayer().getName(), game.getCurrentPlayerIndex());
+        return MoveResult.OK;
+    }
 
-            if (clearedTable) {
-                game.clearTable();
-                String clearMsg = String.format("Table CLEARED by %s (Multi-throw).", currentPlayer.getName());
-                log.info("[GAME-EVENT] " + clearMsg);
-                game.setLastAction(clearMsg);
+    private MoveResult applyCollect(GameState game, Player currentPlayer) {
+        if (game.getTablePile().isEmpty()) {
+            return MoveResult.TABLE_EMPTY;
+        }
 
-                replenishHand(game, currentPlayer);
-                return; // Keep turn
-            }
+        // Perform collection using GameState's logic
+        int tableSize = game.getTablePile().size();
+        game.collectTable(currentPlayer);
+        String msg = String.format("Player %s collected %d cards (voluntary).", currentPlayer.getName(), tableSize);
+        log.info("[GAME-ACTION] " + msg);
+        game.setLastAction(msg);
 
-            // Replenish hand
-            replenishHand(game, currentPlayer);
+        game.nextTurn();
+        log.info("[GAME-TURN] Next turn: {} ({})", game.getCurrentPlayer().getName(), game.getCurrentPlayerIndex());
+        return MoveResult.OK;
+    }
 
-            // Check Win
-            if (currentPlayer.hasWon()) {
-                game.setStatus(GameStatus.FINISHED);
-                game.setWinnerId(playerId);
-                log.info("[GAME-OVER] Player {} WON the game!", currentPlayer.getName());
-                return;
-            }
+    /**
+     * Ends the turn after a successful play: declares the winner or passes the turn.
+     */
+    private void finishTurn(GameState game, Player currentPlayer) {
+        if (checkWinner(game, currentPlayer)) {
+            return;
+        }
 
-            // Next Turn
-            game.nextTurn();
-            log.info("[GAME-TURN] Next turn: {} ({})", game.getCurrentPlayer().getName(), game.getCurrentPlayerIndex());
+        // Move to next player
+        game.nextTurn();
+        log.info("[GAME-TURN] Next turn: {} ({})", game.getCurrentPlayer().getName(), game.getCurrentPlayerIndex());
+    }
+
+    /**
+     * Ends the game if the player has no cards left.
+     *
+     * @return true if the player won
+     */
+    private boolean checkWinner(GameState game, Player currentPlayer) {
+        if (!currentPlayer.hasWon()) {
+            return false;
         }
+        game.setStatus(GameStatus.FINISHED);
+        game.setWinnerId(currentPlayer.getId());
+        log.info("[GAME-OVER] Player {} WON the game!", currentPlayer.getName());
+        return true;
     }
 
     /**
@@ -391,53 +455,106 @@ public class GameEngine {
             player.getVisibleCards().clear();
         }
 
-        // Transition to Phase 4 (Hidden Cards)
-        // Note: We no longer move them to hand automatically.
-        // They stay in the hidden pile and are played from there.
-        if (player.getHand().isEmpty() && game.getMainDeck().isEmpty() &&
-                player.getVisibleCards().isEmpty() && !player.getHiddenCards().isEmpty()) {
-            // Just ensure they are definitely marked as hidden
-            for (Card c : player.getHiddenCards()) {
-                c.setHidden(true);
+        // Phase 4 (Hidden Cards): they stay in the hidden pile and are played from there.
+    }
+
+    /**
+     * Gets the seat index of a player, or -1 if they are not in the game.
+     */
+    public int seatOf(GameState game, String playerId) {
+        List<Player> players = game.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).getId().equals(playerId)) {
+                return i;
             }
         }
+        return -1;
     }
 
+    // --- Throwing API (thin wrappers over legalMoves/apply) ---
+
     /**
-     * Draws a card from the deck for the current player.
-     * Used when player has no valid moves or chooses to pick up.
+     * Plays a card from the current player's hand.
+     *
+     * @throws IllegalStateException    if the game is not in progress or it is not the player's turn
+     * @throws IllegalArgumentException if the card is not available or cannot be played
      */
-    public void drawCard(GameState game, String playerId) {
-        synchronized (game) {
-            Player currentPlayer = game.getCurrentPlayer();
-            if (!currentPlayer.getId().equals(playerId)) {
-                throw new IllegalStateException("Not this player's turn");
+    public void playCard(GameState game, String playerId, Card card) {
+        int seat = seatOf(game, playerId);
+        MoveResult result = seat < 0 ? rejectUnknownPlayer(game) : apply(game, Move.play(seat, card));
+        switch (result) {
+            case OK -> {
+            }
+            case CARD_NOT_AVAILABLE, INVALID_MOVE ->
+                throw new IllegalArgumentException("Invalid move: Card not available or not playable in current phase");
+            case CANNOT_PLAY_ON_TABLE -> {
+                Card topCard = game.getTopCard();
+                throw new IllegalArgumentException("Esta carta no se puede jugar sobre un "
+                        + (topCard != null ? topCard.getPower() : "mesa vacía"));
             }
+            default -> throw toException(result, "Not this player's turn");
+        }
+    }
 
-            // If mainDeck is not empty -> Draw one card (Phase 1)
-            if (!game.getMainDeck().isEmpty()) {
-                Card drawnCard = game.getMainDeck().remove(game.getMainDeck().size() - 1);
-                currentPlayer.addCard(drawnCard);
-                String msg = String.format("Player %s DREW a card.", currentPlayer.getName());
-                log.info("[GAME-ACTION] " + msg);
-                game.setLastAction(msg);
-                game.nextTurn();
-                log.info("[GAME-TURN] Next turn: {} ({})", game.getCurrentPlayer().getName(),
-                        game.getCurrentPlayerIndex());
-                return;
+    /**
+     * Plays multiple cards from the current player's hand.
+     * All cards must be of the SAME RANK.
+     * The first card must be playable on the table.
+     */
+    public void playCards(GameState game, String playerId, List<Card> cards) {
+        if (game.getStatus() != GameStatus.PLAYING) {
+            throw new IllegalStateException("Game is not in progress");
+        }
+        if (cards == null || cards.isEmpty()) {
+            return;
+        }
+
+        // Single card fallback
+        if (cards.size() == 1) {
+            playCard(game, playerId, cards.get(0));
+            return;
+        }
+
+        // Validate "Same Rank" constraint
+        int firstRank = cards.get(0).getValue();
+        for (Card c : cards) {
+            if (c.getValue() != firstRank) {
+                throw new IllegalArgumentException("All cards must check the same rank");
             }
+        }
 
-            // If undefined play or Phase transition logic requires picking up table
-            // When deck is empty and player cannot play, they must pick up the Table Pile
-            int tableSize = game.getTablePile().size();
-            game.collectTable(currentPlayer);
-            String msg = String.format("Player %s collected %d cards from table (Deck empty).", currentPlayer.getName(),
-                    tableSize);
-            log.info("[GAME-ACTION] " + msg);
-            game.setLastAction(msg);
+        int seat = seatOf(game, playerId);
+        int move = Move.play(seat, cards);
+        if (move != Move.NONE && Move.cardCount(move) != cards.size()) {
+            move = Move.NONE; // Same physical card listed twice
+        }
 
-            game.nextTurn();
-            log.info("[GAME-TURN] Next turn: {} ({})", game.getCurrentPlayer().getName(), game.getCurrentPlayerIndex());
+        MoveResult result = seat < 0 ? rejectUnknownPlayer(game) : apply(game, move);
+        switch (result) {
+            case OK -> {
+            }
+            case CARD_NOT_AVAILABLE, INVALID_MOVE ->
+                throw new IllegalArgumentException("One or more cards are not available to play");
+            case CANNOT_PLAY_ON_TABLE -> {
+                Card topCard = game.getTopCard();
+                throw new IllegalArgumentException(
+                        "Cannot play " + cards.get(0) + " on " + (topCard != null ? topCard : "empty table"));
+            }
+            default -> throw toException(result, "Not this player's turn");
+        }
+    }
+
+    /**
+     * Draws a card from the deck for the current player.
+     * Used when player has no valid moves or chooses to pick up.
+     *
+     * @throws IllegalStateException if the deck is empty (collect the table instead)
+     */
+    public void drawCard(GameState game, String playerId) {
+        int seat = seatOf(game, playerId);
+        MoveResult result = seat < 0 ? rejectUnknownPlayer(game) : apply(game, Move.draw(seat));
+        if (!result.isOk()) {
+            throw toException(result, "Not this player's turn");
         }
     }
 
@@ -446,25 +563,24 @@ public class GameEngine {
      * Used when player chooses to pick up the table instead of playing.
      */
     public void collectTable(GameState game, String playerId) {
-        synchronized (game) {
-            Player currentPlayer = game.getCurrentPlayer();
-            if (!currentPlayer.getId().equals(playerId)) {
-                throw new IllegalStateException("Not this player's turn to collect");
-            }
-
-            if (game.getTablePile().isEmpty()) {
-                throw new IllegalStateException("Table is empty, nothing to collect");
-            }
+        int seat = seatOf(game, playerId);
+        MoveResult result = seat < 0 ? rejectUnknownPlayer(game) : apply(game, Move.collect(seat));
+        if (!result.isOk()) {
+            throw toException(result, "Not this player's turn to collect");
+        }
+    }
 
-            // Perform collection using GameState's logic
-            int tableSize = game.getTablePile().size();
-            game.collectTable(currentPlayer);
-            String msg = String.format("Player %s collected %d cards (voluntary).", currentPlayer.getName(), tableSize);
-            log.info("[GAME-ACTION] " + msg);
-            game.setLastAction(msg);
+    private MoveResult rejectUnknownPlayer(GameState game) {
+        return game.getStatus() != GameStatus.PLAYING ? MoveResult.GAME_NOT_IN_PROGRESS : MoveResult.NOT_YOUR_TURN;
+    }
 
-            game.nextTurn();
-            log.info("[GAME-TURN] Next turn: {} ({})", game.getCurrentPlayer().getName(), game.getCurrentPlayerIndex());
-        }
+    private RuntimeException toException(MoveResult result, String notYourTurnMessage) {
+        return switch (result) {
+            case GAME_NOT_IN_PROGRESS -> new IllegalStateException("Game is not in progress");
+            case NOT_YOUR_TURN -> new IllegalStateException(notYourTurnMessage);
+            case TABLE_EMPTY -> new IllegalStateException("Table is empty, nothing to collect");
+            case DECK_EMPTY -> new IllegalStateException("Deck is empty, nothing to draw");
+            default -> new IllegalArgumentException("Invalid move: " + result);
+        };
     }
 }
@@ -0,0 +1,146 @@
+package com.game.core.engine;
+
+import com.game.core.model.Card;
+import com.game.core.model.CardCatalog;
+import com.game.core.model.Suit;
+
+import java.util.List;
+
+/**
+ * Compact int encoding of a player action.
+ * Layout (low to high bits):
+ * - 0..1: type (PLAY, DRAW, COLLECT)
+ * - 2..5: seat index of the acting player
+ * - 6..9: card value (PLAY only)
+ * - 10..17: card mask (PLAY only), one bit per {@code deck * 4 + suit}
+ *
+ * A play only carries same-rank cards, so value plus mask identifies every
+ * physical card of the throw.
+ */
+public final class Move {
+
+    public static final int NONE = -1;
+
+    public static final int PLAY = 0;
+    public static final int DRAW = 1;
+    public static final int COLLECT = 2;
+
+    public static final int MAX_SEATS = 16;
+
+    private static final Suit[] SUITS = Suit.values();
+    private static final int SUIT_COUNT = SUITS.length;
+
+    private Move() {
+    }
+
+    public static int draw(int seat) {
+        return encode(DRAW, seat, 0, 0);
+    }
+
+    public static int collect(int seat) {
+        return encode(COLLECT, seat, 0, 0);
+    }
+
+    /**
+     * Encodes a single-card play.
+     *
+     * @return the move, or NONE if the card is unknown
+     */
+    public static int play(int seat, Card card) {
+        int slot = slotOf(card);
+        return slot < 0 ? NONE : play(seat, CardCatalog.get(card.getId()).getValue(), 1 << slot);
+    }
+
+    /**
+     * Encodes a same-rank multi-card play.
+     *
+     * @return the move, or NONE if the list is empty, mixes ranks or holds unknown cards
+     */
+    public static int play(int seat, List<Card> cards) {
+        if (cards == null || cards.isEmpty()) {
+            return NONE;
+        }
+        int value = 0;
+        int mask = 0;
+        for (int i = 0; i < cards.size(); i++) {
+            int slot = slotOf(cards.get(i));
+            if (slot < 0) {
+                return NONE;
+            }
+            int cardValue = CardCatalog.get(cards.get(i).getId()).getValue();
+            if (value != 0 && cardValue != value) {
+                return NONE;
+            }
+            value = cardValue;
+            mask |= 1 << slot;
+        }
+        return play(seat, value, mask);
+    }
+
+    /**
+     * Encodes a play from a value and a card mask.
+     */
+    public static int play(int seat, int value, int mask) {
+        if (value < 1 || value > 13 || mask == 0) {
+            return NONE;
+        }
+        return encode(PLAY, seat, value, mask);
+    }
+
+    public static int type(int move) {
+        return move & 0x3;
+    }
+
+    public static int seat(int move) {
+        return (move >>> 2) & 0xF;
+    }
+
+    public static int value(int move) {
+        return (move >>> 6) & 0xF;
+    }
+
+    public static int mask(int move) {
+        return (move >>> 10) & 0xFF;
+    }
+
+    public static int cardCount(int move) {
+        return Integer.bitCount(mask(move));
+    }
+
+    /**
+     * Card id for one bit (slot) of the card mask.
+     */
+    public static int cardId(int value, int slot) {
+        return CardCatalog.idOf(slot / SUIT_COUNT, value, SUITS[slot % SUIT_COUNT]);
+    }
+
+    /**
+     * Mask slot of a card: {@code deck * 4 + suit}, or -1 if the card is unknown.
+     */
+    public static int slotOf(Card card) {
+        int id = card != null ? card.getId() : -1;
+        if (id < 0 || id >= CardCatalog.CAPACITY) {
+            return -1;
+        }
+        return (id / CardCatalog.CARDS_PER_DECK) * SUIT_COUNT + CardCatalog.get(id).getSuit().ordinal();
+    }
+
+    public static String toString(int move) {
+        if (move == NONE) {
+            return "NONE";
+        }
+        return switch (type(move)) {
+            case PLAY -> "PLAY(seat=" + seat(move) + ", value=" + value(move) + ", cards=" + cardCount(move) + ")";
+            case DRAW -> "DRAW(seat=" + seat(move) + ")";
+            case COLLECT -> "COLLECT(seat=" + seat(move) + ")";
+            default -> "INVALID(" + move + ")";
+        };
+    }
+
+    private static int encode(int type, int seat, int value, int mask) {
+        if (seat < 0 || seat >= MAX_SEATS) {
+            return NONE;
+        }
+        return type | (seat << 2) | (value << 6) | (mask << 10);
+    }
+}
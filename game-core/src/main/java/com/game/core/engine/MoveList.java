@@ -0,0 +1,69 @@
+package com.game.core.engine;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of {@link Move} values backed by an int array.
+ * Meant to be reused between calls to {@link GameEngine#legalMoves}.
+ */
+public class MoveList {
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(32);
+    }
+
+    public MoveList(int initialCapacity) {
+        this.moves = new int[Math.max(initialCapacity, 4)];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return moves[index];
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(i > 0 ? ", " : "").append(Move.toString(moves[i]));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,20 @@
+package com.game.core.engine;
+
+/**
+ * Result code of applying a {@link Move} to a game.
+ * Every code other than OK leaves the game state untouched.
+ */
+public enum MoveResult {
+    OK,                     // Move applied (including a failed blind play, which eats the table)
+    GAME_NOT_IN_PROGRESS,   // Game is not PLAYING
+    NOT_YOUR_TURN,          // Move seat is not the current player
+    CARD_NOT_AVAILABLE,     // Card is not in the player's active pile
+    CANNOT_PLAY_ON_TABLE,   // Revealed card does not beat the top card
+    TABLE_EMPTY,            // Nothing to collect
+    DECK_EMPTY,             // Nothing to draw
+    INVALID_MOVE;           // Malformed move value
+
+    public boolean isOk() {
+        return this == OK;
+    }
+}
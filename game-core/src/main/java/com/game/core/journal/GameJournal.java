@@ -0,0 +1,39 @@
+package com.game.core.journal;
+
+import com.game.core.model.GameState;
+
+/**
+ * Receives every game start and every successfully applied move from the
+ * {@link com.game.core.engine.GameEngine}. Seed, players and the ordered
+ * moves are enough to rebuild a game with {@link GameReplayer}.
+ *
+ * Callbacks run while the engine holds the game lock, so implementations
+ * should only record and return.
+ */
+public interface GameJournal {
+
+    /**
+     * Journal that records nothing.
+     */
+    GameJournal NONE = new GameJournal() {
+        @Override
+        public void gameStarted(GameState game) {
+        }
+
+        @Override
+        public void moveApplied(GameState game, int move) {
+        }
+    };
+
+    /**
+     * Called once the deck is shuffled and dealt.
+     */
+    void gameStarted(GameState game);
+
+    /**
+     * Called after a move was applied successfully.
+     *
+     * @param move the move, encoded as in {@link com.game.core.engine.Move}
+     */
+    void moveApplied(GameState game, int move);
+}
@@ -0,0 +1,165 @@
+package com.game.core.journal;
+
+import com.game.core.model.GameState;
+import com.game.core.model.MatchMode;
+import com.game.core.model.Player;
+import com.game.core.wire.WireBuffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decoded journal of one game: what is needed to set it up (seed, deck size,
+ * mode and seats) plus every move applied since it started.
+ *
+ * Binary layout:
+ * - format version (1 byte)
+ * - game id (string)
+ * - seed (8 bytes, big-endian)
+ * - deck size (varint)
+ * - match mode ordinal + 1, 0 if unset (1 byte)
+ * - seat count (varint), then per seat: id (string), name (string), bot flag (1 byte)
+ * - moves until the end of the record (varint each, usually 2 bytes)
+ *
+ * Strings are varint length-prefixed UTF-8.
+ */
+public final class GameRecord {
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final MatchMode[] MODES = MatchMode.values();
+
+    /**
+     * A player seat as it was when the game started.
+     */
+    public record Seat(String id, String name, boolean bot) {
+    }
+
+    private final String gameId;
+    private final long seed;
+    private final int deckSize;
+    private final MatchMode mode;
+    private final List<Seat> seats;
+    private final int[] moves;
+
+    public GameRecord(String gameId, long seed, int deckSize, MatchMode mode, List<Seat> seats, int[] moves) {
+        this.gameId = gameId;
+        this.seed = seed;
+        this.deckSize = deckSize;
+        this.mode = mode;
+        this.seats = List.copyOf(seats);
+        this.moves = moves.clone();
+    }
+
+    /**
+     * Captures the setup of a game that has just started (no moves yet).
+     */
+    public static GameRecord started(GameState game) {
+        if (game.getSeed() == null) {
+            throw new IllegalStateException("Game " + game.getGameId() + " has no seed");
+        }
+        List<Seat> seats = new ArrayList<>(game.getPlayers().size());
+        for (Player player : game.getPlayers()) {
+            seats.add(new Seat(player.getId(), player.getName(), player.isBot()));
+        }
+        return new GameRecord(game.getGameId(), game.getSeed(), game.getDeckSize(), game.getMode(), seats,
+                new int[0]);
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    public MatchMode getMode() {
+        return mode;
+    }
+
+    public List<Seat> getSeats() {
+        return seats;
+    }
+
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    public int getMove(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Encodes this record in the binary journal format.
+     */
+    public byte[] encode() {
+        WireBuffer buffer = new WireBuffer(64 + moves.length * 2);
+        writeHeader(buffer);
+        for (int move : moves) {
+            buffer.writeVarInt(move);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Decodes a record written by {@link #encode()} or {@link InMemoryGameJournal}.
+     *
+     * @throws IllegalArgumentException if the data is truncated or of an unknown format
+     */
+    public static GameRecord decode(byte[] data) {
+        WireBuffer.Reader reader = new WireBuffer.Reader(data);
+        int version = reader.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported journal format: " + version);
+        }
+        String gameId = reader.readString();
+        long seed = reader.readLong();
+        int deckSize = reader.readVarInt();
+        int modeIndex = reader.readByte();
+        if (modeIndex > MODES.length) {
+            throw new IllegalArgumentException("Unknown match mode: " + (modeIndex - 1));
+        }
+        MatchMode mode = modeIndex == 0 ? null : MODES[modeIndex - 1];
+
+        int seatCount = reader.readVarInt();
+        List<Seat> seats = new ArrayList<>(seatCount);
+        for (int i = 0; i < seatCount; i++) {
+            seats.add(new Seat(reader.readString(), reader.readString(), reader.readByte() != 0));
+        }
+
+        int[] moves = new int[16];
+        int count = 0;
+        while (reader.hasMore()) {
+            if (count == moves.length) {
+                moves = Arrays.copyOf(moves, count * 2);
+            }
+            moves[count++] = reader.readVarInt();
+        }
+        return new GameRecord(gameId, seed, deckSize, mode, seats, Arrays.copyOf(moves, count));
+    }
+
+    void writeHeader(WireBuffer buffer) {
+        buffer.writeByte(FORMAT_VERSION);
+        buffer.writeString(gameId);
+        buffer.writeLong(seed);
+        buffer.writeVarInt(deckSize);
+        buffer.writeByte(mode != null ? mode.ordinal() + 1 : 0);
+        buffer.writeVarInt(seats.size());
+        for (Seat seat : seats) {
+            buffer.writeString(seat.id());
+            buffer.writeString(seat.name());
+            buffer.writeByte(seat.bot() ? 1 : 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GameRecord(" + gameId + ", seed=" + seed + ", seats=" + seats.size() + ", moves=" + moves.length + ")";
+    }
+}
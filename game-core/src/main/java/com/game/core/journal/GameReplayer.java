@@ -0,0 +1,64 @@
+package com.game.core.journal;
+
+import com.game.core.engine.GameEngine;
+import com.game.core.engine.Move;
+import com.game.core.engine.MoveResult;
+import com.game.core.model.GameState;
+import com.game.core.model.Player;
+
+/**
+ * Rebuilds games from their journal by dealing with the recorded seed and
+ * applying the recorded moves through the engine.
+ */
+public class GameReplayer {
+
+    private final GameEngine engine;
+
+    /**
+     * Replays with an engine that journals nothing.
+     */
+    public GameReplayer() {
+        this(new GameEngine());
+    }
+
+    /**
+     * Replays with the given engine. Pass a journaling engine to keep recording
+     * a game restored after a restart.
+     */
+    public GameReplayer(GameEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Rebuilds a game from its encoded record.
+     */
+    public GameState replay(byte[] record) {
+        return replay(GameRecord.decode(record));
+    }
+
+    /**
+     * Rebuilds a game from its record.
+     *
+     * @throws IllegalStateException if a recorded move is rejected, which means
+     *                               the record does not match the engine rules
+     */
+    public GameState replay(GameRecord record) {
+        GameState game = new GameState(record.getGameId());
+        game.setDeckSize(record.getDeckSize());
+        game.setMode(record.getMode());
+        for (GameRecord.Seat seat : record.getSeats()) {
+            game.addPlayer(new Player(seat.id(), seat.name(), seat.bot()));
+        }
+        engine.startGame(game, record.getSeed());
+
+        for (int i = 0; i < record.getMoveCount(); i++) {
+            int move = record.getMove(i);
+            MoveResult result = engine.apply(game, move);
+            if (!result.isOk()) {
+                throw new IllegalStateException("Journal of game " + record.getGameId() + " diverged at move " + i
+                        + " (" + Move.toString(move) + "): " + result);
+            }
+        }
+        return game;
+    }
+}
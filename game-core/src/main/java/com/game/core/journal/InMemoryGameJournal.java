@@ -0,0 +1,71 @@
+package com.game.core.journal;
+
+import com.game.core.model.GameState;
+import com.game.core.wire.WireBuffer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Journal that keeps each game's record in memory, already in the binary
+ * {@link GameRecord} format. A started game costs its header plus about two
+ * bytes per move.
+ */
+public class InMemoryGameJournal implements GameJournal {
+
+    private final Map<String, WireBuffer> records = new ConcurrentHashMap<>();
+
+    @Override
+    public void gameStarted(GameState game) {
+        WireBuffer buffer = new WireBuffer();
+        GameRecord.started(game).writeHeader(buffer);
+        records.put(game.getGameId(), buffer);
+    }
+
+    @Override
+    public void moveApplied(GameState game, int move) {
+        WireBuffer buffer = records.get(game.getGameId());
+        if (buffer != null) {
+            synchronized (buffer) {
+                buffer.writeVarInt(move);
+            }
+        }
+    }
+
+    /**
+     * Gets the encoded record of a game.
+     *
+     * @return a copy of the bytes, or null if the game was never started here
+     */
+    public byte[] getBytes(String gameId) {
+        WireBuffer buffer = records.get(gameId);
+        if (buffer == null) {
+            return null;
+        }
+        synchronized (buffer) {
+            return buffer.toByteArray();
+        }
+    }
+
+    /**
+     * Gets the decoded record of a game, or null if the game was never started here.
+     */
+    public GameRecord getRecord(String gameId) {
+        byte[] bytes = getBytes(gameId);
+        return bytes != null ? GameRecord.decode(bytes) : null;
+    }
+
+    /**
+     * Drops the record of a game that no longer needs to be rebuilt.
+     */
+    public void remove(String gameId) {
+        records.remove(gameId);
+    }
+
+    /**
+     * Number of games with a record.
+     */
+    public int size() {
+        return records.size();
+    }
+}
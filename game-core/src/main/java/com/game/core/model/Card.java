@@ -1,7 +1,7 @@
 package com.game.core.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 /**
@@ -9,16 +9,19 @@ import lombok.NoArgsConstructor;
  * Cards have values from 1 (Ace) to 13 (King).
  * Comparison logic follows game rules: A > K > Q ... > 3.
  * 2 and 10 have special effects.
+ *
+ * Cards are immutable flyweights shared through {@link CardCatalog}: each
+ * physical card of a game is identified by its deck index ({@link #getId()}),
+ * and equality is a plain int comparison on that index.
  */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
+@Getter
+@NoArgsConstructor(access = AccessLevel.PRIVATE) // JSON binding only
 public class Card {
 
     /**
-     * Unique identifier for this specific card instance.
+     * Deck index of this physical card (0..103 with two decks).
      */
-    private String instanceId = java.util.UUID.randomUUID().toString();
+    private int id = -1;
 
     /**
      * Card value: 1 (Ace) to 13 (King)
@@ -31,20 +34,47 @@ public class Card {
     private Suit suit;
 
     /**
-     * Whether the card is hidden (Phase 4).
+     * Whether the card is face down. This is not state of the card itself:
+     * the hidden pile holds the hidden variant from {@link CardCatalog} and
+     * every other pile holds the revealed one.
      */
     private boolean hidden = false;
 
     /**
-     * Internal flag to indicate if this is a visual placeholder.
+     * Creates a detached card equal to the first-deck catalog card with the
+     * given value and suit. Prefer {@link CardCatalog#get(int)} in engine code.
      */
-    private boolean isPlaceholder = false;
-
     public Card(int value, Suit suit) {
-        this();
+        this(CardCatalog.idOf(0, value, suit), value, suit, false);
+    }
+
+    Card(int id, int value, Suit suit, boolean hidden) {
+        this.id = id;
         this.value = value;
         this.suit = suit;
-        this.hidden = false;
+        this.hidden = hidden;
+    }
+
+    /**
+     * String form of the card id, kept for clients that identify cards by
+     * {@code instanceId}.
+     */
+    public String getInstanceId() {
+        return String.valueOf(id);
+    }
+
+    /**
+     * Returns the shared face-down variant of this card.
+     */
+    public Card asHidden() {
+        return CardCatalog.hidden(id);
+    }
+
+    /**
+     * Returns the shared face-up variant of this card.
+     */
+    public Card asRevealed() {
+        return CardCatalog.get(id);
     }
 
     /**
@@ -53,7 +83,7 @@ public class Card {
      * Exceptions:
      * - 2 can be played on anything (resets/wild)
      * - 10 can be played on anything (clears table)
-     * 
+     *
      * @param tableCard The current card on the table
      * @return true if this card can be played
      */
@@ -82,7 +112,7 @@ public class Card {
 
     /**
      * Checks if this card has the special "clear table" effect.
-     * 
+     *
      * @return true if this is a 10
      */
     public boolean clearsTable() {
@@ -102,6 +132,24 @@ public class Card {
         return this.value;
     }
 
+    // --- JSON binding (detached cards are resolved through CardCatalog) ---
+
+    private void setInstanceId(String instanceId) {
+        this.id = CardCatalog.parseId(instanceId);
+    }
+
+    private void setValue(int value) {
+        this.value = value;
+    }
+
+    private void setSuit(Suit suit) {
+        this.suit = suit;
+    }
+
+    private void setHidden(boolean hidden) {
+        this.hidden = hidden;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -109,17 +157,17 @@ public class Card {
         if (o == null || getClass() != o.getClass())
             return false;
         Card card = (Card) o;
-        return java.util.Objects.equals(instanceId, card.instanceId);
+        return id == card.id;
     }
 
     @Override
     public int hashCode() {
-        return java.util.Objects.hashCode(instanceId);
+        return id;
     }
 
     @Override
     public String toString() {
-        return valueToString() + " of " + suit + " (" + instanceId + ")";
+        return valueToString() + " of " + suit + " (#" + id + ")";
     }
 
     private String valueToString() {
@@ -0,0 +1,100 @@
+package com.game.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable, shared catalog of every physical card a game can use.
+ * Card ids are deck indexes: {@code deck * 52 + suit * 13 + (value - 1)}.
+ * Dealing a deck only copies references out of this catalog.
+ */
+public final class CardCatalog {
+
+    public static final int CARDS_PER_DECK = 52;
+    public static final int MAX_DECKS = 2;
+    public static final int CAPACITY = CARDS_PER_DECK * MAX_DECKS;
+
+    private static final int VALUES_PER_SUIT = 13;
+
+    private static final Card[] REVEALED = new Card[CAPACITY];
+    private static final Card[] HIDDEN = new Card[CAPACITY];
+
+    static {
+        Suit[] suits = Suit.values();
+        for (int id = 0; id < CAPACITY; id++) {
+            int value = id % VALUES_PER_SUIT + 1;
+            Suit suit = suits[(id / VALUES_PER_SUIT) % suits.length];
+            REVEALED[id] = new Card(id, value, suit, false);
+            HIDDEN[id] = new Card(id, value, suit, true);
+        }
+    }
+
+    private CardCatalog() {
+    }
+
+    /**
+     * Gets the face-up card with the given id.
+     */
+    public static Card get(int id) {
+        return REVEALED[id];
+    }
+
+    /**
+     * Gets the face-down card with the given id.
+     */
+    public static Card hidden(int id) {
+        return HIDDEN[id];
+    }
+
+    /**
+     * Computes the id of a card from its deck index, value and suit.
+     */
+    public static int idOf(int deck, int value, Suit suit) {
+        return deck * CARDS_PER_DECK + suit.ordinal() * VALUES_PER_SUIT + (value - 1);
+    }
+
+    /**
+     * Number of physical decks for a configured deck size (52 or 104).
+     */
+    public static int deckCount(int deckSize) {
+        return (deckSize <= CARDS_PER_DECK) ? 1 : MAX_DECKS;
+    }
+
+    /**
+     * Builds an unshuffled deck for the given size using catalog cards.
+     */
+    public static List<Card> deck(int deckSize) {
+        int count = deckCount(deckSize) * CARDS_PER_DECK;
+        List<Card> deck = new ArrayList<>(count);
+        for (int id = 0; id < count; id++) {
+            deck.add(REVEALED[id]);
+        }
+        return deck;
+    }
+
+    /**
+     * Resolves a card received from a client (identified by its instanceId)
+     * to the shared face-up instance.
+     *
+     * @return the catalog card, or null if the id is unknown
+     */
+    public static Card fromInstanceId(String instanceId) {
+        int id = parseId(instanceId);
+        return id < 0 ? null : REVEALED[id];
+    }
+
+    /**
+     * Parses a card id, returning -1 for anything outside the catalog.
+     */
+    static int parseId(String instanceId) {
+        if (instanceId == null) {
+            return -1;
+        }
+        try {
+            int id = Integer.parseInt(instanceId);
+            return (id >= 0 && id < CAPACITY) ? id : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.game.core.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+/**
+ * Compact pile of cards for a player (Hand, Visible or Hidden).
+ * Backed by a 128-bit card-presence bitset plus a per-rank count array,
+ * giving O(1) membership, removal and rank queries.
+ *
+ * The pile is also a live {@code List<Card>} view ordered by card id, so
+ * JSON serialisation and the Android mapper keep working unchanged. It has
+ * set semantics: adding a card that is already present is a no-op.
+ * A hidden pile hands out the face-down variant of every card it holds.
+ */
+public class CardPile extends AbstractList<Card> {
+
+    private static final int MIN_VALUE = 1;
+    private static final int MAX_VALUE = 13;
+    private static final Suit[] SUITS = Suit.values();
+
+    private final boolean hidden;
+
+    // Card presence: ids 0..63 in low, 64..127 in high
+    private long low;
+    private long high;
+
+    // Count of cards per value (index 1..13)
+    private final byte[] rankCounts = new byte[MAX_VALUE + 1];
+    private int size;
+
+    public CardPile() {
+        this(false);
+    }
+
+    public CardPile(boolean hidden) {
+        this.hidden = hidden;
+    }
+
+    /**
+     * Whether cards in this pile are face down.
+     */
+    public boolean isHidden() {
+        return hidden;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if the card with the given id is in this pile.
+     */
+    public boolean containsId(int id) {
+        if (id < 0 || id >= CardCatalog.CAPACITY) {
+            return false;
+        }
+        return id < 64 ? (low & (1L << id)) != 0 : (high & (1L << (id - 64))) != 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Card card && containsId(card.getId());
+    }
+
+    @Override
+    public boolean add(Card card) {
+        int id = card.getId();
+        if (id < 0 || id >= CardCatalog.CAPACITY) {
+            throw new IllegalArgumentException("Unknown card: " + card);
+        }
+        if (containsId(id)) {
+            return false;
+        }
+        if (id < 64) {
+            low |= 1L << id;
+        } else {
+            high |= 1L << (id - 64);
+        }
+        rankCounts[card.getValue()]++;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Card> cards) {
+        if (!(cards instanceof CardPile other)) {
+            return super.addAll(cards);
+        }
+        long newLow = other.low & ~low;
+        long newHigh = other.high & ~high;
+        if ((newLow | newHigh) == 0) {
+            return false;
+        }
+        if (newLow == other.low && newHigh == other.high) {
+            // Disjoint piles (the usual case): merge counts directly
+            for (int value = MIN_VALUE; value <= MAX_VALUE; value++) {
+                rankCounts[value] += other.rankCounts[value];
+            }
+        } else {
+            for (int id = nextId(newLow, newHigh, 0); id >= 0; id = nextId(newLow, newHigh, id + 1)) {
+                rankCounts[CardCatalog.get(id).getValue()]++;
+            }
+        }
+        low |= newLow;
+        high |= newHigh;
+        size += Long.bitCount(newLow) + Long.bitCount(newHigh);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes the card with the given id.
+     *
+     * @return true if the card was in this pile
+     */
+    public boolean removeId(int id) {
+        if (!containsId(id)) {
+            return false;
+        }
+        if (id < 64) {
+            low &= ~(1L << id);
+        } else {
+            high &= ~(1L << (id - 64));
+        }
+        rankCounts[CardCatalog.get(id).getValue()]--;
+        size--;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Card card && removeId(card.getId());
+    }
+
+    @Override
+    public Card remove(int index) {
+        Card card = get(index);
+        removeId(card.getId());
+        return card;
+    }
+
+    @Override
+    public void clear() {
+        low = 0;
+        high = 0;
+        Arrays.fill(rankCounts, (byte) 0);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Card get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int lowCount = Long.bitCount(low);
+        int id = index < lowCount ? select(low, index) : 64 + select(high, index - lowCount);
+        return cardFor(id);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!contains(o)) {
+            return -1;
+        }
+        int id = ((Card) o).getId();
+        if (id < 64) {
+            return Long.bitCount(low & ((1L << id) - 1));
+        }
+        return Long.bitCount(low) + Long.bitCount(high & ((1L << (id - 64)) - 1));
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    /**
+     * Returns the first card id in this pile at or after {@code fromId},
+     * or -1 if there is none. Allows iteration without allocating:
+     * {@code for (int id = pile.nextId(0); id >= 0; id = pile.nextId(id + 1))}.
+     */
+    public int nextId(int fromId) {
+        return nextId(low, high, fromId);
+    }
+
+    /**
+     * Number of cards with the given value (1..13).
+     */
+    public int count(int value) {
+        return rankCounts[value];
+    }
+
+    /**
+     * Returns the {@code nth} (0-based, in id order) card with the given value,
+     * or null if the pile holds fewer cards of that value.
+     */
+    public Card cardOfValue(int value, int nth) {
+        if (nth < 0 || nth >= rankCounts[value]) {
+            return null;
+        }
+        for (int deck = 0; deck < CardCatalog.MAX_DECKS; deck++) {
+            for (Suit suit : SUITS) {
+                int id = CardCatalog.idOf(deck, value, suit);
+                if (containsId(id) && nth-- == 0) {
+                    return cardFor(id);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the value of the lowest-power card that can be played on the
+     * given table card.
+     *
+     * @return the value (1..13), or 0 if no card in this pile can be played
+     */
+    public int lowestPlayableValue(Card tableCard) {
+        // Powers run 2..14 (Ace is 14)
+        for (int power = 2; power <= 14; power++) {
+            int value = power == 14 ? 1 : power;
+            if (rankCounts[value] > 0 && CardCatalog.get(firstIdOfValue(value)).canPlayOn(tableCard)) {
+                return value;
+            }
+        }
+        return 0;
+    }
+
+    private int firstIdOfValue(int value) {
+        return CardCatalog.idOf(0, value, Suit.HEARTS);
+    }
+
+    private Card cardFor(int id) {
+        return hidden ? CardCatalog.hidden(id) : CardCatalog.get(id);
+    }
+
+    private static int nextId(long low, long high, int fromId) {
+        if (fromId < 64) {
+            long bits = fromId < 0 ? low : low & (-1L << fromId);
+            if (bits != 0) {
+                return Long.numberOfTrailingZeros(bits);
+            }
+            fromId = 64;
+        }
+        if (fromId >= 128) {
+            return -1;
+        }
+        long bits = high & (-1L << (fromId - 64));
+        return bits != 0 ? 64 + Long.numberOfTrailingZeros(bits) : -1;
+    }
+
+    private static int select(long bits, int index) {
+        for (int i = 0; i < index; i++) {
+            bits &= bits - 1;
+        }
+        if (bits == 0) {
+            throw new NoSuchElementException();
+        }
+        return Long.numberOfTrailingZeros(bits);
+    }
+}
@@ -1,5 +1,6 @@
 package com.game.core.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -32,10 +33,26 @@ public class GameState {
     private int deckSize = 104; // Default to full 104 cards
     private String lastAction;
 
+    // Shuffle seed, fixed when the game starts (or set beforehand to force a deal).
+    // Seed plus the journaled moves rebuild the whole game, so it never leaves the
+    // server: only the journal and the hibernated image keep it.
+    @JsonIgnore
+    private Long seed;
+
+    // Bumped by every change to the game, so that a copy can be checked for staleness
+    private long version;
+
     public GameState(String gameId) {
         this.gameId = gameId;
     }
 
+    /**
+     * Marks the game as changed.
+     */
+    public void bumpVersion() {
+        version++;
+    }
+
     /**
      * Gets the current player whose turn it is.
      */
@@ -3,7 +3,7 @@ package com.game.core.model;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -20,13 +20,13 @@ public class Player {
     private String name;
 
     // Phase 1 cards (current hand)
-    private List<Card> hand = new ArrayList<>();
+    private final CardPile hand = new CardPile();
 
     // Phase 2 cards (face up on table)
-    private List<Card> visibleCards = new ArrayList<>();
+    private final CardPile visibleCards = new CardPile();
 
     // Phase 3 cards (face down on table)
-    private List<Card> hiddenCards = new ArrayList<>();
+    private final CardPile hiddenCards = new CardPile(true);
 
     private boolean isBot;
     private boolean isActive = true;
@@ -78,32 +78,40 @@ public class Player {
     }
 
     /**
-     * Finds playable cards based on the current phase.
+     * Gets the pile the player must currently play from.
      * Logic: Must play from Hand if not empty. Then Visible. Then Hidden.
+     *
+     * @return the active pile, or null if the player has no cards left
      */
-    public List<Card> getPlayableCards(Card tableCard) {
+    public CardPile activePile() {
         // Phase 1: Hand (Mandatory priority)
         if (!hand.isEmpty()) {
-            // Return all hand cards. The GameEngine will decide if they succeed or fail
-            // (Eat Table).
-            // This allows the "reveal then play to fail" flow requested by the user.
-            return new ArrayList<>(hand);
+            return hand;
         }
 
         // Phase 2: Visible Cards (on table)
         // ONLY reachable if hand is completely empty
-        if (hand.isEmpty() && !visibleCards.isEmpty()) {
-            // For table cards, we still filter to guide the player?
-            // Actually, to be consistent and allow "trying" visible cards that might fail:
-            return new ArrayList<>(visibleCards);
+        if (!visibleCards.isEmpty()) {
+            return visibleCards;
         }
 
         // Phase 3: Hidden Cards (on table)
         // ONLY reachable if hand AND visibleCards are completely empty
-        if (hand.isEmpty() && visibleCards.isEmpty() && !hiddenCards.isEmpty()) {
-            return new ArrayList<>(hiddenCards);
+        if (!hiddenCards.isEmpty()) {
+            return hiddenCards;
         }
 
-        return new ArrayList<>();
+        return null;
+    }
+
+    /**
+     * Finds playable cards based on the current phase.
+     * Returns every card of the active pile; the GameEngine will decide if they
+     * succeed or fail (Eat Table). This allows the "reveal then play to fail" flow.
+     * The result is a live read-only view, not a copy.
+     */
+    public List<Card> getPlayableCards(Card tableCard) {
+        CardPile pile = activePile();
+        return pile != null ? Collections.unmodifiableList(pile) : Collections.emptyList();
     }
 }
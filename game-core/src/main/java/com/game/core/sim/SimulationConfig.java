@@ -0,0 +1,66 @@
+package com.game.core.sim;
+
+/**
+ * Parameters for a headless bot-vs-bot simulation run.
+ *
+ * @param games       number of games to play
+ * @param players     bots per game (2..4)
+ * @param deckSize    52 or 104
+ * @param seed        base seed; game {@code i} derives its own seed from it
+ * @param parallelism fork-join pool size
+ * @param maxTurns    turn cap per game, so a stuck game cannot stall the run
+ */
+public record SimulationConfig(int games, int players, int deckSize, long seed, int parallelism, int maxTurns) {
+
+    public SimulationConfig {
+        if (games < 1) {
+            throw new IllegalArgumentException("games must be positive");
+        }
+        if (players < 2) {
+            throw new IllegalArgumentException("need at least 2 players");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        if (maxTurns < 1) {
+            throw new IllegalArgumentException("maxTurns must be positive");
+        }
+    }
+
+    public static SimulationConfig defaults() {
+        return new SimulationConfig(100_000, 4, 104, 1L, Runtime.getRuntime().availableProcessors(), 10_000);
+    }
+
+    /**
+     * Parses {@code --games=N --players=N --deck=N --seed=N --threads=N --max-turns=N},
+     * falling back to {@link #defaults()} for anything missing.
+     */
+    public static SimulationConfig fromArgs(String[] args) {
+        SimulationConfig d = defaults();
+        int games = d.games();
+        int players = d.players();
+        int deckSize = d.deckSize();
+        long seed = d.seed();
+        int parallelism = d.parallelism();
+        int maxTurns = d.maxTurns();
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Unrecognised argument: " + arg);
+            }
+            String key = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "games" -> games = Integer.parseInt(value);
+                case "players" -> players = Integer.parseInt(value);
+                case "deck" -> deckSize = Integer.parseInt(value);
+                case "seed" -> seed = Long.parseLong(value);
+                case "threads" -> parallelism = Integer.parseInt(value);
+                case "max-turns" -> maxTurns = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unrecognised argument: " + arg);
+            }
+        }
+        return new SimulationConfig(games, players, deckSize, seed, parallelism, maxTurns);
+    }
+}
@@ -0,0 +1,131 @@
+package com.game.core.sim;
+
+import java.util.Locale;
+
+/**
+ * Aggregated statistics of a simulation run.
+ * Each fork-join leaf fills its own report; reports are merged on join.
+ */
+public class SimulationReport {
+
+    private final long[] winsBySeat;
+    private long games;
+    private long finishedGames;
+    private long turns;
+    private long tableClears;
+    private long collects;
+    private long elapsedNanos;
+
+    public SimulationReport(int seats) {
+        this.winsBySeat = new long[seats];
+    }
+
+    void recordGame(int turns, int winnerSeat, int tableClears, int collects) {
+        this.games++;
+        this.turns += turns;
+        this.tableClears += tableClears;
+        this.collects += collects;
+        if (winnerSeat >= 0) {
+            this.finishedGames++;
+            this.winsBySeat[winnerSeat]++;
+        }
+    }
+
+    void merge(SimulationReport other) {
+        games += other.games;
+        finishedGames += other.finishedGames;
+        turns += other.turns;
+        tableClears += other.tableClears;
+        collects += other.collects;
+        for (int i = 0; i < winsBySeat.length; i++) {
+            winsBySeat[i] += other.winsBySeat[i];
+        }
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Games that ended with a winner (the rest hit the turn cap).
+     */
+    public long getFinishedGames() {
+        return finishedGames;
+    }
+
+    public long getTurns() {
+        return turns;
+    }
+
+    public long getTableClears() {
+        return tableClears;
+    }
+
+    public long getCollects() {
+        return collects;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    public double turnsPerSecond() {
+        return elapsedNanos == 0 ? 0 : turns * 1e9 / elapsedNanos;
+    }
+
+    public double turnsPerGame() {
+        return games == 0 ? 0 : (double) turns / games;
+    }
+
+    /**
+     * Table clears per turn.
+     */
+    public double tableClearRate() {
+        return turns == 0 ? 0 : (double) tableClears / turns;
+    }
+
+    /**
+     * Table collections per turn.
+     */
+    public double collectRate() {
+        return turns == 0 ? 0 : (double) collects / turns;
+    }
+
+    /**
+     * Share of finished games won by the given seat.
+     */
+    public double winRate(int seat) {
+        return finishedGames == 0 ? 0 : (double) winsBySeat[seat] / finishedGames;
+    }
+
+    public long getWins(int seat) {
+        return winsBySeat[seat];
+    }
+
+    public int getSeats() {
+        return winsBySeat.length;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "games=%d finished=%d elapsed=%.2fs%n",
+                games, finishedGames, elapsedNanos / 1e9));
+        sb.append(String.format(Locale.ROOT, "games/sec=%.1f turns/sec=%.1f turns/game=%.1f%n",
+                gamesPerSecond(), turnsPerSecond(), turnsPerGame()));
+        sb.append(String.format(Locale.ROOT, "table clears/turn=%.4f collects/turn=%.4f%n",
+                tableClearRate(), collectRate()));
+        for (int seat = 0; seat < winsBySeat.length; seat++) {
+            sb.append(String.format(Locale.ROOT, "seat %d win rate=%.2f%%%n", seat, winRate(seat) * 100));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,138 @@
+package com.game.core.sim;
+
+import com.game.core.bot.BotStrategy;
+import com.game.core.bot.DefaultBotStrategy;
+import com.game.core.engine.GameEngine;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.Player;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headless runner that plays seeded bot-vs-bot games in parallel on a
+ * fork-join pool, with no delays, for throughput and balance measurements.
+ *
+ * Run with {@code ./gradlew :game-core:simulate --args="--games=1000000"}.
+ * Keep SLF4J unbound (the game-core default) so engine logging is a no-op.
+ */
+public class SimulationRunner {
+
+    // Games per fork-join leaf
+    private static final int BATCH_SIZE = 256;
+
+    private final GameEngine engine = new GameEngine();
+    private final SimulationConfig config;
+
+    public SimulationRunner(SimulationConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) {
+        SimulationConfig config = SimulationConfig.fromArgs(args);
+        System.out.printf("Simulating %d games (%d players, %d cards) on %d threads, seed %d%n",
+                config.games(), config.players(), config.deckSize(), config.parallelism(), config.seed());
+        System.out.print(new SimulationRunner(config).run());
+    }
+
+    /**
+     * Plays every configured game and returns the merged statistics.
+     */
+    public SimulationReport run() {
+        ForkJoinPool pool = new ForkJoinPool(config.parallelism());
+        try {
+            long start = System.nanoTime();
+            SimulationReport report = pool.invoke(new Batch(0, config.games()));
+            report.setElapsedNanos(System.nanoTime() - start);
+            return report;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Derives a well-mixed seed for one game from the base seed.
+     */
+    static long gameSeed(long baseSeed, int gameIndex) {
+        long z = baseSeed + (gameIndex + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Plays one game to the end (or to the turn cap) and records it.
+     */
+    void playGame(int gameIndex, SimulationReport report) {
+        Random random = new Random(gameSeed(config.seed(), gameIndex));
+        BotStrategy strategy = new DefaultBotStrategy(random);
+
+        GameState game = new GameState("sim-" + gameIndex);
+        game.setDeckSize(config.deckSize());
+        for (int seat = 0; seat < config.players(); seat++) {
+            game.addPlayer(new Player("bot-" + seat, "Bot " + (seat + 1), true));
+        }
+        engine.startGame(game, random);
+
+        List<Player> players = game.getPlayers();
+        int turns = 0;
+        int tableClears = 0;
+        int collects = 0;
+        while (game.getStatus() == GameStatus.PLAYING && turns < config.maxTurns()) {
+            int tableBefore = game.getTablePile().size();
+            int discardBefore = game.getDiscardPile().size();
+
+            strategy.playTurn(game, engine, game.getCurrentPlayer());
+            turns++;
+
+            if (game.getDiscardPile().size() > discardBefore) {
+                tableClears++;
+            } else if (tableBefore > 0 && game.getTablePile().isEmpty()) {
+                collects++;
+            }
+        }
+
+        int winnerSeat = -1;
+        if (game.getStatus() == GameStatus.FINISHED) {
+            for (int seat = 0; seat < players.size(); seat++) {
+                if (players.get(seat).getId().equals(game.getWinnerId())) {
+                    winnerSeat = seat;
+                    break;
+                }
+            }
+        }
+        report.recordGame(turns, winnerSeat, tableClears, collects);
+    }
+
+    private class Batch extends RecursiveTask<SimulationReport> {
+
+        private final int from;
+        private final int to;
+
+        Batch(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationReport compute() {
+            if (to - from <= BATCH_SIZE) {
+                SimulationReport report = new SimulationReport(config.players());
+                for (int i = from; i < to; i++) {
+                    playGame(i, report);
+                }
+                return report;
+            }
+
+            int mid = (from + to) >>> 1;
+            Batch left = new Batch(from, mid);
+            left.fork();
+            SimulationReport report = new Batch(mid, to).compute();
+            report.merge(left.join());
+            return report;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.game.core.sync;
+
+import com.game.core.model.Card;
+import com.game.core.model.CardCatalog;
+import com.game.core.model.CardPile;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.Player;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Remembers where every card of a game was at the last published version and
+ * turns the next state into a {@link GameDelta}. Not thread-safe: use it from
+ * the thread that owns the game (the server mailbox).
+ *
+ * Versions are the game's own (see {@link GameState#getVersion()}), so a
+ * published version can be compared with one read anywhere else. A change
+ * made without bumping the game's version still gets a new one, one above
+ * the last.
+ *
+ * Changes a delta cannot express (seats joining, leaving or going inactive,
+ * cards entering the deck, a new deal) make {@link #diff(GameState)} return null; the caller
+ * then publishes a full snapshot and calls {@link #reset(GameState)}.
+ */
+public class DeltaTracker {
+
+    private static final byte NOWHERE = -1;
+
+    private long version = -1;
+    private final byte[] locations = new byte[CardCatalog.CAPACITY];
+    private final byte[] scratch = new byte[CardCatalog.CAPACITY];
+    private String[] seatIds = new String[0];
+    private long inactiveSeats;
+    private int currentPlayerIndex;
+    private GameStatus status;
+    private String winnerId;
+    private String lastAction;
+    private final MoveBuffer moves = new MoveBuffer();
+
+    /**
+     * Version of the last published state (-1 before the first snapshot).
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Starts over from a full snapshot of the game at its current version.
+     *
+     * @return the snapshot's version
+     */
+    public long reset(GameState game) {
+        locate(game, locations);
+        seatIds = seatIds(game);
+        inactiveSeats = inactiveSeats(game);
+        currentPlayerIndex = game.getCurrentPlayerIndex();
+        status = game.getStatus();
+        winnerId = game.getWinnerId();
+        lastAction = game.getLastAction();
+        version = Math.max(game.getVersion(), version);
+        return version;
+    }
+
+    /**
+     * Computes the changes since the last version and advances to a new one.
+     *
+     * @return the delta (possibly without changes, in which case the version
+     *         does not advance), or null if only a full snapshot can describe
+     *         the change
+     */
+    public GameDelta diff(GameState game) {
+        if (version < 0 || !Arrays.equals(seatIds, seatIds(game)) || inactiveSeats != inactiveSeats(game)) {
+            return null;
+        }
+        if (!locate(game, scratch)) {
+            return null;
+        }
+
+        moves.clear();
+        List<Card> deck = game.getMainDeck();
+        for (int i = 0; i < deck.size(); i++) {
+            if (locations[deck.get(i).getId()] != GameDelta.DECK) {
+                return null; // Cards never go back into the deck during a game
+            }
+        }
+        addMoves(game.getTablePile(), GameDelta.TABLE);
+        addMoves(game.getDiscardPile(), GameDelta.DISCARD);
+        List<Player> players = game.getPlayers();
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            addMoves(player.getHand(), GameDelta.hand(seat));
+            addMoves(player.getVisibleCards(), GameDelta.visible(seat));
+            addMoves(player.getHiddenCards(), GameDelta.hidden(seat));
+        }
+        for (int id = 0; id < CardCatalog.CAPACITY; id++) {
+            if (locations[id] != NOWHERE && scratch[id] == NOWHERE) {
+                return null; // A card left the game
+            }
+        }
+
+        GameDelta delta = new GameDelta();
+        delta.setMoves(moves.toArray());
+        if (game.getCurrentPlayerIndex() != currentPlayerIndex) {
+            delta.setCurrentPlayerIndex(game.getCurrentPlayerIndex());
+        }
+        if (game.getStatus() != status) {
+            delta.setStatus(game.getStatus());
+        }
+        if (!Objects.equals(game.getWinnerId(), winnerId)) {
+            delta.setWinnerId(game.getWinnerId());
+        }
+        if (!Objects.equals(game.getLastAction(), lastAction)) {
+            delta.setLastAction(game.getLastAction());
+        }
+        if (!delta.hasChanges()) {
+            delta.setBaseVersion(version);
+            delta.setVersion(version);
+            return delta;
+        }
+
+        System.arraycopy(scratch, 0, locations, 0, locations.length);
+        currentPlayerIndex = game.getCurrentPlayerIndex();
+        status = game.getStatus();
+        winnerId = game.getWinnerId();
+        lastAction = game.getLastAction();
+        delta.setBaseVersion(version);
+        version = Math.max(game.getVersion(), version + 1);
+        delta.setVersion(version);
+        return delta;
+    }
+
+    private void addMoves(List<Card> pile, int code) {
+        if (pile instanceof CardPile cards) {
+            for (int id = cards.nextId(0); id >= 0; id = cards.nextId(id + 1)) {
+                addMove(id, code);
+            }
+        } else {
+            for (int i = 0; i < pile.size(); i++) {
+                addMove(pile.get(i).getId(), code);
+            }
+        }
+    }
+
+    private void addMove(int id, int code) {
+        if (locations[id] != code) {
+            moves.add(id, locations[id], code);
+        }
+    }
+
+    /**
+     * Fills the pile code of every card of the game.
+     *
+     * @return false if a card is unknown or appears twice
+     */
+    private static boolean locate(GameState game, byte[] into) {
+        Arrays.fill(into, NOWHERE);
+        if (!locateAll(game.getMainDeck(), GameDelta.DECK, into)
+                || !locateAll(game.getTablePile(), GameDelta.TABLE, into)
+                || !locateAll(game.getDiscardPile(), GameDelta.DISCARD, into)) {
+            return false;
+        }
+        List<Player> players = game.getPlayers();
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            if (!locateAll(player.getHand(), GameDelta.hand(seat), into)
+                    || !locateAll(player.getVisibleCards(), GameDelta.visible(seat), into)
+                    || !locateAll(player.getHiddenCards(), GameDelta.hidden(seat), into)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean locateAll(List<Card> pile, int code, byte[] into) {
+        for (int i = 0; i < pile.size(); i++) {
+            int id = pile.get(i).getId();
+            if (id < 0 || id >= into.length || into[id] != NOWHERE) {
+                return false;
+            }
+            into[id] = (byte) code;
+        }
+        return true;
+    }
+
+    private static String[] seatIds(GameState game) {
+        List<Player> players = game.getPlayers();
+        String[] ids = new String[players.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = players.get(i).getId();
+        }
+        return ids;
+    }
+
+    // Bit per seat; games never seat more than a handful of players
+    private static long inactiveSeats(GameState game) {
+        List<Player> players = game.getPlayers();
+        long mask = 0;
+        for (int i = 0; i < players.size() && i < Long.SIZE; i++) {
+            if (!players.get(i).isActive()) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Growable int buffer for move triplets.
+     */
+    private static final class MoveBuffer {
+
+        private int[] data = new int[48];
+        private int size;
+
+        void add(int id, int from, int to) {
+            if (size + 3 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size++] = id;
+            data[size++] = from;
+            data[size++] = to;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
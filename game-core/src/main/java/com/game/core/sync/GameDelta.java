@@ -0,0 +1,152 @@
+package com.game.core.sync;
+
+import com.game.core.model.GameStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Changes between two consecutive versions of a game as seen by clients.
+ * Card moves are listed as flattened {@code [cardId, fromPile, toPile]}
+ * triplets; scalar fields are only set when they changed.
+ *
+ * Pile codes: {@link #DECK}, {@link #TABLE}, {@link #DISCARD}, then three per
+ * seat ({@link #hand(int)}, {@link #visible(int)}, {@link #hidden(int)}).
+ * Moves into the table and discard pile are listed in pile order, so
+ * appending them in list order rebuilds those piles exactly.
+ *
+ * A delta sent to a single viewer goes through {@link #maskedFor(int)}: the
+ * id of a card the viewer cannot see on either side of a move is replaced by
+ * {@link #UNKNOWN_CARD}.
+ */
+@Data
+@NoArgsConstructor
+public class GameDelta {
+
+    public static final int DECK = 0;
+    public static final int TABLE = 1;
+    public static final int DISCARD = 2;
+
+    /**
+     * Card id sent in place of a card the viewer is not allowed to see.
+     */
+    public static final int UNKNOWN_CARD = -1;
+
+    /**
+     * Viewer seat of spectators, who only see the public piles.
+     */
+    public static final int SPECTATOR = -1;
+
+    private static final int FIRST_SEAT_PILE = 3;
+    private static final int PILES_PER_SEAT = 3;
+
+    /**
+     * Version this delta applies to.
+     */
+    private long baseVersion;
+
+    /**
+     * Version reached after applying this delta.
+     */
+    private long version;
+
+    /**
+     * Card moves as [cardId, fromPile, toPile] triplets.
+     */
+    private int[] moves = new int[0];
+
+    private Integer currentPlayerIndex;
+    private GameStatus status;
+    private String winnerId;
+    private String lastAction;
+
+    public static int hand(int seat) {
+        return FIRST_SEAT_PILE + seat * PILES_PER_SEAT;
+    }
+
+    public static int visible(int seat) {
+        return FIRST_SEAT_PILE + seat * PILES_PER_SEAT + 1;
+    }
+
+    public static int hidden(int seat) {
+        return FIRST_SEAT_PILE + seat * PILES_PER_SEAT + 2;
+    }
+
+    /**
+     * Seat owning a pile code, or -1 for the shared piles.
+     */
+    public static int seatOf(int pile) {
+        return pile < FIRST_SEAT_PILE ? -1 : (pile - FIRST_SEAT_PILE) / PILES_PER_SEAT;
+    }
+
+    /**
+     * Whether a pile code is a seat's hidden pile.
+     */
+    public static boolean isHiddenPile(int pile) {
+        return pile >= FIRST_SEAT_PILE && (pile - FIRST_SEAT_PILE) % PILES_PER_SEAT == 2;
+    }
+
+    /**
+     * Whether the cards of a pile are face up for a viewer: the table,
+     * discard and visible piles for everyone, a hand for its owner only.
+     * The deck and hidden piles are seen by nobody.
+     *
+     * @param viewer seat of the viewer, or {@link #SPECTATOR}
+     */
+    public static boolean isVisibleTo(int pile, int viewer) {
+        if (pile == TABLE || pile == DISCARD) {
+            return true;
+        }
+        if (pile < FIRST_SEAT_PILE) {
+            return false;
+        }
+        int kind = (pile - FIRST_SEAT_PILE) % PILES_PER_SEAT;
+        return kind == 1 || (kind == 0 && seatOf(pile) == viewer);
+    }
+
+    /**
+     * This delta as seen by one viewer: card ids neither pile of a move
+     * shows to the viewer become {@link #UNKNOWN_CARD}.
+     *
+     * @param viewer seat of the viewer, or {@link #SPECTATOR}
+     * @return this delta if the viewer may see every moved card, else a copy
+     */
+    public GameDelta maskedFor(int viewer) {
+        int[] masked = null;
+        for (int i = 0; i < moves.length; i += 3) {
+            if (moves[i] != UNKNOWN_CARD && !isVisibleTo(moves[i + 1], viewer)
+                    && !isVisibleTo(moves[i + 2], viewer)) {
+                if (masked == null) {
+                    masked = moves.clone();
+                }
+                masked[i] = UNKNOWN_CARD;
+            }
+        }
+        if (masked == null) {
+            return this;
+        }
+        GameDelta copy = new GameDelta();
+        copy.baseVersion = baseVersion;
+        copy.version = version;
+        copy.moves = masked;
+        copy.currentPlayerIndex = currentPlayerIndex;
+        copy.status = status;
+        copy.winnerId = winnerId;
+        copy.lastAction = lastAction;
+        return copy;
+    }
+
+    /**
+     * Number of card moves in this delta.
+     */
+    public int moveCount() {
+        return moves.length / 3;
+    }
+
+    /**
+     * Whether anything changed at all.
+     */
+    public boolean hasChanges() {
+        return moves.length > 0 || currentPlayerIndex != null || status != null || winnerId != null
+                || lastAction != null;
+    }
+}
@@ -0,0 +1,109 @@
+package com.game.core.sync;
+
+import com.game.core.model.Card;
+import com.game.core.model.CardPile;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.MatchMode;
+import com.game.core.model.Player;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A game as one viewer may see it at one version: piles are card ids, with
+ * {@link GameDelta#UNKNOWN_CARD} for every card the viewer cannot see (see
+ * {@link GameDelta#isVisibleTo(int, int)}). The shuffle seed is never part
+ * of it.
+ *
+ * Detached from the live game, so it can be encoded after the game moved on.
+ */
+@Data
+@NoArgsConstructor
+public class GameSnapshot {
+
+    private String gameId;
+    private List<Seat> players = new ArrayList<>();
+    private int[] mainDeck = new int[0];
+    private int[] tablePile = new int[0];
+    private int[] discardPile = new int[0];
+    private int currentPlayerIndex;
+    private GameStatus status;
+    private String winnerId;
+    private MatchMode mode;
+    private int deckSize;
+    private String lastAction;
+
+    /**
+     * Projects a game for the player at the given seat, or for a spectator
+     * ({@link GameDelta#SPECTATOR}).
+     */
+    public static GameSnapshot of(GameState game, int viewer) {
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.gameId = game.getGameId();
+        for (int seat = 0; seat < game.getPlayers().size(); seat++) {
+            snapshot.players.add(Seat.of(game.getPlayers().get(seat), seat, viewer));
+        }
+        snapshot.mainDeck = ids(game.getMainDeck(), GameDelta.isVisibleTo(GameDelta.DECK, viewer));
+        snapshot.tablePile = ids(game.getTablePile(), true);
+        snapshot.discardPile = ids(game.getDiscardPile(), true);
+        snapshot.currentPlayerIndex = game.getCurrentPlayerIndex();
+        snapshot.status = game.getStatus();
+        snapshot.winnerId = game.getWinnerId();
+        snapshot.mode = game.getMode();
+        snapshot.deckSize = game.getDeckSize();
+        snapshot.lastAction = game.getLastAction();
+        return snapshot;
+    }
+
+    private static int[] ids(List<Card> cards, boolean visible) {
+        int[] ids = new int[cards.size()];
+        if (!visible) {
+            Arrays.fill(ids, GameDelta.UNKNOWN_CARD);
+        } else if (cards instanceof CardPile pile) {
+            int i = 0;
+            for (int id = pile.nextId(0); id >= 0; id = pile.nextId(id + 1)) {
+                ids[i++] = id;
+            }
+        } else {
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = cards.get(i).getId();
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * One player as seen by the viewer.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Seat {
+        private String id;
+        private String name;
+        private boolean bot;
+        private boolean active;
+        private int[] hand = new int[0];
+        private int[] visibleCards = new int[0];
+        private int[] hiddenCards = new int[0];
+
+        static Seat of(Player player, int seat, int viewer) {
+            Seat view = new Seat();
+            view.id = player.getId();
+            view.name = player.getName();
+            view.bot = player.isBot();
+            view.active = player.isActive();
+            view.hand = ids(player.getHand(), GameDelta.isVisibleTo(GameDelta.hand(seat), viewer));
+            view.visibleCards = ids(player.getVisibleCards(), GameDelta.isVisibleTo(GameDelta.visible(seat), viewer));
+            view.hiddenCards = ids(player.getHiddenCards(), GameDelta.isVisibleTo(GameDelta.hidden(seat), viewer));
+            return view;
+        }
+
+        public int getCardCount() {
+            return hand.length + visibleCards.length + hiddenCards.length;
+        }
+    }
+}
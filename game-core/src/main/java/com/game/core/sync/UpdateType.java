@@ -0,0 +1,21 @@
+package com.game.core.sync;
+
+/**
+ * Why a game update was sent. Part of the wire protocol: constants are only
+ * ever appended, since the binary codec sends their ordinals.
+ */
+public enum UpdateType {
+    CARD_PLAYED,
+    CARD_DRAWN,
+    TABLE_CLEARED,
+    TURN_CHANGED,
+    GAME_STARTED,
+    GAME_FINISHED,
+    PLAYER_JOINED,
+    PLAYER_LEFT,
+    TABLE_COLLECTED,
+    SNAPSHOT,
+    ERROR,
+    TURN_TIMEOUT,
+    ROOM_CLOSED
+}
@@ -0,0 +1,155 @@
+package com.game.core.wire;
+
+import com.game.core.model.Card;
+import com.game.core.model.CardCatalog;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.MatchMode;
+import com.game.core.model.Player;
+
+import java.util.List;
+
+/**
+ * Complete binary image of a game, including every hidden card and the
+ * shuffle seed, so that a game can be put aside and rebuilt exactly as it
+ * was. Meant for the server's own storage: never send it to a client.
+ *
+ * Binary layout:
+ * - format version (1 byte)
+ * - game id (string)
+ * - seed flag (1 byte), then the seed (8 bytes, big-endian) if set
+ * - state version (varint)
+ * - deck size, current player index (varint each)
+ * - status and match mode ordinals + 1, 0 if unset (varint each)
+ * - winner id, last action (string each, empty if unset)
+ * - seat count (varint), then per seat: id (string), name (string),
+ *   flags (1 byte: bot, active), hand, visible and hidden piles
+ * - main deck, table and discard piles
+ *
+ * A pile is its length (varint) followed by one varint per card:
+ * (id + 1) << 1, plus 1 if the card is face down.
+ */
+public final class GameImage {
+
+    static final int FORMAT_VERSION = 2;
+
+    private static final int BOT = 1;
+    private static final int ACTIVE = 2;
+
+    private static final GameStatus[] STATUSES = GameStatus.values();
+    private static final MatchMode[] MODES = MatchMode.values();
+
+    private GameImage() {
+    }
+
+    public static byte[] encode(GameState game) {
+        WireBuffer buffer = new WireBuffer(256);
+        buffer.writeByte(FORMAT_VERSION);
+        buffer.writeString(game.getGameId());
+        buffer.writeByte(game.getSeed() != null ? 1 : 0);
+        if (game.getSeed() != null) {
+            buffer.writeLong(game.getSeed());
+        }
+        buffer.writeVarLong(game.getVersion());
+        buffer.writeVarInt(game.getDeckSize());
+        buffer.writeVarInt(game.getCurrentPlayerIndex());
+        writeOrdinal(buffer, game.getStatus());
+        writeOrdinal(buffer, game.getMode());
+        buffer.writeString(game.getWinnerId());
+        buffer.writeString(game.getLastAction());
+        buffer.writeVarInt(game.getPlayers().size());
+        for (Player player : game.getPlayers()) {
+            buffer.writeString(player.getId());
+            buffer.writeString(player.getName());
+            buffer.writeByte((player.isBot() ? BOT : 0) | (player.isActive() ? ACTIVE : 0));
+            writePile(buffer, player.getHand());
+            writePile(buffer, player.getVisibleCards());
+            writePile(buffer, player.getHiddenCards());
+        }
+        writePile(buffer, game.getMainDeck());
+        writePile(buffer, game.getTablePile());
+        writePile(buffer, game.getDiscardPile());
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Rebuilds a game from its image.
+     *
+     * @throws IllegalArgumentException if the data is truncated or of an unknown format
+     */
+    public static GameState decode(byte[] data) {
+        WireBuffer.Reader reader = new WireBuffer.Reader(data);
+        int version = reader.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported game image format: " + version);
+        }
+        GameState game = new GameState(reader.readString());
+        if (reader.readByte() != 0) {
+            game.setSeed(reader.readLong());
+        }
+        game.setVersion(reader.readVarLong());
+        game.setDeckSize(reader.readVarInt());
+        game.setCurrentPlayerIndex(reader.readVarInt());
+        game.setStatus(ordinal(STATUSES, reader.readVarInt()));
+        game.setMode(ordinal(MODES, reader.readVarInt()));
+        game.setWinnerId(optional(reader.readString()));
+        game.setLastAction(optional(reader.readString()));
+        int seats = checkLength(reader.readVarInt());
+        for (int i = 0; i < seats; i++) {
+            Player player = new Player(reader.readString(), reader.readString(), false);
+            int flags = reader.readByte();
+            player.setBot((flags & BOT) != 0);
+            player.setActive((flags & ACTIVE) != 0);
+            readPile(reader, player.getHand());
+            readPile(reader, player.getVisibleCards());
+            readPile(reader, player.getHiddenCards());
+            game.getPlayers().add(player);
+        }
+        readPile(reader, game.getMainDeck());
+        readPile(reader, game.getTablePile());
+        readPile(reader, game.getDiscardPile());
+        return game;
+    }
+
+    private static void writePile(WireBuffer buffer, List<Card> cards) {
+        buffer.writeVarInt(cards.size());
+        for (Card card : cards) {
+            buffer.writeVarInt((card.getId() + 1) << 1 | (card.isHidden() ? 1 : 0));
+        }
+    }
+
+    private static void readPile(WireBuffer.Reader reader, List<Card> pile) {
+        int size = checkLength(reader.readVarInt());
+        for (int i = 0; i < size; i++) {
+            int code = reader.readVarInt();
+            int id = (code >>> 1) - 1;
+            if (id < 0 || id >= CardCatalog.CAPACITY) {
+                throw new IllegalArgumentException("Unknown card " + id);
+            }
+            pile.add((code & 1) != 0 ? CardCatalog.hidden(id) : CardCatalog.get(id));
+        }
+    }
+
+    private static void writeOrdinal(WireBuffer buffer, Enum<?> value) {
+        buffer.writeVarInt(value != null ? value.ordinal() + 1 : 0);
+    }
+
+    private static <E> E ordinal(E[] values, int code) {
+        if (code < 0 || code > values.length) {
+            throw new IllegalArgumentException("Unknown ordinal " + (code - 1));
+        }
+        return code == 0 ? null : values[code - 1];
+    }
+
+    // Nothing in a game has more entries than there are cards
+    private static int checkLength(int length) {
+        if (length < 0 || length > CardCatalog.CAPACITY) {
+            throw new IllegalArgumentException("Bad length " + length);
+        }
+        return length;
+    }
+
+    private static String optional(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,62 @@
+package com.game.core.wire;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A player action as carried by the binary codec.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WireAction {
+
+    public enum Kind {
+        PLAY,
+        DRAW,
+        COLLECT
+    }
+
+    private Kind kind;
+    private String gameId;
+    private String playerId;
+
+    /**
+     * Ids of the cards played, empty for the other kinds.
+     */
+    private int[] cards = new int[0];
+
+    /**
+     * Client-chosen id echoed in the resulting update, or null.
+     */
+    private String actionId;
+
+    /**
+     * Client clock (epoch millis) when the action was sent, 0 if unknown.
+     */
+    private long sentAt;
+
+    /**
+     * Client session the action is numbered in, or null if it is not numbered.
+     * Chosen by the client and kept across reconnects.
+     */
+    private String sessionId;
+
+    /**
+     * Number of the action within its client session.
+     */
+    private long clientSeq;
+
+    /**
+     * Game version the client expects the action to apply to, -1 if any.
+     */
+    private long expectedVersion = -1;
+
+    public WireAction(Kind kind, String gameId, String playerId, int[] cards) {
+        this.kind = kind;
+        this.gameId = gameId;
+        this.playerId = playerId;
+        this.cards = cards;
+    }
+}
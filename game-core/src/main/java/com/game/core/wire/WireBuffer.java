@@ -0,0 +1,143 @@
+package com.game.core.wire;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer with the primitive encodings shared by journal records
+ * and the wire codec: unsigned LEB128 varints, big-endian longs and
+ * length-prefixed UTF-8 strings.
+ */
+public final class WireBuffer {
+
+    private byte[] data;
+    private int size;
+
+    public WireBuffer() {
+        this(64);
+    }
+
+    public WireBuffer(int capacity) {
+        data = new byte[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void writeByte(int b) {
+        ensureCapacity(1);
+        data[size++] = (byte) b;
+    }
+
+    public void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            data[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[size++] = (byte) value;
+    }
+
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            data[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[size++] = (byte) value;
+    }
+
+    public void writeLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            data[size++] = (byte) (value >>> shift);
+        }
+    }
+
+    public void writeString(String value) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, data, size, bytes.length);
+        size += bytes.length;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+        }
+    }
+
+    /**
+     * Sequential reader over an encoded record.
+     */
+    public static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        public Reader(byte[] data) {
+            this.data = data;
+        }
+
+        public boolean hasMore() {
+            return position < data.length;
+        }
+
+        public int readByte() {
+            require(1);
+            return data[position++] & 0xFF;
+        }
+
+        public int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint at byte " + position);
+        }
+
+        public long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint at byte " + position);
+        }
+
+        public long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        public String readString() {
+            int length = readVarInt();
+            require(length);
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private void require(int bytes) {
+            if (bytes < 0 || position + bytes > data.length) {
+                throw new IllegalArgumentException("Truncated record");
+            }
+        }
+    }
+}
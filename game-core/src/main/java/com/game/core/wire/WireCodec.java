@@ -0,0 +1,389 @@
+package com.game.core.wire;
+
+import com.game.core.model.CardCatalog;
+import com.game.core.model.GameStatus;
+import com.game.core.model.MatchMode;
+import com.game.core.sync.GameDelta;
+import com.game.core.sync.GameSnapshot;
+import com.game.core.sync.UpdateType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Versioned binary encoding of game updates and player actions, shared by
+ * the server and the Android client.
+ *
+ * Every message starts with the format {@link #VERSION} and a kind byte.
+ * Card ids, pile lengths, counts and enum ordinals are unsigned varints
+ * (card ids and ordinals shifted by one so that 0 stands for unknown/null),
+ * and a pile nobody may see is sent as its length alone. Optional strings
+ * are sent empty when null.
+ *
+ * Action ids (see {@link WireAction#getActionId()}) go at the end of
+ * actions, deltas and batches, and only when there is one: decoders that
+ * predate them stop reading before, and newer ones read them only if bytes
+ * remain. The numbering of an action (client session, sequence number and
+ * expected version) follows its action id the same way.
+ *
+ * Over STOMP the bytes travel Base64-encoded with {@link #CONTENT_TYPE}:
+ * text frames keep working with clients that cannot receive binary ones.
+ * Clients ask for the format with the {@link #CONNECT_HEADER} header on
+ * CONNECT and fall back to JSON otherwise.
+ */
+public final class WireCodec {
+
+    public static final int VERSION = 1;
+
+    public static final String CONNECT_HEADER = "put0-wire";
+    public static final String CONTENT_TYPE = "application/vnd.put0.v1+base64";
+
+    private static final int SNAPSHOT = 1;
+    private static final int DELTA = 2;
+    private static final int ACTION = 3;
+    private static final int BATCH = 4;
+
+    private static final int HAS_CURRENT_PLAYER = 1;
+    private static final int HAS_STATUS = 2;
+    private static final int HAS_WINNER = 4;
+    private static final int HAS_LAST_ACTION = 8;
+
+    private static final int BOT = 1;
+    private static final int ACTIVE = 2;
+
+    private static final UpdateType[] UPDATE_TYPES = UpdateType.values();
+    private static final GameStatus[] STATUSES = GameStatus.values();
+    private static final MatchMode[] MODES = MatchMode.values();
+    private static final WireAction.Kind[] ACTION_KINDS = WireAction.Kind.values();
+
+    private WireCodec() {
+    }
+
+    public static byte[] encodeSnapshot(GameSnapshot snapshot, long version, String message, UpdateType type) {
+        WireBuffer buffer = new WireBuffer(128 + snapshot.getMainDeck().length);
+        writeHeader(buffer, SNAPSHOT, version, message, type);
+        buffer.writeString(snapshot.getGameId());
+        buffer.writeVarInt(snapshot.getPlayers().size());
+        for (GameSnapshot.Seat seat : snapshot.getPlayers()) {
+            buffer.writeString(seat.getId());
+            buffer.writeString(seat.getName());
+            buffer.writeByte((seat.isBot() ? BOT : 0) | (seat.isActive() ? ACTIVE : 0));
+            writePile(buffer, seat.getHand());
+            writePile(buffer, seat.getVisibleCards());
+            writePile(buffer, seat.getHiddenCards());
+        }
+        writePile(buffer, snapshot.getMainDeck());
+        writePile(buffer, snapshot.getTablePile());
+        writePile(buffer, snapshot.getDiscardPile());
+        buffer.writeVarInt(snapshot.getCurrentPlayerIndex());
+        writeOrdinal(buffer, snapshot.getStatus());
+        buffer.writeString(snapshot.getWinnerId());
+        writeOrdinal(buffer, snapshot.getMode());
+        buffer.writeVarInt(snapshot.getDeckSize());
+        buffer.writeString(snapshot.getLastAction());
+        return buffer.toByteArray();
+    }
+
+    public static byte[] encodeDelta(GameDelta delta, String message, UpdateType type) {
+        return encodeDelta(delta, message, type, null);
+    }
+
+    /**
+     * Encodes a delta caused by the client action with the given id.
+     */
+    public static byte[] encodeDelta(GameDelta delta, String message, UpdateType type, String actionId) {
+        WireBuffer buffer = new WireBuffer(48 + delta.getMoves().length * 2);
+        writeHeader(buffer, DELTA, delta.getVersion(), message, type);
+        writeDelta(buffer, delta);
+        if (actionId != null) {
+            buffer.writeString(actionId);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Encodes deltas to apply in order as one message. The batch is stamped
+     * with the version, message and type of its last step.
+     */
+    public static byte[] encodeBatch(List<WireUpdate> steps) {
+        WireUpdate last = steps.get(steps.size() - 1);
+        WireBuffer buffer = new WireBuffer(64 * steps.size());
+        writeHeader(buffer, BATCH, last.getVersion(), last.getMessage(), last.getType());
+        buffer.writeVarInt(steps.size());
+        for (WireUpdate step : steps) {
+            buffer.writeVarLong(step.getVersion());
+            writeOrdinal(buffer, step.getType());
+            buffer.writeString(step.getMessage());
+            writeDelta(buffer, step.getDelta());
+        }
+        // One id per step, empty for none, if any step has one
+        for (WireUpdate step : steps) {
+            if (step.getActionId() != null) {
+                for (WireUpdate each : steps) {
+                    buffer.writeString(each.getActionId());
+                }
+                break;
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    public static byte[] encodeAction(WireAction action) {
+        WireBuffer buffer = new WireBuffer(96);
+        buffer.writeByte(VERSION);
+        buffer.writeByte(ACTION);
+        buffer.writeVarInt(action.getKind().ordinal());
+        buffer.writeString(action.getGameId());
+        buffer.writeString(action.getPlayerId());
+        writePile(buffer, action.getCards());
+        if (action.getActionId() != null || action.getSessionId() != null) {
+            buffer.writeString(action.getActionId());
+            buffer.writeVarLong(action.getSentAt());
+        }
+        if (action.getSessionId() != null) {
+            buffer.writeString(action.getSessionId());
+            buffer.writeVarLong(action.getClientSeq());
+            // Shifted by one so that "any version" (-1) stays a varlong
+            buffer.writeVarLong(action.getExpectedVersion() + 1);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Decodes a snapshot, delta or batch.
+     *
+     * @throws IllegalArgumentException if the bytes are not an update of a
+     *         supported version
+     */
+    public static WireUpdate decodeUpdate(byte[] data) {
+        WireBuffer.Reader reader = new WireBuffer.Reader(data);
+        int kind = readKind(reader);
+        long version = reader.readVarLong();
+        UpdateType type = ordinal(UPDATE_TYPES, reader.readVarInt());
+        String message = optional(reader.readString());
+        if (kind == SNAPSHOT) {
+            return new WireUpdate(version, message, type, readSnapshot(reader), null, null, null);
+        }
+        if (kind == DELTA) {
+            WireUpdate update = new WireUpdate(version, message, type, readDelta(reader, version));
+            if (reader.hasMore()) {
+                update.setActionId(reader.readString());
+            }
+            return update;
+        }
+        if (kind == BATCH) {
+            List<WireUpdate> steps = readSteps(reader);
+            if (reader.hasMore()) {
+                for (WireUpdate step : steps) {
+                    step.setActionId(optional(reader.readString()));
+                }
+            }
+            return new WireUpdate(version, message, type, null, null, steps, null);
+        }
+        throw new IllegalArgumentException("Not an update: kind " + kind);
+    }
+
+    /**
+     * Decodes a player action.
+     *
+     * @throws IllegalArgumentException if the bytes are not an action of a
+     *         supported version
+     */
+    public static WireAction decodeAction(byte[] data) {
+        WireBuffer.Reader reader = new WireBuffer.Reader(data);
+        int kind = readKind(reader);
+        if (kind != ACTION) {
+            throw new IllegalArgumentException("Not an action: kind " + kind);
+        }
+        WireAction.Kind actionKind = ACTION_KINDS[checkIndex(reader.readVarInt(), ACTION_KINDS.length)];
+        String gameId = reader.readString();
+        String playerId = reader.readString();
+        WireAction action = new WireAction(actionKind, gameId, playerId, readPile(reader));
+        if (reader.hasMore()) {
+            action.setActionId(optional(reader.readString()));
+            action.setSentAt(reader.readVarLong());
+        }
+        if (reader.hasMore()) {
+            action.setSessionId(reader.readString());
+            action.setClientSeq(reader.readVarLong());
+            action.setExpectedVersion(reader.readVarLong() - 1);
+        }
+        return action;
+    }
+
+    private static void writeHeader(WireBuffer buffer, int kind, long version, String message, UpdateType type) {
+        buffer.writeByte(VERSION);
+        buffer.writeByte(kind);
+        buffer.writeVarLong(version);
+        writeOrdinal(buffer, type);
+        buffer.writeString(message);
+    }
+
+    private static void writeDelta(WireBuffer buffer, GameDelta delta) {
+        buffer.writeVarLong(delta.getBaseVersion());
+        buffer.writeVarInt(delta.moveCount());
+        int[] moves = delta.getMoves();
+        for (int i = 0; i < moves.length; i += 3) {
+            buffer.writeVarInt(moves[i] + 1);
+            buffer.writeVarInt(moves[i + 1]);
+            buffer.writeVarInt(moves[i + 2]);
+        }
+        int fields = (delta.getCurrentPlayerIndex() != null ? HAS_CURRENT_PLAYER : 0)
+                | (delta.getStatus() != null ? HAS_STATUS : 0)
+                | (delta.getWinnerId() != null ? HAS_WINNER : 0)
+                | (delta.getLastAction() != null ? HAS_LAST_ACTION : 0);
+        buffer.writeByte(fields);
+        if (delta.getCurrentPlayerIndex() != null) {
+            buffer.writeVarInt(delta.getCurrentPlayerIndex());
+        }
+        if (delta.getStatus() != null) {
+            buffer.writeVarInt(delta.getStatus().ordinal());
+        }
+        if (delta.getWinnerId() != null) {
+            buffer.writeString(delta.getWinnerId());
+        }
+        if (delta.getLastAction() != null) {
+            buffer.writeString(delta.getLastAction());
+        }
+    }
+
+    private static int readKind(WireBuffer.Reader reader) {
+        int version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported wire version " + version);
+        }
+        return reader.readByte();
+    }
+
+    private static GameSnapshot readSnapshot(WireBuffer.Reader reader) {
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.setGameId(reader.readString());
+        int seats = checkLength(reader.readVarInt());
+        for (int i = 0; i < seats; i++) {
+            GameSnapshot.Seat seat = new GameSnapshot.Seat();
+            seat.setId(reader.readString());
+            seat.setName(reader.readString());
+            int flags = reader.readByte();
+            seat.setBot((flags & BOT) != 0);
+            seat.setActive((flags & ACTIVE) != 0);
+            seat.setHand(readPile(reader));
+            seat.setVisibleCards(readPile(reader));
+            seat.setHiddenCards(readPile(reader));
+            snapshot.getPlayers().add(seat);
+        }
+        snapshot.setMainDeck(readPile(reader));
+        snapshot.setTablePile(readPile(reader));
+        snapshot.setDiscardPile(readPile(reader));
+        snapshot.setCurrentPlayerIndex(reader.readVarInt());
+        snapshot.setStatus(ordinal(STATUSES, reader.readVarInt()));
+        snapshot.setWinnerId(optional(reader.readString()));
+        snapshot.setMode(ordinal(MODES, reader.readVarInt()));
+        snapshot.setDeckSize(reader.readVarInt());
+        snapshot.setLastAction(optional(reader.readString()));
+        return snapshot;
+    }
+
+    private static List<WireUpdate> readSteps(WireBuffer.Reader reader) {
+        int count = checkLength(reader.readVarInt());
+        List<WireUpdate> steps = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long version = reader.readVarLong();
+            UpdateType type = ordinal(UPDATE_TYPES, reader.readVarInt());
+            String message = optional(reader.readString());
+            steps.add(new WireUpdate(version, message, type, readDelta(reader, version)));
+        }
+        return steps;
+    }
+
+    private static GameDelta readDelta(WireBuffer.Reader reader, long version) {
+        GameDelta delta = new GameDelta();
+        delta.setVersion(version);
+        delta.setBaseVersion(reader.readVarLong());
+        int[] moves = new int[checkLength(reader.readVarInt()) * 3];
+        for (int i = 0; i < moves.length; i += 3) {
+            moves[i] = checkCard(reader.readVarInt() - 1);
+            moves[i + 1] = reader.readVarInt();
+            moves[i + 2] = reader.readVarInt();
+        }
+        delta.setMoves(moves);
+        int fields = reader.readByte();
+        if ((fields & HAS_CURRENT_PLAYER) != 0) {
+            delta.setCurrentPlayerIndex(reader.readVarInt());
+        }
+        if ((fields & HAS_STATUS) != 0) {
+            delta.setStatus(STATUSES[checkIndex(reader.readVarInt(), STATUSES.length)]);
+        }
+        if ((fields & HAS_WINNER) != 0) {
+            delta.setWinnerId(reader.readString());
+        }
+        if ((fields & HAS_LAST_ACTION) != 0) {
+            delta.setLastAction(reader.readString());
+        }
+        return delta;
+    }
+
+    // Length << 1, then ids + 1; a pile of unknown cards is its length alone
+    private static void writePile(WireBuffer buffer, int[] ids) {
+        boolean masked = ids.length > 0;
+        for (int id : ids) {
+            if (id != GameDelta.UNKNOWN_CARD) {
+                masked = false;
+                break;
+            }
+        }
+        buffer.writeVarInt(ids.length << 1 | (masked ? 1 : 0));
+        if (!masked) {
+            for (int id : ids) {
+                buffer.writeVarInt(id + 1);
+            }
+        }
+    }
+
+    private static int[] readPile(WireBuffer.Reader reader) {
+        int header = reader.readVarInt();
+        int[] ids = new int[checkLength(header >>> 1)];
+        if ((header & 1) != 0) {
+            Arrays.fill(ids, GameDelta.UNKNOWN_CARD);
+        } else {
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = checkCard(reader.readVarInt() - 1);
+            }
+        }
+        return ids;
+    }
+
+    private static void writeOrdinal(WireBuffer buffer, Enum<?> value) {
+        buffer.writeVarInt(value != null ? value.ordinal() + 1 : 0);
+    }
+
+    private static <E> E ordinal(E[] values, int code) {
+        return code == 0 ? null : values[checkIndex(code - 1, values.length)];
+    }
+
+    private static int checkIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new IllegalArgumentException("Unknown ordinal " + index);
+        }
+        return index;
+    }
+
+    private static int checkCard(int id) {
+        if (id < GameDelta.UNKNOWN_CARD || id >= CardCatalog.CAPACITY) {
+            throw new IllegalArgumentException("Unknown card " + id);
+        }
+        return id;
+    }
+
+    // Nothing in a game has more entries than there are cards
+    private static int checkLength(int length) {
+        if (length < 0 || length > CardCatalog.CAPACITY) {
+            throw new IllegalArgumentException("Bad length " + length);
+        }
+        return length;
+    }
+
+    private static String optional(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,49 @@
+package com.game.core.wire;
+
+import com.game.core.sync.GameDelta;
+import com.game.core.sync.GameSnapshot;
+import com.game.core.sync.UpdateType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A game update as carried by the binary codec: a full snapshot, a delta or
+ * a batch of delta steps, stamped with the version it brings the client to.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WireUpdate {
+
+    private long version;
+    private String message;
+    private UpdateType type;
+
+    /**
+     * Set for snapshots, null for deltas.
+     */
+    private GameSnapshot snapshot;
+
+    /**
+     * Set for deltas, null otherwise.
+     */
+    private GameDelta delta;
+
+    /**
+     * Set for batches: the deltas to apply in order, each with its own
+     * message and type. Null otherwise.
+     */
+    private List<WireUpdate> steps;
+
+    /**
+     * Id of the client action that caused a delta step, or null.
+     */
+    private String actionId;
+
+    public WireUpdate(long version, String message, UpdateType type, GameDelta delta) {
+        this(version, message, type, null, delta, null, null);
+    }
+}
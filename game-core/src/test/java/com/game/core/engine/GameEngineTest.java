@@ -1,6 +1,7 @@
 package com.game.core.engine;
 
 import com.game.core.model.Card;
+import com.game.core.model.CardCatalog;
 import com.game.core.model.GameState;
 import com.game.core.model.GameStatus;
 import com.game.core.model.Player;
@@ -8,6 +9,9 @@ import com.game.core.model.Suit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameEngineTest {
@@ -72,4 +76,154 @@ class GameEngineTest {
             assertEquals(cardToPlay, game.getTopCard());
         }
     }
+
+    @Test
+    void testLegalMovesOnlyForCurrentPlayer() {
+        engine.addPlayer(game, new Player("p1", "Player 1", false));
+        engine.addPlayer(game, new Player("p2", "Bot 1", true));
+
+        assertTrue(engine.legalMoves(game, "p1").isEmpty(), "No moves before the game starts");
+
+        engine.startGame(game);
+        game.setCurrentPlayerIndex(0);
+
+        MoveList moves = engine.legalMoves(game, "p1");
+        assertFalse(moves.isEmpty());
+        assertTrue(moves.contains(Move.draw(0)));
+        assertTrue(engine.legalMoves(game, "p2").isEmpty());
+        assertEquals(MoveResult.NOT_YOUR_TURN, engine.apply(game, Move.draw(1)));
+    }
+
+    @Test
+    void testLegalMovesIncludeSameRankThrows() {
+        Player p1 = new Player("p1", "Player 1", false);
+        engine.addPlayer(game, p1);
+        engine.addPlayer(game, new Player("p2", "Bot 1", true));
+        engine.startGame(game);
+        game.setCurrentPlayerIndex(0);
+
+        p1.getHand().clear();
+        Card fiveA = CardCatalog.get(CardCatalog.idOf(0, 5, Suit.HEARTS));
+        Card fiveB = CardCatalog.get(CardCatalog.idOf(1, 5, Suit.CLUBS));
+        Card three = CardCatalog.get(CardCatalog.idOf(0, 3, Suit.SPADES));
+        p1.getHand().addAll(List.of(fiveA, fiveB, three));
+        game.getTablePile().clear();
+        game.getTablePile().add(CardCatalog.get(CardCatalog.idOf(1, 4, Suit.HEARTS)));
+
+        MoveList moves = engine.legalMoves(game, "p1");
+
+        assertTrue(moves.contains(Move.play(0, fiveA)));
+        assertTrue(moves.contains(Move.play(0, fiveB)));
+        assertTrue(moves.contains(Move.play(0, List.of(fiveA, fiveB))));
+        assertFalse(moves.contains(Move.play(0, three)), "3 cannot beat a 4");
+        assertTrue(moves.contains(Move.collect(0)));
+
+        assertEquals(MoveResult.CANNOT_PLAY_ON_TABLE, engine.apply(game, Move.play(0, three)));
+        assertTrue(p1.getHand().contains(three), "Rejected move leaves state untouched");
+
+        assertEquals(MoveResult.OK, engine.apply(game, Move.play(0, List.of(fiveA, fiveB))));
+        assertEquals(1, game.getCurrentPlayerIndex());
+        assertFalse(p1.getHand().contains(fiveA));
+        assertFalse(p1.getHand().contains(fiveB));
+    }
+
+    @Test
+    void testThrowingWrappersKeepTheirContract() {
+        engine.addPlayer(game, new Player("p1", "Player 1", false));
+        engine.addPlayer(game, new Player("p2", "Bot 1", true));
+
+        assertThrows(IllegalStateException.class, () -> engine.playCard(game, "p1", CardCatalog.get(0)));
+
+        engine.startGame(game);
+        game.setCurrentPlayerIndex(0);
+
+        assertThrows(IllegalStateException.class, () -> engine.drawCard(game, "p2"));
+        assertThrows(IllegalStateException.class, () -> engine.drawCard(game, "nobody"));
+        Card notInHand = game.getMainDeck().get(0);
+        assertThrows(IllegalArgumentException.class, () -> engine.playCard(game, "p1", notInHand));
+    }
+
+    @Test
+    void testVersionCountsEveryChange() {
+        assertEquals(0, game.getVersion());
+        engine.addPlayer(game, new Player("p1", "Player 1", false));
+        engine.addPlayer(game, new Player("p2", "Bot 1", true));
+        engine.startGame(game);
+        game.setCurrentPlayerIndex(0);
+        assertEquals(3, game.getVersion());
+
+        assertEquals(MoveResult.NOT_YOUR_TURN, engine.apply(game, Move.draw(1)));
+        assertEquals(3, game.getVersion(), "Rejected move keeps the version");
+
+        assertEquals(MoveResult.OK, engine.apply(game, Move.draw(0)));
+        assertEquals(4, game.getVersion());
+        engine.startGame(game);
+        assertEquals(4, game.getVersion(), "Ignored start keeps the version");
+    }
+
+    @Test
+    void testClearingWithTheLastCardWins() {
+        Player p1 = new Player("p1", "Player 1", false);
+        engine.addPlayer(game, p1);
+        engine.addPlayer(game, new Player("p2", "Bot 1", true));
+        engine.startGame(game);
+        game.setCurrentPlayerIndex(0);
+
+        game.getMainDeck().clear();
+        game.getTablePile().clear();
+        game.getTablePile().add(CardCatalog.get(CardCatalog.idOf(0, 7, Suit.HEARTS)));
+        p1.getHand().clear();
+        p1.getVisibleCards().clear();
+        p1.getHiddenCards().clear();
+        Card ten = CardCatalog.get(CardCatalog.idOf(0, 10, Suit.SPADES));
+        p1.getHand().add(ten);
+
+        assertEquals(MoveResult.DECK_EMPTY, engine.apply(game, Move.draw(0)));
+        assertFalse(engine.legalMoves(game, "p1").contains(Move.draw(0)));
+
+        assertEquals(MoveResult.OK, engine.apply(game, Move.play(0, ten)));
+        assertEquals(GameStatus.FINISHED, game.getStatus());
+        assertEquals("p1", game.getWinnerId());
+    }
+
+    @Test
+    void testHiddenCardsPlayOneAtATime() {
+        Player p1 = new Player("p1", "Player 1", false);
+        engine.addPlayer(game, p1);
+        engine.addPlayer(game, new Player("p2", "Bot 1", true));
+        engine.startGame(game);
+        game.setCurrentPlayerIndex(0);
+
+        game.getMainDeck().clear();
+        p1.getHand().clear();
+        p1.getVisibleCards().clear();
+        p1.getHiddenCards().clear();
+        Card fiveA = CardCatalog.get(CardCatalog.idOf(0, 5, Suit.HEARTS));
+        Card fiveB = CardCatalog.get(CardCatalog.idOf(1, 5, Suit.CLUBS));
+        p1.getHiddenCards().addAll(List.of(fiveA, fiveB));
+
+        assertEquals(MoveResult.INVALID_MOVE, engine.apply(game, Move.play(0, List.of(fiveA, fiveB))));
+        assertEquals(2, p1.getHiddenCards().size());
+    }
+
+    @Test
+    void testEveryLegalMoveApplies() {
+        MoveList moves = new MoveList();
+        for (long seed = 0; seed < 200; seed++) {
+            game = engine.createGame("game-" + seed);
+            engine.addPlayer(game, new Player("p1", "Player 1", false));
+            engine.addPlayer(game, new Player("p2", "Player 2", false));
+            engine.startGame(game, seed);
+
+            Random random = new Random(seed);
+            for (int turn = 0; turn < 2000 && game.getStatus() == GameStatus.PLAYING; turn++) {
+                String playerId = game.getCurrentPlayer().getId();
+                engine.legalMoves(game, playerId, moves);
+                assertFalse(moves.isEmpty(), "A player in turn always has a legal move (seed " + seed + ")");
+
+                int move = moves.get(random.nextInt(moves.size()));
+                assertEquals(MoveResult.OK, engine.apply(game, move), Move.toString(move) + " (seed " + seed + ")");
+            }
+        }
+    }
 }
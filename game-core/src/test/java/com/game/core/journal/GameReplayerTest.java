@@ -0,0 +1,91 @@
+package com.game.core.journal;
+
+import com.game.core.bot.DefaultBotStrategy;
+import com.game.core.engine.GameEngine;
+import com.game.core.engine.Move;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.MatchMode;
+import com.game.core.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameReplayerTest {
+
+    private static GameState newGame(GameEngine engine, String gameId) {
+        GameState game = engine.createGame(gameId);
+        game.setMode(MatchMode.SOLO_VS_AMIGOS);
+        engine.addPlayer(game, new Player("p1", "Ana", false));
+        engine.addPlayer(game, new Player("p2", "Bot 1", true));
+        engine.addPlayer(game, new Player("p3", "Bot 2", true));
+        return game;
+    }
+
+    @Test
+    void testSameSeedDealsSameCards() {
+        GameEngine engine = new GameEngine();
+        GameState first = newGame(engine, "g1");
+        GameState second = newGame(engine, "g2");
+
+        engine.startGame(first, 42L);
+        engine.startGame(second, 42L);
+
+        assertEquals(42L, first.getSeed());
+        assertEquals(first.getMainDeck(), second.getMainDeck());
+        assertEquals(new ArrayList<>(first.getPlayers().get(0).getHiddenCards()),
+                new ArrayList<>(second.getPlayers().get(0).getHiddenCards()));
+    }
+
+    @Test
+    void testReplayRebuildsFinishedGame() {
+        InMemoryGameJournal journal = new InMemoryGameJournal();
+        GameEngine engine = new GameEngine(journal);
+        GameState game = newGame(engine, "journaled");
+        engine.startGame(game);
+
+        DefaultBotStrategy bot = new DefaultBotStrategy(new Random(3));
+        for (int turn = 0; turn < 10_000 && game.getStatus() == GameStatus.PLAYING; turn++) {
+            bot.playTurn(game, engine, game.getCurrentPlayer());
+        }
+
+        byte[] bytes = journal.getBytes("journaled");
+        GameRecord record = GameRecord.decode(bytes);
+        assertEquals(game.getSeed(), record.getSeed());
+        assertEquals(3, record.getSeats().size());
+        assertTrue(record.getMoveCount() > 0);
+        assertArrayEquals(bytes, record.encode());
+
+        GameState replayed = new GameReplayer().replay(bytes);
+
+        assertEquals(game.getStatus(), replayed.getStatus());
+        assertEquals(game.getWinnerId(), replayed.getWinnerId());
+        assertEquals(game.getCurrentPlayerIndex(), replayed.getCurrentPlayerIndex());
+        assertEquals(game.getMode(), replayed.getMode());
+        assertEquals(game.getMainDeck(), replayed.getMainDeck());
+        assertEquals(game.getTablePile(), replayed.getTablePile());
+        assertEquals(game.getDiscardPile(), replayed.getDiscardPile());
+        for (int seat = 0; seat < 3; seat++) {
+            assertEquals(piles(game.getPlayers().get(seat)), piles(replayed.getPlayers().get(seat)));
+        }
+    }
+
+    @Test
+    void testRejectsCorruptRecord() {
+        GameRecord record = new GameRecord("bad", 1L, 52, null,
+                List.of(new GameRecord.Seat("a", "A", false), new GameRecord.Seat("b", "B", false)),
+                new int[] { Move.collect(1) });
+
+        assertThrows(IllegalStateException.class, () -> new GameReplayer().replay(record));
+        assertThrows(IllegalArgumentException.class, () -> GameRecord.decode(new byte[] { 9 }));
+    }
+
+    private static List<List<?>> piles(Player player) {
+        return List.of(new ArrayList<>(player.getHand()), new ArrayList<>(player.getVisibleCards()),
+                new ArrayList<>(player.getHiddenCards()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.game.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardCatalogTest {
+
+    @Test
+    void testDeckUsesSharedCards() {
+        List<Card> first = CardCatalog.deck(104);
+        List<Card> second = CardCatalog.deck(104);
+
+        assertEquals(104, first.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertSame(first.get(i), second.get(i));
+            assertEquals(i, first.get(i).getId());
+        }
+        assertEquals(52, CardCatalog.deck(52).size());
+    }
+
+    @Test
+    void testDuplicateCardsFromSecondDeckAreDistinct() {
+        Card a = CardCatalog.get(CardCatalog.idOf(0, 5, Suit.HEARTS));
+        Card b = CardCatalog.get(CardCatalog.idOf(1, 5, Suit.HEARTS));
+
+        assertEquals(a.getValue(), b.getValue());
+        assertEquals(a.getSuit(), b.getSuit());
+        assertNotEquals(a, b);
+
+        Set<Card> ids = new HashSet<>(CardCatalog.deck(104));
+        assertEquals(104, ids.size());
+    }
+
+    @Test
+    void testHiddenVariantEqualsRevealed() {
+        Card card = CardCatalog.get(7);
+
+        assertFalse(card.isHidden());
+        assertTrue(card.asHidden().isHidden());
+        assertEquals(card, card.asHidden());
+        assertSame(card, card.asHidden().asRevealed());
+    }
+
+    @Test
+    void testFromInstanceId() {
+        Card card = CardCatalog.get(42);
+
+        assertSame(card, CardCatalog.fromInstanceId(card.getInstanceId()));
+        assertNull(CardCatalog.fromInstanceId("not-a-card"));
+        assertNull(CardCatalog.fromInstanceId(String.valueOf(CardCatalog.CAPACITY)));
+        assertEquals(CardCatalog.get(CardCatalog.idOf(0, 9, Suit.CLUBS)), new Card(9, Suit.CLUBS));
+    }
+}
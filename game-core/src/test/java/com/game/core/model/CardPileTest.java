@@ -0,0 +1,95 @@
+package com.game.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardPileTest {
+
+    private static Card card(int deck, int value, Suit suit) {
+        return CardCatalog.get(CardCatalog.idOf(deck, value, suit));
+    }
+
+    @Test
+    void testAddRemoveAndMembership() {
+        CardPile pile = new CardPile();
+        Card fiveA = card(0, 5, Suit.HEARTS);
+        Card fiveB = card(1, 5, Suit.HEARTS);
+
+        assertTrue(pile.add(fiveA));
+        assertTrue(pile.add(fiveB));
+        assertFalse(pile.add(fiveA), "Set semantics: same physical card twice");
+
+        assertEquals(2, pile.size());
+        assertEquals(2, pile.count(5));
+        assertTrue(pile.contains(fiveB));
+
+        assertTrue(pile.remove(fiveA));
+        assertFalse(pile.remove(fiveA));
+        assertEquals(1, pile.count(5));
+        assertFalse(pile.contains(fiveA));
+    }
+
+    @Test
+    void testListViewIsOrderedById() {
+        CardPile pile = new CardPile();
+        Card high = card(1, 13, Suit.SPADES);
+        Card low = card(0, 1, Suit.HEARTS);
+        Card mid = card(0, 9, Suit.CLUBS);
+        pile.add(high);
+        pile.add(low);
+        pile.add(mid);
+
+        assertEquals(List.of(low, mid, high), new ArrayList<>(pile));
+        assertEquals(2, pile.indexOf(high));
+        assertSame(high, pile.get(2));
+
+        List<Integer> ids = new ArrayList<>();
+        for (int id = pile.nextId(0); id >= 0; id = pile.nextId(id + 1)) {
+            ids.add(id);
+        }
+        assertEquals(List.of(low.getId(), mid.getId(), high.getId()), ids);
+    }
+
+    @Test
+    void testHiddenPileHandsOutHiddenCards() {
+        CardPile pile = new CardPile(true);
+        pile.add(card(0, 7, Suit.DIAMONDS));
+
+        assertTrue(pile.get(0).isHidden());
+        assertTrue(pile.cardOfValue(7, 0).isHidden());
+    }
+
+    @Test
+    void testLowestPlayableValue() {
+        CardPile pile = new CardPile();
+        pile.add(card(0, 4, Suit.HEARTS));
+        pile.add(card(0, 1, Suit.CLUBS));
+        pile.add(card(0, 9, Suit.SPADES));
+
+        assertEquals(4, pile.lowestPlayableValue(null));
+        assertEquals(9, pile.lowestPlayableValue(card(0, 8, Suit.HEARTS)));
+        assertEquals(1, pile.lowestPlayableValue(card(0, 13, Suit.HEARTS)));
+
+        pile.remove(card(0, 1, Suit.CLUBS));
+        assertEquals(0, pile.lowestPlayableValue(card(0, 13, Suit.HEARTS)));
+    }
+
+    @Test
+    void testAddAllMergesPiles() {
+        CardPile hand = new CardPile();
+        CardPile visible = new CardPile();
+        hand.add(card(0, 3, Suit.HEARTS));
+        visible.add(card(0, 3, Suit.CLUBS));
+        visible.add(card(1, 12, Suit.CLUBS));
+
+        assertTrue(hand.addAll(visible));
+
+        assertEquals(3, hand.size());
+        assertEquals(2, hand.count(3));
+        assertEquals(1, hand.count(12));
+    }
+}
@@ -0,0 +1,43 @@
+package com.game.core.sim;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationRunnerTest {
+
+    @Test
+    void testSameSeedGivesSameResults() {
+        SimulationConfig config = new SimulationConfig(200, 3, 104, 42L, 4, 10_000);
+
+        SimulationReport first = new SimulationRunner(config).run();
+        SimulationReport second = new SimulationRunner(config).run();
+
+        assertEquals(200, first.getGames());
+        assertEquals(first.getTurns(), second.getTurns());
+        assertEquals(first.getTableClears(), second.getTableClears());
+        assertEquals(first.getCollects(), second.getCollects());
+        for (int seat = 0; seat < 3; seat++) {
+            assertEquals(first.getWins(seat), second.getWins(seat));
+        }
+    }
+
+    @Test
+    void testGamesFinish() {
+        SimulationReport report = new SimulationRunner(new SimulationConfig(100, 2, 52, 7L, 2, 10_000)).run();
+
+        assertTrue(report.getFinishedGames() > 0);
+        assertTrue(report.turnsPerGame() > 0);
+        assertEquals(report.getFinishedGames(), report.getWins(0) + report.getWins(1));
+    }
+
+    @Test
+    void testFromArgs() {
+        SimulationConfig config = SimulationConfig.fromArgs(new String[] { "--games=10", "--players=2", "--seed=5" });
+
+        assertEquals(10, config.games());
+        assertEquals(2, config.players());
+        assertEquals(5L, config.seed());
+        assertThrows(IllegalArgumentException.class, () -> SimulationConfig.fromArgs(new String[] { "--bogus=1" }));
+    }
+}
@@ -0,0 +1,189 @@
+package com.game.core.sync;
+
+import com.game.core.bot.DefaultBotStrategy;
+import com.game.core.engine.GameEngine;
+import com.game.core.model.Card;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeltaTrackerTest {
+
+    @Test
+    void testDeltasRebuildEveryVersion() {
+        GameEngine engine = new GameEngine();
+        GameState game = engine.createGame("delta");
+        for (int seat = 0; seat < 3; seat++) {
+            engine.addPlayer(game, new Player("p" + seat, "P" + seat, true));
+        }
+        engine.startGame(game, 11L);
+
+        DeltaTracker tracker = new DeltaTracker();
+        assertNull(tracker.diff(game), "No snapshot published yet");
+        long version = tracker.reset(game);
+        assertEquals(game.getVersion(), version);
+        Map<Integer, List<Integer>> client = piles(game);
+
+        DefaultBotStrategy bot = new DefaultBotStrategy(new Random(5));
+        for (int turn = 0; turn < 5_000 && game.getStatus() == GameStatus.PLAYING; turn++) {
+            bot.playTurn(game, engine, game.getCurrentPlayer());
+
+            GameDelta delta = tracker.diff(game);
+            assertNotNull(delta);
+            assertEquals(version, delta.getBaseVersion());
+            assertEquals(version + 1, delta.getVersion());
+            assertEquals(game.getVersion(), delta.getVersion(), "published version is the game's");
+            version = delta.getVersion();
+            apply(client, delta);
+
+            assertEquals(piles(game), client, "after version " + version);
+        }
+        assertEquals(GameStatus.FINISHED, game.getStatus());
+    }
+
+    @Test
+    void testUnchangedGameKeepsVersion() {
+        GameEngine engine = new GameEngine();
+        GameState game = engine.createGame("same");
+        engine.addPlayer(game, new Player("a", "A", false));
+        engine.addPlayer(game, new Player("b", "B", false));
+        engine.startGame(game, 1L);
+
+        DeltaTracker tracker = new DeltaTracker();
+        long version = tracker.reset(game);
+        GameDelta delta = tracker.diff(game);
+
+        assertFalse(delta.hasChanges());
+        assertEquals(version, delta.getVersion());
+    }
+
+    @Test
+    void testSeatChangeNeedsSnapshot() {
+        GameEngine engine = new GameEngine();
+        GameState game = engine.createGame("seats");
+        engine.addPlayer(game, new Player("a", "A", false));
+
+        DeltaTracker tracker = new DeltaTracker();
+        tracker.reset(game);
+        engine.addPlayer(game, new Player("b", "B", false));
+
+        assertNull(tracker.diff(game));
+
+        tracker.reset(game);
+        game.getPlayers().get(1).setActive(false);
+        assertNull(tracker.diff(game), "a seat going inactive needs a snapshot");
+    }
+
+    @Test
+    void testMaskedDeltasRebuildViewerPiles() {
+        GameEngine engine = new GameEngine();
+        GameState game = engine.createGame("masked");
+        for (int seat = 0; seat < 3; seat++) {
+            engine.addPlayer(game, new Player("p" + seat, "P" + seat, true));
+        }
+        engine.startGame(game, 23L);
+
+        DeltaTracker tracker = new DeltaTracker();
+        tracker.reset(game);
+        Map<Integer, List<Integer>> viewer = masked(piles(game), 0);
+
+        DefaultBotStrategy bot = new DefaultBotStrategy(new Random(9));
+        for (int turn = 0; turn < 5_000 && game.getStatus() == GameStatus.PLAYING; turn++) {
+            bot.playTurn(game, engine, game.getCurrentPlayer());
+
+            GameDelta delta = tracker.diff(game);
+            GameDelta own = delta.maskedFor(0);
+            int[] publicMoves = delta.maskedFor(GameDelta.SPECTATOR).getMoves();
+            for (int i = 0; i < publicMoves.length; i += 3) {
+                boolean shown = GameDelta.isVisibleTo(publicMoves[i + 1], GameDelta.SPECTATOR)
+                        || GameDelta.isVisibleTo(publicMoves[i + 2], GameDelta.SPECTATOR);
+                assertEquals(shown, publicMoves[i] != GameDelta.UNKNOWN_CARD);
+            }
+            applyMasked(viewer, own);
+
+            assertEquals(masked(piles(game), 0), viewer);
+        }
+        assertEquals(GameStatus.FINISHED, game.getStatus());
+    }
+
+    private static Map<Integer, List<Integer>> masked(Map<Integer, List<Integer>> piles, int viewer) {
+        Map<Integer, List<Integer>> masked = new HashMap<>();
+        for (Map.Entry<Integer, List<Integer>> pile : piles.entrySet()) {
+            List<Integer> ids = new ArrayList<>(pile.getValue());
+            if (!GameDelta.isVisibleTo(pile.getKey(), viewer)) {
+                ids.replaceAll(id -> GameDelta.UNKNOWN_CARD);
+            }
+            masked.put(pile.getKey(), ids);
+        }
+        return masked;
+    }
+
+    // What a client does: a card it cannot find is taken from the unknown ones
+    private static void applyMasked(Map<Integer, List<Integer>> piles, GameDelta delta) {
+        int[] moves = delta.getMoves();
+        for (int i = 0; i < moves.length; i += 3) {
+            List<Integer> from = piles.get(moves[i + 1]);
+            if (!from.remove((Integer) moves[i])) {
+                assertTrue(from.remove((Integer) GameDelta.UNKNOWN_CARD), "no card to take from " + moves[i + 1]);
+            }
+            piles.get(moves[i + 2]).add(GameDelta.isVisibleTo(moves[i + 2], 0) ? moves[i] : GameDelta.UNKNOWN_CARD);
+        }
+        for (Map.Entry<Integer, List<Integer>> pile : piles.entrySet()) {
+            if (pile.getKey() != GameDelta.TABLE && pile.getKey() != GameDelta.DISCARD) {
+                pile.getValue().sort(null);
+            }
+        }
+    }
+
+    private static Map<Integer, List<Integer>> piles(GameState game) {
+        Map<Integer, List<Integer>> piles = new HashMap<>();
+        piles.put(GameDelta.DECK, sortedIds(game.getMainDeck()));
+        piles.put(GameDelta.TABLE, ids(game.getTablePile()));
+        piles.put(GameDelta.DISCARD, ids(game.getDiscardPile()));
+        for (int seat = 0; seat < game.getPlayers().size(); seat++) {
+            Player player = game.getPlayers().get(seat);
+            piles.put(GameDelta.hand(seat), sortedIds(player.getHand()));
+            piles.put(GameDelta.visible(seat), sortedIds(player.getVisibleCards()));
+            piles.put(GameDelta.hidden(seat), sortedIds(player.getHiddenCards()));
+        }
+        return piles;
+    }
+
+    private static void apply(Map<Integer, List<Integer>> piles, GameDelta delta) {
+        int[] moves = delta.getMoves();
+        for (int i = 0; i < moves.length; i += 3) {
+            Integer id = moves[i];
+            assertTrue(piles.get(moves[i + 1]).remove(id), "card " + id + " not in pile " + moves[i + 1]);
+            piles.get(moves[i + 2]).add(id);
+        }
+        // Only table and discard order matters
+        for (Map.Entry<Integer, List<Integer>> pile : piles.entrySet()) {
+            if (pile.getKey() != GameDelta.TABLE && pile.getKey() != GameDelta.DISCARD) {
+                pile.getValue().sort(null);
+            }
+        }
+    }
+
+    private static List<Integer> ids(List<Card> cards) {
+        List<Integer> ids = new ArrayList<>();
+        for (Card card : cards) {
+            ids.add(card.getId());
+        }
+        return ids;
+    }
+
+    private static List<Integer> sortedIds(List<Card> cards) {
+        List<Integer> ids = ids(cards);
+        ids.sort(null);
+        return ids;
+    }
+}
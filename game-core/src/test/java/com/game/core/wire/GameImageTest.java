@@ -0,0 +1,64 @@
+package com.game.core.wire;
+
+import com.game.core.bot.DefaultBotStrategy;
+import com.game.core.engine.GameEngine;
+import com.game.core.model.Card;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.MatchMode;
+import com.game.core.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameImageTest {
+
+    @Test
+    void testImageRebuildsTheGameAtEveryTurn() {
+        GameEngine engine = new GameEngine();
+        GameState game = engine.createGame("image");
+        game.setMode(MatchMode.SOLO_VS_AMIGOS);
+        engine.addPlayer(game, new Player("a", "Ana", false));
+        engine.addPlayer(game, new Player("b", "Bea", false));
+        engine.addPlayer(game, new Player("c", "Bot", true));
+        engine.startGame(game, 11L);
+        game.getPlayers().get(1).setActive(false);
+
+        DefaultBotStrategy bot = new DefaultBotStrategy(new Random(4));
+        for (int turn = 0; turn < 300 && game.getStatus() == GameStatus.PLAYING; turn++) {
+            byte[] image = GameImage.encode(game);
+            GameState copy = GameImage.decode(image);
+
+            assertEquals(game, copy);
+            assertTrue(image.length < 400, "image took " + image.length);
+            for (int seat = 0; seat < game.getPlayers().size(); seat++) {
+                for (Card card : copy.getPlayers().get(seat).getHiddenCards()) {
+                    assertTrue(card.isHidden());
+                }
+            }
+            bot.playTurn(game, engine, game.getCurrentPlayer());
+        }
+        assertEquals(game, GameImage.decode(GameImage.encode(game)));
+    }
+
+    @Test
+    void testNewGameWithoutSeed() {
+        GameState game = new GameState("waiting");
+        game.addPlayer(new Player("a", "Ana", false));
+
+        GameState copy = GameImage.decode(GameImage.encode(game));
+
+        assertEquals(game, copy);
+        assertNull(copy.getSeed());
+        assertNull(copy.getMode());
+    }
+
+    @Test
+    void testRejectsUnknownFormat() {
+        byte[] image = GameImage.encode(new GameState("x"));
+        image[0] = 9;
+        assertThrows(IllegalArgumentException.class, () -> GameImage.decode(image));
+    }
+}
@@ -0,0 +1,145 @@
+package com.game.core.wire;
+
+import com.game.core.bot.DefaultBotStrategy;
+import com.game.core.engine.GameEngine;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.MatchMode;
+import com.game.core.model.Player;
+import com.game.core.sync.DeltaTracker;
+import com.game.core.sync.GameDelta;
+import com.game.core.sync.GameSnapshot;
+import com.game.core.sync.UpdateType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireCodecTest {
+
+    @Test
+    void testSnapshotRoundTrip() {
+        GameState game = startedGame();
+        game.setMode(MatchMode.SOLO_VS_BOT);
+        game.setLastAction("Dealt");
+        GameSnapshot snapshot = GameSnapshot.of(game, 1);
+
+        WireUpdate update = WireCodec.decodeUpdate(WireCodec.encodeSnapshot(snapshot, 7, null, UpdateType.SNAPSHOT));
+
+        assertEquals(7, update.getVersion());
+        assertEquals(UpdateType.SNAPSHOT, update.getType());
+        assertNull(update.getMessage());
+        assertNull(update.getDelta());
+        assertEquals(snapshot, update.getSnapshot());
+        assertTrue(update.getSnapshot().getPlayers().get(1).getHand()[0] >= 0, "own hand is face up");
+        assertEquals(GameDelta.UNKNOWN_CARD, update.getSnapshot().getPlayers().get(0).getHand()[0]);
+    }
+
+    @Test
+    void testDeltasRoundTripAndStaySmall() {
+        GameState game = startedGame();
+        DeltaTracker tracker = new DeltaTracker();
+        tracker.reset(game);
+
+        DefaultBotStrategy bot = new DefaultBotStrategy(new Random(3));
+        for (int turn = 0; turn < 200 && game.getStatus() == GameStatus.PLAYING; turn++) {
+            bot.playTurn(game, new GameEngine(), game.getCurrentPlayer());
+            GameDelta delta = tracker.diff(game).maskedFor(0);
+
+            byte[] bytes = WireCodec.encodeDelta(delta, "Card played", UpdateType.CARD_PLAYED);
+            WireUpdate update = WireCodec.decodeUpdate(bytes);
+
+            assertEquals(delta, update.getDelta());
+            assertEquals(UpdateType.CARD_PLAYED, update.getType());
+            assertEquals("Card played", update.getMessage());
+            int lastAction = delta.getLastAction() != null ? delta.getLastAction().length() : 0;
+            assertTrue(bytes.length <= 20 + delta.getMoves().length * 2 + lastAction, "delta took " + bytes.length);
+        }
+    }
+
+    @Test
+    void testBatchKeepsStepsInOrder() {
+        GameState game = startedGame();
+        DeltaTracker tracker = new DeltaTracker();
+        tracker.reset(game);
+
+        DefaultBotStrategy bot = new DefaultBotStrategy(new Random(4));
+        List<WireUpdate> steps = new ArrayList<>();
+        for (int turn = 0; turn < 3; turn++) {
+            bot.playTurn(game, new GameEngine(), game.getCurrentPlayer());
+            GameDelta delta = tracker.diff(game).maskedFor(GameDelta.SPECTATOR);
+            steps.add(new WireUpdate(delta.getVersion(), game.getLastAction(), UpdateType.CARD_PLAYED, delta));
+        }
+
+        WireUpdate batch = WireCodec.decodeUpdate(WireCodec.encodeBatch(steps));
+
+        assertEquals(steps.get(2).getVersion(), batch.getVersion());
+        assertEquals(steps.get(2).getMessage(), batch.getMessage());
+        assertNull(batch.getDelta());
+        assertEquals(steps, batch.getSteps());
+    }
+
+    @Test
+    void testActionRoundTripAndRejectsOtherVersions() {
+        WireAction action = new WireAction(WireAction.Kind.PLAY, "g", "p", new int[]{3, 55});
+
+        byte[] bytes = WireCodec.encodeAction(action);
+        assertEquals(action, WireCodec.decodeAction(bytes));
+
+        bytes[0] = WireCodec.VERSION + 1;
+        assertThrows(IllegalArgumentException.class, () -> WireCodec.decodeAction(bytes));
+        assertThrows(IllegalArgumentException.class,
+                () -> WireCodec.decodeUpdate(WireCodec.encodeAction(action)));
+    }
+
+    @Test
+    void testActionIdsRoundTripAndStayOptional() {
+        WireAction action = new WireAction(WireAction.Kind.DRAW, "g", "p", new int[0]);
+        byte[] plain = WireCodec.encodeAction(action);
+        action.setActionId("k3f-7");
+        action.setSentAt(1_700_000_000_000L);
+        byte[] traced = WireCodec.encodeAction(action);
+        assertEquals(action, WireCodec.decodeAction(traced));
+        assertNull(WireCodec.decodeAction(plain).getActionId());
+        assertArrayEquals(plain, java.util.Arrays.copyOf(traced, plain.length));
+
+        action.setActionId(null);
+        action.setSessionId("s-1");
+        action.setClientSeq(42);
+        byte[] numbered = WireCodec.encodeAction(action);
+        assertEquals(action, WireCodec.decodeAction(numbered));
+        assertEquals(-1, WireCodec.decodeAction(numbered).getExpectedVersion());
+        action.setExpectedVersion(0);
+        assertEquals(0, WireCodec.decodeAction(WireCodec.encodeAction(action)).getExpectedVersion());
+        assertEquals(-1, WireCodec.decodeAction(traced).getExpectedVersion());
+
+        GameState game = startedGame();
+        DeltaTracker tracker = new DeltaTracker();
+        tracker.reset(game);
+        DefaultBotStrategy bot = new DefaultBotStrategy(new Random(9));
+        List<WireUpdate> steps = new ArrayList<>();
+        for (int turn = 0; turn < 2; turn++) {
+            bot.playTurn(game, new GameEngine(), game.getCurrentPlayer());
+            GameDelta delta = tracker.diff(game).maskedFor(GameDelta.SPECTATOR);
+            steps.add(new WireUpdate(delta.getVersion(), game.getLastAction(), UpdateType.CARD_PLAYED, delta));
+        }
+        steps.get(0).setActionId("k3f-8");
+
+        WireUpdate delta = WireCodec.decodeUpdate(WireCodec.encodeDelta(steps.get(0).getDelta(),
+                steps.get(0).getMessage(), steps.get(0).getType(), "k3f-8"));
+        assertEquals("k3f-8", delta.getActionId());
+        assertEquals(steps, WireCodec.decodeUpdate(WireCodec.encodeBatch(steps)).getSteps());
+    }
+
+    private static GameState startedGame() {
+        GameEngine engine = new GameEngine();
+        GameState game = engine.createGame("wire");
+        engine.addPlayer(game, new Player("a", "Ana", false));
+        engine.addPlayer(game, new Player("b", "Bot", true));
+        engine.startGame(game, 5L);
+        return game;
+    }
+}
@@ -0,0 +1,56 @@
+package com.game.server.put0.load;
+
+import java.util.Arrays;
+
+/**
+ * Latency samples, in nanoseconds, kept both for the current report
+ * interval and for the whole run.
+ */
+final class LatencyRecorder {
+
+    private long[] interval = new long[1024];
+    private int intervalCount;
+    private long[] run = new long[1024];
+    private int runCount;
+
+    synchronized void record(long nanos) {
+        if (intervalCount == interval.length) {
+            interval = Arrays.copyOf(interval, intervalCount * 2);
+        }
+        interval[intervalCount++] = nanos;
+        if (runCount == run.length) {
+            run = Arrays.copyOf(run, runCount * 2);
+        }
+        run[runCount++] = nanos;
+    }
+
+    /**
+     * Sorted samples of the interval that just ended.
+     */
+    synchronized long[] drainInterval() {
+        long[] samples = Arrays.copyOf(interval, intervalCount);
+        intervalCount = 0;
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    /**
+     * Sorted samples of the whole run.
+     */
+    synchronized long[] runSamples() {
+        long[] samples = Arrays.copyOf(run, runCount);
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    /**
+     * Percentile of sorted samples, in milliseconds, or 0 if there are none.
+     */
+    static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
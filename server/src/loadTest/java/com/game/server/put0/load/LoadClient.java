@@ -0,0 +1,205 @@
+package com.game.server.put0.load;
+
+import com.game.core.engine.GameEngine;
+import com.game.core.engine.Move;
+import com.game.core.model.GameStatus;
+import com.game.core.wire.WireAction;
+import com.game.core.wire.WireCodec;
+import com.game.core.wire.WireUpdate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeType;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulated player: a STOMP session that speaks the wire codec, keeps
+ * its {@link SeatView} up to date and plays whenever it is its turn.
+ *
+ * Actions carry an id, and their latency is the time from sending one to
+ * receiving the update that echoes it. A delta that does not follow the
+ * current version is counted as a gap and answered with a new snapshot
+ * request, as the app does.
+ *
+ * Frames arrive on the session's thread; turns are played on the shared
+ * scheduler after the think time. Both take the client's lock.
+ */
+final class LoadClient extends StompSessionHandlerAdapter implements StompFrameHandler {
+
+    private static final MimeType WIRE_TYPE = MimeType.valueOf(WireCodec.CONTENT_TYPE);
+
+    private final String gameId;
+    private final String playerId;
+    private final LoadStats stats;
+    private final ScheduledExecutorService scheduler;
+    private final long thinkMs;
+    private final CountDownLatch snapshotLatch;
+    private final SeatView view;
+    private final GameEngine engine = new GameEngine();
+    private final Random random = new Random();
+    private final Map<String, Long> inFlight = new HashMap<>();
+    private StompSession session;
+    private boolean counted;
+    private long actedOn = -1;
+    private int sequence;
+
+    LoadClient(String gameId, String playerId, LoadStats stats, ScheduledExecutorService scheduler, long thinkMs,
+            CountDownLatch snapshotLatch) {
+        this.gameId = gameId;
+        this.playerId = playerId;
+        this.stats = stats;
+        this.scheduler = scheduler;
+        this.thinkMs = thinkMs;
+        this.snapshotLatch = snapshotLatch;
+        this.view = new SeatView(playerId);
+    }
+
+    CompletableFuture<StompSession> connect(WebSocketStompClient client, String url) {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add(WireCodec.CONNECT_HEADER, Integer.toString(WireCodec.VERSION));
+        return client.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, this);
+    }
+
+    synchronized GameStatus status() {
+        return view.status();
+    }
+
+    void disconnect() {
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        this.session = session;
+        stats.connected.increment();
+        session.subscribe("/user/queue/game", this);
+        requestSnapshot();
+    }
+
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+        return byte[].class;
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+        WireUpdate update;
+        try {
+            update = WireCodec.decodeUpdate(Base64.getDecoder().decode((byte[]) payload));
+        } catch (RuntimeException e) {
+            stats.errors.increment();
+            return;
+        }
+        stats.frames.increment();
+        synchronized (this) {
+            apply(update);
+            if (!counted && view.version() >= 0) {
+                counted = true;
+                snapshotLatch.countDown();
+            }
+            maybeAct();
+        }
+    }
+
+    @Override
+    public void handleException(StompSession session, StompCommand command, StompHeaders headers, byte[] payload,
+            Throwable exception) {
+        stats.errors.increment();
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        if (!session.isConnected()) {
+            stats.disconnects.increment();
+        }
+    }
+
+    private void apply(WireUpdate update) {
+        if (update.getSteps() != null) {
+            for (WireUpdate step : update.getSteps()) {
+                apply(step);
+            }
+            return;
+        }
+        if (update.getSnapshot() != null) {
+            if (update.getVersion() >= view.version()) {
+                view.reset(update.getSnapshot(), update.getVersion());
+            }
+        } else if (update.getDelta() != null && view.version() >= 0 && update.getVersion() > view.version()) {
+            if (!view.apply(update.getDelta())) {
+                stats.gaps.increment();
+                view.invalidate();
+                requestSnapshot();
+            }
+        }
+        if (update.getActionId() != null) {
+            Long sentAt = inFlight.remove(update.getActionId());
+            if (sentAt != null) {
+                stats.latency.record(System.nanoTime() - sentAt);
+            }
+        }
+    }
+
+    // Plays once per version in which it is this player's turn
+    private void maybeAct() {
+        if (!view.isMyTurn() || view.version() == actedOn) {
+            return;
+        }
+        long version = view.version();
+        actedOn = version;
+        scheduler.schedule(() -> act(version), thinkMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void act(long version) {
+        if (view.version() != version || !view.isMyTurn()) {
+            return;
+        }
+        int move = view.chooseMove(engine, random);
+        if (move == Move.NONE) {
+            // Only face-down cards left: the turn deadline plays one for us
+            stats.blocked.increment();
+            return;
+        }
+        WireAction action = switch (Move.type(move)) {
+            case Move.PLAY -> new WireAction(WireAction.Kind.PLAY, gameId, playerId,
+                    new int[] {Move.cardId(Move.value(move), Integer.numberOfTrailingZeros(Move.mask(move)))});
+            case Move.DRAW -> new WireAction(WireAction.Kind.DRAW, gameId, playerId, new int[0]);
+            default -> new WireAction(WireAction.Kind.COLLECT, gameId, playerId, new int[0]);
+        };
+        action.setActionId(playerId + "-" + ++sequence);
+        action.setSentAt(System.currentTimeMillis());
+        inFlight.put(action.getActionId(), System.nanoTime());
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination("/app/game/action");
+        headers.setContentType(WIRE_TYPE);
+        try {
+            session.send(headers, Base64.getEncoder().encodeToString(WireCodec.encodeAction(action))
+                    .getBytes(StandardCharsets.US_ASCII));
+            stats.actions.increment();
+        } catch (RuntimeException e) {
+            inFlight.remove(action.getActionId());
+            stats.errors.increment();
+        }
+    }
+
+    private void requestSnapshot() {
+        session.subscribe("/app/game/" + gameId + "/snapshot/" + playerId, this);
+    }
+}
@@ -0,0 +1,18 @@
+package com.game.server.put0.load;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters shared by all the simulated clients of a run.
+ */
+final class LoadStats {
+
+    final LongAdder connected = new LongAdder();
+    final LongAdder disconnects = new LongAdder();
+    final LongAdder actions = new LongAdder();
+    final LongAdder frames = new LongAdder();
+    final LongAdder gaps = new LongAdder();
+    final LongAdder blocked = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LatencyRecorder latency = new LatencyRecorder();
+}
@@ -0,0 +1,203 @@
+package com.game.server.put0.load;
+
+import com.game.core.model.GameStatus;
+import com.game.server.put0.Put0Application;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process load test. Starts the server on a random local port, opens
+ * {@code load.rooms} rooms of {@code load.seats} players through the REST
+ * API, connects one STOMP client per player to /ws and starts the rooms.
+ * The clients then play legal moves until {@code load.duration-seconds}
+ * have passed.
+ *
+ * Every {@code load.report-seconds} it prints actions per second, p50/p99
+ * action latency, version gaps seen by the clients, frames the server
+ * dropped or sessions it closed for lagging, and heap usage. Server and
+ * clients share the JVM, so the heap figure covers both.
+ *
+ * Settings are system properties:
+ * - load.rooms (250), load.seats (4)
+ * - load.duration-seconds (60), load.report-seconds (5)
+ * - load.think-ms (200): pause before each client move
+ * - load.connect-concurrency (64): rooms set up at the same time
+ * - load.turn-timeout-ms (3000): server turn deadline, which plays for
+ *   clients that only hold face-down cards
+ */
+public final class LoadTest {
+
+    private final int rooms = Integer.getInteger("load.rooms", 250);
+    private final int seats = Integer.getInteger("load.seats", 4);
+    private final int durationSeconds = Integer.getInteger("load.duration-seconds", 60);
+    private final int reportSeconds = Integer.getInteger("load.report-seconds", 5);
+    private final long thinkMs = Long.getLong("load.think-ms", 200);
+    private final int connectConcurrency = Integer.getInteger("load.connect-concurrency", 64);
+    private final long turnTimeoutMs = Long.getLong("load.turn-timeout-ms", 3000);
+
+    private final LoadStats stats = new LoadStats();
+    private final List<LoadClient> clients = new ArrayList<>();
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest().run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        // As command-line arguments, so that they win over application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Put0Application.class).run(
+                "--server.port=0", "--spring.main.banner-mode=off", "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN", "--logging.level.com.game.server=WARN",
+                "--logging.level.org.springframework.web=WARN", "--logging.level.org.springframework.messaging=WARN",
+                "--game.turn.timeout-ms=" + turnTimeoutMs);
+        String port = context.getEnvironment().getProperty("local.server.port");
+        baseUrl = "http://localhost:" + port;
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+        ThreadPoolTaskScheduler heartbeats = new ThreadPoolTaskScheduler();
+        heartbeats.initialize();
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new ByteArrayMessageConverter() {
+            @Override
+            protected boolean supportsMimeType(MessageHeaders headers) {
+                return true;
+            }
+        });
+        stompClient.setTaskScheduler(heartbeats);
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+                Runtime.getRuntime().availableProcessors());
+
+        System.out.printf("Server on port %s: setting up %d rooms of %d players%n", port, rooms, seats);
+        long setupStart = System.nanoTime();
+        ExecutorService setup = Executors.newFixedThreadPool(connectConcurrency);
+        Semaphore permits = new Semaphore(connectConcurrency);
+        List<CompletableFuture<Void>> roomsReady = new ArrayList<>();
+        String wsUrl = "ws://localhost:" + port + "/ws/websocket";
+        for (int i = 0; i < rooms; i++) {
+            int room = i;
+            roomsReady.add(CompletableFuture.runAsync(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    setUpRoom(room, stompClient, wsUrl, scheduler);
+                } catch (Exception e) {
+                    stats.errors.increment();
+                    System.out.println("Room " + room + " not set up: " + e.getMessage());
+                } finally {
+                    permits.release();
+                }
+            }, setup));
+        }
+        CompletableFuture.allOf(roomsReady.toArray(new CompletableFuture[0])).join();
+        setup.shutdown();
+        System.out.printf("%d clients connected in %d ms%n", stats.connected.sum(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - setupStart));
+
+        System.out.println("  time  clients  actions/s   p50 ms   p99 ms  gaps  dropped  lagged  heap MB  finished");
+        long start = System.nanoTime();
+        long lastActions = 0;
+        for (int elapsed = reportSeconds; elapsed <= durationSeconds; elapsed += reportSeconds) {
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(start + TimeUnit.SECONDS.toNanos(elapsed) - System.nanoTime()));
+            long actions = stats.actions.sum();
+            long[] latencies = stats.latency.drainInterval();
+            MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            System.out.printf("%5ds  %7d  %9.1f  %7.1f  %7.1f  %4d  %7.0f  %6.0f  %7d  %8d%n", elapsed,
+                    stats.connected.sum() - stats.disconnects.sum(), (actions - lastActions) / (double) reportSeconds,
+                    LatencyRecorder.percentileMs(latencies, 50), LatencyRecorder.percentileMs(latencies, 99),
+                    stats.gaps.sum(), count(meterRegistry, "game.outbound.dropped"),
+                    count(meterRegistry, "game.outbound.disconnects"), heap.getUsed() >> 20, finishedClients() / seats);
+            lastActions = actions;
+        }
+
+        long[] latencies = stats.latency.runSamples();
+        System.out.printf("Total: %d actions (%.1f/s), %d echoed, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                stats.actions.sum(), stats.actions.sum() / (double) durationSeconds, latencies.length,
+                LatencyRecorder.percentileMs(latencies, 50), LatencyRecorder.percentileMs(latencies, 99),
+                LatencyRecorder.percentileMs(latencies, 100));
+        System.out.printf("Frames %d, gaps %d, blocked turns %d, errors %d, client disconnects %d%n",
+                stats.frames.sum(), stats.gaps.sum(), stats.blocked.sum(), stats.errors.sum(),
+                stats.disconnects.sum());
+
+        scheduler.shutdownNow();
+        clients.forEach(LoadClient::disconnect);
+        stompClient.stop();
+        heartbeats.shutdown();
+        context.close();
+    }
+
+    private void setUpRoom(int room, WebSocketStompClient stompClient, String wsUrl,
+            ScheduledExecutorService scheduler) throws Exception {
+        JsonNode created = post("/api/rooms/create", "{\"playerName\":\"load-" + room + "-0\",\"isPrivate\":true,"
+                + "\"maxPlayers\":" + seats + ",\"botCount\":0,\"mode\":\"SOLO_VS_AMIGOS\"}");
+        String gameId = created.get("gameId").asString();
+        List<String> playerIds = new ArrayList<>(seats);
+        playerIds.add(created.get("playerId").asString());
+        for (int seat = 1; seat < seats; seat++) {
+            JsonNode joined = post("/api/rooms/join",
+                    "{\"gameId\":\"" + gameId + "\",\"playerName\":\"load-" + room + "-" + seat + "\"}");
+            playerIds.add(joined.get("playerId").asString());
+        }
+
+        CountDownLatch snapshots = new CountDownLatch(seats);
+        for (String playerId : playerIds) {
+            LoadClient client = new LoadClient(gameId, playerId, stats, scheduler, thinkMs, snapshots);
+            synchronized (clients) {
+                clients.add(client);
+            }
+            client.connect(stompClient, wsUrl).get(30, TimeUnit.SECONDS);
+        }
+        if (!snapshots.await(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("no snapshot for every player of " + gameId);
+        }
+        post("/api/rooms/" + gameId + "/start", "{}");
+    }
+
+    private JsonNode post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return jsonMapper.readTree(response.body());
+    }
+
+    private long finishedClients() {
+        synchronized (clients) {
+            return clients.stream().filter(client -> client.status() == GameStatus.FINISHED).count();
+        }
+    }
+
+    private static double count(MeterRegistry meterRegistry, String name) {
+        return meterRegistry.find(name).counters().stream().mapToDouble(Counter::count).sum();
+    }
+}
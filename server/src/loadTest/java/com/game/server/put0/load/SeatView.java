@@ -0,0 +1,186 @@
+package com.game.server.put0.load;
+
+import com.game.core.engine.GameEngine;
+import com.game.core.engine.Move;
+import com.game.core.engine.MoveList;
+import com.game.core.model.CardCatalog;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.Player;
+import com.game.core.sync.GameDelta;
+import com.game.core.sync.GameSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One player's view of a game, rebuilt from the snapshots and deltas the
+ * server sends to that player, the way a real client keeps it.
+ *
+ * Moves are picked by the core engine's {@link GameEngine#legalMoves}, run
+ * on a game made of what the player can see. Face-down cards are unknown to
+ * their owner too, so they are never played from here: with nothing else
+ * left the player draws or collects, or waits for the turn deadline.
+ */
+final class SeatView {
+
+    private final String playerId;
+    private final Map<Integer, List<Integer>> piles = new HashMap<>();
+    private final MoveList moves = new MoveList();
+    private long version = -1;
+    private int seat = -1;
+    private int seats;
+    private int currentPlayerIndex;
+    private GameStatus status;
+
+    SeatView(String playerId) {
+        this.playerId = playerId;
+    }
+
+    long version() {
+        return version;
+    }
+
+    GameStatus status() {
+        return status;
+    }
+
+    boolean isMyTurn() {
+        return version >= 0 && status == GameStatus.PLAYING && seat == currentPlayerIndex;
+    }
+
+    void reset(GameSnapshot snapshot, long snapshotVersion) {
+        piles.clear();
+        seats = snapshot.getPlayers().size();
+        seat = -1;
+        for (int i = 0; i < seats; i++) {
+            GameSnapshot.Seat view = snapshot.getPlayers().get(i);
+            if (view.getId().equals(playerId)) {
+                seat = i;
+            }
+            fill(GameDelta.hand(i), view.getHand());
+            fill(GameDelta.visible(i), view.getVisibleCards());
+            fill(GameDelta.hidden(i), view.getHiddenCards());
+        }
+        fill(GameDelta.DECK, snapshot.getMainDeck());
+        fill(GameDelta.TABLE, snapshot.getTablePile());
+        fill(GameDelta.DISCARD, snapshot.getDiscardPile());
+        currentPlayerIndex = snapshot.getCurrentPlayerIndex();
+        status = snapshot.getStatus();
+        version = snapshotVersion;
+    }
+
+    /**
+     * Forgets the game until the next snapshot.
+     */
+    void invalidate() {
+        version = -1;
+    }
+
+    /**
+     * Applies the next delta.
+     *
+     * @return false if the delta does not follow the current version
+     */
+    boolean apply(GameDelta delta) {
+        if (version < 0 || delta.getBaseVersion() != version) {
+            return false;
+        }
+        int[] cardMoves = delta.getMoves();
+        for (int i = 0; i < cardMoves.length; i += 3) {
+            remove(pile(cardMoves[i + 1]), cardMoves[i]);
+            pile(cardMoves[i + 2]).add(cardMoves[i]);
+        }
+        if (delta.getCurrentPlayerIndex() != null) {
+            currentPlayerIndex = delta.getCurrentPlayerIndex();
+        }
+        if (delta.getStatus() != null) {
+            status = delta.getStatus();
+        }
+        version = delta.getVersion();
+        return true;
+    }
+
+    /**
+     * Picks a legal move for this player: a random single-card play if there
+     * is one, otherwise a draw, otherwise a collect.
+     *
+     * @return the move, or {@link Move#NONE} if nothing can be played blind
+     */
+    int chooseMove(GameEngine engine, Random random) {
+        if (pile(GameDelta.hand(seat)).isEmpty() && pile(GameDelta.visible(seat)).isEmpty()) {
+            return Move.NONE;
+        }
+        engine.legalMoves(toGame(), playerId, moves);
+        int plays = 0;
+        int fallback = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.type(move) == Move.PLAY && Move.cardCount(move) == 1) {
+                plays++;
+            } else if (Move.type(move) == Move.DRAW || (Move.type(move) == Move.COLLECT && fallback == Move.NONE)) {
+                fallback = move;
+            }
+        }
+        if (plays == 0) {
+            return fallback;
+        }
+        int pick = random.nextInt(plays);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.type(move) == Move.PLAY && Move.cardCount(move) == 1 && pick-- == 0) {
+                return move;
+            }
+        }
+        return fallback;
+    }
+
+    // What the engine needs to list the moves: this player's open cards, the
+    // table and whether the deck is empty
+    private GameState toGame() {
+        GameState game = new GameState("load");
+        game.setStatus(status);
+        game.setCurrentPlayerIndex(currentPlayerIndex);
+        for (int i = 0; i < seats; i++) {
+            Player player = new Player(i == seat ? playerId : "seat-" + i, "", false);
+            if (i == seat) {
+                for (int id : pile(GameDelta.hand(i))) {
+                    player.getHand().add(CardCatalog.get(id));
+                }
+                for (int id : pile(GameDelta.visible(i))) {
+                    player.getVisibleCards().add(CardCatalog.get(id));
+                }
+            }
+            game.getPlayers().add(player);
+        }
+        if (!pile(GameDelta.DECK).isEmpty()) {
+            game.getMainDeck().add(CardCatalog.get(0));
+        }
+        for (int id : pile(GameDelta.TABLE)) {
+            game.getTablePile().add(CardCatalog.get(id));
+        }
+        return game;
+    }
+
+    private List<Integer> pile(int code) {
+        return piles.computeIfAbsent(code, c -> new ArrayList<>());
+    }
+
+    private void fill(int code, int[] ids) {
+        List<Integer> pile = pile(code);
+        for (int id : ids) {
+            pile.add(id);
+        }
+    }
+
+    // A known card by id; an unknown one is any unknown card of the pile
+    private static void remove(List<Integer> pile, int id) {
+        if (!pile.remove(Integer.valueOf(id)) && !pile.remove(Integer.valueOf(GameDelta.UNKNOWN_CARD))
+                && !pile.isEmpty()) {
+            pile.remove(pile.size() - 1);
+        }
+    }
+}
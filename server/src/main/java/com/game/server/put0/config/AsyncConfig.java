@@ -1,23 +1,51 @@
 package com.game.server.put0.config;
 
+import com.game.server.put0.timer.HashedWheelTimer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
-@EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "gameExecutor")
-    public Executor gameExecutor() {
+    /**
+     * Shared timer for game delays (bot pacing). Delayed work waits in the
+     * wheel instead of holding a pool thread.
+     */
+    @Bean(destroyMethod = "stop")
+    public HashedWheelTimer gameTimer(@Value("${game.timer.tick-ms:10}") long tickMs) {
+        return new HashedWheelTimer("GameTimer", tickMs, TimeUnit.MILLISECONDS, 512);
+    }
+
+    /**
+     * Fixed pool that runs the per-game mailboxes (see GameMailbox).
+     * Each game uses at most one thread at a time, so a few threads serve all games.
+     */
+    @Bean(name = "mailboxExecutor")
+    public Executor mailboxExecutor(@Value("${game.mailbox.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("GameMailbox-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Fixed pool that drains the per-session outbound queues (see SessionOutbox).
+     * Each session uses at most one thread at a time, so a slow client only
+     * holds one of them while its writes block.
+     */
+    @Bean(name = "outboundExecutor")
+    public Executor outboundExecutor(@Value("${game.outbound.threads:4}") int threads) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(4);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(25);
-        executor.setThreadNamePrefix("GameAsync-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("Outbound-");
         executor.initialize();
         return executor;
     }
@@ -0,0 +1,300 @@
+package com.game.server.put0.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outbound side of the STOMP connections: one bounded queue per session,
+ * drained one message at a time on the shared outbound pool, so a client on
+ * a slow network only ever holds up its own messages.
+ *
+ * Used as the executor of the client outbound channel (it receives every
+ * message with its handler) and as a handler decorator (it learns when
+ * sessions open and close). When a session lags behind by
+ * {@code game.outbound.collapse-at} messages, a new state frame replaces the
+ * ones still pending for the same subscription: the client sees the version
+ * gap and asks for a snapshot instead of replaying every delta. A session
+ * whose queue is full, or whose oldest message waited longer than
+ * {@code game.outbound.max-lag-ms}, is disconnected.
+ *
+ * Metrics:
+ * - game.outbound.depth: messages waiting across all sessions
+ * - game.outbound.sessions: sessions with a queue
+ * - game.outbound.queued: session queue depth seen by each new message
+ * - game.outbound.dropped: messages dropped, tagged by reason (collapsed, closed)
+ * - game.outbound.disconnects: sessions closed for lagging
+ * - game.outbound.wait / game.outbound.send: queue wait and send time
+ */
+@Component
+class SessionOutbox implements TaskExecutor, WebSocketHandlerDecoratorFactory {
+
+    /**
+     * Message header marking a game state frame, which may be collapsed.
+     */
+    static final String STATE_FRAME_HEADER = "put0.stateFrame";
+
+    private static final Logger log = LoggerFactory.getLogger(SessionOutbox.class);
+
+    // Messages sent per turn before the queue yields its thread to other sessions
+    private static final int MAX_BATCH = 32;
+
+    private final Executor executor;
+    private final int capacity;
+    private final int collapseAt;
+    private final long maxLagNanos;
+    private final Map<String, Outbox> outboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final DistributionSummary queuedSummary;
+    private final Counter collapsed;
+    private final Counter closed;
+    private final Counter disconnects;
+    private final Timer waitTimer;
+    private final Timer sendTimer;
+
+    SessionOutbox(@Qualifier("outboundExecutor") Executor executor, MeterRegistry meterRegistry,
+            @Value("${game.outbound.queue-capacity:256}") int capacity,
+            @Value("${game.outbound.collapse-at:16}") int collapseAt,
+            @Value("${game.outbound.max-lag-ms:10000}") long maxLagMs) {
+        this.executor = executor;
+        this.capacity = capacity;
+        this.collapseAt = collapseAt;
+        this.maxLagNanos = TimeUnit.MILLISECONDS.toNanos(maxLagMs);
+        meterRegistry.gauge("game.outbound.depth", pending);
+        meterRegistry.gaugeMapSize("game.outbound.sessions", Tags.empty(), outboxes);
+        this.queuedSummary = DistributionSummary.builder("game.outbound.queued")
+                .description("Messages already queued for the session when a new one arrives")
+                .register(meterRegistry);
+        this.collapsed = Counter.builder("game.outbound.dropped").tag("reason", "collapsed").register(meterRegistry);
+        this.closed = Counter.builder("game.outbound.dropped").tag("reason", "closed").register(meterRegistry);
+        this.disconnects = Counter.builder("game.outbound.disconnects").register(meterRegistry);
+        this.waitTimer = Timer.builder("game.outbound.wait").register(meterRegistry);
+        this.sendTimer = Timer.builder("game.outbound.send").register(meterRegistry);
+    }
+
+    /**
+     * Time limit of a single write, in milliseconds: a write may not block
+     * for longer than a session may lag.
+     */
+    int sendTimeLimit() {
+        return (int) TimeUnit.NANOSECONDS.toMillis(maxLagNanos);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Outbox outbox = null;
+        if (task instanceof MessageHandlingRunnable handling) {
+            String sessionId = SimpMessageHeaderAccessor.getSessionId(handling.getMessage().getHeaders());
+            outbox = sessionId != null ? outboxes.get(sessionId) : null;
+        }
+        if (outbox != null) {
+            outbox.offer((MessageHandlingRunnable) task);
+        } else {
+            // Not for a live session (e.g. after it closed): nothing to order
+            executor.execute(task);
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                outboxes.put(session.getId(), new Outbox(session));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                try {
+                    super.afterConnectionClosed(session, closeStatus);
+                } finally {
+                    Outbox outbox = outboxes.remove(session.getId());
+                    if (outbox != null) {
+                        closed.increment(outbox.clear());
+                    }
+                }
+            }
+        };
+    }
+
+    private static boolean sameSubscription(MessageHeaders a, MessageHeaders b) {
+        return Objects.equals(SimpMessageHeaderAccessor.getSubscriptionId(a), SimpMessageHeaderAccessor.getSubscriptionId(b))
+                && Objects.equals(SimpMessageHeaderAccessor.getDestination(a), SimpMessageHeaderAccessor.getDestination(b));
+    }
+
+    private record Pending(MessageHandlingRunnable task, long enqueuedAt) {
+
+        Message<?> message() {
+            return task.getMessage();
+        }
+
+        boolean isStateFrame() {
+            return Boolean.TRUE.equals(message().getHeaders().get(STATE_FRAME_HEADER));
+        }
+    }
+
+    /**
+     * Queue of one session. At most one drain task per session is scheduled
+     * on the pool at any time, which keeps the session's messages in order.
+     */
+    private final class Outbox implements Runnable {
+
+        private final WebSocketSession session;
+        private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closing = new AtomicBoolean();
+
+        Outbox(WebSocketSession session) {
+            this.session = session;
+        }
+
+        void offer(MessageHandlingRunnable task) {
+            if (closing.get()) {
+                closed.increment();
+                return;
+            }
+            Pending message = new Pending(task, System.nanoTime());
+            String lagging = null;
+            synchronized (queue) {
+                int depth = queue.size();
+                queuedSummary.record(depth);
+                if (depth >= collapseAt && message.isStateFrame()) {
+                    depth -= collapse(message);
+                }
+                if (depth >= capacity) {
+                    lagging = "queue full";
+                } else if (depth > 0 && message.enqueuedAt() - queue.peekFirst().enqueuedAt() > maxLagNanos) {
+                    lagging = "stalled";
+                } else {
+                    queue.addLast(message);
+                    pending.incrementAndGet();
+                }
+            }
+            if (lagging != null) {
+                disconnect(lagging);
+            } else {
+                schedule();
+            }
+        }
+
+        // Drops the pending state frames the new one supersedes
+        private int collapse(Pending message) {
+            MessageHeaders headers = message.message().getHeaders();
+            int dropped = 0;
+            for (Iterator<Pending> it = queue.iterator(); it.hasNext(); ) {
+                Pending older = it.next();
+                if (older.isStateFrame() && sameSubscription(headers, older.message().getHeaders())) {
+                    it.remove();
+                    dropped++;
+                }
+            }
+            pending.addAndGet(-dropped);
+            collapsed.increment(dropped);
+            return dropped;
+        }
+
+        private void disconnect(String reason) {
+            if (!closing.compareAndSet(false, true)) {
+                return;
+            }
+            disconnects.increment();
+            closed.increment(clear() + 1);
+            log.warn("Disconnecting slow session {}: {}", session.getId(), reason);
+            // Closing may block on the very socket that is lagging
+            executor.execute(() -> {
+                try {
+                    session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException e) {
+                    log.debug("Failed to close session {}", session.getId(), e);
+                }
+            });
+        }
+
+        int clear() {
+            synchronized (queue) {
+                int dropped = queue.size();
+                queue.clear();
+                pending.addAndGet(-dropped);
+                return dropped;
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        private Pending poll() {
+            synchronized (queue) {
+                Pending message = queue.pollFirst();
+                if (message != null) {
+                    pending.decrementAndGet();
+                }
+                return message;
+            }
+        }
+
+        private boolean isEmpty() {
+            synchronized (queue) {
+                return queue.isEmpty();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < MAX_BATCH; i++) {
+                    Pending message = poll();
+                    if (message == null) {
+                        break;
+                    }
+                    long start = System.nanoTime();
+                    waitTimer.record(start - message.enqueuedAt(), TimeUnit.NANOSECONDS);
+                    try {
+                        message.task().run();
+                    } catch (RuntimeException e) {
+                        log.debug("Failed to send to session {}", session.getId(), e);
+                    } finally {
+                        sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                // A message may have arrived after the last poll
+                if (!isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.game.server.put0.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+/**
+ * Refuses subscriptions to another session's queues. Per-session messages
+ * (a player's own view of the game, command acks, errors) go to
+ * /queue/...-user{sessionId} on the broker; clients must reach them through
+ * /user/queue/..., which only ever resolves to their own session.
+ */
+class SubscriptionGuard implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriptionGuard.class);
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.SUBSCRIBE) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination != null && destination.startsWith("/queue/")) {
+            log.warn("Session {} refused subscription to {}",
+                    SimpMessageHeaderAccessor.getSessionId(message.getHeaders()), destination);
+            throw new MessageDeliveryException(message, "Session queues are subscribed to through /user/queue/");
+        }
+        return message;
+    }
+}
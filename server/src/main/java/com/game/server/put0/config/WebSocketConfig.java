@@ -1,10 +1,15 @@
 package com.game.server.put0.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.List;
 
 /**
  * WebSocket configuration for real-time game communication.
@@ -13,6 +18,14 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final WireNegotiationInterceptor wireNegotiation = new WireNegotiationInterceptor();
+    private final SubscriptionGuard subscriptionGuard = new SubscriptionGuard();
+    private final SessionOutbox sessionOutbox;
+
+    public WebSocketConfig(SessionOutbox sessionOutbox) {
+        this.sessionOutbox = sessionOutbox;
+    }
     
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
@@ -31,4 +44,28 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*") // Allow all origins for development
                 .withSockJS(); // Enable SockJS fallback for browsers without WebSocket support
     }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // Ahead of the JSON converter, which would serialise frames itself
+        messageConverters.add(0, new WireMessageConverter());
+        return true;
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(subscriptionGuard, wireNegotiation);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // One bounded queue per session instead of a shared pool (see SessionOutbox)
+        registration.executor(sessionOutbox).interceptors(wireNegotiation);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sessionOutbox.sendTimeLimit())
+                .addDecoratorFactory(sessionOutbox);
+    }
 }
@@ -0,0 +1,56 @@
+package com.game.server.put0.config;
+
+import com.game.core.wire.WireAction;
+import com.game.core.wire.WireCodec;
+import com.game.server.put0.dto.GameFrame;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Converter for the game protocol types:
+ * outbound {@link GameFrame}s are passed through untouched, to be encoded per
+ * session by {@link WireNegotiationInterceptor}; inbound messages with the
+ * {@link WireCodec#CONTENT_TYPE} are decoded to {@link WireAction}s.
+ */
+class WireMessageConverter extends AbstractMessageConverter {
+
+    private static final MimeType WIRE = MimeType.valueOf(WireCodec.CONTENT_TYPE);
+
+    WireMessageConverter() {
+        super(MimeTypeUtils.APPLICATION_JSON, WIRE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return GameFrame.class == clazz || WireAction.class == clazz;
+    }
+
+    @Override
+    protected boolean canConvertFrom(Message<?> message, Class<?> targetClass) {
+        MimeType mimeType = getMimeType(message.getHeaders());
+        return WireAction.class == targetClass && mimeType != null && WIRE.equalsTypeAndSubtype(mimeType);
+    }
+
+    @Override
+    protected boolean canConvertTo(Object payload, MessageHeaders headers) {
+        return payload instanceof GameFrame;
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        Object payload = message.getPayload();
+        byte[] text = payload instanceof byte[] bytes ? bytes : payload.toString().getBytes(StandardCharsets.US_ASCII);
+        return WireCodec.decodeAction(Base64.getDecoder().decode(text));
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return payload;
+    }
+}
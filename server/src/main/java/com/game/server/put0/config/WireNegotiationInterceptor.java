@@ -0,0 +1,70 @@
+package com.game.server.put0.config;
+
+import com.game.core.wire.WireCodec;
+import com.game.server.put0.dto.GameFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Negotiates the update format of each STOMP connection. A client sending
+ * the {@link WireCodec#CONNECT_HEADER} header on CONNECT with a version this
+ * server speaks gets binary frames; every other client gets JSON.
+ *
+ * Registered on both client channels: inbound it records the choice per
+ * session, outbound it encodes each {@link GameFrame} in the session's format.
+ */
+class WireNegotiationInterceptor implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(WireNegotiationInterceptor.class);
+    private static final MimeType WIRE = MimeType.valueOf(WireCodec.CONTENT_TYPE);
+
+    // Sessions that negotiated the binary format
+    private final Map<String, Integer> wireSessions = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (type == SimpMessageType.CONNECT) {
+            negotiate(sessionId, StompHeaderAccessor.wrap(message).getFirstNativeHeader(WireCodec.CONNECT_HEADER));
+        } else if (type == SimpMessageType.DISCONNECT) {
+            wireSessions.remove(sessionId);
+        } else if (message.getPayload() instanceof GameFrame frame) {
+            return encode(message, frame, sessionId != null && wireSessions.containsKey(sessionId));
+        }
+        return message;
+    }
+
+    private void negotiate(String sessionId, String requested) {
+        if (sessionId == null || requested == null) {
+            return;
+        }
+        try {
+            if (Integer.parseInt(requested.trim()) >= WireCodec.VERSION) {
+                wireSessions.put(sessionId, WireCodec.VERSION);
+                log.debug("Session {} uses wire format v{}", sessionId, WireCodec.VERSION);
+            }
+        } catch (NumberFormatException e) {
+            log.debug("Session {} asked for unknown wire format {}", sessionId, requested);
+        }
+    }
+
+    private Message<byte[]> encode(Message<?> message, GameFrame frame, boolean wire) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setContentType(wire ? WIRE : MimeTypeUtils.APPLICATION_JSON);
+        accessor.setHeader(SessionOutbox.STATE_FRAME_HEADER, Boolean.TRUE);
+        return MessageBuilder.createMessage(wire ? frame.wire() : frame.json(), accessor.getMessageHeaders());
+    }
+}
@@ -1,146 +1,404 @@
 package com.game.server.put0.controller;
 
+import com.game.server.put0.dto.CommandAck;
 import com.game.server.put0.dto.DrawCardRequest;
+import com.game.server.put0.dto.GameFrame;
 import com.game.server.put0.dto.GameStateUpdate;
+import com.game.server.put0.dto.LobbyPage;
 import com.game.server.put0.dto.PlayCardRequest;
+import com.game.core.model.Card;
+import com.game.core.model.CardCatalog;
 import com.game.core.model.GameState;
+import com.game.core.sync.UpdateType;
+import com.game.core.wire.WireAction;
 import com.game.server.put0.service.AIBotService;
+import com.game.server.put0.service.ActionTracer;
+import com.game.server.put0.service.ActionTracer.ActionTrace;
+import com.game.server.put0.service.CommandLog;
+import com.game.server.put0.service.CommandLog.Command;
 import com.game.server.put0.service.GameEngine;
+import com.game.server.put0.service.GameMailbox;
+import com.game.server.put0.service.GameUpdatePublisher;
+import com.game.server.put0.service.LobbyFeed;
+import com.game.server.put0.service.TurnTimeoutService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 /**
  * WebSocket controller for handling game actions.
  * Clients send messages to /app/* endpoints.
- * Server broadcasts updates to /topic/game/{gameId}.
+ * Server broadcasts versioned deltas to /topic/game/{gameId} (public view) and
+ * /user/queue/game (that player's view, for the session holding the seat);
+ * clients get a full snapshot by subscribing to
+ * /app/game/{gameId}/snapshot[/{playerId}], which also claims the seat.
+ * The lobby works the same way: changes on /topic/lobby, first page on
+ * /app/lobby (see LobbyFeed).
+ *
+ * Actions are queued on the game's mailbox, so inbound channel threads
+ * return immediately and each game applies its actions in order. Each
+ * action is traced from here to its broadcast (see ActionTracer), and the
+ * client's action id comes back in the update or the error.
+ *
+ * Actions numbered by the client (sessionId, clientSeq and optionally
+ * expectedVersion) run at most once and are acknowledged, with the version
+ * they led to, on /user/queue/acks of the sending session (see CommandLog).
+ * Versions are the game's own (GameState#getVersion()), the same in the
+ * updates, the acks and the REST ETags.
  */
 @Controller
 @RequiredArgsConstructor
 public class GameWebSocketController {
 
     private static final Logger log = LoggerFactory.getLogger(GameWebSocketController.class);
+
+    private static final int LOBBY_PAGE_SIZE = 50;
     
     private final GameEngine gameEngine;
     private final AIBotService aiBotService;
+    private final GameMailbox gameMailbox;
+    private final GameUpdatePublisher updatePublisher;
+    private final TurnTimeoutService turnTimeouts;
+    private final LobbyFeed lobbyFeed;
+    private final ActionTracer actionTracer;
+    private final CommandLog commandLog;
     private final SimpMessagingTemplate messagingTemplate;
     
+    /**
+     * Sends the current public snapshot to a spectator subscribing to
+     * /app/game/{gameId}/snapshot.
+     */
+    @SubscribeMapping("/game/{gameId}/snapshot")
+    public CompletableFuture<GameFrame> snapshot(@DestinationVariable String gameId) {
+        return gameMailbox.submit(gameId, "snapshot", () -> updatePublisher.snapshot(gameId, null, null));
+    }
+
+    /**
+     * Sends a player's current snapshot to a client subscribing to
+     * /app/game/{gameId}/snapshot/{playerId} (on join, reconnect or a version gap).
+     * The session takes the player's seat and gets its updates on
+     * /user/queue/game; a seat held by another session gets the public view.
+     */
+    @SubscribeMapping("/game/{gameId}/snapshot/{playerId}")
+    public CompletableFuture<GameFrame> playerSnapshot(@DestinationVariable String gameId,
+            @DestinationVariable String playerId,
+            @Header(name = SimpMessageHeaderAccessor.SESSION_ID_HEADER, required = false) String stompSessionId) {
+        return gameMailbox.submit(gameId, "snapshot", () -> updatePublisher.snapshot(gameId, playerId, stompSessionId));
+    }
+    
+    /**
+     * Sends the first page of the lobby to a client subscribing to
+     * /app/lobby, after it subscribed to /topic/lobby.
+     */
+    @SubscribeMapping("/lobby")
+    public LobbyPage lobby() {
+        return lobbyFeed.firstPage(LOBBY_PAGE_SIZE);
+    }
+
     /**
      * Handles play card action from client.
      * Client sends to: /app/game/play
      */
     @MessageMapping("/game/play")
-    public void playCard(PlayCardRequest request) {
+    public void playCard(PlayCardRequest request,
+            @Header(name = SimpMessageHeaderAccessor.SESSION_ID_HEADER, required = false) String stompSessionId) {
+        ActionTrace trace = actionTracer.start("play", request.getActionId(), request.getSentAt());
+        enqueue(request.getGameId(), request.getPlayerId(), "play", trace, numbered(request, stompSessionId),
+                () -> applyPlayCard(request, trace));
+    }
+    
+    /**
+     * Handles a play of several cards of the same rank, applied as one move
+     * and broadcast as one update.
+     * Client sends to: /app/game/playMany
+     */
+    @MessageMapping("/game/playMany")
+    public void playCards(PlayCardRequest request,
+            @Header(name = SimpMessageHeaderAccessor.SESSION_ID_HEADER, required = false) String stompSessionId) {
+        ActionTrace trace = actionTracer.start("playMany", request.getActionId(), request.getSentAt());
+        enqueue(request.getGameId(), request.getPlayerId(), "playMany", trace, numbered(request, stompSessionId),
+                () -> applyPlayCards(request, trace));
+    }
+
+    /**
+     * Handles draw card action from client.
+     * Client sends to: /app/game/draw
+     */
+    @MessageMapping("/game/draw")
+    public void drawCard(DrawCardRequest request,
+            @Header(name = SimpMessageHeaderAccessor.SESSION_ID_HEADER, required = false) String stompSessionId) {
+        ActionTrace trace = actionTracer.start("draw", request.getActionId(), request.getSentAt());
+        enqueue(request.getGameId(), request.getPlayerId(), "draw", trace, numbered(request, stompSessionId),
+                () -> applyDrawCard(request, trace));
+    }
+
+    /**
+     * Handles collect table action from client.
+     * Client sends to: /app/game/collect
+     */
+    @MessageMapping("/game/collect")
+    public void collectTable(DrawCardRequest request,
+            @Header(name = SimpMessageHeaderAccessor.SESSION_ID_HEADER, required = false) String stompSessionId) {
+        ActionTrace trace = actionTracer.start("collect", request.getActionId(), request.getSentAt());
+        enqueue(request.getGameId(), request.getPlayerId(), "collect", trace, numbered(request, stompSessionId),
+                () -> applyCollectTable(request, trace));
+    }
+
+    /**
+     * Handles any action encoded with the binary wire codec.
+     * Client sends to: /app/game/action (content type WireCodec.CONTENT_TYPE)
+     */
+    @MessageMapping("/game/action")
+    public void action(WireAction action,
+            @Header(name = SimpMessageHeaderAccessor.SESSION_ID_HEADER, required = false) String stompSessionId) {
+        Long sentAt = action.getSentAt() != 0 ? action.getSentAt() : null;
+        switch (action.getKind()) {
+            case PLAY -> {
+                if (action.getCards().length == 0 || action.getCards()[0] < 0) {
+                    sendError(action.getPlayerId(), "No card played", action.getActionId());
+                    return;
+                }
+                PlayCardRequest request = new PlayCardRequest(action.getGameId(), action.getPlayerId(),
+                        CardCatalog.get(action.getCards()[0]));
+                request.setActionId(action.getActionId());
+                request.setSentAt(sentAt);
+                request.setSessionId(action.getSessionId());
+                request.setClientSeq(action.getSessionId() != null ? action.getClientSeq() : null);
+                request.setExpectedVersion(action.getExpectedVersion() >= 0 ? action.getExpectedVersion() : null);
+                if (action.getCards().length == 1) {
+                    playCard(request, stompSessionId);
+                    return;
+                }
+                List<Card> cards = new ArrayList<>(action.getCards().length);
+                for (int id : action.getCards()) {
+                    if (id < 0 || id >= CardCatalog.CAPACITY) {
+                        sendError(action.getPlayerId(), "Unknown card " + id, action.getActionId());
+                        return;
+                    }
+                    cards.add(CardCatalog.get(id));
+                }
+                request.setCards(cards);
+                playCards(request, stompSessionId);
+            }
+            case DRAW -> drawCard(drawRequest(action, sentAt), stompSessionId);
+            case COLLECT -> collectTable(drawRequest(action, sentAt), stompSessionId);
+        }
+    }
+
+    private static DrawCardRequest drawRequest(WireAction action, Long sentAt) {
+        DrawCardRequest request = new DrawCardRequest(action.getGameId(), action.getPlayerId());
+        request.setActionId(action.getActionId());
+        request.setSentAt(sentAt);
+        request.setSessionId(action.getSessionId());
+        request.setClientSeq(action.getSessionId() != null ? action.getClientSeq() : null);
+        request.setExpectedVersion(action.getExpectedVersion() >= 0 ? action.getExpectedVersion() : null);
+        return request;
+    }
+
+    private static Command numbered(PlayCardRequest request, String stompSessionId) {
+        return Command.of(request.getGameId(), request.getPlayerId(), request.getSessionId(), request.getClientSeq(),
+                request.getExpectedVersion(), stompSessionId);
+    }
+
+    private static Command numbered(DrawCardRequest request, String stompSessionId) {
+        return Command.of(request.getGameId(), request.getPlayerId(), request.getSessionId(), request.getClientSeq(),
+                request.getExpectedVersion(), stompSessionId);
+    }
+
+    private String applyPlayCard(PlayCardRequest request, ActionTrace trace) {
+        if (trace != null) {
+            trace.dequeued();
+        }
         try {
             gameEngine.playCard(request.getGameId(), request.getPlayerId(), request.getCard());
+            if (trace != null) {
+                trace.applied();
+            }
+            turnTimeouts.playerActed(request.getGameId(), request.getPlayerId());
             
             GameState game = gameEngine.getGame(request.getGameId());
             
             // Check if table was cleared
             boolean tableCleared = game.getTablePile().isEmpty();
             
-            GameStateUpdate update = new GameStateUpdate(
-                    game,
+            // Broadcast to all clients in this game
+            updatePublisher.publish(
+                    request.getGameId(),
                     "Card played",
-                    tableCleared ? GameStateUpdate.UpdateType.TABLE_CLEARED : GameStateUpdate.UpdateType.CARD_PLAYED
+                    tableCleared ? UpdateType.TABLE_CLEARED : UpdateType.CARD_PLAYED,
+                    trace
             );
             
-            // Broadcast to all clients in this game
-            messagingTemplate.convertAndSend("/topic/game/" + request.getGameId(), update);
-            
             // Check if it's a bot's turn next
             aiBotService.checkAndMakeBotMove(request.getGameId());
+            return null;
             
         } catch (Exception e) {
             log.error("Error playing card: {}", e.getMessage());
-            GameStateUpdate errorUpdate = new GameStateUpdate(
-                    null,
-                    e.getMessage(),
-                    GameStateUpdate.UpdateType.ERROR
-            );
-            messagingTemplate.convertAndSendToUser(
-                    request.getPlayerId(),
-                    "/queue/errors",
-                    errorUpdate
-            );
+            sendError(request.getPlayerId(), e.getMessage(), request.getActionId());
+            return reason(e);
         }
     }
-    
-    /**
-     * Handles draw card action from client.
-     * Client sends to: /app/game/draw
-     */
-    @MessageMapping("/game/draw")
-    public void drawCard(DrawCardRequest request) {
+
+    private String applyPlayCards(PlayCardRequest request, ActionTrace trace) {
+        if (trace != null) {
+            trace.dequeued();
+        }
         try {
-            gameEngine.drawCard(request.getGameId(), request.getPlayerId());
+            gameEngine.playCards(request.getGameId(), request.getPlayerId(), request.getCards());
+            if (trace != null) {
+                trace.applied();
+            }
+            turnTimeouts.playerActed(request.getGameId(), request.getPlayerId());
             
             GameState game = gameEngine.getGame(request.getGameId());
-            GameStateUpdate update = new GameStateUpdate(
-                    game,
-                    "Card drawn",
-                    GameStateUpdate.UpdateType.CARD_DRAWN
+            
+            // One update for the whole throw
+            updatePublisher.publish(
+                    request.getGameId(),
+                    request.getCards().size() + " cards played",
+                    game.getTablePile().isEmpty() ? UpdateType.TABLE_CLEARED : UpdateType.CARD_PLAYED,
+                    trace
             );
             
+            // Check if it's a bot's turn next
+            aiBotService.checkAndMakeBotMove(request.getGameId());
+            return null;
+            
+        } catch (Exception e) {
+            log.error("Error playing cards: {}", e.getMessage());
+            sendError(request.getPlayerId(), e.getMessage(), request.getActionId());
+            return reason(e);
+        }
+    }
+
+    private String applyDrawCard(DrawCardRequest request, ActionTrace trace) {
+        if (trace != null) {
+            trace.dequeued();
+        }
+        try {
+            gameEngine.drawCard(request.getGameId(), request.getPlayerId());
+            if (trace != null) {
+                trace.applied();
+            }
+            turnTimeouts.playerActed(request.getGameId(), request.getPlayerId());
+            
             // Broadcast to all clients in this game
-            messagingTemplate.convertAndSend("/topic/game/" + request.getGameId(), update);
+            updatePublisher.publish(
+                    request.getGameId(),
+                    "Card drawn",
+                    UpdateType.CARD_DRAWN,
+                    trace
+            );
             
             // Check if it's a bot's turn next
             aiBotService.checkAndMakeBotMove(request.getGameId());
+            return null;
             
         } catch (Exception e) {
             log.error("Error drawing card: {}", e.getMessage());
-            GameStateUpdate errorUpdate = new GameStateUpdate(
-                    null,
-                    e.getMessage(),
-                    GameStateUpdate.UpdateType.ERROR
-            );
-            messagingTemplate.convertAndSendToUser(
-                    request.getPlayerId(),
-                    "/queue/errors",
-                    errorUpdate
-            );
+            sendError(request.getPlayerId(), e.getMessage(), request.getActionId());
+            return reason(e);
         }
     }
 
-
-    /**
-     * Handles collect table action from client.
-     * Client sends to: /app/game/collect
-     */
-    @MessageMapping("/game/collect")
-    public void collectTable(DrawCardRequest request) {
+    private String applyCollectTable(DrawCardRequest request, ActionTrace trace) {
+        if (trace != null) {
+            trace.dequeued();
+        }
         try {
             gameEngine.collectTable(request.getGameId(), request.getPlayerId());
+            if (trace != null) {
+                trace.applied();
+            }
+            turnTimeouts.playerActed(request.getGameId(), request.getPlayerId());
             
-            GameState game = gameEngine.getGame(request.getGameId());
-            GameStateUpdate update = new GameStateUpdate(
-                    game,
+            // Broadcast to all clients in this game
+            updatePublisher.publish(
+                    request.getGameId(),
                     "Table collected",
-                    GameStateUpdate.UpdateType.TABLE_COLLECTED
+                    UpdateType.TABLE_COLLECTED,
+                    trace
             );
             
-            // Broadcast to all clients in this game
-            messagingTemplate.convertAndSend("/topic/game/" + request.getGameId(), update);
-            
             // Check if it's a bot's turn next
             aiBotService.checkAndMakeBotMove(request.getGameId());
+            return null;
             
         } catch (Exception e) {
             log.error("Error collecting table: {}", e.getMessage());
-            GameStateUpdate errorUpdate = new GameStateUpdate(
-                    null,
-                    e.getMessage(),
-                    GameStateUpdate.UpdateType.ERROR
-            );
-            messagingTemplate.convertAndSendToUser(
-                    request.getPlayerId(),
-                    "/queue/errors",
-                    errorUpdate
-            );
+            sendError(request.getPlayerId(), e.getMessage(), request.getActionId());
+            return reason(e);
         }
     }
+
+    /**
+     * Queues an action on the game's mailbox. A numbered action first goes
+     * through the command log, runs only if it is new and meant for the
+     * current version, and is answered with an ack.
+     *
+     * @param action applies the action and returns why it failed, or null
+     */
+    private void enqueue(String gameId, String playerId, String command, ActionTrace trace, Command numbered,
+            Supplier<String> action) {
+        try {
+            gameMailbox.execute(gameId, command, numbered == null ? action::get : () -> {
+                CommandAck ack = commandLog.check(numbered, gameEngine.getVersion(gameId));
+                if (ack == null) {
+                    String error = action.get();
+                    ack = commandLog.record(numbered, error, gameEngine.getVersion(gameId));
+                }
+                sendAck(numbered, ack);
+            });
+        } catch (IllegalArgumentException e) {
+            sendError(playerId, e.getMessage(), trace != null ? trace.getActionId() : null);
+            if (numbered != null) {
+                sendAck(numbered, new CommandAck(numbered.sessionId(), numbered.clientSeq(), CommandAck.Status.REJECTED,
+                        -1, e.getMessage()));
+            }
+        }
+    }
+
+    // Why an action failed, never null
+    private static String reason(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    // To the STOMP session that sent the command, on /user/queue/acks
+    private void sendAck(Command command, CommandAck ack) {
+        if (command.replyTo() == null) {
+            return;
+        }
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(command.replyTo());
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(command.replyTo(), "/queue/acks", ack, headers.getMessageHeaders());
+    }
+
+    private void sendError(String playerId, String message, String actionId) {
+        GameStateUpdate errorUpdate = new GameStateUpdate(
+                null,
+                message,
+                UpdateType.ERROR
+        );
+        errorUpdate.setActionId(actionId);
+        messagingTemplate.convertAndSendToUser(
+                playerId,
+                "/queue/errors",
+                errorUpdate
+        );
+    }
 }
@@ -0,0 +1,66 @@
+package com.game.server.put0.controller;
+
+import com.game.server.put0.dto.MatchRequest;
+import com.game.server.put0.dto.MatchTicket;
+import com.game.server.put0.service.MatchmakingService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST API controller for matchmaking. The outcome of a ticket is also
+ * pushed to /topic/matchmaking/{ticketId}; polling is the fallback.
+ */
+@RestController
+@RequestMapping("/api/matchmaking")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*") // Allow all origins for development
+public class MatchmakingController {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchmakingController.class);
+
+    private final MatchmakingService matchmakingService;
+
+    /**
+     * Queues a player up for a table.
+     * POST /api/matchmaking
+     */
+    @PostMapping
+    public ResponseEntity<MatchTicket> enqueue(@RequestBody MatchRequest request) {
+        try {
+            return ResponseEntity.ok(matchmakingService.enqueue(request.getPlayerName(), request.getMode(),
+                    request.getDeckSize(), request.getSeats()));
+        } catch (IllegalArgumentException e) {
+            log.error("Error queueing up: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Gets the state of a ticket.
+     * GET /api/matchmaking/{ticketId}
+     */
+    @GetMapping("/{ticketId}")
+    public ResponseEntity<MatchTicket> getTicket(@PathVariable String ticketId) {
+        MatchTicket ticket = matchmakingService.getTicket(ticketId);
+        if (ticket == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ticket);
+    }
+
+    /**
+     * Leaves the queue. A ticket already matched stays matched.
+     * DELETE /api/matchmaking/{ticketId}
+     */
+    @DeleteMapping("/{ticketId}")
+    public ResponseEntity<MatchTicket> cancel(@PathVariable String ticketId) {
+        MatchTicket ticket = matchmakingService.cancel(ticketId);
+        if (ticket == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ticket);
+    }
+}
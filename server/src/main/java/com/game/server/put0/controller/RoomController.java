@@ -2,32 +2,50 @@ package com.game.server.put0.controller;
 
 import com.game.server.put0.dto.*;
 import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.MatchMode;
+import com.game.core.sync.UpdateType;
 import com.game.server.put0.service.AIBotService;
 import com.game.server.put0.service.GameEngine;
+import com.game.server.put0.service.GameMailbox;
+import com.game.server.put0.service.GameUpdatePublisher;
+import com.game.server.put0.service.LobbyIndex;
 import com.game.server.put0.service.RoomService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * REST API controller for room/lobby management.
+ *
+ * A game's ETag is its state version (see {@link GameState#getVersion()}).
+ * GET /api/rooms/{gameId} answers 304 without a body while the version
+ * still matches If-None-Match, and join, start and leave take an If-Match
+ * header: if the game changed meanwhile they answer 412 and do nothing.
+ * The version is checked on the game's mailbox, right before the change.
  */
 @RestController
 @RequestMapping("/api/rooms")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*") // Allow all origins for development
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG) // Allow all origins for development
 public class RoomController {
 
     private static final Logger log = LoggerFactory.getLogger(RoomController.class);
     
     private final RoomService roomService;
     private final GameEngine gameEngine;
+    private final LobbyIndex lobbyIndex;
     private final AIBotService aiBotService;
+    private final GameMailbox gameMailbox;
+    private final GameUpdatePublisher updatePublisher;
     private final SimpMessagingTemplate messagingTemplate;
     
     /**
@@ -45,7 +63,10 @@ public class RoomController {
             RoomService.RoomCreationResult result = roomService.createRoom(
                     request.getPlayerName(),
                     request.getBotCount(),
-                    request.getMode()
+                    request.getMaxPlayers() != null ? request.getMaxPlayers() : 4,
+                    Boolean.TRUE.equals(request.getIsPrivate()),
+                    request.getMode(),
+                    request.getBotDelayMs()
             );
             
             GameState game = gameEngine.getGame(result.gameId());
@@ -58,7 +79,7 @@ public class RoomController {
                     request.getMode()
             );
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etagOf(game)).body(response);
         } catch (Exception e) {
             log.error("Error creating room: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -71,18 +92,22 @@ public class RoomController {
      * POST /api/rooms/join
      */
     @PostMapping("/join")
-    public ResponseEntity<RoomResponse> joinRoom(@RequestBody JoinRoomRequest request) {
-        try {
+    public CompletableFuture<ResponseEntity<RoomResponse>> joinRoom(@RequestBody JoinRoomRequest request,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return gameMailbox.submit(request.getGameId(), "join", () -> {
+            ResponseEntity<RoomResponse> stale = checkIfMatch(request.getGameId(), ifMatch);
+            if (stale != null) {
+                return stale;
+            }
             String playerId = roomService.joinRoom(request.getGameId(), request.getPlayerName());
             GameState game = gameEngine.getGame(request.getGameId());
             
             // Notify other players
-            GameStateUpdate update = new GameStateUpdate(
-                    game,
+            updatePublisher.publish(
+                    request.getGameId(),
                     request.getPlayerName() + " joined the game",
-                    GameStateUpdate.UpdateType.PLAYER_JOINED
+                    UpdateType.PLAYER_JOINED
             );
-            messagingTemplate.convertAndSend("/topic/game/" + request.getGameId(), update);
             
             RoomResponse response = new RoomResponse(
                     request.getGameId(),
@@ -92,12 +117,12 @@ public class RoomController {
                     game.getMode()
             );
             
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Error joining room: {}", e.getMessage());
+            return ResponseEntity.ok().eTag(etagOf(game)).body(response);
+        }).exceptionally(e -> {
+            log.error("Error joining room: {}", causeOf(e).getMessage());
             return ResponseEntity.badRequest()
-                    .body(new RoomResponse(null, null, null, e.getMessage(), null));
-        }
+                    .body(new RoomResponse(null, null, null, causeOf(e).getMessage(), null));
+        });
     }
     
     /**
@@ -105,18 +130,18 @@ public class RoomController {
      * POST /api/rooms/{gameId}/start
      */
     @PostMapping("/{gameId}/start")
-    public ResponseEntity<RoomResponse> startGame(@PathVariable String gameId) {
-        try {
+    public CompletableFuture<ResponseEntity<RoomResponse>> startGame(@PathVariable String gameId,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return gameMailbox.submit(gameId, "start", () -> {
+            ResponseEntity<RoomResponse> stale = checkIfMatch(gameId, ifMatch);
+            if (stale != null) {
+                return stale;
+            }
             roomService.startGame(gameId);
             GameState game = gameEngine.getGame(gameId);
             
             // Notify all players
-            GameStateUpdate update = new GameStateUpdate(
-                    game,
-                    "Game started!",
-                    GameStateUpdate.UpdateType.GAME_STARTED
-            );
-            messagingTemplate.convertAndSend("/topic/game/" + gameId, update);
+            updatePublisher.publish(gameId, "Game started!", UpdateType.GAME_STARTED);
             
             // If first player is a bot, make its move
             aiBotService.checkAndMakeBotMove(gameId);
@@ -129,34 +154,51 @@ public class RoomController {
                     game.getMode()
             );
             
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Error starting game: {}", e.getMessage());
+            return ResponseEntity.ok().eTag(etagOf(game)).body(response);
+        }).exceptionally(e -> {
+            log.error("Error starting game: {}", causeOf(e).getMessage());
             return ResponseEntity.badRequest()
-                    .body(new RoomResponse(null, null, null, e.getMessage(), null));
-        }
+                    .body(new RoomResponse(null, null, null, causeOf(e).getMessage(), null));
+        });
     }
     
     /**
-     * Gets the current state of a game.
+     * Gets the current state of a game, or 304 if it has not changed since
+     * the If-None-Match ETag. A 304 does not wake a hibernated game.
      * GET /api/rooms/{gameId}
      */
     @GetMapping("/{gameId}")
-    public ResponseEntity<GameState> getGameState(@PathVariable String gameId) {
+    public ResponseEntity<GameState> getGameState(@PathVariable String gameId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long version = gameEngine.getVersion(gameId);
+        if (version < 0) {
+            return ResponseEntity.notFound().build();
+        }
+        if (matches(ifNoneMatch, etagOf(version), true)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etagOf(version)).build();
+        }
         GameState game = gameEngine.getGame(gameId);
         if (game == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(game);
+        return ResponseEntity.ok().eTag(etagOf(game)).body(game);
     }
     
     /**
-     * Lists all active games.
-     * GET /api/rooms
+     * Lists public rooms, newest first, one page at a time.
+     * GET /api/rooms?mode=&status=&open=&cursor=&limit=
      */
     @GetMapping
-    public ResponseEntity<Collection<GameState>> listGames() {
-        return ResponseEntity.ok(gameEngine.getAllGames());
+    public ResponseEntity<LobbyPage> listRooms(@RequestParam(required = false) MatchMode mode,
+            @RequestParam(required = false) GameStatus status,
+            @RequestParam(defaultValue = "false") boolean open,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(lobbyIndex.query(mode, status, open, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     /**
@@ -164,22 +206,90 @@ public class RoomController {
      * POST /api/rooms/{gameId}/leave
      */
     @PostMapping("/{gameId}/leave")
-    public ResponseEntity<Void> leaveRoom(@PathVariable String gameId, @RequestBody LeaveRoomRequest request) {
-        try {
-            // Validate that path variable matches body if body contains gameId
-            if (request.getGameId() != null && !request.getGameId().equals(gameId)) {
-                return ResponseEntity.badRequest().build();
+    public CompletableFuture<ResponseEntity<Void>> leaveRoom(@PathVariable String gameId, @RequestBody LeaveRoomRequest request,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Validate that path variable matches body if body contains gameId
+        if (request.getGameId() != null && !request.getGameId().equals(gameId)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        return gameMailbox.submit(gameId, "leave", () -> {
+            ResponseEntity<Void> stale = checkIfMatch(gameId, ifMatch);
+            if (stale != null) {
+                return stale;
             }
-            
             roomService.leaveRoom(gameId, request.getPlayerId());
             
             // Notify others
-            messagingTemplate.convertAndSend("/topic/game/" + gameId, new GameStateUpdate(null, "Player left", GameStateUpdate.UpdateType.PLAYER_LEFT));
-            
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            log.error("Error leaving room: {}", e.getMessage());
+            GameState game = gameEngine.getGame(gameId);
+            if (game != null) {
+                updatePublisher.publish(gameId, "Player left", UpdateType.PLAYER_LEFT);
+                // The turn may have passed on with the player
+                aiBotService.checkAndMakeBotMove(gameId);
+                return ResponseEntity.ok().eTag(etagOf(game)).<Void>build();
+            }
+            messagingTemplate.convertAndSend("/topic/game/" + gameId, new GameStateUpdate(null, "Player left", UpdateType.PLAYER_LEFT));
+            return ResponseEntity.ok().<Void>build();
+        }).exceptionally(e -> {
+            log.error("Error leaving room: {}", causeOf(e).getMessage());
             return ResponseEntity.badRequest().build();
+        });
+    }
+
+    /**
+     * Compare-and-set guard for a change, run on the game's mailbox.
+     *
+     * @return null if there is no If-Match or it matches the game, otherwise
+     *         a 412 carrying the current ETag
+     */
+    private <T> ResponseEntity<T> checkIfMatch(String gameId, String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        long version = gameEngine.getVersion(gameId);
+        if (version >= 0 && matches(ifMatch, etagOf(version), false)) {
+            return null;
+        }
+        log.debug("If-Match {} failed for game {} at version {}", ifMatch, gameId, version);
+        ResponseEntity.BodyBuilder failed = ResponseEntity.status(HttpStatus.PRECONDITION_FAILED);
+        return version >= 0 ? failed.eTag(etagOf(version)).build() : failed.build();
+    }
+
+    private static String etagOf(GameState game) {
+        return etagOf(game.getVersion());
+    }
+
+    private static String etagOf(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Whether an If-Match or If-None-Match header lists the ETag (or is *).
+     * Weak tags (W/"...") only count for the weak comparison of If-None-Match.
+     */
+    private static boolean matches(String header, String etag, boolean weak) {
+        if (header == null) {
+            return false;
         }
+        for (String tag : header.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Throwable causeOf(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
     }
 }
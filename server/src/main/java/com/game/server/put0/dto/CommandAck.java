@@ -0,0 +1,57 @@
+package com.game.server.put0.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Answer to a numbered player command, sent to the STOMP session that sent
+ * it on /user/queue/acks. version is the game version after the command:
+ * the one it produced if applied, the current one otherwise. A command sent
+ * again gets the answer of its first arrival, marked as a duplicate.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CommandAck {
+
+    /**
+     * What became of a command.
+     */
+    public enum Status {
+        APPLIED,
+        REJECTED, // Refused by the game rules, see message
+        STALE // Not run: sent against another version, or too old to tell
+    }
+
+    private String sessionId;
+    private long clientSeq;
+    private Status status;
+    private long version;
+    private String message;
+    private boolean duplicate;
+
+    public CommandAck() {}
+
+    public CommandAck(String sessionId, long clientSeq, Status status, long version, String message) {
+        this.sessionId = sessionId;
+        this.clientSeq = clientSeq;
+        this.status = status;
+        this.version = version;
+        this.message = message;
+    }
+
+    public String getSessionId() { return sessionId; }
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+
+    public long getClientSeq() { return clientSeq; }
+    public void setClientSeq(long clientSeq) { this.clientSeq = clientSeq; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public boolean isDuplicate() { return duplicate; }
+    public void setDuplicate(boolean duplicate) { this.duplicate = duplicate; }
+}
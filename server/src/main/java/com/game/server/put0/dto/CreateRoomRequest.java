@@ -11,6 +11,7 @@ public class CreateRoomRequest {
     private Integer maxPlayers = 4;
     private Integer botCount = 0; // Number of AI bots to add
     private MatchMode mode;
+    private Long botDelayMs; // Pause before each bot move; server default if null
 
     public CreateRoomRequest() {}
 
@@ -36,4 +37,7 @@ public class CreateRoomRequest {
 
     public MatchMode getMode() { return mode; }
     public void setMode(MatchMode mode) { this.mode = mode; }
+
+    public Long getBotDelayMs() { return botDelayMs; }
+    public void setBotDelayMs(Long botDelayMs) { this.botDelayMs = botDelayMs; }
 }
@@ -6,6 +6,11 @@ package com.game.server.put0.dto;
 public class DrawCardRequest {
     private String gameId;
     private String playerId;
+    private String actionId; // Echoed in the resulting update, optional
+    private Long sentAt; // Client clock in epoch millis, optional
+    private String sessionId; // Client session the command is numbered in, optional
+    private Long clientSeq; // Number of the command in its client session
+    private Long expectedVersion; // Game version the command is meant for, optional
 
     public DrawCardRequest() {}
 
@@ -19,4 +24,19 @@ public class DrawCardRequest {
 
     public String getPlayerId() { return playerId; }
     public void setPlayerId(String playerId) { this.playerId = playerId; }
+
+    public String getActionId() { return actionId; }
+    public void setActionId(String actionId) { this.actionId = actionId; }
+
+    public Long getSentAt() { return sentAt; }
+    public void setSentAt(Long sentAt) { this.sentAt = sentAt; }
+
+    public String getSessionId() { return sessionId; }
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+
+    public Long getClientSeq() { return clientSeq; }
+    public void setClientSeq(Long clientSeq) { this.clientSeq = clientSeq; }
+
+    public Long getExpectedVersion() { return expectedVersion; }
+    public void setExpectedVersion(Long expectedVersion) { this.expectedVersion = expectedVersion; }
 }
@@ -0,0 +1,44 @@
+package com.game.server.put0.dto;
+
+import java.util.Base64;
+import java.util.function.Supplier;
+
+/**
+ * One {@link GameStateUpdate} for one view, encoded at most once per format
+ * no matter how many sessions receive it: as JSON, or with the binary
+ * {@link com.game.core.wire.WireCodec} (Base64 text) for sessions that
+ * negotiated it. Nothing is encoded for a format no session asked for.
+ *
+ * The encoders must only capture data detached from the live game, since
+ * they run on the outbound channel after the game has moved on.
+ */
+public final class GameFrame {
+    private final Supplier<byte[]> jsonEncoder;
+    private final Supplier<byte[]> wireEncoder;
+    private volatile byte[] json;
+    private volatile byte[] wire;
+
+    public GameFrame(Supplier<byte[]> jsonEncoder, Supplier<byte[]> wireEncoder) {
+        this.jsonEncoder = jsonEncoder;
+        this.wireEncoder = wireEncoder;
+    }
+
+    public byte[] json() {
+        byte[] bytes = json;
+        if (bytes == null) {
+            // Racing sessions may both encode; the results are identical
+            bytes = jsonEncoder.get();
+            json = bytes;
+        }
+        return bytes;
+    }
+
+    public byte[] wire() {
+        byte[] bytes = wire;
+        if (bytes == null) {
+            bytes = Base64.getEncoder().encode(wireEncoder.get());
+            wire = bytes;
+        }
+        return bytes;
+    }
+}
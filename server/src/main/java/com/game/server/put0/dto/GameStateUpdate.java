@@ -1,42 +1,55 @@
 package com.game.server.put0.dto;
 
-import com.game.core.model.GameState;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.game.core.sync.GameDelta;
+import com.game.core.sync.UpdateType;
+
+import java.util.List;
 
 /**
  * DTO for game state updates sent to clients.
+ * Carries either a full snapshot (gameState), the changes since the
+ * previous version (delta), or several such delta updates to apply in order
+ * (steps). All are stamped with the state version and projected for the
+ * receiving player, see {@link GameView}. An update caused by a client
+ * action echoes the action's id.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class GameStateUpdate {
-    private GameState gameState;
+    private GameView gameState;
+    private GameDelta delta;
+    private Long version;
     private String message;
     private UpdateType type;
-    
-    public enum UpdateType {
-        CARD_PLAYED,
-        CARD_DRAWN,
-        TABLE_CLEARED,
-        TURN_CHANGED,
-        GAME_STARTED,
-        GAME_FINISHED,
-        PLAYER_JOINED,
-        PLAYER_LEFT,
-        TABLE_COLLECTED,
-        ERROR
-    }
+    private List<GameStateUpdate> steps;
+    private String actionId;
 
     public GameStateUpdate() {}
 
-    public GameStateUpdate(GameState gameState, String message, UpdateType type) {
+    public GameStateUpdate(GameView gameState, String message, UpdateType type) {
         this.gameState = gameState;
         this.message = message;
         this.type = type;
     }
 
-    public GameState getGameState() { return gameState; }
-    public void setGameState(GameState gameState) { this.gameState = gameState; }
+    public GameView getGameState() { return gameState; }
+    public void setGameState(GameView gameState) { this.gameState = gameState; }
+
+    public GameDelta getDelta() { return delta; }
+    public void setDelta(GameDelta delta) { this.delta = delta; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
 
     public UpdateType getType() { return type; }
     public void setType(UpdateType type) { this.type = type; }
+
+    public List<GameStateUpdate> getSteps() { return steps; }
+    public void setSteps(List<GameStateUpdate> steps) { this.steps = steps; }
+
+    public String getActionId() { return actionId; }
+    public void setActionId(String actionId) { this.actionId = actionId; }
 }
@@ -0,0 +1,144 @@
+package com.game.server.put0.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.game.core.model.Card;
+import com.game.core.model.CardCatalog;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.MatchMode;
+import com.game.core.model.Suit;
+import com.game.core.sync.GameDelta;
+import com.game.core.sync.GameSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON form of a {@link GameSnapshot}: same shape as {@link GameState}, but
+ * cards the viewer cannot see (the deck, hidden piles and other players'
+ * hands) are sent face down without value, suit or id, and the shuffle seed
+ * is never included.
+ */
+public class GameView {
+    private final String gameId;
+    private final List<PlayerView> players;
+    private final List<CardView> mainDeck;
+    private final List<CardView> tablePile;
+    private final List<CardView> discardPile;
+    private final int currentPlayerIndex;
+    private final GameStatus status;
+    private final String winnerId;
+    private final MatchMode mode;
+    private final int deckSize;
+    private final String lastAction;
+
+    private GameView(GameSnapshot snapshot) {
+        this.gameId = snapshot.getGameId();
+        this.players = new ArrayList<>(snapshot.getPlayers().size());
+        for (GameSnapshot.Seat seat : snapshot.getPlayers()) {
+            players.add(new PlayerView(seat));
+        }
+        this.mainDeck = CardView.of(snapshot.getMainDeck());
+        this.tablePile = CardView.of(snapshot.getTablePile());
+        this.discardPile = CardView.of(snapshot.getDiscardPile());
+        this.currentPlayerIndex = snapshot.getCurrentPlayerIndex();
+        this.status = snapshot.getStatus();
+        this.winnerId = snapshot.getWinnerId();
+        this.mode = snapshot.getMode();
+        this.deckSize = snapshot.getDeckSize();
+        this.lastAction = snapshot.getLastAction();
+    }
+
+    /**
+     * JSON form of a projected snapshot.
+     */
+    public static GameView of(GameSnapshot snapshot) {
+        return new GameView(snapshot);
+    }
+
+    public String getGameId() { return gameId; }
+    public List<PlayerView> getPlayers() { return players; }
+    public List<CardView> getMainDeck() { return mainDeck; }
+    public List<CardView> getTablePile() { return tablePile; }
+    public List<CardView> getDiscardPile() { return discardPile; }
+    public int getCurrentPlayerIndex() { return currentPlayerIndex; }
+    public GameStatus getStatus() { return status; }
+    public String getWinnerId() { return winnerId; }
+    public MatchMode getMode() { return mode; }
+    public int getDeckSize() { return deckSize; }
+    public String getLastAction() { return lastAction; }
+
+    /**
+     * A player as seen by the viewer.
+     */
+    public static class PlayerView {
+        private final String id;
+        private final String name;
+        private final List<CardView> hand;
+        private final List<CardView> visibleCards;
+        private final List<CardView> hiddenCards;
+        private final boolean bot;
+        private final boolean active;
+        private final int cardCount;
+
+        private PlayerView(GameSnapshot.Seat seat) {
+            this.id = seat.getId();
+            this.name = seat.getName();
+            this.hand = CardView.of(seat.getHand());
+            this.visibleCards = CardView.of(seat.getVisibleCards());
+            this.hiddenCards = CardView.of(seat.getHiddenCards());
+            this.bot = seat.isBot();
+            this.active = seat.isActive();
+            this.cardCount = seat.getCardCount();
+        }
+
+        public String getId() { return id; }
+        public String getName() { return name; }
+        public List<CardView> getHand() { return hand; }
+        public List<CardView> getVisibleCards() { return visibleCards; }
+        public List<CardView> getHiddenCards() { return hiddenCards; }
+        public boolean isBot() { return bot; }
+        public boolean isActive() { return active; }
+        public int getCardCount() { return cardCount; }
+    }
+
+    /**
+     * A card as seen by the viewer. Views are shared per card id, so
+     * projecting a game only allocates the pile lists.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class CardView {
+        private static final CardView MASKED = new CardView(null, null, null);
+        private static final CardView[] FACE_UP = new CardView[CardCatalog.CAPACITY];
+
+        static {
+            for (int id = 0; id < CardCatalog.CAPACITY; id++) {
+                Card card = CardCatalog.get(id);
+                FACE_UP[id] = new CardView(card.getInstanceId(), card.getValue(), card.getSuit());
+            }
+        }
+
+        private final String instanceId;
+        private final Integer value;
+        private final Suit suit;
+
+        private CardView(String instanceId, Integer value, Suit suit) {
+            this.instanceId = instanceId;
+            this.value = value;
+            this.suit = suit;
+        }
+
+        static List<CardView> of(int[] ids) {
+            List<CardView> views = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                views.add(id == GameDelta.UNKNOWN_CARD ? MASKED : FACE_UP[id]);
+            }
+            return views;
+        }
+
+        public String getInstanceId() { return instanceId; }
+        public Integer getValue() { return value; }
+        public Suit getSuit() { return suit; }
+        public boolean isHidden() { return instanceId == null; }
+    }
+}
@@ -0,0 +1,31 @@
+package com.game.server.put0.dto;
+
+import java.util.List;
+
+/**
+ * One page of lobby rooms, newest first. Pass {@code nextCursor} back as
+ * {@code cursor} to get the next page; it is null on the last one.
+ * {@code version} is the last {@link LobbyUpdate} the page already reflects.
+ */
+public class LobbyPage {
+    private List<RoomSummary> rooms;
+    private String nextCursor;
+    private long version;
+
+    public LobbyPage() {}
+
+    public LobbyPage(List<RoomSummary> rooms, String nextCursor, long version) {
+        this.rooms = rooms;
+        this.nextCursor = nextCursor;
+        this.version = version;
+    }
+
+    public List<RoomSummary> getRooms() { return rooms; }
+    public void setRooms(List<RoomSummary> rooms) { this.rooms = rooms; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
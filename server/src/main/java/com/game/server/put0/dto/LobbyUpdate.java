@@ -0,0 +1,37 @@
+package com.game.server.put0.dto;
+
+import java.util.List;
+
+/**
+ * Changes to the public lobby since the previous update, sent on
+ * /topic/lobby. Versions increase by one per update: a client that sees a
+ * gap fetches a new {@link LobbyPage}, and skips updates whose version is
+ * not above the one of its page. Applying an update twice is harmless.
+ */
+public class LobbyUpdate {
+    private long version;
+    private List<RoomSummary> added;
+    private List<RoomSummary> changed;
+    private List<String> removed;
+
+    public LobbyUpdate() {}
+
+    public LobbyUpdate(long version, List<RoomSummary> added, List<RoomSummary> changed, List<String> removed) {
+        this.version = version;
+        this.added = added;
+        this.changed = changed;
+        this.removed = removed;
+    }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public List<RoomSummary> getAdded() { return added; }
+    public void setAdded(List<RoomSummary> added) { this.added = added; }
+
+    public List<RoomSummary> getChanged() { return changed; }
+    public void setChanged(List<RoomSummary> changed) { this.changed = changed; }
+
+    public List<String> getRemoved() { return removed; }
+    public void setRemoved(List<String> removed) { this.removed = removed; }
+}
@@ -0,0 +1,34 @@
+package com.game.server.put0.dto;
+
+import com.game.core.model.MatchMode;
+
+/**
+ * DTO for queueing up for matchmaking.
+ */
+public class MatchRequest {
+    private String playerName;
+    private MatchMode mode;
+    private Integer deckSize; // 52 or 104; 104 if null
+    private Integer seats; // Table size; 2 for SOLO_VS_AMIGO, 4 if null for SOLO_VS_AMIGOS
+
+    public MatchRequest() {}
+
+    public MatchRequest(String playerName, MatchMode mode, Integer deckSize, Integer seats) {
+        this.playerName = playerName;
+        this.mode = mode;
+        this.deckSize = deckSize;
+        this.seats = seats;
+    }
+
+    public String getPlayerName() { return playerName; }
+    public void setPlayerName(String playerName) { this.playerName = playerName; }
+
+    public MatchMode getMode() { return mode; }
+    public void setMode(MatchMode mode) { this.mode = mode; }
+
+    public Integer getDeckSize() { return deckSize; }
+    public void setDeckSize(Integer deckSize) { this.deckSize = deckSize; }
+
+    public Integer getSeats() { return seats; }
+    public void setSeats(Integer seats) { this.seats = seats; }
+}
@@ -0,0 +1,65 @@
+package com.game.server.put0.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.game.core.model.MatchMode;
+
+/**
+ * State of a matchmaking ticket. Sent on /topic/matchmaking/{ticketId} when
+ * the ticket is matched or expires, and returned by the matchmaking API.
+ * gameId and playerId are set once matched.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MatchTicket {
+
+    /**
+     * Lifecycle of a ticket. Only WAITING changes.
+     */
+    public enum Status {
+        WAITING,
+        MATCHED,
+        CANCELLED,
+        EXPIRED
+    }
+
+    private String ticketId;
+    private Status status;
+    private MatchMode mode;
+    private int deckSize;
+    private int seats;
+    private String gameId;
+    private String playerId;
+
+    public MatchTicket() {}
+
+    public MatchTicket(String ticketId, Status status, MatchMode mode, int deckSize, int seats, String gameId,
+            String playerId) {
+        this.ticketId = ticketId;
+        this.status = status;
+        this.mode = mode;
+        this.deckSize = deckSize;
+        this.seats = seats;
+        this.gameId = gameId;
+        this.playerId = playerId;
+    }
+
+    public String getTicketId() { return ticketId; }
+    public void setTicketId(String ticketId) { this.ticketId = ticketId; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public MatchMode getMode() { return mode; }
+    public void setMode(MatchMode mode) { this.mode = mode; }
+
+    public int getDeckSize() { return deckSize; }
+    public void setDeckSize(int deckSize) { this.deckSize = deckSize; }
+
+    public int getSeats() { return seats; }
+    public void setSeats(int seats) { this.seats = seats; }
+
+    public String getGameId() { return gameId; }
+    public void setGameId(String gameId) { this.gameId = gameId; }
+
+    public String getPlayerId() { return playerId; }
+    public void setPlayerId(String playerId) { this.playerId = playerId; }
+}
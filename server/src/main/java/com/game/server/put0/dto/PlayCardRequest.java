@@ -2,6 +2,8 @@ package com.game.server.put0.dto;
 
 import com.game.core.model.Card;
 
+import java.util.List;
+
 /**
  * DTO for play card requests from clients.
  */
@@ -9,6 +11,12 @@ public class PlayCardRequest {
     private String gameId;
     private String playerId;
     private Card card;
+    private List<Card> cards; // Cards of the same rank, for /app/game/playMany
+    private String actionId; // Echoed in the resulting update, optional
+    private Long sentAt; // Client clock in epoch millis, optional
+    private String sessionId; // Client session the command is numbered in, optional
+    private Long clientSeq; // Number of the command in its client session
+    private Long expectedVersion; // Game version the command is meant for, optional
 
     public PlayCardRequest() {}
 
@@ -26,4 +34,22 @@ public class PlayCardRequest {
 
     public Card getCard() { return card; }
     public void setCard(Card card) { this.card = card; }
+
+    public List<Card> getCards() { return cards; }
+    public void setCards(List<Card> cards) { this.cards = cards; }
+
+    public String getActionId() { return actionId; }
+    public void setActionId(String actionId) { this.actionId = actionId; }
+
+    public Long getSentAt() { return sentAt; }
+    public void setSentAt(Long sentAt) { this.sentAt = sentAt; }
+
+    public String getSessionId() { return sessionId; }
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+
+    public Long getClientSeq() { return clientSeq; }
+    public void setClientSeq(Long clientSeq) { this.clientSeq = clientSeq; }
+
+    public Long getExpectedVersion() { return expectedVersion; }
+    public void setExpectedVersion(Long expectedVersion) { this.expectedVersion = expectedVersion; }
 }
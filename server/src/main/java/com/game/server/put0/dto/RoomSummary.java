@@ -0,0 +1,64 @@
+package com.game.server.put0.dto;
+
+import com.game.core.model.GameStatus;
+import com.game.core.model.MatchMode;
+
+import java.util.Objects;
+
+/**
+ * Lobby entry of a room: what a player needs to pick a room to join,
+ * without the cards. Immutable; the lobby index replaces it on every change.
+ */
+public class RoomSummary {
+    private final String gameId;
+    private final MatchMode mode;
+    private final GameStatus status;
+    private final int seats;
+    private final int maxSeats;
+    private final int deckSize;
+
+    public RoomSummary(String gameId, MatchMode mode, GameStatus status, int seats, int maxSeats, int deckSize) {
+        this.gameId = gameId;
+        this.mode = mode;
+        this.status = status;
+        this.seats = seats;
+        this.maxSeats = maxSeats;
+        this.deckSize = deckSize;
+    }
+
+    public String getGameId() { return gameId; }
+
+    public MatchMode getMode() { return mode; }
+
+    public GameStatus getStatus() { return status; }
+
+    public int getSeats() { return seats; }
+
+    public int getMaxSeats() { return maxSeats; }
+
+    public int getDeckSize() { return deckSize; }
+
+    /**
+     * Seats still open to new players: none once the game has started.
+     */
+    public int getFreeSeats() {
+        return status == GameStatus.WAITING ? Math.max(0, maxSeats - seats) : 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RoomSummary other)) {
+            return false;
+        }
+        return seats == other.seats && maxSeats == other.maxSeats && deckSize == other.deckSize
+                && gameId.equals(other.gameId) && mode == other.mode && status == other.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(gameId, mode, status, seats, maxSeats, deckSize);
+    }
+}
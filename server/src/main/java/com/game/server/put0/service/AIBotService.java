@@ -3,27 +3,92 @@ package com.game.server.put0.service;
 import com.game.core.bot.BotStrategy;
 import com.game.core.bot.DefaultBotStrategy;
 import com.game.core.model.GameState;
-import com.game.core.model.Player;
 import com.game.core.model.GameStatus;
-import com.game.server.put0.dto.GameStateUpdate;
-import lombok.RequiredArgsConstructor;
+import com.game.core.model.Player;
+import com.game.core.sync.UpdateType;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.scheduling.annotation.Async;
+import com.game.server.put0.timer.HashedWheelTimer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays the bots' turns, paced by a per-room delay, on the games' mailboxes.
+ *
+ * Metrics:
+ * - game.bot.think: time the strategy takes to play one turn; off with
+ *   {@code game.metrics.hot-paths=false} (see {@link HotPathMetrics})
+ */
 @Service
-@RequiredArgsConstructor
 public class AIBotService {
 
     private static final Logger log = LoggerFactory.getLogger(AIBotService.class);
 
     private final GameEngine gameEngine;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final GameMailbox gameMailbox;
+    private final GameUpdatePublisher updatePublisher;
+    private final TurnTimeoutService turnTimeouts;
+    private final HashedWheelTimer gameTimer;
+    private final long defaultBotDelayMs;
+    private final Timer thinkTimer;
     // Core Bot Strategy
-    private final BotStrategy botStrategy = new DefaultBotStrategy();
+    private final BotStrategy botStrategy;
+
+    // Per-room pacing overrides and the next scheduled bot turn of each room
+    private final Map<String, Long> botDelays = new ConcurrentHashMap<>();
+    private final Map<String, HashedWheelTimer.Timeout> scheduledTurns = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AIBotService(GameEngine gameEngine, GameMailbox gameMailbox, GameUpdatePublisher updatePublisher,
+            TurnTimeoutService turnTimeouts, HashedWheelTimer gameTimer, HotPathMetrics hotPathMetrics,
+            @Value("${game.bot.delay-ms:700}") long defaultBotDelayMs) {
+        this(gameEngine, gameMailbox, updatePublisher, turnTimeouts, gameTimer, hotPathMetrics, defaultBotDelayMs,
+                new DefaultBotStrategy());
+    }
+
+    AIBotService(GameEngine gameEngine, GameMailbox gameMailbox, GameUpdatePublisher updatePublisher,
+            TurnTimeoutService turnTimeouts, HashedWheelTimer gameTimer, HotPathMetrics hotPathMetrics,
+            long defaultBotDelayMs, BotStrategy botStrategy) {
+        this.gameEngine = gameEngine;
+        this.gameMailbox = gameMailbox;
+        this.updatePublisher = updatePublisher;
+        this.turnTimeouts = turnTimeouts;
+        this.gameTimer = gameTimer;
+        this.defaultBotDelayMs = defaultBotDelayMs;
+        this.thinkTimer = hotPathMetrics.timer("game.bot.think");
+        this.botStrategy = botStrategy;
+    }
 
+    /**
+     * Sets the pause before each bot move in a room.
+     */
+    public void setBotDelay(String gameId, long delayMs) {
+        if (delayMs < 0) {
+            throw new IllegalArgumentException("Bot delay cannot be negative");
+        }
+        botDelays.put(gameId, delayMs);
+    }
+
+    /**
+     * Cancels pending bot turns and drops pacing settings of a removed room.
+     */
+    public void forgetGame(String gameId) {
+        botDelays.remove(gameId);
+        HashedWheelTimer.Timeout turn = scheduledTurns.remove(gameId);
+        if (turn != null) {
+            turn.cancel();
+        }
+    }
+
+    /**
+     * Plays one bot turn. Must run on the game's mailbox.
+     */
     public void makeMove(String gameId, String botPlayerId) {
         GameState game = gameEngine.getGame(gameId);
         if (game == null) {
@@ -42,20 +107,32 @@ public class AIBotService {
         }
 
         // Execute move using Core Strategy against Core Engine (exposed by wrapper)
+        long version = game.getVersion();
+        long start = HotPathMetrics.start(thinkTimer);
         try {
             botStrategy.playTurn(game, gameEngine.getCore(), bot);
         } catch (Exception e) {
             log.error("Bot strategy failed", e);
-            return;
+        } finally {
+            HotPathMetrics.stop(thinkTimer, start);
         }
-        
+
         // Broadcast update based on Last Action recorded in GameState
         String lastAction = game.getLastAction();
         // Determine update type roughly
-        GameStateUpdate.UpdateType type = GameStateUpdate.UpdateType.CARD_PLAYED; // Default
-        if (lastAction != null) {
-            if (lastAction.contains("collected")) type = GameStateUpdate.UpdateType.TABLE_COLLECTED;
-            if (lastAction.contains("DREW")) type = GameStateUpdate.UpdateType.CARD_DRAWN;
+        UpdateType type = UpdateType.CARD_PLAYED; // Default
+        if (game.getVersion() == version) {
+            // The strategy logs and returns when its move is rejected: play something else,
+            // or the same turn would be scheduled again and again
+            type = TurnTimeoutService.playFallback(gameEngine.getCore(), game, bot);
+            if (type == null) {
+                log.error("Bot {} has no move in game {}", botPlayerId, gameId);
+                return;
+            }
+            lastAction = game.getLastAction();
+        } else if (lastAction != null) {
+            if (lastAction.contains("collected")) type = UpdateType.TABLE_COLLECTED;
+            if (lastAction.contains("DREW")) type = UpdateType.CARD_DRAWN;
         }
         
         broadcastUpdate(gameId, lastAction != null ? lastAction : "Bot moved", type);
@@ -64,29 +141,48 @@ public class AIBotService {
         checkAndMakeBotMove(gameId);
     }
     
-    @Async("gameExecutor")
+    /**
+     * Schedules the next bot turn if a bot is up and none is pending for the
+     * room. When the room's delay elapses the turn is queued on the game's
+     * mailbox, which plays it only if a bot is still up. If a human is up
+     * instead, starts their turn deadline. Must run on the game's mailbox.
+     */
     public void checkAndMakeBotMove(String gameId) {
+        turnTimeouts.armTurn(gameId, () -> checkAndMakeBotMove(gameId));
         GameState game = gameEngine.getGame(gameId);
-        if (game == null) return;
-        
-        // Slight delay for UX
-         try {
-            Thread.sleep(700); 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        if (game == null || !isBotUp(game)) {
+            return;
         }
+        long delayMs = botDelays.getOrDefault(gameId, defaultBotDelayMs);
+        scheduledTurns.compute(gameId, (id, pending) -> pending != null && pending.isPending()
+                ? pending
+                : gameTimer.newTimeout(timeout -> onBotTurnDue(gameId, timeout), delayMs, TimeUnit.MILLISECONDS));
+    }
 
-        Player currentPlayer = game.getCurrentPlayer();
-        if (currentPlayer != null && currentPlayer.isBot() && game.getStatus() == GameStatus.PLAYING) {
-             makeMove(gameId, currentPlayer.getId());
+    private void onBotTurnDue(String gameId, HashedWheelTimer.Timeout timeout) {
+        scheduledTurns.remove(gameId, timeout);
+        try {
+            gameMailbox.execute(gameId, "bot", () -> playBotTurnIfDue(gameId));
+        } catch (IllegalArgumentException e) {
+            log.debug("Skipping bot turn: {}", e.getMessage());
         }
     }
 
-    private void broadcastUpdate(String gameId, String message, GameStateUpdate.UpdateType type) {
+    private void playBotTurnIfDue(String gameId) {
         GameState game = gameEngine.getGame(gameId);
-        if (game != null) {
-            GameStateUpdate update = new GameStateUpdate(game, message, type);
-            messagingTemplate.convertAndSend("/topic/game/" + gameId, update);
+        if (game == null) return;
+
+        if (isBotUp(game)) {
+             makeMove(gameId, game.getCurrentPlayer().getId());
         }
     }
+
+    private static boolean isBotUp(GameState game) {
+        Player currentPlayer = game.getCurrentPlayer();
+        return currentPlayer != null && currentPlayer.isBot() && game.getStatus() == GameStatus.PLAYING;
+    }
+
+    private void broadcastUpdate(String gameId, String message, UpdateType type) {
+        updatePublisher.publish(gameId, message, type);
+    }
 }
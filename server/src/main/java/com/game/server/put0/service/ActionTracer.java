@@ -0,0 +1,136 @@
+package com.game.server.put0.service;
+
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Follows player actions through the server, from the inbound channel to
+ * the broadcast of the resulting update, to tell where the time of a laggy
+ * action went. Each action gets an {@link ActionTrace} when it arrives,
+ * which records how long after that it reached each stage:
+ * - dequeued: its turn on the game's mailbox came (time spent queued behind other commands)
+ * - applied: the engine made the move
+ * - published: its update was handed to the broker, after coalescing with bot moves
+ * - serialised: its update was first encoded for a session, on the outbound channel
+ *
+ * The client's action id, if any, is echoed in the update (see
+ * {@link com.game.server.put0.dto.GameStateUpdate#getActionId()}) so that
+ * clients can measure the round trip. With DEBUG enabled every action is
+ * logged with its stages, under its id.
+ *
+ * Metrics (off with {@code game.metrics.hot-paths=false}, see {@link HotPathMetrics}):
+ * - game.action.latency: time from arrival to each stage, tagged by action and stage, with histogram
+ */
+@Component
+public class ActionTracer {
+
+    private static final Logger log = LoggerFactory.getLogger(ActionTracer.class);
+
+    private static final String[] ACTIONS = {"play", "playMany", "draw", "collect"};
+
+    private final Map<String, Timer[]> stageTimers;
+
+    public ActionTracer(HotPathMetrics hotPathMetrics) {
+        Map<String, Timer[]> timers = new HashMap<>();
+        for (String action : ACTIONS) {
+            Timer[] stages = new Timer[ActionTrace.STAGES.length];
+            for (int stage = 0; stage < stages.length; stage++) {
+                stages[stage] = hotPathMetrics.latency("game.action.latency",
+                        "action", action, "stage", ActionTrace.STAGES[stage]);
+            }
+            timers.put(action, stages[0] != null ? stages : null);
+        }
+        this.stageTimers = Map.copyOf(timers);
+    }
+
+    /**
+     * Starts following an action that just arrived.
+     *
+     * @param action   play, playMany, draw or collect
+     * @param actionId the client's id for the action, or null
+     * @param sentAt   the client's clock when it sent the action (epoch millis), or null
+     * @return the trace, or null if there is nothing to record nor echo
+     */
+    public ActionTrace start(String action, String actionId, Long sentAt) {
+        Timer[] timers = stageTimers.get(action);
+        if (timers == null && actionId == null) {
+            return null;
+        }
+        return new ActionTrace(action, actionId, sentAt != null ? sentAt : 0, timers);
+    }
+
+    /**
+     * One action on its way through the server. Stages are recorded once
+     * each, the first three on the game's mailbox.
+     */
+    public static final class ActionTrace {
+
+        static final String[] STAGES = {"dequeued", "applied", "published", "serialised"};
+
+        private static final int DEQUEUED = 0;
+        private static final int APPLIED = 1;
+        private static final int PUBLISHED = 2;
+        private static final int SERIALISED = 3;
+
+        private final String action;
+        private final String actionId;
+        private final long sentAt;
+        private final Timer[] timers;
+        private final long receivedAt;
+        private final long[] elapsed = new long[STAGES.length];
+        private final AtomicBoolean serialised = new AtomicBoolean();
+
+        private ActionTrace(String action, String actionId, long sentAt, Timer[] timers) {
+            this.action = action;
+            this.actionId = actionId;
+            this.sentAt = sentAt;
+            this.timers = timers;
+            this.receivedAt = timers != null ? System.nanoTime() : 0;
+        }
+
+        public String getActionId() {
+            return actionId;
+        }
+
+        public void dequeued() {
+            record(DEQUEUED);
+        }
+
+        public void applied() {
+            record(APPLIED);
+        }
+
+        void published() {
+            record(PUBLISHED);
+            if (log.isDebugEnabled() && timers != null) {
+                log.debug("Action {} ({}) sent at {}: dequeued +{}us, applied +{}us, published +{}us", actionId,
+                        action, sentAt, micros(DEQUEUED), micros(APPLIED), micros(PUBLISHED));
+            }
+        }
+
+        // Outbound channel, once per format and view: only the first one counts
+        void serialised() {
+            if (serialised.compareAndSet(false, true)) {
+                record(SERIALISED);
+            }
+        }
+
+        private void record(int stage) {
+            if (timers != null && elapsed[stage] == 0) {
+                elapsed[stage] = System.nanoTime() - receivedAt;
+                timers[stage].record(elapsed[stage], TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private long micros(int stage) {
+            return TimeUnit.NANOSECONDS.toMicros(elapsed[stage]);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.game.server.put0.service;
+
+import com.game.server.put0.dto.CommandAck;
+import com.game.server.put0.dto.CommandAck.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Numbered player commands, so that a command a client sends again (after a
+ * timeout or a reconnect) runs only once, and one meant for a version the
+ * game has already left does not run at all.
+ *
+ * Clients number their commands within a client session, an id they pick
+ * and keep across reconnects. The answers to the last
+ * {@code game.commands.window} commands of each player's current session are
+ * kept: a command seen before gets its first answer again, marked as a
+ * duplicate, and one older than the window is answered as stale. A command
+ * that names the version it expects and finds the game at another one is
+ * answered as stale too, without reaching the engine. A new session id
+ * replaces the player's window.
+ *
+ * Each game runs its commands in order, so a client can send several without
+ * waiting for their updates, each expecting the version the one before
+ * should produce: if one is refused, the ones after it are stale.
+ *
+ * Nothing here throws; every outcome is a {@link CommandAck}. Must be called
+ * from the game's mailbox.
+ *
+ * Metrics:
+ * - game.commands: numbered commands, tagged by outcome (applied, rejected, stale, duplicate)
+ */
+@Service
+public class CommandLog {
+
+    private final int windowSize;
+    private final Map<String, Map<String, Window>> games = new ConcurrentHashMap<>();
+    private final Counter applied;
+    private final Counter rejected;
+    private final Counter stale;
+    private final Counter duplicates;
+
+    public CommandLog(MeterRegistry meterRegistry, @Value("${game.commands.window:64}") int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("game.commands.window must be at least 1");
+        }
+        this.windowSize = windowSize;
+        this.applied = Counter.builder("game.commands").tag("outcome", "applied").register(meterRegistry);
+        this.rejected = Counter.builder("game.commands").tag("outcome", "rejected").register(meterRegistry);
+        this.stale = Counter.builder("game.commands").tag("outcome", "stale").register(meterRegistry);
+        this.duplicates = Counter.builder("game.commands").tag("outcome", "duplicate").register(meterRegistry);
+    }
+
+    /**
+     * Answer to a command that must not run, or null if it should run (and
+     * then be passed to {@link #record}).
+     *
+     * @param version current version of the game
+     */
+    public CommandAck check(Command command, long version) {
+        Window window = windowOf(command);
+        if (command.clientSeq() <= window.highest - windowSize) {
+            stale.increment();
+            return new CommandAck(command.sessionId(), command.clientSeq(), Status.STALE, version,
+                    "Command too old");
+        }
+        CommandAck previous = window.find(command.clientSeq());
+        if (previous != null) {
+            duplicates.increment();
+            CommandAck ack = new CommandAck(previous.getSessionId(), previous.getClientSeq(), previous.getStatus(),
+                    previous.getVersion(), previous.getMessage());
+            ack.setDuplicate(true);
+            return ack;
+        }
+        if (command.expectedVersion() >= 0 && command.expectedVersion() != version) {
+            stale.increment();
+            return window.put(new CommandAck(command.sessionId(), command.clientSeq(), Status.STALE, version,
+                    "Game is at version " + version + ", not " + command.expectedVersion()));
+        }
+        return null;
+    }
+
+    /**
+     * Records what came of a command that ran.
+     *
+     * @param error   why the game refused it, or null if it was applied
+     * @param version version of the game after the command
+     * @return the answer for the client
+     */
+    public CommandAck record(Command command, String error, long version) {
+        (error == null ? applied : rejected).increment();
+        return windowOf(command).put(new CommandAck(command.sessionId(), command.clientSeq(),
+                error == null ? Status.APPLIED : Status.REJECTED, version, error));
+    }
+
+    /**
+     * Drops the windows of a removed game.
+     */
+    public void forget(String gameId) {
+        games.remove(gameId);
+    }
+
+    private Window windowOf(Command command) {
+        Map<String, Window> players = games.computeIfAbsent(command.gameId(), id -> new HashMap<>());
+        Window window = players.get(command.playerId());
+        if (window == null || !window.sessionId.equals(command.sessionId())) {
+            window = new Window(command.sessionId(), windowSize);
+            players.put(command.playerId(), window);
+        }
+        return window;
+    }
+
+    /**
+     * A numbered command.
+     *
+     * @param expectedVersion game version the command is meant for, -1 if any
+     * @param replyTo         STOMP session to send the answer to, or null
+     */
+    public record Command(String gameId, String playerId, String sessionId, long clientSeq, long expectedVersion,
+            String replyTo) {
+
+        /**
+         * The command a request describes, or null if it is not numbered.
+         */
+        public static Command of(String gameId, String playerId, String sessionId, Long clientSeq,
+                Long expectedVersion, String replyTo) {
+            if (sessionId == null || clientSeq == null || playerId == null) {
+                return null;
+            }
+            return new Command(gameId, playerId, sessionId, clientSeq,
+                    expectedVersion != null ? expectedVersion : -1, replyTo);
+        }
+    }
+
+    /**
+     * Answers to the last commands of one client session, by sequence number
+     * modulo the window size.
+     */
+    private static final class Window {
+        private final String sessionId;
+        private final long[] seqs;
+        private final CommandAck[] acks;
+        private long highest = Long.MIN_VALUE / 2;
+
+        Window(String sessionId, int size) {
+            this.sessionId = sessionId;
+            this.seqs = new long[size];
+            this.acks = new CommandAck[size];
+            Arrays.fill(seqs, -1);
+        }
+
+        CommandAck find(long seq) {
+            int slot = slot(seq);
+            return seqs[slot] == seq ? acks[slot] : null;
+        }
+
+        CommandAck put(CommandAck ack) {
+            int slot = slot(ack.getClientSeq());
+            seqs[slot] = ack.getClientSeq();
+            acks[slot] = ack;
+            highest = Math.max(highest, ack.getClientSeq());
+            return ack;
+        }
+
+        private int slot(long seq) {
+            return (int) Math.floorMod(seq, (long) seqs.length);
+        }
+    }
+}
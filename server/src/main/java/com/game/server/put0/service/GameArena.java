@@ -0,0 +1,161 @@
+package com.game.server.put0.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Off-heap store for the images of hibernated games.
+ *
+ * Memory comes in direct buffers of {@code game.hibernate.chunk-bytes},
+ * carved into power-of-two slots (128 bytes and up). A freed slot goes on
+ * the free list of its size and is reused by the next image of that size;
+ * chunks are never handed back. Once {@code game.hibernate.max-bytes} are
+ * reserved, images that find no free slot are refused and their games stay
+ * on the heap.
+ *
+ * An image is referenced by a handle: chunk index in the high half, slot
+ * offset in the low half. The image length is kept in the slot's first
+ * four bytes.
+ *
+ * Metrics:
+ * - game.arena.images: images stored
+ * - game.arena.reserved: bytes of direct memory allocated
+ * - game.arena.used: bytes of the slots holding an image
+ * - game.arena.stored / game.arena.loaded: images written and read back
+ */
+@Component
+class GameArena {
+
+    private static final int MIN_SLOT_SHIFT = 7;
+    private static final int LENGTH_BYTES = 4;
+
+    private final int chunkBytes;
+    private final long maxBytes;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    // Free slot handles per size class, used as stacks
+    private final long[][] free;
+    private final int[] freeCount;
+    private int bumpOffset;
+    private final AtomicLong images = new AtomicLong();
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicLong used = new AtomicLong();
+    private final Counter stored;
+    private final Counter loaded;
+
+    GameArena(MeterRegistry meterRegistry,
+            @Value("${game.hibernate.chunk-bytes:1048576}") int chunkBytes,
+            @Value("${game.hibernate.max-bytes:268435456}") long maxBytes) {
+        if (Integer.bitCount(chunkBytes) != 1 || chunkBytes < (1 << MIN_SLOT_SHIFT)) {
+            throw new IllegalArgumentException("game.hibernate.chunk-bytes must be a power of two of at least "
+                    + (1 << MIN_SLOT_SHIFT));
+        }
+        this.chunkBytes = chunkBytes;
+        this.maxBytes = maxBytes;
+        int classes = Integer.numberOfTrailingZeros(chunkBytes) - MIN_SLOT_SHIFT + 1;
+        this.free = new long[classes][16];
+        this.freeCount = new int[classes];
+        this.bumpOffset = chunkBytes;
+        meterRegistry.gauge("game.arena.images", images);
+        meterRegistry.gauge("game.arena.reserved", reserved);
+        meterRegistry.gauge("game.arena.used", used);
+        this.stored = Counter.builder("game.arena.stored").register(meterRegistry);
+        this.loaded = Counter.builder("game.arena.loaded").register(meterRegistry);
+    }
+
+    /**
+     * Copies an image into the arena.
+     *
+     * @return the handle of the image, or -1 if the arena is full or the
+     *         image is larger than a chunk
+     */
+    synchronized long store(byte[] image) {
+        int sizeClass = sizeClass(image.length + LENGTH_BYTES);
+        if (sizeClass < 0) {
+            return -1;
+        }
+        long handle = allocate(sizeClass);
+        if (handle < 0) {
+            return -1;
+        }
+        ByteBuffer chunk = chunks.get(chunkOf(handle));
+        int offset = offsetOf(handle);
+        chunk.putInt(offset, image.length);
+        chunk.put(offset + LENGTH_BYTES, image);
+        images.incrementAndGet();
+        used.addAndGet(slotBytes(sizeClass));
+        stored.increment();
+        return handle;
+    }
+
+    /**
+     * Copies an image back onto the heap. The image stays in the arena.
+     */
+    synchronized byte[] load(long handle) {
+        ByteBuffer chunk = chunks.get(chunkOf(handle));
+        int offset = offsetOf(handle);
+        byte[] image = new byte[chunk.getInt(offset)];
+        chunk.get(offset + LENGTH_BYTES, image);
+        loaded.increment();
+        return image;
+    }
+
+    /**
+     * Releases the slot of an image.
+     */
+    synchronized void free(long handle) {
+        int length = chunks.get(chunkOf(handle)).getInt(offsetOf(handle));
+        int sizeClass = sizeClass(length + LENGTH_BYTES);
+        if (freeCount[sizeClass] == free[sizeClass].length) {
+            free[sizeClass] = Arrays.copyOf(free[sizeClass], freeCount[sizeClass] * 2);
+        }
+        free[sizeClass][freeCount[sizeClass]++] = handle;
+        images.decrementAndGet();
+        used.addAndGet(-slotBytes(sizeClass));
+    }
+
+    private long allocate(int sizeClass) {
+        if (freeCount[sizeClass] > 0) {
+            return free[sizeClass][--freeCount[sizeClass]];
+        }
+        int slot = slotBytes(sizeClass);
+        if (bumpOffset + slot > chunkBytes) {
+            // The rest of the current chunk is left unused
+            if (reserved.get() + chunkBytes > maxBytes) {
+                return -1;
+            }
+            chunks.add(ByteBuffer.allocateDirect(chunkBytes));
+            reserved.addAndGet(chunkBytes);
+            bumpOffset = 0;
+        }
+        long handle = (long) (chunks.size() - 1) << 32 | bumpOffset;
+        bumpOffset += slot;
+        return handle;
+    }
+
+    // Smallest size class that fits the given bytes, -1 if none does
+    private int sizeClass(int bytes) {
+        int shift = Math.max(MIN_SLOT_SHIFT, 32 - Integer.numberOfLeadingZeros(bytes - 1));
+        int sizeClass = shift - MIN_SLOT_SHIFT;
+        return sizeClass < free.length ? sizeClass : -1;
+    }
+
+    private static int slotBytes(int sizeClass) {
+        return 1 << (sizeClass + MIN_SLOT_SHIFT);
+    }
+
+    private static int chunkOf(long handle) {
+        return (int) (handle >>> 32);
+    }
+
+    private static int offsetOf(long handle) {
+        return (int) handle;
+    }
+}
@@ -1,51 +1,134 @@
 package com.game.server.put0.service;
 
 import com.game.core.model.*;
+import com.game.core.wire.GameImage;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Server-side Game Engine Wrapper.
  * Manages the collection of active games and delegates logic to the Core GameEngine.
+ * Each game is stamped with the time of its last player action, so idle
+ * games can be found (see GameReaper).
+ *
+ * An idle game can be hibernated: its {@link GameImage} goes to the
+ * off-heap {@link GameArena} and the object graph is dropped. The next
+ * {@link #getGame(String)} (or any action) rebuilds it transparently.
+ * Methods that say so work without waking hibernated games.
+ *
+ * Neither this wrapper nor the core engine locks the games: every method
+ * that reads or changes a game's state must run on the game's mailbox (see
+ * {@link GameMailbox}). The methods that work without waking a game may be
+ * called from anywhere, but the game {@link #peekGame(String)} returns must
+ * still be read on its mailbox.
+ *
+ * Metrics:
+ * - game.engine.action: time spent in the core engine, tagged by action (play, playMany, draw, collect);
+ *   off with {@code game.metrics.hot-paths=false} (see {@link HotPathMetrics})
+ * - game.engine.games: live games, tagged by status; counted when read
  */
 @Service
 public class GameEngine {
     
     private static final Logger log = LoggerFactory.getLogger(GameEngine.class);
     
-    private final Map<String, GameState> games = new ConcurrentHashMap<>();
+    private final Map<String, Entry> games = new ConcurrentHashMap<>();
     private final com.game.core.engine.GameEngine coreEngine = new com.game.core.engine.GameEngine();
+    private final GameArena arena;
+    private final Timer playTimer;
+    private final Timer playManyTimer;
+    private final Timer drawTimer;
+    private final Timer collectTimer;
+
+    public GameEngine(GameArena arena, HotPathMetrics hotPathMetrics, MeterRegistry meterRegistry) {
+        this.arena = arena;
+        this.playTimer = hotPathMetrics.timer("game.engine.action", "action", "play");
+        this.playManyTimer = hotPathMetrics.timer("game.engine.action", "action", "playMany");
+        this.drawTimer = hotPathMetrics.timer("game.engine.action", "action", "draw");
+        this.collectTimer = hotPathMetrics.timer("game.engine.action", "action", "collect");
+        for (GameStatus status : GameStatus.values()) {
+            Gauge.builder("game.engine.games", this, engine -> engine.countByStatus(status))
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
     
     /**
      * Creates a new game with the given ID.
      */
     public GameState createGame(String gameId) {
         GameState game = coreEngine.createGame(gameId);
-        games.put(gameId, game);
+        games.put(gameId, new Entry(game));
         return game;
     }
     
     /**
-     * Gets a game by ID.
+     * Gets a game by ID, waking it up if it is hibernated.
      */
     public GameState getGame(String gameId) {
-        return games.get(gameId);
+        Entry entry = games.get(gameId);
+        return entry != null ? wake(entry) : null;
+    }
+
+    /**
+     * Gets a game only if it is awake, without waking it up.
+     */
+    public GameState peekGame(String gameId) {
+        Entry entry = games.get(gameId);
+        return entry != null ? entry.game : null;
+    }
+
+    /**
+     * Checks whether a game exists, without waking it up.
+     */
+    public boolean hasGame(String gameId) {
+        return games.containsKey(gameId);
+    }
+
+    /**
+     * Status of a game without waking it up, or null if it does not exist.
+     */
+    public GameStatus getStatus(String gameId) {
+        Entry entry = games.get(gameId);
+        return entry != null ? entry.status() : null;
+    }
+
+    /**
+     * State version of a game (see {@link GameState#getVersion()}) without
+     * waking it up, or -1 if it does not exist.
+     */
+    public long getVersion(String gameId) {
+        Entry entry = games.get(gameId);
+        return entry != null ? entry.version() : -1;
+    }
+
+    /**
+     * System.nanoTime() of the last player action in a game (or of its
+     * creation), or -1 if the game does not exist.
+     */
+    public long getLastTouched(String gameId) {
+        Entry entry = games.get(gameId);
+        return entry != null ? entry.lastTouched : -1;
     }
     
     /**
      * Adds a player to a game.
      */
     public void addPlayer(String gameId, Player player) {
-        GameState game = games.get(gameId);
-        if (game == null) {
-            throw new IllegalArgumentException("Game not found: " + gameId);
-        }
+        GameState game = touch(gameId);
         coreEngine.addPlayer(game, player);
     }
     
@@ -53,10 +136,7 @@ public class GameEngine {
      * Starts a game by creating and dealing the deck.
      */
     public void startGame(String gameId) {
-        GameState game = games.get(gameId);
-        if (game == null) {
-            throw new IllegalArgumentException("Game not found: " + gameId);
-        }
+        GameState game = touch(gameId);
         coreEngine.startGame(game);
     }
     
@@ -64,72 +144,216 @@ public class GameEngine {
      * Plays a card from the current player's hand.
      */
     public void playCard(String gameId, String playerId, Card card) {
-        GameState game = games.get(gameId);
-        if (game == null) {
-            throw new IllegalArgumentException("Game not found: " + gameId);
+        GameState game = touch(gameId);
+        long start = HotPathMetrics.start(playTimer);
+        try {
+            coreEngine.playCard(game, playerId, card);
+        } finally {
+            HotPathMetrics.stop(playTimer, start);
+        }
+    }
+    
+    /**
+     * Plays several cards of the same rank from the current player's hand
+     * as one move.
+     *
+     * @throws IllegalArgumentException if no card is given
+     */
+    public void playCards(String gameId, String playerId, List<Card> cards) {
+        if (cards == null || cards.isEmpty()) {
+            throw new IllegalArgumentException("No card played");
+        }
+        GameState game = touch(gameId);
+        long start = HotPathMetrics.start(playManyTimer);
+        try {
+            coreEngine.playCards(game, playerId, cards);
+        } finally {
+            HotPathMetrics.stop(playManyTimer, start);
         }
-        coreEngine.playCard(game, playerId, card);
     }
     
     /**
      * Draws a card from the deck for the current player.
      */
     public void drawCard(String gameId, String playerId) {
-        GameState game = games.get(gameId);
-        if (game == null) {
-            throw new IllegalArgumentException("Game not found: " + gameId);
+        GameState game = touch(gameId);
+        long start = HotPathMetrics.start(drawTimer);
+        try {
+            coreEngine.drawCard(game, playerId);
+        } finally {
+            HotPathMetrics.stop(drawTimer, start);
         }
-        coreEngine.drawCard(game, playerId);
     }
     
     /**
      * Collects table cards (Voluntary action).
      */
     public void collectTable(String gameId, String playerId) {
-        GameState game = games.get(gameId);
-        if (game == null) {
-            throw new IllegalArgumentException("Game not found: " + gameId);
+        GameState game = touch(gameId);
+        long start = HotPathMetrics.start(collectTimer);
+        try {
+            coreEngine.collectTable(game, playerId);
+        } finally {
+            HotPathMetrics.stop(collectTimer, start);
         }
-        coreEngine.collectTable(game, playerId);
     }
     
     /**
-     * Gets all active games.
+     * Gets all active games, waking up the hibernated ones.
      */
     public Collection<GameState> getAllGames() {
-        return games.values();
+        List<GameState> all = new ArrayList<>(games.size());
+        for (Entry entry : games.values()) {
+            all.add(wake(entry));
+        }
+        return all;
+    }
+
+    /**
+     * Ids of all games, awake or not. A live view.
+     */
+    public Set<String> getGameIds() {
+        return Collections.unmodifiableSet(games.keySet());
     }
     
+    /**
+     * Number of live games.
+     */
+    public int getGameCount() {
+        return games.size();
+    }
+
+    /**
+     * Number of live games in a status, without waking any. Walks every game.
+     */
+    public int countByStatus(GameStatus status) {
+        int count = 0;
+        for (Entry entry : games.values()) {
+            if (entry.status() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Removes a player from the game.
      */
     public void removePlayer(String gameId, String playerId) {
-        GameState game = games.get(gameId);
+        GameState game = getGame(gameId);
         if (game == null) {
             return;
         }
         
-        synchronized(game) {
-            game.getPlayers().removeIf(p -> p.getId().equals(playerId));
-            log.info("Removed player {} from game {}", playerId, gameId);
-            
-            if (game.getPlayers().isEmpty() || game.getPlayers().stream().allMatch(Player::isBot)) {
-                removeGame(gameId);
-            } else {
-                 if (game.getStatus() == GameStatus.PLAYING && game.getCurrentPlayerIndex() >= game.getPlayers().size()) {
-                      game.setCurrentPlayerIndex(0); 
-                 }
-            }
+        // Runs on the game's mailbox, so no other command touches the game meanwhile
+        if (game.getPlayers().removeIf(p -> p.getId().equals(playerId))) {
+            game.bumpVersion();
+        }
+        log.info("Removed player {} from game {}", playerId, gameId);
+        
+        if (game.getPlayers().isEmpty() || game.getPlayers().stream().allMatch(Player::isBot)) {
+            removeGame(gameId);
+        } else {
+             if (game.getStatus() == GameStatus.PLAYING && game.getCurrentPlayerIndex() >= game.getPlayers().size()) {
+                  game.setCurrentPlayerIndex(0); 
+             }
         }
     }
     
     public void removeGame(String gameId) {
-        games.remove(gameId);
+        Entry entry = games.remove(gameId);
+        if (entry != null) {
+            synchronized (entry) {
+                if (entry.image >= 0) {
+                    arena.free(entry.image);
+                    entry.image = -1;
+                }
+            }
+        }
         log.info("Removed game {}", gameId);
     }
 
+    /**
+     * Moves a game off the heap until it is next used. Must run on the
+     * game's mailbox, so that no command holds on to the game meanwhile.
+     *
+     * @return true if the game was hibernated, false if it does not exist,
+     *         already sleeps or does not fit in the arena
+     */
+    public boolean hibernate(String gameId) {
+        Entry entry = games.get(gameId);
+        if (entry == null) {
+            return false;
+        }
+        synchronized (entry) {
+            if (entry.game == null) {
+                return false;
+            }
+            long image = arena.store(GameImage.encode(entry.game));
+            if (image < 0) {
+                return false;
+            }
+            entry.status = entry.game.getStatus();
+            entry.version = entry.game.getVersion();
+            entry.image = image;
+            entry.game = null;
+        }
+        log.debug("Hibernated game {}", gameId);
+        return true;
+    }
+
+    private GameState wake(Entry entry) {
+        GameState game = entry.game;
+        if (game != null) {
+            return game;
+        }
+        synchronized (entry) {
+            if (entry.game == null && entry.image >= 0) {
+                entry.game = GameImage.decode(arena.load(entry.image));
+                arena.free(entry.image);
+                entry.image = -1;
+                log.debug("Woke up game {}", entry.game.getGameId());
+            }
+            return entry.game;
+        }
+    }
+
+    private GameState touch(String gameId) {
+        Entry entry = games.get(gameId);
+        if (entry == null) {
+            throw new IllegalArgumentException("Game not found: " + gameId);
+        }
+        entry.lastTouched = System.nanoTime();
+        return wake(entry);
+    }
+
     // Expose core engine if needed (e.g. for bot)
     public com.game.core.engine.GameEngine getCore() {
         return coreEngine;
     }
+
+    /**
+     * A game, or the arena handle of its image while it is hibernated, and
+     * the time of its last player action. The game and the image change
+     * under the entry's lock.
+     */
+    private static final class Entry {
+        private volatile GameState game;
+        private long image = -1;
+        private GameStatus status;
+        private long version;
+        private volatile long lastTouched = System.nanoTime();
+
+        Entry(GameState game) {
+            this.game = game;
+        }
+
+        synchronized GameStatus status() {
+            return game != null ? game.getStatus() : status;
+        }
+
+        synchronized long version() {
+            return game != null ? game.getVersion() : version;
+        }
+    }
 }
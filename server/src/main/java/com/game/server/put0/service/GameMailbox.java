@@ -0,0 +1,180 @@
+package com.game.server.put0.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Per-game command mailboxes.
+ * Every command that touches a game (player actions, room changes, bot turns)
+ * is queued on that game's mailbox and run one at a time, in arrival order,
+ * on the shared mailbox pool. Callers never block on another game's work and
+ * game state is only ever mutated by one thread at a time.
+ *
+ * Metrics:
+ * - game.mailbox.depth: commands waiting across all games
+ * - game.mailbox.games: games with a mailbox
+ * - game.mailbox.queued: per-game queue depth seen by each new command
+ * - game.mailbox.wait / game.mailbox.command: queue wait and run time, tagged by command
+ */
+@Service
+public class GameMailbox {
+
+    private static final Logger log = LoggerFactory.getLogger(GameMailbox.class);
+
+    // Commands run per turn before the mailbox yields its thread to other games
+    private static final int MAX_BATCH = 32;
+
+    private final GameEngine gameEngine;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final DistributionSummary queuedSummary;
+
+    public GameMailbox(GameEngine gameEngine, @Qualifier("mailboxExecutor") Executor executor,
+            MeterRegistry meterRegistry) {
+        this.gameEngine = gameEngine;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("game.mailbox.depth", pending);
+        meterRegistry.gaugeMapSize("game.mailbox.games", Tags.empty(), mailboxes);
+        this.queuedSummary = DistributionSummary.builder("game.mailbox.queued")
+                .description("Commands already queued for the game when a new one arrives")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a command for a game.
+     *
+     * @param command short command name, used as metric tag (play, draw, bot...)
+     * @throws IllegalArgumentException if the game does not exist
+     */
+    public void execute(String gameId, String command, Runnable action) {
+        if (gameId == null || !gameEngine.hasGame(gameId)) {
+            throw new IllegalArgumentException("Game not found: " + gameId);
+        }
+        mailboxes.computeIfAbsent(gameId, Mailbox::new).enqueue(new Command(command, action, System.nanoTime()));
+    }
+
+    /**
+     * Queues a command for a game and returns its result.
+     * The future completes exceptionally if the command throws.
+     */
+    public <T> CompletableFuture<T> submit(String gameId, String command, Supplier<T> action) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            execute(gameId, command, () -> {
+                try {
+                    result.complete(action.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Drops the mailbox of a removed game. Commands already queued still run.
+     */
+    public void remove(String gameId) {
+        mailboxes.remove(gameId);
+    }
+
+    /**
+     * Number of commands waiting for a game (0 if it has no mailbox).
+     */
+    public int depth(String gameId) {
+        Mailbox mailbox = mailboxes.get(gameId);
+        return mailbox != null ? mailbox.depth.get() : 0;
+    }
+
+    private void run(String gameId, Command command) {
+        Timer[] commandTimers = timers.computeIfAbsent(command.name(), name -> new Timer[] {
+                Timer.builder("game.mailbox.wait").tag("command", name).register(meterRegistry),
+                Timer.builder("game.mailbox.command").tag("command", name).register(meterRegistry)
+        });
+        long start = System.nanoTime();
+        commandTimers[0].record(start - command.enqueuedAt(), TimeUnit.NANOSECONDS);
+        try {
+            command.action().run();
+        } catch (RuntimeException e) {
+            log.error("Command {} failed for game {}", command.name(), gameId, e);
+        } finally {
+            commandTimers[1].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private record Command(String name, Runnable action, long enqueuedAt) {
+    }
+
+    /**
+     * Queue of one game. At most one drain task per mailbox is scheduled on the
+     * pool at any time, which is what serialises the game's commands.
+     */
+    private final class Mailbox implements Runnable {
+
+        private final String gameId;
+        private final Queue<Command> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Mailbox(String gameId) {
+            this.gameId = gameId;
+        }
+
+        void enqueue(Command command) {
+            queue.add(command);
+            queuedSummary.record(depth.getAndIncrement());
+            pending.incrementAndGet();
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < MAX_BATCH; i++) {
+                    Command command = queue.poll();
+                    if (command == null) {
+                        break;
+                    }
+                    depth.decrementAndGet();
+                    pending.decrementAndGet();
+                    GameMailbox.this.run(gameId, command);
+                }
+            } finally {
+                scheduled.set(false);
+                // A command may have arrived after the last poll
+                if (!queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
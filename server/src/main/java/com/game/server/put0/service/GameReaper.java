@@ -0,0 +1,266 @@
+package com.game.server.put0.service;
+
+import com.game.core.model.CardPile;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.Player;
+import com.game.core.sync.UpdateType;
+import com.game.server.put0.dto.GameStateUpdate;
+import com.game.server.put0.timer.HashedWheelTimer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evicts games nobody plays any more: finished games once
+ * {@code game.reaper.finished-ttl-ms} passed since the last player action,
+ * and any other game (abandoned rooms, stalled matches) after
+ * {@code game.reaper.idle-ttl-ms}. Bot and timed-out turns do not count as
+ * player actions.
+ *
+ * Before that, games out of play (waiting rooms, finished matches) are
+ * hibernated once idle for {@code game.hibernate.idle-ms} (see
+ * {@link GameEngine#hibernate(String)}). Games in play are left awake: their
+ * turn deadlines would wake them up again anyway.
+ *
+ * A sweep runs every {@code game.reaper.interval-ms} on the mailbox pool. It
+ * only reads what every game keeps atomically (last player action, status),
+ * and wakes none of them; each eviction or hibernation is queued on the
+ * game's mailbox and checked again there, so a move that just arrived keeps
+ * the game alive. The games' piles are only read on their mailboxes, where
+ * the memory estimate is taken. A game that fails its check is skipped and
+ * the sweep goes on.
+ *
+ * Metrics:
+ * - game.registry.games: live games, awake or hibernated
+ * - game.registry.bytes: estimated heap retained by the awake games that stay awake, as of the last sweep
+ * - game.registry.reaped: games evicted, tagged by reason (finished, idle)
+ * - game.registry.hibernated: games hibernated
+ */
+@Service
+public class GameReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(GameReaper.class);
+
+    // Rough per-game cost of the server's own bookkeeping (delta tracker,
+    // cached frames, mailbox, timers) on top of the game itself
+    private static final int SERVER_OVERHEAD_BYTES = 1024;
+
+    private final GameEngine gameEngine;
+    private final GameMailbox gameMailbox;
+    private final RoomService roomService;
+    private final GameUpdatePublisher updatePublisher;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final HashedWheelTimer gameTimer;
+    private final Executor executor;
+    private final long finishedTtlNanos;
+    private final long idleTtlNanos;
+    private final long hibernateNanos;
+    private final long intervalMs;
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final Counter reapedFinished;
+    private final Counter reapedIdle;
+    private final Counter hibernated;
+
+    public GameReaper(GameEngine gameEngine, GameMailbox gameMailbox, RoomService roomService,
+            GameUpdatePublisher updatePublisher, SimpMessagingTemplate messagingTemplate, HashedWheelTimer gameTimer,
+            @Qualifier("mailboxExecutor") Executor executor, MeterRegistry meterRegistry,
+            @Value("${game.reaper.finished-ttl-ms:300000}") long finishedTtlMs,
+            @Value("${game.reaper.idle-ttl-ms:1800000}") long idleTtlMs,
+            @Value("${game.hibernate.idle-ms:60000}") long hibernateMs,
+            @Value("${game.reaper.interval-ms:30000}") long intervalMs) {
+        this.gameEngine = gameEngine;
+        this.gameMailbox = gameMailbox;
+        this.roomService = roomService;
+        this.updatePublisher = updatePublisher;
+        this.messagingTemplate = messagingTemplate;
+        this.gameTimer = gameTimer;
+        this.executor = executor;
+        this.finishedTtlNanos = TimeUnit.MILLISECONDS.toNanos(finishedTtlMs);
+        this.idleTtlNanos = TimeUnit.MILLISECONDS.toNanos(idleTtlMs);
+        this.hibernateNanos = TimeUnit.MILLISECONDS.toNanos(hibernateMs);
+        this.intervalMs = intervalMs;
+        meterRegistry.gauge("game.registry.games", gameEngine, GameEngine::getGameCount);
+        meterRegistry.gauge("game.registry.bytes", retainedBytes);
+        this.reapedFinished = Counter.builder("game.registry.reaped").tag("reason", "finished").register(meterRegistry);
+        this.reapedIdle = Counter.builder("game.registry.reaped").tag("reason", "idle").register(meterRegistry);
+        this.hibernated = Counter.builder("game.registry.hibernated").register(meterRegistry);
+        scheduleSweep();
+    }
+
+    private void scheduleSweep() {
+        try {
+            gameTimer.newTimeout(timeout -> executor.execute(this::sweep), intervalMs, TimeUnit.MILLISECONDS);
+        } catch (IllegalStateException e) {
+            // The timer stops when the application shuts down
+            log.debug("Game sweeps stopped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queues the eviction of every expired game and the hibernation of idle
+     * ones, and refreshes the memory estimate.
+     */
+    void sweep() {
+        Measure measure = new Measure();
+        try {
+            long now = System.nanoTime();
+            int expired = 0;
+            int sleeping = 0;
+            for (String gameId : gameEngine.getGameIds()) {
+                try {
+                    Counter reason = expiry(gameId, now);
+                    if (reason != null) {
+                        expired++;
+                        reap(gameId, reason);
+                    } else if (gameEngine.peekGame(gameId) == null) {
+                        continue; // Hibernated: nothing on the heap
+                    } else if (canHibernate(gameId, now)) {
+                        sleeping++;
+                        hibernate(gameId);
+                    } else {
+                        measure(gameId, measure);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Sweep skipped game {}", gameId, e);
+                }
+            }
+            if (expired > 0 || sleeping > 0) {
+                log.info("Reaping {} expired games, hibernating {} idle ones", expired, sleeping);
+            }
+        } catch (RuntimeException e) {
+            log.error("Game sweep failed", e);
+        } finally {
+            measure.done();
+            scheduleSweep();
+        }
+    }
+
+    // Adds the game's size to the estimate, on its mailbox since commands change its piles
+    private void measure(String gameId, Measure measure) {
+        measure.pending.incrementAndGet();
+        try {
+            gameMailbox.execute(gameId, "measure", () -> {
+                try {
+                    GameState game = gameEngine.peekGame(gameId);
+                    if (game != null) {
+                        measure.bytes.addAndGet(estimateBytes(game));
+                    }
+                } finally {
+                    measure.done();
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            measure.done();
+            log.debug("Skipping measure: {}", e.getMessage());
+        }
+    }
+
+    private void reap(String gameId, Counter reason) {
+        try {
+            gameMailbox.execute(gameId, "reap", () -> {
+                if (expiry(gameId, System.nanoTime()) == null) {
+                    return;
+                }
+                roomService.closeRoom(gameId);
+                messagingTemplate.convertAndSend("/topic/game/" + gameId,
+                        new GameStateUpdate(null, "Room closed", UpdateType.ROOM_CLOSED));
+                reason.increment();
+                log.debug("Reaped game {}", gameId);
+            });
+        } catch (IllegalArgumentException e) {
+            log.debug("Skipping reap: {}", e.getMessage());
+        }
+    }
+
+    private void hibernate(String gameId) {
+        try {
+            gameMailbox.execute(gameId, "hibernate", () -> {
+                if (canHibernate(gameId, System.nanoTime()) && gameEngine.hibernate(gameId)) {
+                    updatePublisher.releaseFrames(gameId);
+                    hibernated.increment();
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            log.debug("Skipping hibernation: {}", e.getMessage());
+        }
+    }
+
+    // Counter of the reason the game expired for, or null if it is still live
+    private Counter expiry(String gameId, long now) {
+        long lastTouched = gameEngine.getLastTouched(gameId);
+        if (lastTouched < 0) {
+            return null;
+        }
+        long idle = now - lastTouched;
+        if (gameEngine.getStatus(gameId) == GameStatus.FINISHED && idle >= finishedTtlNanos) {
+            return reapedFinished;
+        }
+        return idle >= idleTtlNanos ? reapedIdle : null;
+    }
+
+    private boolean canHibernate(String gameId, long now) {
+        GameStatus status = gameEngine.getStatus(gameId);
+        return status != null && status != GameStatus.PLAYING
+                && now - gameEngine.getLastTouched(gameId) >= hibernateNanos;
+    }
+
+    /**
+     * Estimated bytes a game keeps alive on a 64-bit JVM with compressed
+     * references. Cards are shared flyweights and cost nothing per game.
+     */
+    static long estimateBytes(GameState game) {
+        long bytes = SERVER_OVERHEAD_BYTES + 64 + 16 // GameState, boxed seed
+                + stringBytes(game.getGameId()) + stringBytes(game.getWinnerId()) + stringBytes(game.getLastAction())
+                + listBytes(game.getPlayers())
+                + listBytes(game.getMainDeck()) + listBytes(game.getTablePile()) + listBytes(game.getDiscardPile());
+        for (Player player : game.getPlayers()) {
+            bytes += 40 + stringBytes(player.getId()) + stringBytes(player.getName())
+                    + listBytes(player.getHand()) + listBytes(player.getVisibleCards())
+                    + listBytes(player.getHiddenCards());
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 24 + align(16 + value.length());
+    }
+
+    private static long listBytes(List<?> list) {
+        if (list instanceof CardPile) {
+            return 80; // Two bitset words, a size and the per-rank counts
+        }
+        return 24 + align(16 + 4L * list.size());
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Memory estimate of one sweep, published once the sweep and every
+     * measure it queued are done.
+     */
+    private final class Measure {
+        private final AtomicLong bytes = new AtomicLong();
+        // The sweep itself, plus one per queued measure
+        private final AtomicInteger pending = new AtomicInteger(1);
+
+        void done() {
+            if (pending.decrementAndGet() == 0) {
+                retainedBytes.set(bytes.get());
+            }
+        }
+    }
+}
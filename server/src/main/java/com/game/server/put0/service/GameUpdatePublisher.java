@@ -0,0 +1,450 @@
+package com.game.server.put0.service;
+
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.Player;
+import com.game.core.sync.DeltaTracker;
+import com.game.core.sync.GameDelta;
+import com.game.core.sync.GameSnapshot;
+import com.game.core.sync.UpdateType;
+import com.game.core.wire.WireCodec;
+import com.game.core.wire.WireUpdate;
+import com.game.server.put0.dto.GameFrame;
+import com.game.server.put0.dto.GameStateUpdate;
+import com.game.server.put0.dto.GameView;
+import com.game.server.put0.service.ActionTracer.ActionTrace;
+import com.game.server.put0.timer.HashedWheelTimer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Publishes game updates as versioned deltas, projected per viewer:
+ * spectators get the public view on /topic/game/{gameId} and each human
+ * player gets its own view on /user/queue/game, sent only to the STOMP
+ * session holding the player's seat (see {@link SeatSessions}).
+ * A full snapshot is only broadcast when a delta cannot describe the change
+ * (first update, seats joining or leaving); clients get one on subscribe
+ * through {@link #snapshot(String, String)}.
+ *
+ * Every view is projected once per version and encoded at most once per
+ * format (see {@link GameFrame}): a player whose delta shows nothing more
+ * than the public one shares the public frame, and snapshot frames are
+ * cached by (version, seat) until the game moves on.
+ *
+ * Updates are coalesced per game: while a bot is to play, deltas are held
+ * for up to {@code game.broadcast.window-ms} and then sent together as one
+ * frame whose steps clients apply (and animate) in order. Pending steps go
+ * out as soon as the turn passes to a human or the game stops.
+ *
+ * Every published change also refreshes the game's lobby entry. A change
+ * made by a traced player action echoes its id and completes its trace (see
+ * {@link ActionTracer}).
+ *
+ * Must be called from the game's mailbox.
+ *
+ * Metrics (off with {@code game.metrics.hot-paths=false}, see {@link HotPathMetrics}):
+ * - game.frame.encode / game.frame.bytes: time to encode a frame and its size, tagged by format (json, wire)
+ * - game.broadcast.fanout: time to hand one change to every topic of the game, tagged by kind (delta, snapshot)
+ */
+@Service
+public class GameUpdatePublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(GameUpdatePublisher.class);
+
+    private final GameEngine gameEngine;
+    private final GameMailbox gameMailbox;
+    private final HashedWheelTimer gameTimer;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final JsonMapper jsonMapper;
+    private final LobbyIndex lobbyIndex;
+    private final SeatSessions seatSessions;
+    private final long coalesceWindowMs;
+    private final Map<String, GameViews> views = new ConcurrentHashMap<>();
+    private final Timer jsonEncodeTimer;
+    private final Timer wireEncodeTimer;
+    private final DistributionSummary jsonBytes;
+    private final DistributionSummary wireBytes;
+    private final Timer deltaFanoutTimer;
+    private final Timer snapshotFanoutTimer;
+
+    public GameUpdatePublisher(GameEngine gameEngine, GameMailbox gameMailbox, HashedWheelTimer gameTimer,
+            SimpMessagingTemplate messagingTemplate, JsonMapper jsonMapper, LobbyIndex lobbyIndex,
+            SeatSessions seatSessions, HotPathMetrics hotPathMetrics, @Value("${game.broadcast.window-ms:50}") long coalesceWindowMs) {
+        this.gameEngine = gameEngine;
+        this.gameMailbox = gameMailbox;
+        this.gameTimer = gameTimer;
+        this.messagingTemplate = messagingTemplate;
+        this.jsonMapper = jsonMapper;
+        this.lobbyIndex = lobbyIndex;
+        this.seatSessions = seatSessions;
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.jsonEncodeTimer = hotPathMetrics.timer("game.frame.encode", "format", "json");
+        this.wireEncodeTimer = hotPathMetrics.timer("game.frame.encode", "format", "wire");
+        this.jsonBytes = hotPathMetrics.bytes("game.frame.bytes", "format", "json");
+        this.wireBytes = hotPathMetrics.bytes("game.frame.bytes", "format", "wire");
+        this.deltaFanoutTimer = hotPathMetrics.timer("game.broadcast.fanout", "kind", "delta");
+        this.snapshotFanoutTimer = hotPathMetrics.timer("game.broadcast.fanout", "kind", "snapshot");
+    }
+
+    /**
+     * User destination of the updates projected for a player, subscribed to
+     * as /user/queue/game by the session holding the seat.
+     */
+    public static final String PLAYER_QUEUE = "/queue/game";
+
+    /**
+     * Broadcasts the changes made to a game since its last update, or holds
+     * them for the next frame while bots are playing.
+     */
+    public void publish(String gameId, String message, UpdateType type) {
+        publish(gameId, message, type, null);
+    }
+
+    /**
+     * Same as {@link #publish(String, String, UpdateType)}, for the change
+     * made by a traced player action.
+     */
+    public void publish(String gameId, String message, UpdateType type, ActionTrace trace) {
+        GameState game = gameEngine.getGame(gameId);
+        if (game == null) {
+            return;
+        }
+        lobbyIndex.update(game);
+        GameViews gameViews = views.computeIfAbsent(gameId, id -> new GameViews());
+        GameDelta delta = gameViews.tracker.diff(game);
+        if (delta == null) {
+            flush(gameId, game, gameViews);
+            broadcastSnapshot(gameId, game, gameViews, message, type);
+            if (trace != null) {
+                trace.published();
+            }
+            return;
+        }
+        gameViews.advance(delta.getVersion());
+        gameViews.pending.add(new Step(delta, message, type, trace));
+        if (coalesceWindowMs <= 0 || !isBotTurn(game)) {
+            flush(gameId, game, gameViews);
+        } else if (gameViews.flushTimeout == null) {
+            gameViews.flushTimeout = gameTimer.newTimeout(timeout -> scheduleFlush(gameId),
+                    coalesceWindowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Full state of a game at its current version, as seen by the given
+     * player, for a client that just subscribed or lost track of the deltas.
+     * The session asking for a player's view takes the player's seat, and
+     * from then on gets the player's updates. Pending changes are broadcast
+     * first so the snapshot and the updates agree on the version.
+     *
+     * @param playerId the subscribing player; unknown ids, and seats held by
+     *                 another session, get the public view
+     * @param sessionId the STOMP session asking
+     * @return the snapshot, or null if the game does not exist
+     */
+    public GameFrame snapshot(String gameId, String playerId, String sessionId) {
+        GameState game = gameEngine.getGame(gameId);
+        if (game == null) {
+            return null;
+        }
+        int viewer = seatOf(game, playerId);
+        if (viewer != GameDelta.SPECTATOR
+                && (game.getPlayers().get(viewer).isBot() || !seatSessions.claim(gameId, playerId, sessionId))) {
+            viewer = GameDelta.SPECTATOR;
+        }
+        GameViews gameViews = views.computeIfAbsent(gameId, id -> new GameViews());
+        GameDelta delta = gameViews.tracker.diff(game);
+        if (delta == null) {
+            flush(gameId, game, gameViews);
+            broadcastSnapshot(gameId, game, gameViews, "State sync", UpdateType.TURN_CHANGED);
+        } else {
+            if (delta.hasChanges()) {
+                gameViews.advance(delta.getVersion());
+                gameViews.pending.add(new Step(delta, "State sync", UpdateType.TURN_CHANGED, null));
+            }
+            flush(gameId, game, gameViews);
+        }
+        GameFrame frame = gameViews.snapshotFrame(viewer);
+        if (frame == null) {
+            frame = snapshotFrame(game, viewer, gameViews.version, "Snapshot", UpdateType.SNAPSHOT);
+            gameViews.cacheSnapshot(viewer, frame);
+        }
+        return frame;
+    }
+
+    private static boolean isBotTurn(GameState game) {
+        Player current = game.getCurrentPlayer();
+        return game.getStatus() == GameStatus.PLAYING && current != null && current.isBot();
+    }
+
+    // Timer thread: the flush itself must run on the game's mailbox
+    private void scheduleFlush(String gameId) {
+        try {
+            gameMailbox.execute(gameId, "flush", () -> {
+                GameState game = gameEngine.getGame(gameId);
+                GameViews gameViews = views.get(gameId);
+                if (game != null && gameViews != null) {
+                    flush(gameId, game, gameViews);
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            log.debug("Skipping flush: {}", e.getMessage());
+        }
+    }
+
+    private void broadcastSnapshot(String gameId, GameState game, GameViews gameViews, String message,
+            UpdateType type) {
+        long start = HotPathMetrics.start(snapshotFanoutTimer);
+        List<Player> players = game.getPlayers();
+        long version = gameViews.reset(game);
+        send("/topic/game/" + gameId, snapshotFrame(game, GameDelta.SPECTATOR, version, message, type));
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (!players.get(seat).isBot()) {
+                sendToSeat(gameId, players.get(seat).getId(), snapshotFrame(game, seat, version, message, type));
+            }
+        }
+        HotPathMetrics.stop(snapshotFanoutTimer, start);
+        log.debug("Published snapshot v{} of game {}", version, gameId);
+    }
+
+    // Sends the held steps: a lone step as a plain delta, several as one batch
+    private void flush(String gameId, GameState game, GameViews gameViews) {
+        if (gameViews.flushTimeout != null) {
+            gameViews.flushTimeout.cancel();
+            gameViews.flushTimeout = null;
+        }
+        if (gameViews.pending.isEmpty()) {
+            return;
+        }
+        long start = HotPathMetrics.start(deltaFanoutTimer);
+        List<Step> steps = List.copyOf(gameViews.pending);
+        gameViews.pending.clear();
+
+        List<Player> players = game.getPlayers();
+        List<Step> publicSteps = maskedFor(steps, GameDelta.SPECTATOR);
+        GameFrame publicFrame = frame(publicSteps);
+        send("/topic/game/" + gameId, publicFrame);
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (players.get(seat).isBot()) {
+                continue;
+            }
+            List<Step> seatSteps = maskedFor(steps, seat);
+            GameFrame frame = sameMoves(seatSteps, publicSteps) ? publicFrame : frame(seatSteps);
+            sendToSeat(gameId, players.get(seat).getId(), frame);
+        }
+        HotPathMetrics.stop(deltaFanoutTimer, start);
+        for (Step step : steps) {
+            if (step.trace() != null) {
+                step.trace().published();
+            }
+        }
+        if (steps.size() > 1) {
+            log.debug("Published {} steps up to v{} of game {} in one frame", steps.size(), gameViews.version, gameId);
+        }
+    }
+
+    private static List<Step> maskedFor(List<Step> steps, int viewer) {
+        List<Step> masked = new ArrayList<>(steps.size());
+        for (Step step : steps) {
+            masked.add(new Step(step.delta().maskedFor(viewer), step.message(), step.type(), step.trace()));
+        }
+        return masked;
+    }
+
+    private static boolean sameMoves(List<Step> a, List<Step> b) {
+        for (int i = 0; i < a.size(); i++) {
+            if (!Arrays.equals(a.get(i).delta().getMoves(), b.get(i).delta().getMoves())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private GameFrame snapshotFrame(GameState game, int viewer, long version, String message,
+            UpdateType type) {
+        GameSnapshot snapshot = GameSnapshot.of(game, viewer);
+        return newFrame(() -> {
+            GameStateUpdate update = new GameStateUpdate(GameView.of(snapshot), message, type);
+            update.setVersion(version);
+            return jsonMapper.writeValueAsBytes(update);
+        }, () -> WireCodec.encodeSnapshot(snapshot, version, message, type), List.of());
+    }
+
+    private GameFrame frame(List<Step> steps) {
+        if (steps.size() == 1) {
+            Step step = steps.get(0);
+            return newFrame(() -> jsonMapper.writeValueAsBytes(step.toUpdate()),
+                    () -> WireCodec.encodeDelta(step.delta(), step.message(), step.type(), step.actionId()), steps);
+        }
+        return newFrame(() -> {
+            List<GameStateUpdate> updates = new ArrayList<>(steps.size());
+            for (Step step : steps) {
+                updates.add(step.toUpdate());
+            }
+            GameStateUpdate last = updates.get(updates.size() - 1);
+            GameStateUpdate batch = new GameStateUpdate(null, last.getMessage(), last.getType());
+            batch.setVersion(last.getVersion());
+            batch.setSteps(updates);
+            return jsonMapper.writeValueAsBytes(batch);
+        }, () -> {
+            List<WireUpdate> updates = new ArrayList<>(steps.size());
+            for (Step step : steps) {
+                WireUpdate update = new WireUpdate(step.delta().getVersion(), step.message(), step.type(), step.delta());
+                update.setActionId(step.actionId());
+                updates.add(update);
+            }
+            return WireCodec.encodeBatch(updates);
+        }, steps);
+    }
+
+    // Frame whose encoders are measured, and complete the traces of the steps
+    private GameFrame newFrame(Supplier<byte[]> jsonEncoder, Supplier<byte[]> wireEncoder, List<Step> steps) {
+        List<ActionTrace> traces = null;
+        for (Step step : steps) {
+            if (step.trace() != null) {
+                traces = traces == null ? new ArrayList<>(steps.size()) : traces;
+                traces.add(step.trace());
+            }
+        }
+        if (jsonEncodeTimer == null && traces == null) {
+            return new GameFrame(jsonEncoder, wireEncoder);
+        }
+        List<ActionTrace> encoded = traces != null ? traces : List.of();
+        return new GameFrame(() -> encode(jsonEncoder, jsonEncodeTimer, jsonBytes, encoded),
+                () -> encode(wireEncoder, wireEncodeTimer, wireBytes, encoded));
+    }
+
+    private static byte[] encode(Supplier<byte[]> encoder, Timer timer, DistributionSummary size,
+            List<ActionTrace> traces) {
+        long start = HotPathMetrics.start(timer);
+        byte[] bytes = encoder.get();
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            size.record(bytes.length);
+        }
+        for (ActionTrace trace : traces) {
+            trace.serialised();
+        }
+        return bytes;
+    }
+
+    private void send(String destination, GameFrame frame) {
+        messagingTemplate.convertAndSend(destination, frame);
+    }
+
+    // Nobody gets a seat's view before a session has claimed the seat
+    private void sendToSeat(String gameId, String playerId, GameFrame frame) {
+        String sessionId = seatSessions.sessionOf(gameId, playerId);
+        if (sessionId == null) {
+            return;
+        }
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(sessionId, PLAYER_QUEUE, frame, headers.getMessageHeaders());
+    }
+
+    private static int seatOf(GameState game, String playerId) {
+        List<Player> players = game.getPlayers();
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (players.get(seat).getId().equals(playerId)) {
+                return seat;
+            }
+        }
+        return GameDelta.SPECTATOR;
+    }
+
+    /**
+     * Drops the snapshot frames cached for a game that is going to sleep.
+     * They are rebuilt for the next client that subscribes.
+     */
+    public void releaseFrames(String gameId) {
+        GameViews gameViews = views.get(gameId);
+        if (gameViews != null) {
+            gameViews.dropSnapshots();
+        }
+    }
+
+    /**
+     * Drops the tracking state of a removed game.
+     */
+    public void forget(String gameId) {
+        seatSessions.forget(gameId);
+        GameViews gameViews = views.remove(gameId);
+        if (gameViews != null && gameViews.flushTimeout != null) {
+            gameViews.flushTimeout.cancel();
+        }
+    }
+
+    /**
+     * One published change, held until its frame is sent.
+     */
+    private record Step(GameDelta delta, String message, UpdateType type, ActionTrace trace) {
+
+        String actionId() {
+            return trace != null ? trace.getActionId() : null;
+        }
+
+        GameStateUpdate toUpdate() {
+            GameStateUpdate update = new GameStateUpdate(null, message, type);
+            update.setDelta(delta);
+            update.setVersion(delta.getVersion());
+            update.setActionId(actionId());
+            return update;
+        }
+    }
+
+    /**
+     * Delta tracker of a game, the steps held for its next frame and the
+     * snapshot frames serialised at its current version (index 0 is the
+     * public view, then one per seat).
+     */
+    private static final class GameViews {
+        private final DeltaTracker tracker = new DeltaTracker();
+        private final List<Step> pending = new ArrayList<>();
+        private HashedWheelTimer.Timeout flushTimeout;
+        private long version;
+        private GameFrame[] snapshots = new GameFrame[0];
+
+        long reset(GameState game) {
+            version = tracker.reset(game);
+            snapshots = new GameFrame[game.getPlayers().size() + 1];
+            return version;
+        }
+
+        void advance(long newVersion) {
+            if (newVersion != version) {
+                version = newVersion;
+                dropSnapshots();
+            }
+        }
+
+        void dropSnapshots() {
+            Arrays.fill(snapshots, null);
+        }
+
+        GameFrame snapshotFrame(int viewer) {
+            return snapshots[viewer + 1];
+        }
+
+        void cacheSnapshot(int viewer, GameFrame frame) {
+            snapshots[viewer + 1] = frame;
+        }
+    }
+}
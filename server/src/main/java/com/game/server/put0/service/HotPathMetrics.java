@@ -0,0 +1,70 @@
+package com.game.server.put0.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Switch for the meters on the hottest paths (engine actions, bot turns,
+ * frame encoding, broadcast fan-out). With {@code game.metrics.hot-paths}
+ * off, no such meter is registered and the timed code does not even read
+ * the clock: callers keep the null meters and go through {@link #start}
+ * and {@link #stop}, which skip them.
+ *
+ * Tags are kept to fixed sets of values (action, format, kind), never ids.
+ */
+@Component
+public class HotPathMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    public HotPathMetrics(MeterRegistry meterRegistry,
+            @Value("${game.metrics.hot-paths:true}") boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Registers a timer, or returns null if hot-path metrics are off.
+     */
+    public Timer timer(String name, String... tags) {
+        return enabled ? Timer.builder(name).tags(tags).register(meterRegistry) : null;
+    }
+
+    /**
+     * Registers a timer that also publishes a percentile histogram, or
+     * returns null if hot-path metrics are off.
+     */
+    public Timer latency(String name, String... tags) {
+        return enabled
+                ? Timer.builder(name).tags(tags).publishPercentileHistogram().register(meterRegistry)
+                : null;
+    }
+
+    /**
+     * Registers a distribution summary in bytes, or returns null if hot-path
+     * metrics are off.
+     */
+    public DistributionSummary bytes(String name, String... tags) {
+        return enabled ? DistributionSummary.builder(name).baseUnit("bytes").tags(tags).register(meterRegistry) : null;
+    }
+
+    /**
+     * Start time for {@link #stop}, or 0 without reading the clock if the
+     * timer is off.
+     */
+    public static long start(Timer timer) {
+        return timer != null ? System.nanoTime() : 0;
+    }
+
+    public static void stop(Timer timer, long start) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
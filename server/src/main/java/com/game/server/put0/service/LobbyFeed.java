@@ -0,0 +1,85 @@
+package com.game.server.put0.service;
+
+import com.game.server.put0.dto.LobbyPage;
+import com.game.server.put0.dto.LobbyUpdate;
+import com.game.server.put0.timer.HashedWheelTimer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live lobby over STOMP. A client subscribes to {@link #TOPIC} and then to
+ * /app/lobby, which answers with the first {@link LobbyPage}; from then on
+ * it receives only what changed, batched every
+ * {@code game.lobby.feed-interval-ms} into one {@link LobbyUpdate} for all
+ * subscribers. Nothing is sent while the lobby is quiet.
+ *
+ * Metrics:
+ * - game.lobby.updates: lobby updates broadcast
+ */
+@Service
+public class LobbyFeed {
+
+    public static final String TOPIC = "/topic/lobby";
+
+    private static final Logger log = LoggerFactory.getLogger(LobbyFeed.class);
+
+    private final LobbyIndex lobbyIndex;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final HashedWheelTimer gameTimer;
+    private final Executor executor;
+    private final long intervalMs;
+    private final Counter updates;
+
+    public LobbyFeed(LobbyIndex lobbyIndex, SimpMessagingTemplate messagingTemplate, HashedWheelTimer gameTimer,
+            @Qualifier("mailboxExecutor") Executor executor, MeterRegistry meterRegistry,
+            @Value("${game.lobby.feed-interval-ms:250}") long intervalMs) {
+        this.lobbyIndex = lobbyIndex;
+        this.messagingTemplate = messagingTemplate;
+        this.gameTimer = gameTimer;
+        this.executor = executor;
+        this.intervalMs = intervalMs;
+        this.updates = Counter.builder("game.lobby.updates").register(meterRegistry);
+        scheduleFlush();
+    }
+
+    /**
+     * First page of the lobby for a new subscriber.
+     */
+    public LobbyPage firstPage(int limit) {
+        return lobbyIndex.query(null, null, false, null, limit);
+    }
+
+    private void scheduleFlush() {
+        try {
+            gameTimer.newTimeout(timeout -> executor.execute(this::flush), intervalMs, TimeUnit.MILLISECONDS);
+        } catch (IllegalStateException e) {
+            // The timer stops when the application shuts down
+            log.debug("Lobby feed stopped: {}", e.getMessage());
+        }
+    }
+
+    void flush() {
+        try {
+            LobbyUpdate update = lobbyIndex.drainChanges();
+            if (update != null) {
+                messagingTemplate.convertAndSend(TOPIC, update);
+                updates.increment();
+                log.debug("Published lobby update v{}: {} added, {} changed, {} removed", update.getVersion(),
+                        update.getAdded().size(), update.getChanged().size(), update.getRemoved().size());
+            }
+        } catch (RuntimeException e) {
+            log.error("Lobby update failed", e);
+        } finally {
+            scheduleFlush();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.game.server.put0.service;
+
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.MatchMode;
+import com.game.server.put0.dto.LobbyPage;
+import com.game.server.put0.dto.LobbyUpdate;
+import com.game.server.put0.dto.RoomSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lobby listing of the public rooms, kept apart from the games so that
+ * browsing the lobby never touches (or wakes) a game.
+ *
+ * Each room gets a sequence number when it is created and is kept, as a
+ * {@link RoomSummary}, in skip lists ordered by that number: one with every
+ * room, one per match mode, one per status and one per mode and status. A
+ * query walks the narrowest list backwards from its cursor, so a page costs
+ * the same however many rooms there are, unless most of the walked rooms
+ * have no free seat and the query asks for open rooms only.
+ *
+ * Rooms are added on creation and dropped with the room; every published
+ * update refreshes the summary. Changes to one room must not race (they run
+ * on its mailbox, or before it has one); queries run on any thread and see
+ * each room as it was before or after a change.
+ *
+ * Changes to public rooms are also collected, one entry per room, until
+ * {@link #drainChanges()} turns them into the next {@link LobbyUpdate}.
+ * A room added and removed between two updates never shows up.
+ *
+ * Metrics:
+ * - game.lobby.rooms: rooms in the index, private ones included
+ */
+@Service
+public class LobbyIndex {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, RoomSummary> all = new ConcurrentSkipListMap<>();
+    private final Map<MatchMode, NavigableMap<Long, RoomSummary>> byMode = new EnumMap<>(MatchMode.class);
+    private final Map<GameStatus, NavigableMap<Long, RoomSummary>> byStatus = new EnumMap<>(GameStatus.class);
+    private final Map<MatchMode, Map<GameStatus, NavigableMap<Long, RoomSummary>>> byModeAndStatus =
+            new EnumMap<>(MatchMode.class);
+
+    // Changes since the last update, guarded by changesLock
+    private final Object changesLock = new Object();
+    private final Map<String, RoomSummary> pendingUpserts = new LinkedHashMap<>();
+    private final Set<String> pendingAdded = new HashSet<>();
+    private final Set<String> pendingRemoved = new LinkedHashSet<>();
+    private long version;
+
+    public LobbyIndex(MeterRegistry meterRegistry) {
+        for (GameStatus status : GameStatus.values()) {
+            byStatus.put(status, new ConcurrentSkipListMap<>());
+        }
+        for (MatchMode mode : MatchMode.values()) {
+            byMode.put(mode, new ConcurrentSkipListMap<>());
+            Map<GameStatus, NavigableMap<Long, RoomSummary>> statuses = new EnumMap<>(GameStatus.class);
+            for (GameStatus status : GameStatus.values()) {
+                statuses.put(status, new ConcurrentSkipListMap<>());
+            }
+            byModeAndStatus.put(mode, statuses);
+        }
+        meterRegistry.gaugeMapSize("game.lobby.rooms", Tags.empty(), rooms);
+    }
+
+    /**
+     * Lists a new room. Private rooms are tracked (for their seat limit) but
+     * never listed.
+     */
+    public void add(GameState game, int maxSeats, boolean privateRoom) {
+        Room room = new Room(sequence.incrementAndGet(), maxSeats, privateRoom);
+        rooms.put(game.getGameId(), room);
+        refresh(room, game);
+    }
+
+    /**
+     * Refreshes the summary of a room after its game changed.
+     */
+    public void update(GameState game) {
+        Room room = rooms.get(game.getGameId());
+        if (room != null) {
+            refresh(room, game);
+        }
+    }
+
+    /**
+     * Drops a room.
+     */
+    public void remove(String gameId) {
+        Room room = rooms.remove(gameId);
+        if (room != null && room.summary != null && !room.privateRoom) {
+            for (NavigableMap<Long, RoomSummary> index : indexesOf(room.summary)) {
+                index.remove(room.sequence);
+            }
+            synchronized (changesLock) {
+                pendingUpserts.remove(gameId);
+                if (!pendingAdded.remove(gameId)) {
+                    pendingRemoved.add(gameId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the changes collected since the previous call.
+     *
+     * @return the next update, or null if nothing changed
+     */
+    public LobbyUpdate drainChanges() {
+        synchronized (changesLock) {
+            if (pendingUpserts.isEmpty() && pendingRemoved.isEmpty()) {
+                return null;
+            }
+            List<RoomSummary> added = new ArrayList<>(pendingAdded.size());
+            List<RoomSummary> changed = new ArrayList<>(pendingUpserts.size() - pendingAdded.size());
+            for (RoomSummary summary : pendingUpserts.values()) {
+                (pendingAdded.contains(summary.getGameId()) ? added : changed).add(summary);
+            }
+            LobbyUpdate update = new LobbyUpdate(++version, added, changed, List.copyOf(pendingRemoved));
+            pendingUpserts.clear();
+            pendingAdded.clear();
+            pendingRemoved.clear();
+            return update;
+        }
+    }
+
+    /**
+     * Current summary of a room, listed or not, or null if it does not exist.
+     */
+    public RoomSummary get(String gameId) {
+        Room room = rooms.get(gameId);
+        return room != null ? room.summary : null;
+    }
+
+    /**
+     * One page of public rooms, newest first.
+     *
+     * @param mode     only rooms of this mode, or null for any
+     * @param status   only rooms in this status, or null for any
+     * @param openOnly only rooms with a free seat
+     * @param cursor   {@link LobbyPage#getNextCursor()} of the previous page, or null for the first
+     * @param limit    page size, at most {@link #MAX_PAGE_SIZE}
+     * @throws IllegalArgumentException if the cursor or the limit is invalid
+     */
+    public LobbyPage query(MatchMode mode, GameStatus status, boolean openOnly, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        NavigableMap<Long, RoomSummary> index = mode != null && status != null ? byModeAndStatus.get(mode).get(status)
+                : mode != null ? byMode.get(mode)
+                : status != null ? byStatus.get(status)
+                : all;
+        long pageVersion;
+        synchronized (changesLock) {
+            pageVersion = version;
+        }
+        NavigableMap<Long, RoomSummary> newestFirst = cursor != null
+                ? index.headMap(parseCursor(cursor), false).descendingMap()
+                : index.descendingMap();
+
+        List<RoomSummary> page = new ArrayList<>(Math.min(limit, 32));
+        long last = 0;
+        for (Map.Entry<Long, RoomSummary> entry : newestFirst.entrySet()) {
+            if (openOnly && entry.getValue().getFreeSeats() == 0) {
+                continue;
+            }
+            if (page.size() == limit) {
+                return new LobbyPage(page, Long.toString(last, Character.MAX_RADIX), pageVersion);
+            }
+            page.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new LobbyPage(page, null, pageVersion);
+    }
+
+    private void refresh(Room room, GameState game) {
+        RoomSummary previous = room.summary;
+        RoomSummary summary = new RoomSummary(game.getGameId(), game.getMode(), game.getStatus(),
+                game.getPlayers().size(), room.maxSeats, game.getDeckSize());
+        if (summary.equals(previous)) {
+            return;
+        }
+        room.summary = summary;
+        if (room.privateRoom) {
+            return;
+        }
+        List<NavigableMap<Long, RoomSummary>> indexes = indexesOf(summary);
+        if (previous != null) {
+            for (NavigableMap<Long, RoomSummary> index : indexesOf(previous)) {
+                if (!containsIndex(indexes, index)) {
+                    index.remove(room.sequence);
+                }
+            }
+        }
+        for (NavigableMap<Long, RoomSummary> index : indexes) {
+            index.put(room.sequence, summary);
+        }
+        synchronized (changesLock) {
+            pendingUpserts.put(summary.getGameId(), summary);
+            if (previous == null) {
+                pendingAdded.add(summary.getGameId());
+            }
+        }
+    }
+
+    private List<NavigableMap<Long, RoomSummary>> indexesOf(RoomSummary summary) {
+        List<NavigableMap<Long, RoomSummary>> indexes = new ArrayList<>(4);
+        indexes.add(all);
+        indexes.add(byStatus.get(summary.getStatus()));
+        if (summary.getMode() != null) {
+            indexes.add(byMode.get(summary.getMode()));
+            indexes.add(byModeAndStatus.get(summary.getMode()).get(summary.getStatus()));
+        }
+        return indexes;
+    }
+
+    // By identity: maps with the same rooms are equal
+    private static boolean containsIndex(List<NavigableMap<Long, RoomSummary>> indexes,
+            NavigableMap<Long, RoomSummary> index) {
+        for (NavigableMap<Long, RoomSummary> candidate : indexes) {
+            if (candidate == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long parseCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor, Character.MAX_RADIX);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Index entry of a room: its place in the lobby and what the game itself
+     * does not know.
+     */
+    private static final class Room {
+        private final long sequence;
+        private final int maxSeats;
+        private final boolean privateRoom;
+        private volatile RoomSummary summary;
+
+        Room(long sequence, int maxSeats, boolean privateRoom) {
+            this.sequence = sequence;
+            this.maxSeats = maxSeats;
+            this.privateRoom = privateRoom;
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.game.server.put0.service;
+
+import com.game.core.model.MatchMode;
+import com.game.core.sync.UpdateType;
+import com.game.server.put0.dto.MatchTicket;
+import com.game.server.put0.timer.HashedWheelTimer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Matchmaking for the modes played between people (SOLO_VS_AMIGO and
+ * SOLO_VS_AMIGOS): players queue up instead of sharing a game id, and are
+ * seated together once a table is full.
+ *
+ * Each (mode, deck size, seats) bucket has its own lock-free queue, so
+ * queueing up is a CAS on a linked queue plus a counter. A single pairing
+ * pass runs every {@code game.matchmaking.interval-ms} on the mailbox pool:
+ * it takes the players of each bucket in arrival order, table by table,
+ * creates and starts the game, and tells each player where to go on
+ * /topic/matchmaking/{ticketId}. Tickets that wait longer than
+ * {@code game.matchmaking.max-wait-ms} expire the same way. Cancelled and
+ * expired tickets are left in the queue and skipped when reached.
+ *
+ * Metrics:
+ * - game.matchmaking.waiting: players waiting, per bucket (mode, deck, seats)
+ * - game.matchmaking.wait: time from queueing up to being seated, per bucket
+ * - game.matchmaking.tables: tables formed
+ * - game.matchmaking.tickets: tickets closed, tagged by outcome (matched, cancelled, expired)
+ */
+@Service
+public class MatchmakingService {
+
+    public static final String TOPIC_PREFIX = "/topic/matchmaking/";
+
+    private static final Logger log = LoggerFactory.getLogger(MatchmakingService.class);
+
+    private static final int DEFAULT_DECK_SIZE = 104;
+    private static final int MAX_SEATS = 4;
+    // Tables formed per bucket and pass, so one busy bucket cannot hold up the others
+    private static final int MAX_TABLES_PER_PASS = 256;
+
+    private final RoomService roomService;
+    private final GameMailbox gameMailbox;
+    private final GameUpdatePublisher updatePublisher;
+    private final AIBotService aiBotService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final HashedWheelTimer gameTimer;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final long intervalMs;
+    private final long maxWaitNanos;
+    private final long resultTtlMs;
+    private final Map<Bucket, BucketQueue> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Counter tables;
+    private final Counter matched;
+    private final Counter cancelled;
+    private final Counter expired;
+
+    public MatchmakingService(RoomService roomService, GameMailbox gameMailbox, GameUpdatePublisher updatePublisher,
+            AIBotService aiBotService, SimpMessagingTemplate messagingTemplate, HashedWheelTimer gameTimer,
+            @Qualifier("mailboxExecutor") Executor executor, MeterRegistry meterRegistry,
+            @Value("${game.matchmaking.interval-ms:100}") long intervalMs,
+            @Value("${game.matchmaking.max-wait-ms:120000}") long maxWaitMs,
+            @Value("${game.matchmaking.result-ttl-ms:60000}") long resultTtlMs) {
+        this.roomService = roomService;
+        this.gameMailbox = gameMailbox;
+        this.updatePublisher = updatePublisher;
+        this.aiBotService = aiBotService;
+        this.messagingTemplate = messagingTemplate;
+        this.gameTimer = gameTimer;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.intervalMs = intervalMs;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.resultTtlMs = resultTtlMs;
+        this.tables = Counter.builder("game.matchmaking.tables").register(meterRegistry);
+        this.matched = Counter.builder("game.matchmaking.tickets").tag("outcome", "matched").register(meterRegistry);
+        this.cancelled = Counter.builder("game.matchmaking.tickets").tag("outcome", "cancelled").register(meterRegistry);
+        this.expired = Counter.builder("game.matchmaking.tickets").tag("outcome", "expired").register(meterRegistry);
+        schedulePairing();
+    }
+
+    /**
+     * Queues a player up for a table.
+     *
+     * @param deckSize 52 or 104, or null for 104
+     * @param seats    table size, or null for the largest one of the mode
+     * @throws IllegalArgumentException if the request cannot be matched
+     */
+    public MatchTicket enqueue(String playerName, MatchMode mode, Integer deckSize, Integer seats) {
+        if (playerName == null || playerName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Player name cannot be empty");
+        }
+        if (mode != MatchMode.SOLO_VS_AMIGO && mode != MatchMode.SOLO_VS_AMIGOS) {
+            throw new IllegalArgumentException("Matchmaking is only for SOLO_VS_AMIGO and SOLO_VS_AMIGOS");
+        }
+        int deck = deckSize != null ? deckSize : DEFAULT_DECK_SIZE;
+        if (deck != 52 && deck != 104) {
+            throw new IllegalArgumentException("Deck size must be 52 or 104");
+        }
+        int minSeats = mode == MatchMode.SOLO_VS_AMIGO ? 2 : 3;
+        int maxSeats = mode == MatchMode.SOLO_VS_AMIGO ? 2 : MAX_SEATS;
+        int tableSize = seats != null ? seats : maxSeats;
+        if (tableSize < minSeats || tableSize > maxSeats) {
+            throw new IllegalArgumentException("Seats must be between " + minSeats + " and " + maxSeats + " for " + mode);
+        }
+
+        BucketQueue bucket = buckets.computeIfAbsent(new Bucket(mode, deck, tableSize), BucketQueue::new);
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), playerName, bucket.key);
+        tickets.put(ticket.id, ticket);
+        bucket.waiting.incrementAndGet();
+        bucket.queue.offer(ticket);
+        return ticket.view();
+    }
+
+    /**
+     * Current state of a ticket, or null if it is unknown or long closed.
+     */
+    public MatchTicket getTicket(String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        return ticket != null ? ticket.view() : null;
+    }
+
+    /**
+     * Takes a player out of the queue, unless they were seated already.
+     * Never waits: a ticket the pairing pass is claiming for a table at that
+     * moment is cancelled by the pass, which announces it on the ticket's
+     * topic, unless its table was already complete.
+     *
+     * @return the state of the ticket (still WAITING if the pass holds it),
+     *         or null if it is unknown
+     */
+    public MatchTicket cancel(String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            return null;
+        }
+        // Set before the CAS, so a pass that holds the ticket sees it once it lets go
+        ticket.cancelRequested = true;
+        // Only the call that cancelled the ticket accounts for it
+        if (ticket.state.compareAndSet(State.WAITING, State.CANCELLED)) {
+            buckets.get(ticket.bucket).waiting.decrementAndGet();
+            tickets.remove(ticketId);
+            cancelled.increment();
+        }
+        return ticket.view();
+    }
+
+    private void schedulePairing() {
+        try {
+            gameTimer.newTimeout(timeout -> executor.execute(this::pair), intervalMs, TimeUnit.MILLISECONDS);
+        } catch (IllegalStateException e) {
+            // The timer stops when the application shuts down
+            log.debug("Matchmaking stopped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Expires tickets that waited too long and seats every full table.
+     */
+    void pair() {
+        try {
+            for (BucketQueue bucket : buckets.values()) {
+                bucket.expire(System.nanoTime());
+                for (int i = 0; i < MAX_TABLES_PER_PASS && bucket.waiting.get() >= bucket.key.seats(); i++) {
+                    List<Ticket> table = bucket.take();
+                    if (table == null) {
+                        break;
+                    }
+                    seat(bucket, table);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Matchmaking pass failed", e);
+        } finally {
+            schedulePairing();
+        }
+    }
+
+    private void seat(BucketQueue bucket, List<Ticket> table) {
+        List<String> names = new ArrayList<>(table.size());
+        for (Ticket ticket : table) {
+            names.add(ticket.playerName);
+        }
+        RoomService.MatchedRoom room;
+        try {
+            room = roomService.createMatchedRoom(bucket.key.mode(), bucket.key.deckSize(), names);
+        } catch (RuntimeException e) {
+            log.error("Could not create a room for {} matched players", table.size(), e);
+            for (Ticket ticket : table) {
+                close(ticket, State.EXPIRED, expired);
+            }
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (int i = 0; i < table.size(); i++) {
+            Ticket ticket = table.get(i);
+            ticket.playerId = room.playerIds().get(i);
+            ticket.gameId = room.gameId();
+            bucket.waitTimer.record(now - ticket.enqueuedAt, TimeUnit.NANOSECONDS);
+            matched.increment();
+            announce(ticket);
+            forgetLater(ticket);
+        }
+        tables.increment();
+
+        String gameId = room.gameId();
+        gameMailbox.execute(gameId, "start", () -> {
+            roomService.startGame(gameId);
+            updatePublisher.publish(gameId, "Game started!", UpdateType.GAME_STARTED);
+            aiBotService.checkAndMakeBotMove(gameId);
+        });
+    }
+
+    private void close(Ticket ticket, State state, Counter outcome) {
+        ticket.state.set(state);
+        outcome.increment();
+        announce(ticket);
+        forgetLater(ticket);
+    }
+
+    private void announce(Ticket ticket) {
+        messagingTemplate.convertAndSend(TOPIC_PREFIX + ticket.id, ticket.view());
+    }
+
+    // Keeps the outcome around for clients that missed the notification
+    private void forgetLater(Ticket ticket) {
+        gameTimer.newTimeout(timeout -> tickets.remove(ticket.id), resultTtlMs, TimeUnit.MILLISECONDS);
+    }
+
+    private record Bucket(MatchMode mode, int deckSize, int seats) {
+    }
+
+    /**
+     * Internal ticket states. PAIRING only lasts while the pairing pass
+     * claims the players of one table.
+     */
+    private enum State {
+        WAITING,
+        PAIRING,
+        MATCHED,
+        CANCELLED,
+        EXPIRED
+    }
+
+    private static final class Ticket {
+        private final String id;
+        private final String playerName;
+        private final Bucket bucket;
+        private final long enqueuedAt = System.nanoTime();
+        private final AtomicReference<State> state = new AtomicReference<>(State.WAITING);
+        private volatile String playerId;
+        private volatile String gameId;
+        // Asked to cancel while the pairing pass held the ticket
+        private volatile boolean cancelRequested;
+
+        Ticket(String id, String playerName, Bucket bucket) {
+            this.id = id;
+            this.playerName = playerName;
+            this.bucket = bucket;
+        }
+
+        MatchTicket view() {
+            String game = gameId;
+            MatchTicket.Status status = switch (state.get()) {
+                // Seated once the room exists
+                case WAITING, PAIRING -> MatchTicket.Status.WAITING;
+                case MATCHED -> game != null ? MatchTicket.Status.MATCHED : MatchTicket.Status.WAITING;
+                case CANCELLED -> MatchTicket.Status.CANCELLED;
+                case EXPIRED -> MatchTicket.Status.EXPIRED;
+            };
+            return new MatchTicket(id, status, bucket.mode(), bucket.deckSize(), bucket.seats(),
+                    status == MatchTicket.Status.MATCHED ? game : null,
+                    status == MatchTicket.Status.MATCHED ? playerId : null);
+        }
+    }
+
+    /**
+     * Players waiting for one kind of table. Anyone may offer to the queue;
+     * only the pairing pass takes from it and touches {@code held}.
+     */
+    private final class BucketQueue {
+        private final Bucket key;
+        private final Queue<Ticket> queue = new ConcurrentLinkedQueue<>();
+        // Players waiting, cancelled and expired ones excluded
+        private final AtomicInteger waiting = new AtomicInteger();
+        // Taken off the queue for a table that could not be filled; first in line
+        private final ArrayDeque<Ticket> held = new ArrayDeque<>();
+        private final Timer waitTimer;
+
+        BucketQueue(Bucket key) {
+            this.key = key;
+            Tags tags = Tags.of("mode", key.mode().name(), "deck", Integer.toString(key.deckSize()),
+                    "seats", Integer.toString(key.seats()));
+            Gauge.builder("game.matchmaking.waiting", waiting, AtomicInteger::get).tags(tags).register(meterRegistry);
+            this.waitTimer = Timer.builder("game.matchmaking.wait").tags(tags).register(meterRegistry);
+        }
+
+        private Ticket next() {
+            Ticket ticket = held.pollFirst();
+            return ticket != null ? ticket : queue.poll();
+        }
+
+        /**
+         * Claims the players of the next table in arrival order.
+         *
+         * @return the players, or null if there are not enough of them
+         */
+        List<Ticket> take() {
+            List<Ticket> table = new ArrayList<>(key.seats());
+            do {
+                while (table.size() < key.seats()) {
+                    Ticket ticket = next();
+                    if (ticket == null) {
+                        // Someone cancelled meanwhile: give the claimed players their place back
+                        for (int i = table.size() - 1; i >= 0; i--) {
+                            release(table.get(i));
+                        }
+                        return null;
+                    }
+                    if (ticket.state.compareAndSet(State.WAITING, State.PAIRING)) {
+                        table.add(ticket);
+                    }
+                }
+                // Cancels that came in while the players were claimed
+                table.removeIf(this::cancelIfRequested);
+            } while (table.size() < key.seats());
+            for (Ticket ticket : table) {
+                ticket.state.set(State.MATCHED);
+            }
+            waiting.addAndGet(-table.size());
+            return table;
+        }
+
+        // Back to the head of the line, or out of it if a cancel came in meanwhile
+        private void release(Ticket ticket) {
+            ticket.state.set(State.WAITING);
+            if (ticket.cancelRequested && ticket.state.compareAndSet(State.WAITING, State.CANCELLED)) {
+                waiting.decrementAndGet();
+                close(ticket, State.CANCELLED, cancelled);
+            } else {
+                held.addFirst(ticket);
+            }
+        }
+
+        private boolean cancelIfRequested(Ticket ticket) {
+            if (!ticket.cancelRequested) {
+                return false;
+            }
+            waiting.decrementAndGet();
+            close(ticket, State.CANCELLED, cancelled);
+            return true;
+        }
+
+        // Oldest first: the held players, then the queue
+        void expire(long now) {
+            while (true) {
+                Ticket oldest = held.isEmpty() ? queue.peek() : held.peekFirst();
+                if (oldest == null || now - oldest.enqueuedAt < maxWaitNanos) {
+                    return;
+                }
+                next();
+                if (oldest.state.compareAndSet(State.WAITING, State.EXPIRED)) {
+                    waiting.decrementAndGet();
+                    expired.increment();
+                    announce(oldest);
+                    forgetLater(oldest);
+                }
+            }
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.game.server.put0.service;
 
 import com.game.core.model.Player;
+import com.game.server.put0.dto.RoomSummary;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -16,32 +19,53 @@ import java.util.UUID;
 public class RoomService {
 
     private static final Logger log = LoggerFactory.getLogger(RoomService.class);
+
+    private static final int MAX_PLAYERS = 4;
     
     private final GameEngine gameEngine;
+    private final GameMailbox gameMailbox;
+    private final AIBotService aiBotService;
+    private final TurnTimeoutService turnTimeouts;
+    private final GameUpdatePublisher updatePublisher;
+    private final LobbyIndex lobbyIndex;
+    private final CommandLog commandLog;
     
     /**
      * Creates a new game room.
      * 
      * @param playerName Name of the player creating the room
      * @param botCount Number of AI bots to add
+     * @param maxPlayers Seats in the room, bots included
+     * @param privateRoom Whether the room is kept out of the lobby listing
+     * @param botDelayMs Pause before each bot move, or null for the server default
      * @return The game ID and player ID
      */
-    public RoomCreationResult createRoom(String playerName, int botCount, com.game.core.model.MatchMode mode) {
+    public RoomCreationResult createRoom(String playerName, int botCount, int maxPlayers, boolean privateRoom,
+            com.game.core.model.MatchMode mode, Long botDelayMs) {
         if (playerName == null || playerName.trim().isEmpty()) {
             throw new IllegalArgumentException("Player name cannot be empty");
         }
         if (botCount < 0 || botCount > 3) {
             throw new IllegalArgumentException("Bot count must be between 0 and 3");
         }
+        if (maxPlayers < botCount + 1 || maxPlayers > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Max players must be between " + (botCount + 1) + " and " + MAX_PLAYERS);
+        }
         if (mode == null) {
             throw new IllegalArgumentException("Match mode is required");
         }
+        if (botDelayMs != null && (botDelayMs < 0 || botDelayMs > 10_000)) {
+            throw new IllegalArgumentException("Bot delay must be between 0 and 10000 ms");
+        }
         String gameId = UUID.randomUUID().toString();
         String playerId = UUID.randomUUID().toString();
         
         // Create game
         com.game.core.model.GameState game = gameEngine.createGame(gameId);
         game.setMode(mode);
+        if (botDelayMs != null) {
+            aiBotService.setBotDelay(gameId, botDelayMs);
+        }
         
         // Add human player
         Player humanPlayer = new Player(playerId, playerName, false);
@@ -54,16 +78,45 @@ public class RoomService {
             Player bot = new Player(botId, botName, true);
             gameEngine.addPlayer(gameId, bot);
         }
+        lobbyIndex.add(game, maxPlayers, privateRoom);
         
         log.info("Created room {} ({}) with player {} and {} bots", gameId, mode, playerName, botCount);
         
         return new RoomCreationResult(gameId, playerId);
     }
     
+    /**
+     * Creates a full room for players paired by matchmaking. The room is
+     * listed but has no free seat; it still has to be started.
+     *
+     * @return The game ID and the player IDs, in the order of the names
+     */
+    public MatchedRoom createMatchedRoom(com.game.core.model.MatchMode mode, int deckSize, List<String> playerNames) {
+        String gameId = UUID.randomUUID().toString();
+        com.game.core.model.GameState game = gameEngine.createGame(gameId);
+        game.setMode(mode);
+        game.setDeckSize(deckSize);
+
+        List<String> playerIds = new ArrayList<>(playerNames.size());
+        for (String playerName : playerNames) {
+            String playerId = UUID.randomUUID().toString();
+            gameEngine.addPlayer(gameId, new Player(playerId, playerName, false));
+            playerIds.add(playerId);
+        }
+        lobbyIndex.add(game, playerNames.size(), false);
+
+        log.info("Created matched room {} ({}, {} cards) for {} players", gameId, mode, deckSize, playerNames.size());
+        return new MatchedRoom(gameId, playerIds);
+    }
+
     /**
      * Joins an existing game room.
      */
     public String joinRoom(String gameId, String playerName) {
+        RoomSummary room = lobbyIndex.get(gameId);
+        if (room != null && room.getSeats() >= room.getMaxSeats()) {
+            throw new IllegalStateException("Room is full");
+        }
         String playerId = UUID.randomUUID().toString();
         
         Player player = new Player(playerId, playerName, false);
@@ -87,10 +140,35 @@ public class RoomService {
      */
     public void leaveRoom(String gameId, String playerId) {
         gameEngine.removePlayer(gameId, playerId);
+        if (!gameEngine.hasGame(gameId)) {
+            forget(gameId);
+        }
+    }
+
+    /**
+     * Removes a room and everything kept for it. Must run on the game's mailbox.
+     */
+    public void closeRoom(String gameId) {
+        gameEngine.removeGame(gameId);
+        forget(gameId);
+    }
+
+    private void forget(String gameId) {
+        gameMailbox.remove(gameId);
+        aiBotService.forgetGame(gameId);
+        turnTimeouts.forgetGame(gameId);
+        updatePublisher.forget(gameId);
+        lobbyIndex.remove(gameId);
+        commandLog.forget(gameId);
     }
     
     /**
      * Result of room creation.
      */
     public record RoomCreationResult(String gameId, String playerId) {}
+
+    /**
+     * Result of creating a room for matched players.
+     */
+    public record MatchedRoom(String gameId, List<String> playerIds) {}
 }
@@ -0,0 +1,89 @@
+package com.game.server.put0.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * STOMP session that holds each player's seat, the only one that receives
+ * the player's own view of the game (see {@link GameUpdatePublisher}).
+ *
+ * A session takes a seat by asking for the player's snapshot and keeps it
+ * until it disconnects; another session asking for the same seat meanwhile
+ * is refused. A client that reconnects takes its seat back as soon as the
+ * old connection is closed.
+ *
+ * Safe to call from any thread.
+ */
+@Service
+public class SeatSessions {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatSessions.class);
+
+    // gameId -> playerId -> session id
+    private final Map<String, Map<String, String>> seats = new ConcurrentHashMap<>();
+    // session id -> games it holds a seat in
+    private final Map<String, Set<String>> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Gives a player's seat to a session, unless another session holds it.
+     *
+     * @return true if the session holds the seat
+     */
+    public boolean claim(String gameId, String playerId, String sessionId) {
+        if (sessionId == null) {
+            return false;
+        }
+        Map<String, String> players = seats.computeIfAbsent(gameId, id -> new ConcurrentHashMap<>());
+        String holder = players.putIfAbsent(playerId, sessionId);
+        if (holder != null && !holder.equals(sessionId)) {
+            log.warn("Session {} refused seat {} of game {}, held by session {}", sessionId, playerId, gameId, holder);
+            return false;
+        }
+        sessions.computeIfAbsent(sessionId, id -> ConcurrentHashMap.newKeySet()).add(gameId);
+        return true;
+    }
+
+    /**
+     * Session holding a player's seat, or null if none does.
+     */
+    public String sessionOf(String gameId, String playerId) {
+        Map<String, String> players = seats.get(gameId);
+        return players != null ? players.get(playerId) : null;
+    }
+
+    /**
+     * Frees the seats of a closed session.
+     */
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        release(event.getSessionId());
+    }
+
+    void release(String sessionId) {
+        Set<String> games = sessionId != null ? sessions.remove(sessionId) : null;
+        if (games == null) {
+            return;
+        }
+        for (String gameId : games) {
+            Map<String, String> players = seats.get(gameId);
+            if (players != null) {
+                players.values().removeIf(holder -> Objects.equals(holder, sessionId));
+            }
+        }
+    }
+
+    /**
+     * Drops the seats of a removed game.
+     */
+    public void forget(String gameId) {
+        seats.remove(gameId);
+    }
+}
@@ -0,0 +1,202 @@
+package com.game.server.put0.service;
+
+import com.game.core.bot.BotStrategy;
+import com.game.core.bot.DefaultBotStrategy;
+import com.game.core.engine.Move;
+import com.game.core.engine.MoveList;
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.Player;
+import com.game.core.sync.UpdateType;
+import com.game.server.put0.timer.HashedWheelTimer;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turn deadlines for human players.
+ * Every human turn gets a deadline on the shared game timer, re-armed after
+ * each move (cancelling a wheel entry and adding one are both O(1)). When a
+ * player lets it pass, their turn is played for them with the bot strategy,
+ * or by collecting the table (drawing if it is empty) if the strategy does
+ * not move, and they get a strike. After {@code game.turn.max-strikes}
+ * strikes in a row the player is marked inactive and from then on only
+ * gets {@code game.turn.inactive-timeout-ms} per turn, until they make a
+ * move themselves.
+ *
+ * All methods except {@link #forgetGame(String)} must run on the game's mailbox.
+ */
+@Service
+@RequiredArgsConstructor
+public class TurnTimeoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(TurnTimeoutService.class);
+
+    private final GameEngine gameEngine;
+    private final GameMailbox gameMailbox;
+    private final GameUpdatePublisher updatePublisher;
+    private final HashedWheelTimer gameTimer;
+    @Value("${game.turn.timeout-ms:30000}")
+    private final long turnTimeoutMs;
+    @Value("${game.turn.inactive-timeout-ms:2000}")
+    private final long inactiveTimeoutMs;
+    @Value("${game.turn.max-strikes:3}")
+    private final int maxStrikes;
+    private final BotStrategy botStrategy = new DefaultBotStrategy();
+
+    private final Map<String, Turns> turns = new ConcurrentHashMap<>();
+
+    /**
+     * Starts the deadline of the current turn if a human is up, replacing
+     * the previous one. Called after every move.
+     *
+     * @param next run on the mailbox after a timed-out turn was played, to
+     *             carry the game on (e.g. schedule the next bot)
+     */
+    public void armTurn(String gameId, Runnable next) {
+        GameState game = gameEngine.getGame(gameId);
+        Player current = game != null ? game.getCurrentPlayer() : null;
+        if (current == null || current.isBot() || game.getStatus() != GameStatus.PLAYING) {
+            cancel(gameId);
+            return;
+        }
+        Turns gameTurns = turns.computeIfAbsent(gameId, id -> new Turns());
+        if (gameTurns.deadline != null) {
+            gameTurns.deadline.cancel();
+        }
+        String playerId = current.getId();
+        gameTurns.playerId = playerId;
+        gameTurns.deadline = gameTimer.newTimeout(timeout -> onDeadline(gameId, timeout, next),
+                current.isActive() ? turnTimeoutMs : inactiveTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Clears the strikes of a player who made a move, and makes them active
+     * again if they had been marked inactive.
+     */
+    public void playerActed(String gameId, String playerId) {
+        Turns gameTurns = turns.get(gameId);
+        if (gameTurns == null || gameTurns.strikes.remove(playerId) == null) {
+            return;
+        }
+        GameState game = gameEngine.getGame(gameId);
+        Player player = game != null ? findPlayer(game, playerId) : null;
+        if (player != null && !player.isActive()) {
+            player.setActive(true);
+            game.bumpVersion();
+            log.info("Player {} is back in game {}", playerId, gameId);
+        }
+    }
+
+    /**
+     * Cancels the pending deadline and drops the strikes of a removed game.
+     */
+    public void forgetGame(String gameId) {
+        Turns gameTurns = turns.remove(gameId);
+        if (gameTurns != null && gameTurns.deadline != null) {
+            gameTurns.deadline.cancel();
+        }
+    }
+
+    private void cancel(String gameId) {
+        Turns gameTurns = turns.get(gameId);
+        if (gameTurns != null && gameTurns.deadline != null) {
+            gameTurns.deadline.cancel();
+            gameTurns.deadline = null;
+        }
+    }
+
+    // Timer thread: the turn itself is played on the game's mailbox
+    private void onDeadline(String gameId, HashedWheelTimer.Timeout timeout, Runnable next) {
+        try {
+            gameMailbox.execute(gameId, "timeout", () -> playTimedOutTurn(gameId, timeout, next));
+        } catch (IllegalArgumentException e) {
+            log.debug("Skipping turn timeout: {}", e.getMessage());
+        }
+    }
+
+    private void playTimedOutTurn(String gameId, HashedWheelTimer.Timeout timeout, Runnable next) {
+        Turns gameTurns = turns.get(gameId);
+        GameState game = gameEngine.getGame(gameId);
+        if (gameTurns == null || gameTurns.deadline != timeout || game == null
+                || game.getStatus() != GameStatus.PLAYING) {
+            return; // A move re-armed or cancelled the deadline meanwhile
+        }
+        gameTurns.deadline = null;
+        Player player = game.getCurrentPlayer();
+        if (player == null || player.isBot() || !player.getId().equals(gameTurns.playerId)) {
+            return;
+        }
+
+        int strikes = gameTurns.strikes.merge(player.getId(), 1, Integer::sum);
+        if (strikes >= maxStrikes && player.isActive()) {
+            player.setActive(false);
+            game.bumpVersion();
+            log.info("Player {} marked inactive in game {} after {} missed turns", player.getId(), gameId, strikes);
+        }
+
+        UpdateType type = UpdateType.TURN_TIMEOUT;
+        long version = game.getVersion();
+        try {
+            botStrategy.playTurn(game, gameEngine.getCore(), player);
+        } catch (RuntimeException e) {
+            log.debug("Auto-play failed for {} in game {}", player.getId(), gameId, e);
+        }
+        // The strategy logs and returns when its move is rejected: the version tells whether it moved
+        if (game.getVersion() == version) {
+            type = playFallback(gameEngine.getCore(), game, player);
+            if (type == null) {
+                log.error("Could not play the timed-out turn of {} in game {}", player.getId(), gameId);
+                next.run();
+                return;
+            }
+        }
+        updatePublisher.publish(gameId, player.getName() + " ran out of time", type);
+        next.run();
+    }
+
+    /**
+     * Collects the table, or draws if there is nothing to collect, or else
+     * makes the first legal move. Also what a bot does when its strategy
+     * leaves the game unchanged (see {@link AIBotService}).
+     *
+     * @return the kind of update, or null if no move was applied
+     */
+    static UpdateType playFallback(com.game.core.engine.GameEngine core, GameState game, Player player) {
+        int seat = core.seatOf(game, player.getId());
+        MoveList moves = core.legalMoves(game, player.getId());
+        if (moves.contains(Move.collect(seat))) {
+            return core.apply(game, Move.collect(seat)).isOk() ? UpdateType.TABLE_COLLECTED : null;
+        }
+        if (moves.contains(Move.draw(seat))) {
+            return core.apply(game, Move.draw(seat)).isOk() ? UpdateType.CARD_DRAWN : null;
+        }
+        return !moves.isEmpty() && core.apply(game, moves.get(0)).isOk() ? UpdateType.TURN_TIMEOUT : null;
+    }
+
+    private static Player findPlayer(GameState game, String playerId) {
+        for (Player player : game.getPlayers()) {
+            if (player.getId().equals(playerId)) {
+                return player;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pending deadline of a game and the strikes of its players. Only
+     * touched on the game's mailbox.
+     */
+    private static final class Turns {
+        private HashedWheelTimer.Timeout deadline;
+        private String playerId;
+        private final Map<String, Integer> strikes = new HashMap<>();
+    }
+}
@@ -0,0 +1,241 @@
+package com.game.server.put0.timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed-wheel timer for large numbers of short game delays (bot pacing,
+ * turn timeouts). A single ticker thread advances the wheel; scheduling and
+ * cancelling are O(1) and never block, and no other thread waits on a delay.
+ *
+ * Tasks run on the ticker thread, so they must only hand work off
+ * (e.g. queue a command on a game mailbox) and return.
+ */
+public class HashedWheelTimer {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread worker;
+    private final long startTime;
+    private volatile boolean running = true;
+
+    /**
+     * @param tickDuration timer resolution
+     * @param wheelSize    number of buckets, rounded up to a power of two
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.wheel = new Bucket[Math.max(size, 1)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::runWorker, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules a task to run once after the given delay.
+     */
+    public Timeout newTimeout(Task task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timer is stopped");
+        }
+        long deadline = System.nanoTime() - startTime + Math.max(unit.toNanos(delay), 0);
+        Timeout timeout = new Timeout(this, task, deadline);
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Number of scheduled tasks that have not run or been cancelled yet.
+     */
+    public int pendingTimeouts() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the ticker thread. Scheduled tasks are dropped.
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void runWorker() {
+        long tick = 0;
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos;
+            while ((sleepNanos = deadline - (System.nanoTime() - startTime)) > 0 && running) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+            if (!running) {
+                break;
+            }
+            transferAdded(tick);
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    private void transferAdded(long currentTick) {
+        // Bounded so a flood of new timeouts cannot stall the wheel
+        for (int i = 0; i < 100_000; i++) {
+            Timeout timeout = added.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() != Timeout.PENDING) {
+                continue;
+            }
+            long ticks = timeout.deadline / tickNanos;
+            long target = Math.max(ticks, currentTick); // Past deadlines go in the current bucket
+            timeout.remainingRounds = (target - currentTick) / wheel.length;
+            wheel[(int) (target & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Task run when a timeout expires.
+     */
+    @FunctionalInterface
+    public interface Task {
+        void run(Timeout timeout);
+    }
+
+    /**
+     * Handle to a scheduled task.
+     */
+    public static final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Task task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        // Owned by the worker thread
+        private long remainingRounds;
+        private Timeout next;
+        private Timeout prev;
+
+        private Timeout(HashedWheelTimer timer, Task task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task if it has not run yet. The entry is unlinked from
+         * its bucket the next time the wheel passes over it.
+         *
+         * @return true if this call cancelled the task
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            timer.pending.decrementAndGet();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        /**
+         * Whether the task is still waiting to run.
+         */
+        public boolean isPending() {
+            return state.get() == PENDING;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(PENDING, EXPIRED)) {
+                return;
+            }
+            timer.pending.decrementAndGet();
+            try {
+                task.run(this);
+            } catch (RuntimeException e) {
+                log.error("Timer task failed", e);
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts; only touched by the worker thread.
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long tickDeadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.state.get() != Timeout.PENDING) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0 && timeout.deadline <= tickDeadline) {
+                    remove(timeout);
+                    timeout.expire();
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.next = null;
+            timeout.prev = null;
+        }
+    }
+}
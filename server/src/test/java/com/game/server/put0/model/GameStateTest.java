@@ -1,8 +1,11 @@
 package com.game.server.put0.model;
 
+import com.game.core.model.*;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import tools.jackson.databind.json.JsonMapper;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -148,4 +151,15 @@ class GameStateTest {
         gameState.setStatus(GameStatus.PLAYING);
         assertFalse(gameState.canStart()); // Not in WAITING status
     }
+    
+    @Test
+    @DisplayName("Should not serialise the shuffle seed")
+    void testSeedStaysOffJson() {
+        gameState.setSeed(42L);
+        
+        String json = JsonMapper.builder().build().writeValueAsString(gameState);
+        
+        assertFalse(json.contains("seed"), json);
+        assertEquals(42L, gameState.getSeed());
+    }
 }
@@ -1,5 +1,7 @@
 package com.game.server.put0.model;
 
+import com.game.core.model.*;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -78,7 +80,7 @@ class PlayerTest {
     }
     
     @Test
-    @DisplayName("Should find playable cards")
+    @DisplayName("Should offer the whole active pile, read-only")
     void testGetPlayableCards() {
         player.addCard(new Card(3, Suit.HEARTS));
         player.addCard(new Card(7, Suit.DIAMONDS));
@@ -88,10 +90,11 @@ class PlayerTest {
         
         List<Card> playableCards = player.getPlayableCards(tableCard);
         
-        // Should be able to play 7 and 10 (not 3)
-        assertEquals(2, playableCards.size());
+        // The engine decides whether a card beats the table, so the 3 is offered too
+        assertEquals(3, playableCards.size());
         assertTrue(playableCards.stream().anyMatch(c -> c.getValue() == 7));
         assertTrue(playableCards.stream().anyMatch(c -> c.getValue() == 10));
+        assertThrows(UnsupportedOperationException.class, () -> playableCards.clear());
     }
     
     @Test
@@ -1,157 +1,128 @@
 package com.game.server.put0.service;
 
-import com.game.server.put0.model.*;
+import com.game.core.model.*;
+import com.game.core.sync.UpdateType;
+import com.game.server.put0.timer.HashedWheelTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class AIBotServiceTest {
 
+    private static final String GAME_ID = "test-game";
+
     @Mock
-    private GameEngine gameEngine;
+    private GameUpdatePublisher updatePublisher;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private TurnTimeoutService turnTimeouts;
 
+    private GameEngine gameEngine;
+    private GameMailbox gameMailbox;
+    private HashedWheelTimer gameTimer;
     private AIBotService aiBotService;
-
-    private Player otherPlayer;
+    private GameState game;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        aiBotService = new AIBotService(gameEngine, messagingTemplate);
-        otherPlayer = new Player("player-1", "Human", false);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HotPathMetrics hotPathMetrics = new HotPathMetrics(registry, true);
+        gameEngine = new GameEngine(new GameArena(registry, 64 * 1024, 1024 * 1024), hotPathMetrics, registry);
+        gameMailbox = new GameMailbox(gameEngine, Runnable::run, registry);
+        gameTimer = new HashedWheelTimer("test-timer", 1, TimeUnit.MILLISECONDS, 64);
+        aiBotService = new AIBotService(gameEngine, gameMailbox, updatePublisher, turnTimeouts, gameTimer,
+                hotPathMetrics, 0);
+
+        game = gameEngine.createGame(GAME_ID);
+        gameEngine.addPlayer(GAME_ID, new Player("human", "Human", false));
+        gameEngine.addPlayer(GAME_ID, new Player("bot-1", "Bot 1", true));
+        gameEngine.startGame(GAME_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameTimer.stop();
     }
 
     @Test
-    void testBotEatsTableWhenCannotPlay() {
-        // Arrange
-        String gameId = "test-game";
-        String botId = "bot-1";
-        
-        GameState game = mock(GameState.class);
-        Player bot = new Player(botId, "Bot 1", true);
-        
-        // Bot has only a '3', cannot beat an 'Ace'
-        Card lowCard = new Card(3, Suit.CLUBS);
-        bot.getHand().add(lowCard);
-        
-        when(game.getPlayers()).thenReturn(Collections.singletonList(bot));
-        when(game.getTopCard()).thenReturn(new Card(1, Suit.HEARTS));
-        when(game.getTablePile()).thenReturn(Collections.singletonList(new Card(1, Suit.HEARTS)));
-        when(game.getStatus()).thenReturn(GameStatus.PLAYING);
-        
-        // In this test, we call makeMove(botId) directly. 
-        // After collectTable, it calls checkAndMakeBotMove, which calls getCurrentPlayer.
-        // If we return otherPlayer, it won't loop.
-        when(game.getCurrentPlayer()).thenReturn(otherPlayer);
-        
-        when(gameEngine.getGame(gameId)).thenReturn(game);
-
-        // Act
-        aiBotService.makeMove(gameId, botId);
-
-        // Assert: Bot should collect table
-        verify(gameEngine).collectTable(eq(gameId), eq(botId));
+    void testBotPlaysWhenItsTurnIsDue() throws Exception {
+        game.setCurrentPlayerIndex(1);
+        long version = game.getVersion();
+
+        gameMailbox.submit(GAME_ID, "test", () -> {
+            aiBotService.checkAndMakeBotMove(GAME_ID);
+            return null;
+        }).get(1, TimeUnit.SECONDS);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (currentVersion() == version && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(currentVersion() > version, "the bot made a move");
+        verify(updatePublisher, timeout(1000)).publish(eq(GAME_ID), anyString(), any(UpdateType.class));
     }
 
     @Test
-    void testBotPlaysCardAndTriggersNext() {
-        // Arrange
-        String gameId = "test-game";
-        String botId = "bot-1";
-        
-        GameState game = mock(GameState.class);
-        Player bot = new Player(botId, "Bot 1", true);
-        Card card = new Card(5, Suit.CLUBS);
-        bot.getHand().add(card);
-        
-        when(game.getPlayers()).thenReturn(Collections.singletonList(bot));
-        when(game.getStatus()).thenReturn(GameStatus.PLAYING);
-        
-        // After playCard, it calls getCurrentPlayer to check for extra turn.
-        // If we return otherPlayer, it won't loop.
-        when(game.getCurrentPlayer()).thenReturn(otherPlayer);
-        
-        when(gameEngine.getGame(gameId)).thenReturn(game);
-
-        // Act
-        aiBotService.makeMove(gameId, botId);
-
-        // Assert
-        verify(gameEngine).playCard(eq(gameId), eq(botId), eq(card));
+    void testNoBotTurnScheduledWhileHumanIsUp() {
+        game.setCurrentPlayerIndex(0);
+
+        aiBotService.checkAndMakeBotMove(GAME_ID);
+
+        assertEquals(0, gameTimer.pendingTimeouts());
+        verify(turnTimeouts).armTurn(eq(GAME_ID), any(Runnable.class));
     }
 
     @Test
-    void testBotDrawsIfTableEmptyAndCannotPlay() {
-        // Arrange
-        String gameId = "test-game";
-        String botId = "bot-1";
-        
-        GameState game = mock(GameState.class);
-        Player bot = new Player(botId, "Bot 1", true);
-        
-        when(game.getPlayers()).thenReturn(Collections.singletonList(bot));
-        when(game.getTablePile()).thenReturn(new ArrayList<>()); // Table is empty
-        when(game.getStatus()).thenReturn(GameStatus.PLAYING);
-        
-        // After drawCard, it calls checkAndMakeBotMove -> getCurrentPlayer.
-        when(game.getCurrentPlayer()).thenReturn(otherPlayer);
-        
-        when(gameEngine.getGame(gameId)).thenReturn(game);
-
-        // Act
-        aiBotService.makeMove(gameId, botId);
-
-        // Assert
-        verify(gameEngine).drawCard(eq(gameId), eq(botId));
+    void testNoBotTurnScheduledOnceGameIsOver() {
+        game.setCurrentPlayerIndex(1);
+        game.setStatus(GameStatus.FINISHED);
+
+        aiBotService.checkAndMakeBotMove(GAME_ID);
+
+        assertEquals(0, gameTimer.pendingTimeouts());
     }
 
     @Test
-    void testBotGetsExtraTurnOnTableClear() {
-        // Arrange
-        String gameId = "test-game";
-        String botId = "bot-1";
-        
-        GameState game = mock(GameState.class);
-        Player bot = new Player(botId, "Bot 1", true);
-        Card six = new Card(6, Suit.CLUBS);
-        Card anotherCard = new Card(7, Suit.DIAMONDS);
-        bot.getHand().add(six);
-        bot.getHand().add(anotherCard);
-        
-        when(game.getPlayers()).thenReturn(Collections.singletonList(bot));
-        when(game.getStatus()).thenReturn(GameStatus.PLAYING);
-        
-        // 1st call (after playCard(six)): returns bot -> loops
-        // 2nd call (after playCard(anotherCard)): returns otherPlayer -> stops
-        when(game.getCurrentPlayer()).thenReturn(bot).thenReturn(otherPlayer);
-        
-        when(gameEngine.getGame(gameId)).thenReturn(game);
-
-        // Mock playCard to actually remove the card from the bot's hand
-        doAnswer(invocation -> {
-            Card card = invocation.getArgument(2);
-            bot.getHand().remove(card);
-            return null;
-        }).when(gameEngine).playCard(eq(gameId), eq(botId), any(Card.class));
+    void testForgetGameCancelsPendingTurn() {
+        aiBotService.setBotDelay(GAME_ID, 60_000);
+        game.setCurrentPlayerIndex(1);
+
+        aiBotService.checkAndMakeBotMove(GAME_ID);
+        assertEquals(1, gameTimer.pendingTimeouts());
 
-        // Act
-        aiBotService.makeMove(gameId, botId);
+        aiBotService.forgetGame(GAME_ID);
+        assertEquals(0, gameTimer.pendingTimeouts());
+    }
+
+    @Test
+    void testBotThatDoesNotMoveFallsBack() {
+        // A strategy whose move is rejected returns without changing the game
+        AIBotService stuckBot = new AIBotService(gameEngine, gameMailbox, updatePublisher, turnTimeouts, gameTimer,
+                new HotPathMetrics(new SimpleMeterRegistry(), true), 60_000, (state, engine, player) -> { });
+        game.setCurrentPlayerIndex(1);
+        long version = game.getVersion();
+
+        stuckBot.makeMove(GAME_ID, "bot-1");
+
+        assertTrue(game.getVersion() > version, "the fallback moved");
+        assertEquals(0, game.getCurrentPlayerIndex(), "the turn passed to the human");
+        verify(updatePublisher).publish(eq(GAME_ID), anyString(), any(UpdateType.class));
+        assertEquals(0, gameTimer.pendingTimeouts(), "no bot turn scheduled again");
+    }
 
-        // Assert: It should have played BOTH cards
-        verify(gameEngine).playCard(eq(gameId), eq(botId), eq(six));
-        verify(gameEngine).playCard(eq(gameId), eq(botId), eq(anotherCard));
+    private long currentVersion() throws Exception {
+        return gameMailbox.submit(GAME_ID, "read", game::getVersion).get(1, TimeUnit.SECONDS);
     }
 }
@@ -0,0 +1,99 @@
+package com.game.server.put0.service;
+
+import com.game.server.put0.dto.CommandAck;
+import com.game.server.put0.dto.CommandAck.Status;
+import com.game.server.put0.service.CommandLog.Command;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandLogTest {
+
+    private static final int WINDOW = 4;
+
+    private CommandLog commandLog;
+
+    @BeforeEach
+    void setUp() {
+        commandLog = new CommandLog(new SimpleMeterRegistry(), WINDOW);
+    }
+
+    @Test
+    void testResentCommandGetsItsFirstAnswer() {
+        Command command = command("s-1", 1, -1);
+        assertNull(commandLog.check(command, 10), "a new command runs");
+        commandLog.record(command, null, 11);
+
+        CommandAck again = commandLog.check(command, 11);
+        assertNotNull(again);
+        assertTrue(again.isDuplicate());
+        assertEquals(Status.APPLIED, again.getStatus());
+        assertEquals(11, again.getVersion());
+
+        Command refused = command("s-1", 2, -1);
+        assertNull(commandLog.check(refused, 11));
+        commandLog.record(refused, "Not this player's turn", 11);
+        CommandAck refusedAgain = commandLog.check(refused, 11);
+        assertEquals(Status.REJECTED, refusedAgain.getStatus());
+        assertEquals("Not this player's turn", refusedAgain.getMessage());
+        assertTrue(refusedAgain.isDuplicate());
+    }
+
+    @Test
+    void testCommandForAnotherVersionIsStale() {
+        CommandAck ack = commandLog.check(command("s-1", 1, 9), 10);
+        assertEquals(Status.STALE, ack.getStatus());
+        assertEquals(10, ack.getVersion());
+        assertFalse(ack.isDuplicate());
+
+        // Its answer is kept: sent again at the right version it is still stale
+        CommandAck again = commandLog.check(command("s-1", 1, 10), 10);
+        assertEquals(Status.STALE, again.getStatus());
+        assertTrue(again.isDuplicate());
+
+        assertNull(commandLog.check(command("s-1", 2, 10), 10), "the next one at the right version runs");
+    }
+
+    @Test
+    void testWindowKeepsOnlyTheLastAnswers() {
+        for (long seq = 1; seq <= 6; seq++) {
+            Command command = command("s-1", seq, -1);
+            assertNull(commandLog.check(command, seq));
+            commandLog.record(command, null, seq + 1);
+        }
+
+        // Highest is 6: 3..6 are in the window, their slots reused from 1 and 2
+        for (long seq = 3; seq <= 6; seq++) {
+            CommandAck ack = commandLog.check(command("s-1", seq, -1), 7);
+            assertTrue(ack.isDuplicate(), "seq " + seq);
+            assertEquals(seq + 1, ack.getVersion());
+        }
+        for (long seq = 1; seq <= 2; seq++) {
+            CommandAck ack = commandLog.check(command("s-1", seq, -1), 7);
+            assertEquals(Status.STALE, ack.getStatus(), "seq " + seq);
+            assertFalse(ack.isDuplicate());
+        }
+        assertNull(commandLog.check(command("s-1", 7, -1), 7));
+    }
+
+    @Test
+    void testNewSessionOrForgottenGameStartsOver() {
+        Command command = command("s-1", 1, -1);
+        commandLog.check(command, 1);
+        commandLog.record(command, null, 2);
+
+        assertNull(commandLog.check(command("s-2", 1, -1), 2), "a new session has its own numbers");
+
+        Command next = command("s-2", 2, -1);
+        commandLog.check(next, 2);
+        commandLog.record(next, null, 3);
+        commandLog.forget("game");
+        assertNull(commandLog.check(next, 3));
+    }
+
+    private static Command command(String sessionId, long clientSeq, long expectedVersion) {
+        return new Command("game", "p1", sessionId, clientSeq, expectedVersion, null);
+    }
+}
@@ -1,6 +1,7 @@
 package com.game.server.put0.service;
 
-import com.game.server.put0.model.*;
+import com.game.core.model.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -17,7 +18,9 @@ class GameEngineTest {
     
     @BeforeEach
     void setUp() {
-        gameEngine = new GameEngine();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        gameEngine = new GameEngine(new GameArena(registry, 64 * 1024, 1024 * 1024),
+                new HotPathMetrics(registry, true), registry);
     }
     
     @Test
@@ -304,7 +307,7 @@ class GameEngineTest {
         game.getMainDeck().clear();
         
         // Give one winning card
-        Card lastCard = new Card(14, Suit.SPADES); // strong card
+        Card lastCard = new Card(1, Suit.SPADES); // Ace, the strongest card
         currentPlayer.addCard(lastCard);
         
         // Ensure it can be played (clear table or low card)
@@ -379,17 +382,18 @@ class GameEngineTest {
         currentPlayer.getHiddenCards().add(c1);
         currentPlayer.getHiddenCards().add(c2);
         
-        // One card in hand to trigger replenishHand (from hidden)
+        // One card in hand; the 10 clears the table and keeps the turn
         Card trigger = new Card(10, Suit.SPADES);
         currentPlayer.addCard(trigger);
         
         gameEngine.playCard(gameId, currentPlayer.getId(), trigger);
         
-        // Verify F4 Transition
-        assertEquals(2, currentPlayer.getHand().size());
-        assertTrue(currentPlayer.getHiddenCards().isEmpty());
-        assertTrue(currentPlayer.getHand().get(0).isHidden());
-        assertTrue(currentPlayer.getHand().get(1).isHidden());
+        // Verify F4: hidden cards stay face down in their own pile and are played from there
+        assertEquals(GameStatus.PLAYING, game.getStatus());
+        assertTrue(currentPlayer.getHand().isEmpty());
+        assertEquals(2, currentPlayer.getHiddenCards().size());
+        assertTrue(currentPlayer.getHiddenCards().get(0).isHidden());
+        assertTrue(currentPlayer.getHiddenCards().get(1).isHidden());
         
         // Setup table with high card to force failure
         game.getTablePile().add(new Card(13, Suit.SPADES)); // King
@@ -398,13 +402,11 @@ class GameEngineTest {
         gameEngine.playCard(gameId, currentPlayer.getId(), c1);
         
         // Verify Regression
-        // 1. Failed card (c1) is revealed and now in player's hand (collected from table)
-        // Actually, in the engine, c1 is added to table, then table is collected.
+        // 1. Failed card (c1) is revealed: it joined the table and was collected with it
         assertTrue(currentPlayer.getHand().contains(c1));
-        assertFalse(c1.isHidden());
-        
-        // 2. Remaining hidden card (c2) should have moved back to hiddenCards pile
         assertTrue(currentPlayer.getHand().stream().noneMatch(Card::isHidden));
+        
+        // 2. Remaining hidden card (c2) stays in the hidden pile
         assertEquals(1, currentPlayer.getHiddenCards().size());
         assertEquals(c2, currentPlayer.getHiddenCards().get(0));
     }
@@ -430,9 +432,8 @@ class GameEngineTest {
         game.getMainDeck().clear();
         
         // Final hidden card
-        Card lastCard = new Card(14, Suit.SPADES); // Ace
-        lastCard.setHidden(true);
-        currentPlayer.addCard(lastCard);
+        Card lastCard = new Card(1, Suit.SPADES).asHidden(); // Ace
+        currentPlayer.getHiddenCards().add(lastCard);
         
         gameEngine.playCard(gameId, currentPlayer.getId(), lastCard);
         
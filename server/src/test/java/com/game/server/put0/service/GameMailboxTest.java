@@ -0,0 +1,113 @@
+package com.game.server.put0.service;
+
+import com.game.core.model.Player;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameMailboxTest {
+
+    private static final int COMMANDS = 2_000;
+
+    private ExecutorService executor;
+    private GameEngine gameEngine;
+    private GameMailbox gameMailbox;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(4);
+        gameEngine = new GameEngine(new GameArena(registry, 64 * 1024, 1024 * 1024),
+                new HotPathMetrics(registry, true), registry);
+        gameMailbox = new GameMailbox(gameEngine, executor, registry);
+        for (String gameId : List.of("a", "b", "c")) {
+            gameEngine.createGame(gameId);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testEachGameRunsItsCommandsInOrderOneAtATime() throws Exception {
+        List<String> games = List.of("a", "b", "c");
+        List<List<Integer>> runs = new ArrayList<>();
+        List<AtomicInteger> running = new ArrayList<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        for (int g = 0; g < games.size(); g++) {
+            runs.add(new ArrayList<>());
+            running.add(new AtomicInteger());
+        }
+
+        // Interleave the games, so their commands compete for the same pool
+        List<CompletableFuture<Void>> last = new ArrayList<>();
+        for (int i = 0; i < COMMANDS; i++) {
+            for (int g = 0; g < games.size(); g++) {
+                int game = g;
+                int seq = i;
+                CompletableFuture<Void> done = gameMailbox.submit(games.get(g), "test", () -> {
+                    if (running.get(game).incrementAndGet() > 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    runs.get(game).add(seq);
+                    running.get(game).decrementAndGet();
+                    return null;
+                });
+                if (i == COMMANDS - 1) {
+                    last.add(done);
+                }
+            }
+        }
+        CompletableFuture.allOf(last.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, overlaps.get(), "two commands of one game ran at once");
+        for (int g = 0; g < games.size(); g++) {
+            List<Integer> seen = runs.get(g);
+            assertEquals(COMMANDS, seen.size());
+            for (int i = 0; i < COMMANDS; i++) {
+                assertEquals(i, seen.get(i), "game " + games.get(g));
+            }
+            assertEquals(0, gameMailbox.depth(games.get(g)));
+        }
+    }
+
+    @Test
+    void testFailingCommandDoesNotStopTheMailbox() throws Exception {
+        CompletableFuture<Object> failed = gameMailbox.submit("a", "test", () -> {
+            throw new IllegalStateException("boom");
+        });
+        gameMailbox.execute("a", "test", () -> {
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<String> next = gameMailbox.submit("a", "test", () -> "ran");
+
+        assertEquals("ran", next.get(5, TimeUnit.SECONDS));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void testUnknownGameIsRefused() {
+        assertThrows(IllegalArgumentException.class, () -> gameMailbox.execute("missing", "test", () -> { }));
+        CompletableFuture<Object> result = gameMailbox.submit("missing", "test", () -> null);
+        assertTrue(result.isCompletedExceptionally());
+
+        gameEngine.addPlayer("a", new Player("p1", "P1", false));
+        gameEngine.removeGame("a");
+        assertThrows(IllegalArgumentException.class, () -> gameMailbox.execute("a", "test", () -> { }));
+    }
+}
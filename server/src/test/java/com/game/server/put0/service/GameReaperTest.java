@@ -0,0 +1,111 @@
+package com.game.server.put0.service;
+
+import com.game.core.model.GameState;
+import com.game.core.model.GameStatus;
+import com.game.core.model.Player;
+import com.game.server.put0.timer.HashedWheelTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GameReaperTest {
+
+    @Mock
+    private RoomService roomService;
+
+    @Mock
+    private GameUpdatePublisher updatePublisher;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private SimpleMeterRegistry registry;
+    private ExecutorService executor;
+    private HashedWheelTimer gameTimer;
+    private GameEngine gameEngine;
+    private GameMailbox gameMailbox;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(2);
+        gameTimer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 64);
+        gameEngine = new GameEngine(new GameArena(registry, 64 * 1024, 1024 * 1024),
+                new HotPathMetrics(registry, true), registry);
+        gameMailbox = new GameMailbox(gameEngine, executor, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameTimer.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testEstimateIsTakenOnTheGamesMailboxes() throws Exception {
+        GameState first = playingGame("a");
+        GameState second = playingGame("b");
+        GameReaper reaper = reaper(60_000);
+
+        // While a command holds game a, its piles are not read and the estimate waits for it
+        CountDownLatch release = new CountDownLatch(1);
+        gameMailbox.execute("a", "test", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        reaper.sweep();
+        assertEquals(0, retainedBytes());
+
+        release.countDown();
+        long expected = GameReaper.estimateBytes(first) + GameReaper.estimateBytes(second);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (retainedBytes() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, retainedBytes());
+    }
+
+    @Test
+    void testExpiredGameIsClosedOnItsMailbox() throws Exception {
+        GameState game = playingGame("a");
+        game.setStatus(GameStatus.FINISHED);
+        GameReaper reaper = reaper(0);
+
+        reaper.sweep();
+
+        verify(roomService, timeout(5_000)).closeRoom("a");
+    }
+
+    private GameReaper reaper(long finishedTtlMs) {
+        return new GameReaper(gameEngine, gameMailbox, roomService, updatePublisher, messagingTemplate, gameTimer,
+                executor, registry, finishedTtlMs, 60_000, 60_000, 60_000);
+    }
+
+    private GameState playingGame(String gameId) {
+        GameState game = gameEngine.createGame(gameId);
+        gameEngine.addPlayer(gameId, new Player(gameId + "-1", "P1", false));
+        gameEngine.addPlayer(gameId, new Player(gameId + "-2", "P2", false));
+        gameEngine.startGame(gameId);
+        return game;
+    }
+
+    private long retainedBytes() {
+        return (long) registry.get("game.registry.bytes").gauge().value();
+    }
+}
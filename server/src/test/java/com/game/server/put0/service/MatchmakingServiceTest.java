@@ -0,0 +1,131 @@
+package com.game.server.put0.service;
+
+import com.game.core.model.MatchMode;
+import com.game.server.put0.dto.MatchTicket;
+import com.game.server.put0.timer.HashedWheelTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MatchmakingServiceTest {
+
+    @Mock
+    private RoomService roomService;
+
+    @Mock
+    private GameMailbox gameMailbox;
+
+    @Mock
+    private GameUpdatePublisher updatePublisher;
+
+    @Mock
+    private AIBotService aiBotService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private SimpleMeterRegistry registry;
+    private HashedWheelTimer gameTimer;
+    private MatchmakingService matchmaking;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        gameTimer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 64);
+        AtomicInteger rooms = new AtomicInteger();
+        when(roomService.createMatchedRoom(any(), anyInt(), anyList())).thenAnswer(invocation -> {
+            List<String> names = invocation.getArgument(2);
+            return new RoomService.MatchedRoom("game-" + rooms.incrementAndGet(), new ArrayList<>(names));
+        });
+        // Pairing passes only run when the test calls pair()
+        matchmaking = new MatchmakingService(roomService, gameMailbox, updatePublisher, aiBotService,
+                messagingTemplate, gameTimer, Runnable::run, registry, 3_600_000, 3_600_000, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameTimer.stop();
+    }
+
+    @Test
+    void testCancelledPlayerIsNotSeated() {
+        MatchTicket ana = matchmaking.enqueue("Ana", MatchMode.SOLO_VS_AMIGO, null, null);
+        MatchTicket bob = matchmaking.enqueue("Bob", MatchMode.SOLO_VS_AMIGO, null, null);
+
+        assertEquals(MatchTicket.Status.CANCELLED, matchmaking.cancel(bob.getTicketId()).getStatus());
+        matchmaking.pair();
+        verify(roomService, never()).createMatchedRoom(any(), anyInt(), anyList());
+
+        matchmaking.enqueue("Cid", MatchMode.SOLO_VS_AMIGO, null, null);
+        matchmaking.pair();
+        verify(roomService).createMatchedRoom(MatchMode.SOLO_VS_AMIGO, 104, List.of("Ana", "Cid"));
+        assertEquals(MatchTicket.Status.MATCHED, matchmaking.getTicket(ana.getTicketId()).getStatus());
+        assertEquals(0, waiting());
+    }
+
+    @Test
+    void testCancelsRacingThePairingPassAreCountedOnce() throws Exception {
+        int players = 2_000;
+        List<MatchTicket> queued = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            queued.add(matchmaking.enqueue("P" + i, MatchMode.SOLO_VS_AMIGOS, 52, 3));
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        Thread pairing = new Thread(() -> {
+            while (!done.get()) {
+                matchmaking.pair();
+            }
+        });
+        pairing.start();
+        long start = System.nanoTime();
+        for (int i = 0; i < players; i += 2) {
+            matchmaking.cancel(queued.get(i).getTicketId());
+        }
+        long cancelNanos = System.nanoTime() - start;
+        done.set(true);
+        pairing.join(5_000);
+        matchmaking.pair();
+
+        int cancelled = 0;
+        int matched = 0;
+        int waiting = 0;
+        for (MatchTicket ticket : queued) {
+            MatchTicket now = matchmaking.getTicket(ticket.getTicketId());
+            MatchTicket.Status status = now != null ? now.getStatus() : MatchTicket.Status.CANCELLED;
+            switch (status) {
+                case CANCELLED -> cancelled++;
+                case MATCHED -> matched++;
+                case WAITING -> waiting++;
+                default -> fail("unexpected " + status);
+            }
+        }
+        assertEquals(players, cancelled + matched + waiting);
+        assertEquals(0, matched % 3, "only full tables are seated");
+        assertEquals(waiting, waiting(), "waiting gauge matches the waiting tickets");
+        assertTrue(waiting < 3, "every full table was seated");
+        assertEquals(cancelled, registry.get("game.matchmaking.tickets").tag("outcome", "cancelled").counter().count());
+        assertEquals(matched, registry.get("game.matchmaking.tickets").tag("outcome", "matched").counter().count());
+        assertTrue(cancelNanos < TimeUnit.SECONDS.toNanos(5), "cancel never waits for the pass");
+    }
+
+    private int waiting() {
+        return (int) registry.find("game.matchmaking.waiting").gauges().stream()
+                .mapToDouble(gauge -> gauge.value()).sum();
+    }
+}
@@ -0,0 +1,34 @@
+package com.game.server.put0.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatSessionsTest {
+
+    private final SeatSessions seatSessions = new SeatSessions();
+
+    @Test
+    void testSeatBelongsToTheFirstSessionUntilItLeaves() {
+        assertTrue(seatSessions.claim("game", "p1", "s-1"));
+        assertTrue(seatSessions.claim("game", "p1", "s-1"), "asking again keeps the seat");
+        assertFalse(seatSessions.claim("game", "p1", "s-2"), "another session cannot read p1's hand");
+        assertEquals("s-1", seatSessions.sessionOf("game", "p1"));
+
+        seatSessions.release("s-1");
+        assertNull(seatSessions.sessionOf("game", "p1"));
+        assertTrue(seatSessions.claim("game", "p1", "s-2"), "a reconnect takes the seat back");
+    }
+
+    @Test
+    void testSessionlessOrForgottenSeats() {
+        assertFalse(seatSessions.claim("game", "p1", null));
+        assertNull(seatSessions.sessionOf("game", "p1"));
+
+        seatSessions.claim("game", "p1", "s-1");
+        seatSessions.claim("game", "p2", "s-2");
+        seatSessions.forget("game");
+        assertNull(seatSessions.sessionOf("game", "p1"));
+        assertNull(seatSessions.sessionOf("game", "p2"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.game.server.put0.timer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        // 8 buckets of 5 ms: anything past 40 ms goes round the wheel
+        timer = new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    void testTimeoutsExpireInDeadlineOrder() throws Exception {
+        List<Integer> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(4);
+        for (int delay : new int[] {150, 20, 90, 60}) {
+            timer.newTimeout(timeout -> {
+                fired.add(delay);
+                done.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(20, 60, 90, 150), fired);
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    void testTimeoutPastOneTurnOfTheWheelWaitsItsRounds() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(t -> done.countDown(), 120, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(120), "fired early");
+        assertTrue(timeout.isExpired());
+    }
+
+    @Test
+    void testCancelledTimeoutNeverRuns() throws Exception {
+        CountDownLatch cancelledRan = new CountDownLatch(1);
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(t -> cancelledRan.countDown(), 30, TimeUnit.MILLISECONDS);
+        assertEquals(1, timer.pendingTimeouts());
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel(), "only the first cancel counts");
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.isPending());
+        assertEquals(0, timer.pendingTimeouts());
+
+        assertFalse(cancelledRan.await(150, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testRearmReplacesTheDeadline() throws Exception {
+        // What the turn deadlines do after every move: cancel the old one, schedule a new one
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        HashedWheelTimer.Timeout first = timer.newTimeout(t -> fired.add("first"), 40, TimeUnit.MILLISECONDS);
+        first.cancel();
+        HashedWheelTimer.Timeout second = timer.newTimeout(t -> {
+            fired.add("second");
+            done.countDown();
+        }, 80, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("second"), fired);
+        assertFalse(second.cancel(), "an expired timeout cannot be cancelled");
+    }
+
+    @Test
+    void testStoppedTimerRefusesNewTimeouts() {
+        timer.stop();
+        assertThrows(IllegalStateException.class,
+                () -> timer.newTimeout(t -> { }, 10, TimeUnit.MILLISECONDS));
+    }
+}
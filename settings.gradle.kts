@@ -23,4 +23,5 @@ dependencyResolutionManagement {
 rootProject.name = "PUT0"
 include(":app")
 include(":game-core")
+include(":game-core-bench")
  
\ No newline at end of file